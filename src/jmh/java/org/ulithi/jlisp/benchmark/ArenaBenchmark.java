@@ -0,0 +1,95 @@
+package org.ulithi.jlisp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.mem.Arena;
+import org.ulithi.jlisp.mem.ArrayArena;
+import org.ulithi.jlisp.mem.Cursor;
+import org.ulithi.jlisp.mem.DirectArena;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares walking a list of {@code size} fixnums stored as {@code Cell} objects against the same
+ * list stored in an {@link ArrayArena}: both through the {@code Cell} API, which creates a view
+ * per arena cell, and directly over the arena's words; and the same walk over the words of an
+ * off-heap {@link DirectArena}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArenaBenchmark {
+
+    /** The number of elements in the list. */
+    @Param({ "1024", "1000000" })
+    public int size;
+
+    private List cells;
+    private Arena arena;
+    private int words;
+    private List views;
+    private Arena direct;
+    private int directWords;
+
+    @Setup
+    public void setUp() {
+        cells = List.create();
+        for (int i = 0; i < size; i++) { cells.add(Atom.create(i)); }
+
+        arena = new ArrayArena(size);
+        words = arena.store(cells.getRoot());
+        views = List.create(arena.load(words));
+
+        direct = new DirectArena(size);
+        directWords = direct.store(cells.getRoot());
+    }
+
+    @Benchmark
+    public long sumCells() {
+        return sum(cells);
+    }
+
+    @Benchmark
+    public long sumArenaViews() {
+        return sum(views);
+    }
+
+    @Benchmark
+    public long sumArenaWords() {
+        return sum(arena, words);
+    }
+
+    @Benchmark
+    public long sumDirectArenaWords() {
+        return sum(direct, directWords);
+    }
+
+    private static long sum(final Arena arena, final int list) {
+        long sum = 0;
+        for (int it = list; Arena.isCell(it); it = arena.cdr(it)) {
+            sum += Arena.fixnumValue(arena.car(it));
+        }
+        return sum;
+    }
+
+    private static long sum(final List list) {
+        final Cursor it = list.cells();
+        long sum = 0;
+        while (it.hasNext()) { sum += it.nextAtom().toL(); }
+        return sum;
+    }
+}
@@ -0,0 +1,86 @@
+package org.ulithi.jlisp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.mem.PTree;
+import org.ulithi.jlisp.primitive.Eval;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bulk numeric functions ({@code SUM}, {@code DOT}) against the equivalent
+ * per-element expressions built from {@code +} and {@code *}, over lists of {@code size}
+ * fixnums or floats. Each benchmark invocation evaluates a pre-parsed form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkBenchmark {
+
+    /** The number of elements in each list. */
+    @Param({ "16", "1024" })
+    public int size;
+
+    /** If true, the lists hold floats; otherwise fixnums. */
+    @Param({ "false", "true" })
+    public boolean floats;
+
+    private Eval eval;
+
+    private PTree sumPerElement;
+    private PTree sumBulk;
+    private PTree dotPerElement;
+    private PTree dotBulk;
+
+    @Setup
+    public void setUp() {
+        eval = new Eval();
+
+        final StringBuilder numbers = new StringBuilder();
+        final StringBuilder products = new StringBuilder();
+
+        for (int i = 1; i <= size; i++) {
+            final String n = floats ? i + ".5" : String.valueOf(i);
+            numbers.append(' ').append(n);
+            products.append(" (* ").append(n).append(' ').append(n).append(')');
+        }
+
+        sumPerElement = Programs.parse("(+" + numbers + ")");
+        sumBulk = Programs.parse("(SUM '(" + numbers + "))");
+        dotPerElement = Programs.parse("(+" + products + ")");
+        dotBulk = Programs.parse("(DOT '(" + numbers + ") '(" + numbers + "))");
+    }
+
+    @Benchmark
+    public SExpression sumPerElement() {
+        return eval.apply(sumPerElement.root());
+    }
+
+    @Benchmark
+    public SExpression sumBulk() {
+        return eval.apply(sumBulk.root());
+    }
+
+    @Benchmark
+    public SExpression dotPerElement() {
+        return eval.apply(dotPerElement.root());
+    }
+
+    @Benchmark
+    public SExpression dotBulk() {
+        return eval.apply(dotBulk.root());
+    }
+}
@@ -0,0 +1,76 @@
+package org.ulithi.jlisp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.Function;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.primitive.Eval;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link Eval#invoke} itself: calls to primitive functions ({@code ATOM},
+ * {@code ZEROP} and {@code QUOTE}) on pre-built arguments, whose results are constants or the
+ * arguments themselves, so the only allocation left is whatever the call mechanism does. Run
+ * with {@code -prof gc}: {@code gc.alloc.rate.norm} should be zero bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallBenchmark {
+
+    private Eval eval;
+
+    private Function atom;
+    private Function zerop;
+    private Function quote;
+
+    /** The argument to {@code ATOM}: a single list. */
+    private SExpression listArgs;
+
+    /** The argument to {@code ZEROP}: a single fixnum. */
+    private SExpression numberArgs;
+
+    /** The argument to {@code QUOTE}: an unevaluated list. */
+    private SExpression quoteArgs;
+
+    @Setup
+    public void setUp() {
+        eval = new Eval();
+        atom = (Function) eval.environment().getBinding("ATOM");
+        zerop = (Function) eval.environment().getBinding("ZEROP");
+        quote = (Function) eval.environment().getBinding("QUOTE");
+
+        listArgs = List.create().add(Programs.flatList(10));
+        numberArgs = List.create().add(Atom.create(0));
+        quoteArgs = Programs.flatList(10);
+    }
+
+    @Benchmark
+    public SExpression atom() {
+        return eval.invoke(atom, listArgs);
+    }
+
+    @Benchmark
+    public SExpression zerop() {
+        return eval.invoke(zerop, numberArgs);
+    }
+
+    @Benchmark
+    public SExpression quote() {
+        return eval.invoke(quote, quoteArgs);
+    }
+}
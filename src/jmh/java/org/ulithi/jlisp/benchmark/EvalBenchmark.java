@@ -0,0 +1,77 @@
+package org.ulithi.jlisp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.mem.PTree;
+import org.ulithi.jlisp.primitive.Eval;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Eval#apply} on recursive user-defined ({@code DEFUN}) workloads: Fibonacci,
+ * Ackermann, and list construction via {@code CONS} and {@code APPEND}. The functions are defined
+ * once per trial; each benchmark invocation evaluates a pre-parsed call form. The {@code bytecode}
+ * parameter selects whether hot functions are compiled to JVM bytecode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvalBenchmark {
+
+    /** If true, enables the bytecode compiler. */
+    @Param({ "false", "true" })
+    public boolean bytecode;
+
+    /** The eval instance, with the benchmark functions defined in its environment. */
+    private Eval eval;
+
+    private PTree fib;
+    private PTree ack;
+    private PTree buildCons;
+    private PTree buildAppend;
+
+    @Setup
+    public void setUp() {
+        eval = new Eval();
+        eval.bytecode(bytecode);
+        Programs.define(eval, Programs.FIB, Programs.ACK, Programs.BUILD_CONS, Programs.BUILD_APPEND);
+
+        fib = Programs.parse("(FIB 15)");
+        ack = Programs.parse("(ACK 2 3)");
+        buildCons = Programs.parse("(BUILDCONS 100 ())");
+        buildAppend = Programs.parse("(BUILDAPPEND 100 ())");
+    }
+
+    @Benchmark
+    public SExpression fib() {
+        return eval.apply(fib.root());
+    }
+
+    @Benchmark
+    public SExpression ackermann() {
+        return eval.apply(ack.root());
+    }
+
+    @Benchmark
+    public SExpression buildListWithCons() {
+        return eval.apply(buildCons.root());
+    }
+
+    @Benchmark
+    public SExpression buildListWithAppend() {
+        return eval.apply(buildAppend.root());
+    }
+}
@@ -0,0 +1,63 @@
+package org.ulithi.jlisp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ulithi.jlisp.parser.Lexer;
+import org.ulithi.jlisp.parser.TokenBuffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Lexer} throughput on program text of varying size, via both the {@code String}
+ * and {@code InputStream} entry points.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+
+    /** The number of copies of the sample program to concatenate into the lexer input. */
+    @Param({ "1", "100" })
+    public int copies;
+
+    /** The program text to tokenize. */
+    private String source;
+
+    /** The program text to tokenize, as bytes for the {@code InputStream} variant. */
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        source = Programs.repeat(copies);
+        bytes = source.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public TokenBuffer appendString() {
+        final Lexer lexer = new Lexer();
+        lexer.append(source);
+        return lexer.getTokenBuffer();
+    }
+
+    @Benchmark
+    public TokenBuffer appendStream() throws IOException {
+        final Lexer lexer = new Lexer();
+        lexer.append(new ByteArrayInputStream(bytes));
+        return lexer.getTokenBuffer();
+    }
+}
@@ -0,0 +1,76 @@
+package org.ulithi.jlisp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ulithi.jlisp.mem.PTree;
+import org.ulithi.jlisp.parser.Lexer;
+import org.ulithi.jlisp.parser.Parser;
+import org.ulithi.jlisp.parser.TokenBuffer;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Parser#parse(TokenBuffer)} on pre-scanned token streams, so that lexing cost is
+ * excluded from the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    /** The number of elements in the generated (flat and nested) forms. */
+    @Param({ "10", "1000" })
+    public int size;
+
+    /** Tokens for a flat form: {@code (LIST 1 2 3 ...)}. */
+    private TokenBuffer flatTokens;
+
+    /** Tokens for a nested form: {@code (+ 1 (+ 2 (+ 3 ...)))}. */
+    private TokenBuffer nestedTokens;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder flat = new StringBuilder("(LIST");
+        final StringBuilder nested = new StringBuilder();
+
+        for (int i = 1; i <= size; i++) {
+            flat.append(' ').append(i);
+            nested.append("(+ ").append(i).append(' ');
+        }
+
+        flat.append(')');
+        nested.append('0').append(")".repeat(size));
+
+        flatTokens = tokenize(flat.toString());
+        nestedTokens = tokenize(nested.toString());
+    }
+
+    @Benchmark
+    public Optional<PTree> parseFlat() {
+        return new Parser().parse(flatTokens);
+    }
+
+    @Benchmark
+    public Optional<PTree> parseNested() {
+        return new Parser().parse(nestedTokens);
+    }
+
+    private static TokenBuffer tokenize(final String expression) {
+        final Lexer lexer = new Lexer();
+        lexer.append(expression);
+        return lexer.getTokenBuffer();
+    }
+}
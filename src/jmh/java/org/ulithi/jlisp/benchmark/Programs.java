@@ -0,0 +1,114 @@
+package org.ulithi.jlisp.benchmark;
+
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.mem.PTree;
+import org.ulithi.jlisp.parser.Lexer;
+import org.ulithi.jlisp.parser.Parser;
+import org.ulithi.jlisp.primitive.Eval;
+
+/**
+ * Sample JLISP programs and helpers shared by the benchmarks.
+ */
+final class Programs {
+
+    /** Recursive Fibonacci. */
+    static final String FIB =
+            "(DEFUN FIB (N) (IF (< N 2) N (+ (FIB (- N 1)) (FIB (- N 2)))))";
+
+    /** The Ackermann function, written with COND. */
+    static final String ACK =
+            "(DEFUN ACK (M N) (COND ((ZEROP M) (+ N 1)) " +
+            "((ZEROP N) (ACK (- M 1) 1)) " +
+            "(T (ACK (- M 1) (ACK M (- N 1))))))";
+
+    /** Builds a list of N elements by repeated CONS onto an accumulator. */
+    static final String BUILD_CONS =
+            "(DEFUN BUILDCONS (N ACC) (IF (ZEROP N) ACC (BUILDCONS (- N 1) (CONS N ACC))))";
+
+    /** Builds a list of N elements by repeated APPEND onto an accumulator. */
+    static final String BUILD_APPEND =
+            "(DEFUN BUILDAPPEND (N ACC) (IF (ZEROP N) ACC (BUILDAPPEND (- N 1) (APPEND ACC (LIST N)))))";
+
+    /** The global variable read at every level of {@link #DEEP}. */
+    static final String STEP = "(SETQ STEP 1)";
+
+    /**
+     * Counts down from N by non-tail recursion, reading the global STEP at each level, so the
+     * environment holds N activations at the deepest point.
+     */
+    static final String DEEP =
+            "(DEFUN DEEP (N) (IF (ZEROP N) 0 (+ STEP (DEEP (- N 1)))))";
+
+    /** A mix of definitions, comments, quoted data and arithmetic, used as lexer/parser input. */
+    private static final String SAMPLE =
+            ";; Sample program\n" +
+            FIB + "\n" +
+            ACK + "\n" +
+            BUILD_CONS + "\n" +
+            "(EXPECT (CDR (CAR (QUOTE ((1 2 3) (4 5 6))))) '(2 3)) ; list operations\n" +
+            "(EXPECT (CAR '(FAST COMPUTERS ARE NICE)) 'FAST)\n" +
+            "(ASSOC 'OAK '((PINE CONES) (OAK ACORNS) (MAPLE SEEDS)))\n" +
+            "(+ 100 -200 (* 3 4 5) (QUOTIENT 72 8) (REMAINDER 77 8))\n";
+
+    /** Static members only: do not instantiate. */
+    private Programs() { }
+
+    /**
+     * Returns the sample program repeated the given number of times.
+     * @param copies The number of copies of the sample program.
+     * @return The concatenated program text.
+     */
+    static String repeat(final int copies) {
+        return SAMPLE.repeat(copies);
+    }
+
+    /**
+     * Scans and parses a single LISP form.
+     * @param expression A complete LISP form.
+     * @return The parse tree for the form.
+     */
+    static PTree parse(final String expression) {
+        final Lexer lexer = new Lexer();
+        lexer.append(expression);
+        return new Parser().parse(lexer.getTokenBuffer()).orElseThrow();
+    }
+
+    /**
+     * Scans, parses and evaluates each of the given forms with the given {@link Eval}.
+     * @param eval The {@code Eval} instance (and hence environment) to evaluate in.
+     * @param expressions Complete LISP forms, e.g. function definitions.
+     */
+    static void define(final Eval eval, final String... expressions) {
+        for (final String expression : expressions) {
+            eval.apply(parse(expression).root());
+        }
+    }
+
+    /**
+     * Builds a flat list of the integers 1 through {@code length}.
+     * @param length The number of elements in the list.
+     * @return A new list.
+     */
+    static List flatList(final int length) {
+        final List list = List.create();
+        for (int i = 1; i <= length; i++) {
+            list.add(Atom.create(i));
+        }
+        return list;
+    }
+
+    /**
+     * Builds a list nested {@code depth} levels deep, e.g. {@code (1 (2 (3 ())))} for depth 3.
+     * @param depth The nesting depth of the list.
+     * @return A new list.
+     */
+    static SExpression nestedList(final int depth) {
+        List list = List.create();
+        for (int i = depth; i > 0; i--) {
+            list = List.create().add(Atom.create(i)).add(list);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,52 @@
+package org.ulithi.jlisp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.mem.PTree;
+import org.ulithi.jlisp.primitive.Eval;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures global name lookup at increasing recursion depths: {@link Programs#DEEP} reads a global
+ * variable and calls itself at every level, so if looking up a global took time proportional to
+ * the depth of the call stack, the time per level would grow with {@code depth}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss16m")
+public class RecursionBenchmark {
+
+    /** The recursion depth. */
+    @Param({ "10", "100", "1000", "5000" })
+    public int depth;
+
+    private Eval eval;
+
+    private PTree deep;
+
+    @Setup
+    public void setUp() {
+        eval = new Eval();
+        Programs.define(eval, Programs.STEP, Programs.DEEP);
+        deep = Programs.parse("(DEEP " + depth + ")");
+    }
+
+    @Benchmark
+    public SExpression deepRecursion() {
+        return eval.apply(deep.root());
+    }
+}
@@ -0,0 +1,56 @@
+package org.ulithi.jlisp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ulithi.jlisp.core.SExpression;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures structural equality ({@link SExpression#isEqual(SExpression)}) on long flat lists and
+ * on deeply nested lists. The two operands are built separately, so no structure is shared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SExpressionBenchmark {
+
+    /** The length of the flat lists, and the nesting depth of the nested lists. */
+    @Param({ "10", "100", "500" })
+    public int size;
+
+    private SExpression flatLhs;
+    private SExpression flatRhs;
+    private SExpression nestedLhs;
+    private SExpression nestedRhs;
+
+    @Setup
+    public void setUp() {
+        flatLhs = Programs.flatList(size);
+        flatRhs = Programs.flatList(size);
+        nestedLhs = Programs.nestedList(size);
+        nestedRhs = Programs.nestedList(size);
+    }
+
+    @Benchmark
+    public boolean flatListEqual() {
+        return flatLhs.isEqual(flatRhs);
+    }
+
+    @Benchmark
+    public boolean nestedListEqual() {
+        return nestedLhs.isEqual(nestedRhs);
+    }
+}
@@ -0,0 +1,176 @@
+package org.ulithi.jlisp.compiler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.ulithi.jlisp.compiler.ClassWriter.ACC_FINAL;
+import static org.ulithi.jlisp.compiler.ClassWriter.ACC_PUBLIC;
+import static org.ulithi.jlisp.compiler.ClassWriter.ACC_SUPER;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.AALOAD;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.ARETURN;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.CHECKCAST;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.GETFIELD;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.INVOKESPECIAL;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.INVOKEVIRTUAL;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.PUTFIELD;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.RETURN;
+
+/**
+ * Translates a compiled function body -- a tree of {@link Node Nodes} -- into a JVM class, and
+ * loads it as a hidden class (see {@link MethodHandles.Lookup#defineHiddenClass}). The generated
+ * class is itself a {@code Node}, whose {@code execute} method does the work of the whole tree in
+ * a single method body, which the JIT compiler can optimize as a unit.
+ * <p>
+ * Each node type generates its own bytecode (see {@link Node#generate(BytecodeCompiler)}). A node
+ * that doesn't know how is invoked as-is from the generated code, so any tree can be translated.
+ * The values a node refers to -- functions, quoted arguments, and so on -- are passed to the
+ * generated class when it is instantiated, and held in final fields.
+ * <p>
+ * Generation can fail if a function body is too large for a single JVM method. In that case the
+ * tree is left as it is.
+ */
+public final class BytecodeCompiler {
+
+    /** Internal names of the classes that generated code refers to. */
+    static final String NODE = "org/ulithi/jlisp/compiler/Node";
+    static final String NODES = "org/ulithi/jlisp/compiler/Nodes";
+    static final String EVAL = "org/ulithi/jlisp/primitive/Eval";
+    static final String ENVIRONMENT = "org/ulithi/jlisp/core/Environment";
+    static final String SEXPRESSION = "org/ulithi/jlisp/core/SExpression";
+    static final String ATOM = "org/ulithi/jlisp/core/Atom";
+    static final String LIST = "org/ulithi/jlisp/core/List";
+    static final String FUNCTION = "org/ulithi/jlisp/core/Function";
+    static final String SYMBOL = "org/ulithi/jlisp/core/Symbol";
+    static final String CALL_SITE = "org/ulithi/jlisp/core/CallSite";
+    static final String CELL = "org/ulithi/jlisp/mem/Cell";
+    static final String REF = "org/ulithi/jlisp/mem/Ref";
+
+    /** The internal name given to generated classes, in this package. */
+    private static final String CLASS_NAME = "org/ulithi/jlisp/compiler/CompiledBody";
+
+    /** The descriptor of the {@code Node.execute} method. */
+    private static final String EXECUTE = "(L" + EVAL + ";)L" + SEXPRESSION + ";";
+
+    /** The local variable slot of the {@code Eval} argument to {@code execute}. */
+    private static final int EVAL_SLOT = 1;
+
+    private final ClassWriter writer = new ClassWriter(ACC_FINAL | ACC_SUPER, CLASS_NAME, NODE);
+
+    private final ClassWriter.Code code = writer.method(ACC_PUBLIC, "execute", EXECUTE, 2);
+
+    /** The values referred to by generated code, in field order. */
+    private final List<Object> constants = new ArrayList<>();
+
+    /** The types of the fields holding the constants, in field order. */
+    private final List<String> types = new ArrayList<>();
+
+    /** The field index of each constant, so that a value used twice is only held once. */
+    private final Map<Object, Integer> fields = new IdentityHashMap<>();
+
+    private BytecodeCompiler() { }
+
+    /**
+     * Translates the given node tree into a JVM class, and returns an instance of it.
+     *
+     * @param root The root node of a compiled function body.
+     * @return A node equivalent to {@code root}, or empty if the tree couldn't be translated.
+     */
+    public static Optional<Node> compile(final Node root) {
+        try {
+            final BytecodeCompiler compiler = new BytecodeCompiler();
+            root.generate(compiler);
+            compiler.code.op(ARETURN, -1);
+            return Optional.of(compiler.define());
+        } catch (final IllegalStateException | ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return The bytecode builder for the {@code execute} method being generated.
+     */
+    ClassWriter.Code code() {
+        return code;
+    }
+
+    /**
+     * Generates code to push the {@code Eval} argument of the {@code execute} method.
+     */
+    void loadEval() {
+        code.aload(EVAL_SLOT);
+    }
+
+    /**
+     * Generates code to push the given value, which is held in a field of the generated class.
+     *
+     * @param value The value.
+     * @param type The internal name of the static type of the value, as it is to be used.
+     */
+    void loadConstant(final Object value, final String type) {
+        Integer index = fields.get(value);
+
+        if (index == null || !types.get(index).equals(type)) {
+            index = constants.size();
+            constants.add(value);
+            types.add(type);
+            fields.put(value, index);
+            writer.field(ACC_FINAL, "k" + index, "L" + type + ";");
+        }
+
+        code.aload(0);
+        code.field(GETFIELD, CLASS_NAME, "k" + index, "L" + type + ";");
+    }
+
+    /**
+     * Generates code to evaluate the given node by invoking it: for nodes that can't generate
+     * their own code.
+     *
+     * @param node The node to invoke.
+     */
+    void invoke(final Node node) {
+        loadConstant(node, NODE);
+        loadEval();
+        code.invoke(INVOKEVIRTUAL, NODE, "execute", EXECUTE);
+    }
+
+    /**
+     * Generates the constructor, which initializes the constant fields from an array, then
+     * defines the class as a hidden class and instantiates it.
+     *
+     * @return The new instance of the generated class.
+     * @throws ReflectiveOperationException If the class can't be instantiated.
+     */
+    private Node define() throws ReflectiveOperationException {
+        final ClassWriter.Code init = writer.method(ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", 2);
+
+        init.aload(0);
+        init.invoke(INVOKESPECIAL, NODE, "<init>", "()V");
+
+        for (int i = 0; i < constants.size(); i++) {
+            init.aload(0);
+            init.aload(1);
+            init.iconst(i);
+            init.op(AALOAD, -1);
+            init.type(CHECKCAST, types.get(i));
+            init.field(PUTFIELD, CLASS_NAME, "k" + i, "L" + types.get(i) + ";");
+        }
+
+        init.op(RETURN, 0);
+
+        final MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(writer.toByteArray(), true);
+        final MethodHandle constructor = lookup.findConstructor(lookup.lookupClass(),
+                MethodType.methodType(void.class, Object[].class));
+
+        try {
+            return (Node) constructor.invoke((Object) constants.toArray());
+        } catch (final Throwable t) {
+            throw new IllegalStateException("Can't instantiate compiled function body", t);
+        }
+    }
+}
@@ -0,0 +1,532 @@
+package org.ulithi.jlisp.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal writer for JVM class files: just enough of the format to generate the classes produced
+ * by the {@link BytecodeCompiler}. It supports a constant pool of the usual reference types, fields,
+ * and methods with a single {@code Code} attribute.
+ * <p>
+ * Classes are written with class file version 49 (Java 5), which predates the {@code StackMapTable}
+ * attribute: the JVM verifies such classes by type inference, so the writer doesn't need to compute
+ * stack map frames for branch targets.
+ */
+final class ClassWriter {
+
+    /** Class file version 49.0: verification by type inference, no stack map frames. */
+    private static final int MAJOR_VERSION = 49;
+
+    /** Access flags. */
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    /** Constant pool tags. */
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    /** The serialized constant pool entries, in index order. */
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+
+    /** Constant pool indices, keyed by a string that uniquely describes each entry. */
+    private final Map<String, Integer> constants = new HashMap<>();
+
+    /** The next free constant pool index: index 0 is unused. */
+    private int poolCount = 1;
+
+    /** The serialized fields of the class. */
+    private final List<byte[]> fields = new ArrayList<>();
+
+    /** The methods of the class. */
+    private final List<Code> methods = new ArrayList<>();
+
+    private final int access;
+    private final int thisClass;
+    private final int superClass;
+
+    /**
+     * Creates a writer for a class with the given access flags, name and super-class.
+     *
+     * @param access The class access flags.
+     * @param name The internal name of the class: e.g. {@code org/ulithi/jlisp/compiler/Foo}.
+     * @param superName The internal name of the super-class.
+     */
+    ClassWriter(final int access, final String name, final String superName) {
+        this.access = access;
+        this.thisClass = classRef(name);
+        this.superClass = classRef(superName);
+    }
+
+    /**
+     * Adds a field to the class.
+     *
+     * @param access The field access flags.
+     * @param name The field name.
+     * @param descriptor The field type descriptor.
+     */
+    void field(final int access, final String name, final String descriptor) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        write(() -> {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(0);
+        });
+        fields.add(bytes.toByteArray());
+    }
+
+    /**
+     * Adds a method to the class, and returns a {@link Code} builder for its body.
+     *
+     * @param access The method access flags.
+     * @param name The method name.
+     * @param descriptor The method type descriptor.
+     * @param argSlots The number of local variable slots taken by the method's parameters,
+     *                 including {@code this}.
+     * @return A builder for the method's bytecode.
+     */
+    Code method(final int access, final String name, final String descriptor, final int argSlots) {
+        final Code code = new Code(access, utf8(name), utf8(descriptor), argSlots);
+        methods.add(code);
+        return code;
+    }
+
+    /**
+     * Serializes the class.
+     * @return The class file bytes.
+     * @throws IllegalStateException If a method is too large for the class file format.
+     */
+    byte[] toByteArray() {
+        final int codeAttribute = utf8("Code");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        write(() -> {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            out.writeShort(poolCount);
+            pool.writeTo(out);
+            out.writeShort(access);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            out.writeShort(fields.size());
+            for (final byte[] field : fields) {
+                out.write(field);
+            }
+            out.writeShort(methods.size());
+            for (final Code method : methods) {
+                method.writeTo(out, codeAttribute);
+            }
+            out.writeShort(0);
+        });
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the constant pool index of a {@code CONSTANT_Utf8} entry for the given string.
+     * @param value A string.
+     * @return The constant pool index.
+     */
+    int utf8(final String value) {
+        return constant("U" + value, out -> {
+            out.writeByte(CONSTANT_UTF8);
+            out.writeUTF(value);
+        });
+    }
+
+    /**
+     * Returns the constant pool index of a {@code CONSTANT_Class} entry for the given class.
+     * @param name The internal name of the class.
+     * @return The constant pool index.
+     */
+    int classRef(final String name) {
+        final int nameIndex = utf8(name);
+        return constant("C" + name, out -> {
+            out.writeByte(CONSTANT_CLASS);
+            out.writeShort(nameIndex);
+        });
+    }
+
+    /**
+     * Returns the constant pool index of a {@code CONSTANT_Integer} entry for the given value.
+     * @param value An integer.
+     * @return The constant pool index.
+     */
+    int integer(final int value) {
+        return constant("I" + value, out -> {
+            out.writeByte(CONSTANT_INTEGER);
+            out.writeInt(value);
+        });
+    }
+
+    /**
+     * Returns the constant pool index of a field or method reference.
+     *
+     * @param tag The constant pool tag: field, method or interface method reference.
+     * @param owner The internal name of the class that declares the member.
+     * @param name The member name.
+     * @param descriptor The member type descriptor.
+     * @return The constant pool index.
+     */
+    private int memberRef(final int tag, final String owner, final String name, final String descriptor) {
+        final int ownerIndex = classRef(owner);
+        final int nameIndex = utf8(name);
+        final int descriptorIndex = utf8(descriptor);
+        final int nameAndType = constant("N" + name + ":" + descriptor, out -> {
+            out.writeByte(CONSTANT_NAME_AND_TYPE);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+        return constant("M" + tag + owner + "." + name + ":" + descriptor, out -> {
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    /**
+     * Returns the index of the constant pool entry with the given key, adding the entry if it
+     * isn't already in the pool.
+     *
+     * @param key A string that uniquely describes the entry.
+     * @param entry Writes the entry, if it has to be added.
+     * @return The constant pool index.
+     */
+    private int constant(final String key, final Entry entry) {
+        final Integer index = constants.get(key);
+
+        if (index != null) { return index; }
+
+        write(() -> entry.writeTo(new DataOutputStream(pool)));
+        constants.put(key, poolCount);
+
+        return poolCount++;
+    }
+
+    /**
+     * Runs the given write action, converting the (impossible, for an in-memory stream)
+     * {@code IOException} to an unchecked exception.
+     * @param action An action that writes to an in-memory stream.
+     */
+    private static void write(final Write action) {
+        try {
+            action.run();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Writes a constant pool entry. */
+    private interface Entry {
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+
+    /** A write action. */
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    /**
+     * The position of an instruction in a method's bytecode: the target of a branch. A label may
+     * be the target of branches before it is placed.
+     */
+    static final class Label {
+        /** The bytecode offset of this label, or -1 if it hasn't been placed yet. */
+        private int offset = -1;
+
+        /** The operand stack depth at this label, or -1 if no branch to it has been seen yet. */
+        private int depth = -1;
+
+        /** The offsets of the branch instructions to this label that precede its placement. */
+        private final List<Integer> branches = new ArrayList<>();
+    }
+
+    /**
+     * Builds the bytecode for a method. Each instruction method tracks the operand stack depth, so
+     * that the maximum depth can be computed as instructions are added; the number of local
+     * variable slots is tracked as well.
+     */
+    final class Code {
+
+        /** Opcodes. */
+        static final int AALOAD = 0x32;
+        static final int POP = 0x57;
+        static final int DUP = 0x59;
+        static final int SWAP = 0x5f;
+        static final int IFEQ = 0x99;
+        static final int GOTO = 0xa7;
+        static final int ARETURN = 0xb0;
+        static final int RETURN = 0xb1;
+        static final int GETSTATIC = 0xb2;
+        static final int GETFIELD = 0xb4;
+        static final int PUTFIELD = 0xb5;
+        static final int INVOKEVIRTUAL = 0xb6;
+        static final int INVOKESPECIAL = 0xb7;
+        static final int INVOKESTATIC = 0xb8;
+        static final int INVOKEINTERFACE = 0xb9;
+        static final int CHECKCAST = 0xc0;
+        static final int IFNULL = 0xc6;
+
+        private final int access;
+        private final int name;
+        private final int descriptor;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        /** Branch offsets to write into the code when it is serialized: pairs of (at, offset). */
+        private final List<int[]> patches = new ArrayList<>();
+
+        private int depth = 0;
+        private int maxDepth = 0;
+        private int maxLocals;
+
+        private Code(final int access, final int name, final int descriptor, final int argSlots) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.maxLocals = argSlots;
+        }
+
+        /**
+         * Emits an instruction without operands.
+         * @param opcode The opcode.
+         * @param stackDelta The change in operand stack depth caused by the instruction.
+         */
+        void op(final int opcode, final int stackDelta) {
+            bytes.write(opcode);
+            adjust(stackDelta);
+        }
+
+        /**
+         * Emits an instruction to load a reference from a local variable.
+         * @param slot The local variable slot.
+         */
+        void aload(final int slot) {
+            if (slot <= 3) {
+                bytes.write(0x2a + slot);
+            } else {
+                bytes.write(0x19);
+                bytes.write(slot);
+            }
+            maxLocals = java.lang.Math.max(maxLocals, slot + 1);
+            adjust(1);
+        }
+
+        /**
+         * Emits the shortest instruction that pushes the given integer constant.
+         * @param value The constant.
+         */
+        void iconst(final int value) {
+            if (value >= -1 && value <= 5) {
+                bytes.write(0x03 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                bytes.write(0x10);
+                bytes.write(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                bytes.write(0x11);
+                u2(value);
+            } else {
+                final int index = integer(value);
+                bytes.write(0x13);
+                u2(index);
+            }
+            adjust(1);
+        }
+
+        /**
+         * Emits a field access instruction.
+         *
+         * @param opcode {@code GETFIELD}, {@code PUTFIELD} or {@code GETSTATIC}.
+         * @param owner The internal name of the class that declares the field.
+         * @param name The field name.
+         * @param descriptor The field type descriptor.
+         */
+        void field(final int opcode, final String owner, final String name, final String descriptor) {
+            bytes.write(opcode);
+            u2(memberRef(CONSTANT_FIELDREF, owner, name, descriptor));
+            adjust(opcode == GETSTATIC ? 1 : opcode == GETFIELD ? 0 : -2);
+        }
+
+        /**
+         * Emits a method invocation instruction.
+         *
+         * @param opcode {@code INVOKEVIRTUAL}, {@code INVOKESPECIAL}, {@code INVOKESTATIC} or
+         *               {@code INVOKEINTERFACE}.
+         * @param owner The internal name of the class or interface that declares the method.
+         * @param name The method name.
+         * @param descriptor The method type descriptor.
+         */
+        void invoke(final int opcode, final String owner, final String name, final String descriptor) {
+            final int args = argumentSlots(descriptor);
+            final int receiver = opcode == INVOKESTATIC ? 0 : 1;
+            final int tag = opcode == INVOKEINTERFACE ? CONSTANT_INTERFACE_METHODREF : CONSTANT_METHODREF;
+
+            bytes.write(opcode);
+            u2(memberRef(tag, owner, name, descriptor));
+
+            if (opcode == INVOKEINTERFACE) {
+                bytes.write(args + 1);
+                bytes.write(0);
+            }
+
+            adjust(returnSlots(descriptor) - args - receiver);
+        }
+
+        /**
+         * Emits a type instruction, such as {@code CHECKCAST}.
+         * @param opcode The opcode.
+         * @param type The internal name of the type operand.
+         */
+        void type(final int opcode, final String type) {
+            bytes.write(opcode);
+            u2(classRef(type));
+        }
+
+        /**
+         * Emits a branch to the given label.
+         * @param opcode A branch opcode: {@code GOTO}, {@code IFEQ} or {@code IFNULL}.
+         * @param label The branch target.
+         */
+        void jump(final int opcode, final Label label) {
+            final int offset = bytes.size();
+            bytes.write(opcode);
+            adjust(opcode == GOTO ? 0 : -1);
+
+            if (label.depth < 0) { label.depth = depth; }
+
+            if (label.offset >= 0) {
+                u2(label.offset - offset);
+            } else {
+                label.branches.add(offset);
+                u2(0);
+            }
+        }
+
+        /**
+         * Places the given label at the current position, resolving any earlier branches to it.
+         * The stack depth is reset to the depth at the branches to the label: code immediately
+         * before a label is typically an unconditional branch elsewhere.
+         *
+         * @param label The label to place.
+         */
+        void place(final Label label) {
+            label.offset = bytes.size();
+
+            if (label.depth >= 0) {
+                depth = label.depth;
+            } else {
+                label.depth = depth;
+            }
+
+            for (final int branch : label.branches) {
+                patch(branch + 1, label.offset - branch);
+            }
+        }
+
+        private void adjust(final int delta) {
+            depth += delta;
+            maxDepth = java.lang.Math.max(maxDepth, depth);
+        }
+
+        private void u2(final int value) {
+            bytes.write(value >> 8);
+            bytes.write(value);
+        }
+
+        private void patch(final int at, final int value) {
+            if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                throw new IllegalStateException("Branch offset out of range");
+            }
+            patches.add(new int[] { at, value });
+        }
+
+        private void writeTo(final DataOutputStream out, final int codeAttribute) throws IOException {
+            final byte[] code = bytes.toByteArray();
+
+            if (code.length > 65535) {
+                throw new IllegalStateException("Method code too large");
+            }
+
+            for (final int[] patch : patches) {
+                code[patch[0]] = (byte) (patch[1] >> 8);
+                code[patch[0] + 1] = (byte) patch[1];
+            }
+
+            out.writeShort(access);
+            out.writeShort(name);
+            out.writeShort(descriptor);
+            out.writeShort(1);
+            out.writeShort(codeAttribute);
+            out.writeInt(12 + code.length);
+            out.writeShort(maxDepth);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+    }
+
+    /**
+     * Returns the number of local variable (and operand stack) slots taken by the parameters in the
+     * given method descriptor.
+     * @param descriptor A method type descriptor.
+     * @return The number of slots.
+     */
+    private static int argumentSlots(final String descriptor) {
+        int slots = 0;
+        int i = 1;
+
+        while (descriptor.charAt(i) != ')') {
+            final char c = descriptor.charAt(i);
+            if (c == 'J' || c == 'D') {
+                slots += 2;
+                i++;
+            } else {
+                slots++;
+                i = skipType(descriptor, i);
+            }
+        }
+
+        return slots;
+    }
+
+    /**
+     * Returns the number of operand stack slots taken by the return value in the given method
+     * descriptor.
+     * @param descriptor A method type descriptor.
+     * @return The number of slots: 0 for {@code void}.
+     */
+    private static int returnSlots(final String descriptor) {
+        final char c = descriptor.charAt(descriptor.indexOf(')') + 1);
+        return c == 'V' ? 0 : c == 'J' || c == 'D' ? 2 : 1;
+    }
+
+    /**
+     * Returns the index just past the type descriptor that starts at the given index.
+     * @param descriptor A method type descriptor.
+     * @param start The index of the first character of a parameter type.
+     * @return The index of the first character after the type.
+     */
+    private static int skipType(final String descriptor, final int start) {
+        int i = start;
+        while (descriptor.charAt(i) == '[') { i++; }
+        return descriptor.charAt(i) == 'L' ? descriptor.indexOf(';', i) + 1 : i + 1;
+    }
+}
@@ -0,0 +1,195 @@
+package org.ulithi.jlisp.compiler;
+
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.Bindable;
+import org.ulithi.jlisp.core.Environment;
+import org.ulithi.jlisp.core.Function;
+import org.ulithi.jlisp.core.LocalVariable;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.core.Symbol;
+import org.ulithi.jlisp.mem.Cell;
+import org.ulithi.jlisp.mem.Ref;
+import org.ulithi.jlisp.primitive.Lang;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.ulithi.jlisp.mem.NilReference.NIL;
+
+/**
+ * Compiles the body of a user-defined function into a tree of {@link Node Nodes}. Each method
+ * here mirrors the corresponding step of {@link org.ulithi.jlisp.primitive.Eval}, so that
+ * executing the compiled body gives the same result as interpreting it.
+ * <p>
+ * The exception is a call to a user-defined function in tail position: as the body itself, or
+ * as a branch of an {@code IF} or {@code COND} in tail position. Executing such a call returns a
+ * {@link TailCall} instead of invoking the function, so the function invoking the body can
+ * invoke it in its place, in constant stack space.
+ */
+public final class Compiler {
+
+    /** Shared node for forms that evaluate to the empty list. */
+    private static final Node EMPTY_LIST = new Nodes.EmptyList();
+
+    /** The environment the compiled function is defined in. */
+    private final Environment env;
+
+    /**
+     * Compiles the given function body, resolving references to core bindings in the given
+     * environment.
+     *
+     * @param body The parsed implementation of a user-defined function, with references to the
+     *             function's parameters already resolved to {@link LocalVariable LocalVariables}.
+     * @param env The environment the function is defined in.
+     * @return The root node of the compiled body: its value may be a {@link TailCall}.
+     */
+    public static Node compile(final SExpression body, final Environment env) {
+        final Compiler compiler = new Compiler(env);
+        return body.isAtom() ? compiler.compile(Cell.create(body.toAtom()), true)
+                             : compiler.compile(body.toList().getRoot(), true);
+    }
+
+    private Compiler(final Environment env) {
+        this.env = env;
+    }
+
+    /**
+     * Compiles the form rooted at the given cell, as {@code Eval.apply(Cell)} would evaluate it.
+     *
+     * @param cell The root {@link Cell} of the form.
+     * @param tail True if the form is in tail position.
+     * @return The compiled form.
+     */
+    private Node compile(final Cell cell, final boolean tail) {
+        if (cell.isNil()) { return EMPTY_LIST; }
+
+        final SExpression car = SExpression.fromRef(cell.getFirst());
+
+        if (car.isList()) { return compile((Cell) cell.getFirst(), tail); }
+
+        final Atom atom = car.toAtom();
+
+        if (atom.isNumber()) { return new Nodes.Constant(car); }
+
+        if (atom instanceof LocalVariable) {
+            final LocalVariable local = (LocalVariable) atom;
+            return new Nodes.Local(local.depth(), local.slot());
+        }
+
+        final Bindable binding = env.getCoreBinding(atom.identifier());
+
+        if (binding instanceof Function) {
+            return compileCall((Function) binding, cell, tail);
+        }
+
+        if (binding instanceof Symbol) {
+            return new Nodes.SymbolValue((Symbol) binding);
+        }
+
+        return new Nodes.Dynamic(atom.identifier(), cell, compileArgs(cell.getRest()), tail);
+    }
+
+    /**
+     * Compiles a list element that {@code Eval} evaluates on its own, as an {@link SExpression}
+     * rather than as a cell in a chain: e.g. the test of an {@code IF}.
+     *
+     * @param ref The list element.
+     * @param tail True if the element is in tail position.
+     * @return The compiled element.
+     */
+    private Node compileElement(final Ref ref, final boolean tail) {
+        if (ref.isNil()) { return EMPTY_LIST; }
+        if (ref.isAtom()) { return compile(Cell.create(ref.toAtom()), tail); }
+        return compile((Cell) ref, tail);
+    }
+
+    /**
+     * Compiles each of the cells in the given argument chain.
+     *
+     * @param rest The first cell of the arguments to a function, or NIL.
+     * @return The compiled arguments.
+     */
+    private Node[] compileArgs(final Ref rest) {
+        final List<Node> args = new ArrayList<>();
+
+        for (Ref it = rest; !it.isNil(); it = ((Cell) it).getRest()) {
+            args.add(compile((Cell) it, false));
+        }
+
+        return args.toArray(new Node[0]);
+    }
+
+    /**
+     * Compiles an invocation of a core function.
+     *
+     * @param function The core function.
+     * @param cell The root cell of the form invoking the function.
+     * @param tail True if the form is in tail position.
+     * @return The compiled invocation.
+     */
+    private Node compileCall(final Function function, final Cell cell, final boolean tail) {
+        if (!function.isSpecial()) {
+            return new Nodes.Call(function, compileArgs(cell.getRest()));
+        }
+
+        final Node node = function instanceof Lang.IF ? compileIf(cell.getRest(), tail)
+                        : function instanceof Lang.COND ? compileCond(cell.getRest(), tail)
+                        : null;
+
+        return node != null ? node : new Nodes.SpecialCall(function, SExpression.fromRef(cell.getRest()));
+    }
+
+    /**
+     * Compiles the arguments of an {@code IF}.
+     *
+     * @param args The first cell of the arguments to {@code IF}.
+     * @param tail True if the {@code IF} is in tail position.
+     * @return The compiled {@code IF}, or null if the arguments are malformed: the error is left
+     *         to the {@code IF} function to report at run time.
+     */
+    private Node compileIf(final Ref args, final boolean tail) {
+        final Ref[] cells = new Ref[3];
+        int count = 0;
+
+        for (Ref it = args; !it.isNil(); it = ((Cell) it).getRest()) {
+            if (count == cells.length || !(it instanceof Cell) || ((Cell) it).isNil()) { return null; }
+            cells[count++] = it;
+        }
+
+        if (count < 2) { return null; }
+
+        return new Nodes.If(compileElement(((Cell) cells[0]).getFirst(), false),
+                            compileElement(((Cell) cells[1]).getFirst(), tail),
+                            count == 3 ? compile((Cell) cells[2], tail) : EMPTY_LIST);
+    }
+
+    /**
+     * Compiles the clauses of a {@code COND}.
+     *
+     * @param args The first cell of the arguments to {@code COND}.
+     * @param tail True if the {@code COND} is in tail position.
+     * @return The compiled {@code COND}, or null if the arguments are malformed: the error is left
+     *         to the {@code COND} function to report at run time.
+     */
+    private Node compileCond(final Ref args, final boolean tail) {
+        if (args.isNil()) { return null; }
+
+        final List<Node> conditions = new ArrayList<>();
+        final List<Node> consequents = new ArrayList<>();
+
+        for (Ref it = args; !it.isNil(); it = ((Cell) it).getRest()) {
+            if (!(it instanceof Cell) || ((Cell) it).isNil()) { return null; }
+
+            final Ref clause = ((Cell) it).getFirst();
+
+            if (!(clause instanceof Cell) || ((Cell) clause).isNil()) { return null; }
+
+            final Ref consequent = ((Cell) clause).getRest();
+
+            conditions.add(compileElement(((Cell) clause).getFirst(), false));
+            consequents.add(consequent == NIL ? EMPTY_LIST : compile((Cell) consequent, tail));
+        }
+
+        return new Nodes.Cond(conditions.toArray(new Node[0]), consequents.toArray(new Node[0]));
+    }
+}
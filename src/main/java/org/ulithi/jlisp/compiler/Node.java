@@ -0,0 +1,32 @@
+package org.ulithi.jlisp.compiler;
+
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.primitive.Eval;
+
+/**
+ * A {@link Node} is an element of a compiled function body: a form that has been analyzed ahead
+ * of time and can be evaluated directly. Nodes are created by the {@link Compiler}.
+ */
+public abstract class Node {
+
+    /**
+     * Evaluates this node, in the current state of the given evaluator's environment, and returns
+     * the result.
+     *
+     * @param eval The evaluator: the source of the environment to evaluate this node in, and of
+     *             the function-invocation protocol.
+     * @return The resulting value of the evaluation.
+     */
+    public abstract SExpression execute(Eval eval);
+
+    /**
+     * Generates JVM bytecode that evaluates this node, for the {@link BytecodeCompiler}. The code
+     * must leave the value of this node on the operand stack. By default, the generated code
+     * simply invokes this node.
+     *
+     * @param compiler The bytecode compiler.
+     */
+    void generate(final BytecodeCompiler compiler) {
+        compiler.invoke(this);
+    }
+}
@@ -0,0 +1,450 @@
+package org.ulithi.jlisp.compiler;
+
+import org.ulithi.jlisp.core.Bindable;
+import org.ulithi.jlisp.core.CallSite;
+import org.ulithi.jlisp.core.Function;
+import org.ulithi.jlisp.core.Identifier;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.core.Symbol;
+import org.ulithi.jlisp.mem.Cell;
+import org.ulithi.jlisp.primitive.Eval;
+import org.ulithi.jlisp.primitive.UserFunction;
+
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.ATOM;
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.CALL_SITE;
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.CELL;
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.ENVIRONMENT;
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.EVAL;
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.FUNCTION;
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.LIST;
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.NODES;
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.REF;
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.SEXPRESSION;
+import static org.ulithi.jlisp.compiler.BytecodeCompiler.SYMBOL;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.DUP;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.GETSTATIC;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.GOTO;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.IFEQ;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.IFNULL;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.INVOKEINTERFACE;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.INVOKESTATIC;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.INVOKEVIRTUAL;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.POP;
+import static org.ulithi.jlisp.compiler.ClassWriter.Code.SWAP;
+import static org.ulithi.jlisp.core.Atom.NIL;
+
+/**
+ * The {@link Node} types produced by the {@link Compiler}. Each corresponds to one of the ways
+ * that {@link Eval} can evaluate a form, and can generate the equivalent bytecode for the
+ * {@link BytecodeCompiler}.
+ */
+final class Nodes {
+
+    /** The descriptor of the {@code Eval.invoke} method. */
+    private static final String INVOKE = "(L" + FUNCTION + ";L" + SEXPRESSION + ";)L" + SEXPRESSION + ";";
+
+    private Nodes() { }
+
+    /**
+     * Evaluates each of the given argument nodes in order, and accumulates the results in a list,
+     * as {@code Eval} does for the arguments of a non-special function.
+     *
+     * @param args The compiled arguments to a function.
+     * @param eval The evaluator.
+     * @return A List of the evaluated arguments.
+     */
+    static List evaluateArgs(final Node[] args, final Eval eval) {
+        final List values = List.create();
+
+        for (final Node arg : args) {
+            append(values, arg.execute(eval));
+        }
+
+        return values;
+    }
+
+    /**
+     * Generates code that evaluates each of the given argument nodes in order, and leaves a list
+     * of the results on the operand stack: the bytecode equivalent of {@link #evaluateArgs}.
+     *
+     * @param args The compiled arguments to a function.
+     * @param compiler The bytecode compiler.
+     */
+    static void generateArgs(final Node[] args, final BytecodeCompiler compiler) {
+        final ClassWriter.Code code = compiler.code();
+
+        code.invoke(INVOKESTATIC, LIST, "create", "()L" + LIST + ";");
+
+        for (final Node arg : args) {
+            arg.generate(compiler);
+            code.invoke(INVOKESTATIC, NODES, "append", "(L" + LIST + ";L" + SEXPRESSION + ";)L" + LIST + ";");
+        }
+    }
+
+    /**
+     * Appends an evaluated argument to a list of arguments.
+     *
+     * @param values A list of evaluated arguments.
+     * @param value The value of the next argument.
+     * @return The list of arguments.
+     */
+    static List append(final List values, final SExpression value) {
+        if (value.isAtom()) {
+            values.add(value.toAtom());
+        } else if (value.isList()) {
+            values.add(value.toList());
+        }
+        return values;
+    }
+
+    /**
+     * Completes a call in tail position: a call to a user-defined function becomes a
+     * {@link TailCall}, to be invoked by the caller's caller, and any other function is invoked
+     * immediately.
+     *
+     * @param eval The evaluator.
+     * @param function The function to call.
+     * @param args The evaluated arguments to the function.
+     * @return The result of the call, or a {@code TailCall}.
+     */
+    static SExpression tailCall(final Eval eval, final Function function, final SExpression args) {
+        if (function instanceof UserFunction) {
+            return new TailCall((UserFunction) function, args);
+        }
+
+        return eval.invoke(function, args);
+    }
+
+    /**
+     * Returns the function currently bound to the given identifier, if it can be invoked with
+     * evaluated arguments.
+     *
+     * @param eval The evaluator.
+     * @param identifier The operator of a form.
+     * @return The (non-special) function bound to the identifier, or null if there is none.
+     */
+    static Function resolve(final Eval eval, final Identifier identifier) {
+        final Bindable binding = eval.environment().getBinding(identifier);
+
+        if (binding instanceof Function && !((Function) binding).isSpecial()) {
+            return (Function) binding;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the function currently bound to the operator of the given call site, if it can be
+     * invoked with evaluated arguments: from the call site's cache if the operator can only mean a
+     * global function, otherwise by searching the environment.
+     *
+     * @param eval The evaluator.
+     * @param site The call site of a form.
+     * @return The (non-special) function bound to the operator, or null if there is none.
+     */
+    static Function resolve(final Eval eval, final CallSite site) {
+        final Function function = site.function(eval.environment());
+
+        if (function != null) {
+            return function.isSpecial() ? null : function;
+        }
+
+        return resolve(eval, site.identifier());
+    }
+
+    /**
+     * Indicates if the given value is "true" in the sense of the {@code IF} function: a non-empty
+     * list, or an atom that is true.
+     *
+     * @param value The value of an {@code IF} test.
+     * @return True if the value is true.
+     */
+    static boolean isTrue(final SExpression value) {
+        return (value.isList() && !value.toList().isEmpty()) ||
+               (value.isAtom() && value.toAtom().toB());
+    }
+
+    /**
+     * An empty list: a new one each time, since lists are mutable.
+     */
+    static final class EmptyList extends Node {
+        @Override
+        public SExpression execute(final Eval eval) {
+            return List.create();
+        }
+
+        @Override
+        void generate(final BytecodeCompiler compiler) {
+            compiler.code().invoke(INVOKESTATIC, LIST, "create", "()L" + LIST + ";");
+        }
+    }
+
+    /**
+     * A self-evaluating value: a number.
+     */
+    static final class Constant extends Node {
+        private final SExpression value;
+
+        Constant(final SExpression value) {
+            this.value = value;
+        }
+
+        @Override
+        public SExpression execute(final Eval eval) {
+            return value;
+        }
+
+        @Override
+        void generate(final BytecodeCompiler compiler) {
+            compiler.loadConstant(value, SEXPRESSION);
+        }
+    }
+
+    /**
+     * A reference to a parameter of the function being invoked, by lexical address.
+     */
+    static final class Local extends Node {
+        private final int depth;
+        private final int slot;
+
+        Local(final int depth, final int slot) {
+            this.depth = depth;
+            this.slot = slot;
+        }
+
+        @Override
+        public SExpression execute(final Eval eval) {
+            return eval.environment().getLocal(depth, slot);
+        }
+
+        @Override
+        void generate(final BytecodeCompiler compiler) {
+            final ClassWriter.Code code = compiler.code();
+            compiler.loadEval();
+            code.invoke(INVOKEVIRTUAL, EVAL, "environment", "()L" + ENVIRONMENT + ";");
+            code.iconst(depth);
+            code.iconst(slot);
+            code.invoke(INVOKEVIRTUAL, ENVIRONMENT, "getLocal", "(II)L" + SEXPRESSION + ";");
+        }
+    }
+
+    /**
+     * A reference to a core symbol, such as {@code T}.
+     */
+    static final class SymbolValue extends Node {
+        private final Symbol symbol;
+
+        SymbolValue(final Symbol symbol) {
+            this.symbol = symbol;
+        }
+
+        @Override
+        public SExpression execute(final Eval eval) {
+            return symbol.eval();
+        }
+
+        @Override
+        void generate(final BytecodeCompiler compiler) {
+            compiler.loadConstant(symbol, SYMBOL);
+            compiler.code().invoke(INVOKEINTERFACE, SYMBOL, "eval", "()L" + SEXPRESSION + ";");
+        }
+    }
+
+    /**
+     * An invocation of a core, non-special function, whose arguments are evaluated first.
+     */
+    static final class Call extends Node {
+        private final Function function;
+        private final Node[] args;
+
+        Call(final Function function, final Node[] args) {
+            this.function = function;
+            this.args = args;
+        }
+
+        @Override
+        public SExpression execute(final Eval eval) {
+            return eval.invoke(function, evaluateArgs(args, eval));
+        }
+
+        @Override
+        void generate(final BytecodeCompiler compiler) {
+            compiler.loadEval();
+            compiler.loadConstant(function, FUNCTION);
+            generateArgs(args, compiler);
+            compiler.code().invoke(INVOKEVIRTUAL, EVAL, "invoke", INVOKE);
+        }
+    }
+
+    /**
+     * An invocation of a core special function, with its unevaluated arguments.
+     */
+    static final class SpecialCall extends Node {
+        private final Function function;
+        private final SExpression args;
+
+        SpecialCall(final Function function, final SExpression args) {
+            this.function = function;
+            this.args = args;
+        }
+
+        @Override
+        public SExpression execute(final Eval eval) {
+            return eval.invoke(function, args);
+        }
+
+        @Override
+        void generate(final BytecodeCompiler compiler) {
+            compiler.loadEval();
+            compiler.loadConstant(function, FUNCTION);
+            compiler.loadConstant(args, SEXPRESSION);
+            compiler.code().invoke(INVOKEVIRTUAL, EVAL, "invoke", INVOKE);
+        }
+    }
+
+    /**
+     * A form whose operator isn't a core binding, so its meaning can only be known when it is
+     * evaluated: typically a call to a user-defined function, or a reference to a variable. If
+     * the operator is bound to a (non-special) function then the function is invoked with the
+     * compiled arguments -- or, in tail position, a {@link TailCall} of the function is returned.
+     * Otherwise, the form is handed to {@code Eval} to interpret.
+     * <p>
+     * The function is looked up through a {@link CallSite}, which caches it for as long as the
+     * global definitions are unchanged.
+     */
+    static final class Dynamic extends Node {
+        private final CallSite site;
+        private final Cell form;
+        private final Node[] args;
+        private final boolean tail;
+
+        Dynamic(final Identifier identifier, final Cell form, final Node[] args, final boolean tail) {
+            this.site = new CallSite(identifier);
+            this.form = form;
+            this.args = args;
+            this.tail = tail;
+        }
+
+        @Override
+        public SExpression execute(final Eval eval) {
+            final Function function = resolve(eval, site);
+
+            if (function != null) {
+                final List values = evaluateArgs(args, eval);
+                return tail ? tailCall(eval, function, values) : eval.invoke(function, values);
+            }
+
+            return eval.apply(form);
+        }
+
+        @Override
+        void generate(final BytecodeCompiler compiler) {
+            final ClassWriter.Code code = compiler.code();
+            final ClassWriter.Label fallback = new ClassWriter.Label();
+            final ClassWriter.Label end = new ClassWriter.Label();
+
+            compiler.loadEval();
+            compiler.loadConstant(site, CALL_SITE);
+            code.invoke(INVOKESTATIC, NODES, "resolve", "(L" + EVAL + ";L" + CALL_SITE + ";)L" + FUNCTION + ";");
+            code.op(DUP, 1);
+            code.jump(IFNULL, fallback);
+            compiler.loadEval();
+            code.op(SWAP, 0);
+            generateArgs(args, compiler);
+            if (tail) {
+                code.invoke(INVOKESTATIC, NODES, "tailCall", "(L" + EVAL + ";" + INVOKE.substring(1));
+            } else {
+                code.invoke(INVOKEVIRTUAL, EVAL, "invoke", INVOKE);
+            }
+            code.jump(GOTO, end);
+
+            code.place(fallback);
+            code.op(POP, -1);
+            compiler.loadEval();
+            compiler.loadConstant(form, CELL);
+            code.invoke(INVOKEVIRTUAL, EVAL, "apply", "(L" + CELL + ";)L" + SEXPRESSION + ";");
+            code.place(end);
+        }
+    }
+
+    /**
+     * The {@code IF} special function.
+     */
+    static final class If extends Node {
+        private final Node test;
+        private final Node then;
+        private final Node otherwise;
+
+        If(final Node test, final Node then, final Node otherwise) {
+            this.test = test;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        public SExpression execute(final Eval eval) {
+            return isTrue(test.execute(eval)) ? then.execute(eval) : otherwise.execute(eval);
+        }
+
+        @Override
+        void generate(final BytecodeCompiler compiler) {
+            final ClassWriter.Code code = compiler.code();
+            final ClassWriter.Label orElse = new ClassWriter.Label();
+            final ClassWriter.Label end = new ClassWriter.Label();
+
+            test.generate(compiler);
+            code.invoke(INVOKESTATIC, NODES, "isTrue", "(L" + SEXPRESSION + ";)Z");
+            code.jump(IFEQ, orElse);
+            then.generate(compiler);
+            code.jump(GOTO, end);
+            code.place(orElse);
+            otherwise.generate(compiler);
+            code.place(end);
+        }
+    }
+
+    /**
+     * The {@code COND} special function.
+     */
+    static final class Cond extends Node {
+        private final Node[] conditions;
+        private final Node[] consequents;
+
+        Cond(final Node[] conditions, final Node[] consequents) {
+            this.conditions = conditions;
+            this.consequents = consequents;
+        }
+
+        @Override
+        public SExpression execute(final Eval eval) {
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].execute(eval).toAtom().toB()) {
+                    return consequents[i].execute(eval);
+                }
+            }
+
+            return NIL;
+        }
+
+        @Override
+        void generate(final BytecodeCompiler compiler) {
+            final ClassWriter.Code code = compiler.code();
+            final ClassWriter.Label end = new ClassWriter.Label();
+
+            for (int i = 0; i < conditions.length; i++) {
+                final ClassWriter.Label next = new ClassWriter.Label();
+                conditions[i].generate(compiler);
+                code.invoke(INVOKEINTERFACE, REF, "toAtom", "()L" + ATOM + ";");
+                code.invoke(INVOKEVIRTUAL, ATOM, "toB", "()Z");
+                code.jump(IFEQ, next);
+                consequents[i].generate(compiler);
+                code.jump(GOTO, end);
+                code.place(next);
+            }
+
+            code.field(GETSTATIC, ATOM, "NIL", "L" + ATOM + ";");
+            code.place(end);
+        }
+    }
+}
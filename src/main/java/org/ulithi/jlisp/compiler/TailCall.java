@@ -0,0 +1,68 @@
+package org.ulithi.jlisp.compiler;
+
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.exception.EvaluationException;
+import org.ulithi.jlisp.primitive.UserFunction;
+
+/**
+ * A {@link TailCall} is the result of evaluating a call to a user-defined function in tail
+ * position in a compiled function body: i.e., a call whose value is the value of the body. Instead
+ * of invoking the function, and growing both the Java stack and the {@code Environment}, the node
+ * returns the function and its evaluated arguments, and the invoking {@link UserFunction} then
+ * invokes it in its own place.
+ * <p>
+ * A {@code TailCall} is not a LISP value: it must never escape the {@code UserFunction} that
+ * invokes the compiled body.
+ */
+public final class TailCall implements SExpression {
+
+    /** The function to invoke. */
+    private final UserFunction function;
+
+    /** The evaluated arguments to the function. */
+    private final SExpression args;
+
+    /**
+     * Creates a tail call of the given function.
+     * @param function The function to invoke.
+     * @param args The evaluated arguments to the function.
+     */
+    TailCall(final UserFunction function, final SExpression args) {
+        this.function = function;
+        this.args = args;
+    }
+
+    /**
+     * @return The function to invoke.
+     */
+    public UserFunction function() {
+        return function;
+    }
+
+    /**
+     * @return The evaluated arguments to the function.
+     */
+    public SExpression args() {
+        return args;
+    }
+
+    /**
+     * Not supported: a {@code TailCall} is not a LISP value.
+     * @throws EvaluationException Always.
+     */
+    @Override
+    public Atom toAtom() {
+        throw new EvaluationException("Tail call of " + function.name() + " used as a value");
+    }
+
+    /**
+     * Not supported: a {@code TailCall} is not a LISP value.
+     * @throws EvaluationException Always.
+     */
+    @Override
+    public List toList() {
+        throw new EvaluationException("Tail call of " + function.name() + " used as a value");
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * This package contains the JLISP function compiler: it translates the body of a user-defined
+ * function, once, when the function is defined, into a tree of executable {@link
+ * org.ulithi.jlisp.compiler.Node Nodes}.
+ * <p>
+ * {@link org.ulithi.jlisp.primitive.Eval} interprets a parse tree directly: each time a form is
+ * evaluated it re-examines the form's cells, wraps them as s-expressions, looks up the form's
+ * operator by name and decides how to invoke it. The compiler does all of that analysis once. The
+ * resulting node tree has the same semantics as interpreting the body -- including the quirks of
+ * {@code Eval} -- but evaluating it only does the work that can't be done ahead of time: fetching
+ * arguments, looking up user-defined (and so, redefinable) functions and invoking functions.
+ * <p>
+ * Bindings in the "core" package can't be redefined or shadowed, so a reference to a core
+ * function or symbol is resolved at compile time. {@code IF} and {@code COND} are compiled into
+ * dedicated nodes; other special functions are invoked with their (constant) unevaluated
+ * arguments, as {@code Eval} would.
+ */
+package org.ulithi.jlisp.compiler;
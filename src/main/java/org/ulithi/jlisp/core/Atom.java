@@ -5,6 +5,8 @@ import org.ulithi.jlisp.mem.NilReference;
 import org.ulithi.jlisp.mem.Ref;
 import org.ulithi.jlisp.parser.Grammar;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Objects;
 
 /**
@@ -30,7 +32,8 @@ public class Atom implements SExpression {
         Number,
         Boolean,
         Symbol,
-        NIL
+        NIL,
+        Object
     }
 
     /** The underlying type of this Atom. */
@@ -42,6 +45,13 @@ public class Atom implements SExpression {
      */
     private final Object value;
 
+    /**
+     * The interned {@link Identifier} for this Atom's name, used to resolve the Atom in the
+     * {@link Environment}. Set when a string or symbol Atom is created, or on first use for
+     * other types.
+     */
+    private Identifier identifier;
+
     /**
      * Creates and returns a new {@link Atom}: either {@code NIL} if {@code ref} is {@code NIL} or
      * {@code ref} itself if it is an {@code Atom}.
@@ -60,7 +70,9 @@ public class Atom implements SExpression {
      * @return An {@code Atom} representing the given {@code String} literal.
      */
     public static Atom create(final String sValue) {
-        return new Atom(sValue, Type.String);
+        final Atom atom = new Atom(sValue, Type.String);
+        if (sValue != null) { atom.identifier = SymbolTable.intern(sValue); }
+        return atom;
     }
 
     /**
@@ -69,9 +81,52 @@ public class Atom implements SExpression {
      * @return An {@code Atom} representing the given {@code Integer} value.
      */
     public static Atom create(final Integer nValue) {
+        return FixnumAtom.valueOf(nValue);
+    }
+
+    /**
+     * Creates and returns an {@link Atom} representing the given integer value. Small values are
+     * represented by shared, preallocated atoms: see {@link FixnumAtom}.
+     * @param nValue The integer that this {@code Atom} will represent.
+     * @return An {@code Atom} representing the given integer value.
+     */
+    public static Atom create(final long nValue) {
+        return FixnumAtom.valueOf(nValue);
+    }
+
+    /**
+     * Creates and returns an {@link Atom} representing the given arbitrary-precision integer
+     * value. Values that fit in a {@code long} are represented by a {@link FixnumAtom}, so that
+     * arithmetic on them takes the primitive fast path; only larger values are held as a
+     * {@code BigInteger}.
+     * @param nValue The integer that this {@code Atom} will represent.
+     * @return An {@code Atom} representing the given integer value.
+     */
+    public static Atom create(final BigInteger nValue) {
+        if (nValue.bitLength() < Long.SIZE) { return FixnumAtom.valueOf(nValue.longValue()); }
+        return new Atom(nValue, Type.Number);
+    }
+
+    /**
+     * Creates and returns an {@link Atom} representing the given exact rational value. Ratios
+     * that are whole numbers are represented as integers.
+     * @param nValue The rational number that this {@code Atom} will represent.
+     * @return An {@code Atom} representing the given rational value.
+     */
+    public static Atom create(final Ratio nValue) {
+        if (nValue.isInteger()) { return create(nValue.numerator()); }
         return new Atom(nValue, Type.Number);
     }
 
+    /**
+     * Creates and returns an {@link Atom} representing the given floating point value.
+     * @param nValue The floating point number that this {@code Atom} will represent.
+     * @return An {@code Atom} representing the given floating point value.
+     */
+    public static Atom create(final double nValue) {
+        return FlonumAtom.valueOf(nValue);
+    }
+
     /**
      * Creates and returns a new {@link Atom} representing the given {@code Boolean} value.
      * @param bValue The {@code Boolean} that this {@code Atom} will represent.
@@ -88,7 +143,9 @@ public class Atom implements SExpression {
      * @return An {@code Atom} representing the named symbol.
      */
     public static Atom createSymbol(final String name) {
-        return new Atom(name, Type.Symbol);
+        final Atom atom = new Atom(name, Type.Symbol);
+        atom.identifier = SymbolTable.intern(name);
+        return atom;
     }
 
     /**
@@ -102,6 +159,39 @@ public class Atom implements SExpression {
         this.type = type;
     }
 
+    /**
+     * Creates a new numeric Atom whose value is held by the subclass: see {@link FixnumAtom} and
+     * {@link FlonumAtom}.
+     */
+    Atom() {
+        this.value = null;
+        this.type = Type.Number;
+    }
+
+    /**
+     * Creates a new Atom standing for an object held by the subclass: see {@link HashTable} and
+     * {@link Vector}. Such an Atom is a literal that is only {@code eql} to itself. Its string
+     * value is the given description, and it prints as {@link #describe()}.
+     *
+     * @param description The string value of the object.
+     */
+    Atom(final String description) {
+        this.value = description;
+        this.type = Type.Object;
+    }
+
+    /**
+     * Creates a new Atom with the same value, type and identifier as the given Atom: for use by
+     * subclasses that stand in for an existing Atom.
+     *
+     * @param atom The Atom to copy.
+     */
+    protected Atom(final Atom atom) {
+        this.value = atom.value;
+        this.type = atom.type;
+        this.identifier = atom.identifier();
+    }
+
     /**
      * Indicates if this {@link Atom} is a symbol.
      * @return True if this {@code Atom} is a symbol, false otherwise.
@@ -127,6 +217,30 @@ public class Atom implements SExpression {
         return this.type == Type.Number;
     }
 
+    /**
+     * Indicates if this {@link Atom} is an integer: i.e. a fixnum or a bignum.
+     * @return True if this {@code Atom} is an integer, false otherwise.
+     */
+    public final boolean isInteger() {
+        return this instanceof FixnumAtom || this.value instanceof BigInteger;
+    }
+
+    /**
+     * Indicates if this {@link Atom} is an exact rational number: i.e. an integer or a ratio.
+     * @return True if this {@code Atom} is a rational number, false otherwise.
+     */
+    public final boolean isRational() {
+        return isInteger() || this.value instanceof Ratio;
+    }
+
+    /**
+     * Indicates if this {@link Atom} is a floating point number.
+     * @return True if this {@code Atom} is a floating point number, false otherwise.
+     */
+    public final boolean isFloat() {
+        return this instanceof FlonumAtom;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -137,7 +251,7 @@ public class Atom implements SExpression {
 
     /**
      * Returns this {@link Atom Atom's} value as an integer. Number atoms have their value returned
-     * directly (currently only integer numbers are supported). For Boolean atoms, returns -1 if
+     * directly, rounded toward zero if they are not integers. For Boolean atoms, returns -1 if
      * the atom's value is True, and returns 0 if it is False. String values and symbols cannot be
      * converted to integers.
      *
@@ -146,6 +260,8 @@ public class Atom implements SExpression {
      *         Number), or if there is no known conversion for this {@code Atom's} type.
      */
     public final int toI() {
+        if (this instanceof FixnumAtom) { return (int) ((FixnumAtom) this).value; }
+        if (this instanceof FlonumAtom) { return (int) ((FlonumAtom) this).value; }
         switch (this.type) {
             case Number: return ((Number)value).intValue();
             case Boolean: return ((Boolean)value) ? -1 : 0;
@@ -155,6 +271,87 @@ public class Atom implements SExpression {
         }
     }
 
+    /**
+     * Returns this {@link Atom Atom's} value as a long integer. Integer atoms have their value
+     * returned directly, without unboxing; larger integers are truncated to their low-order 64
+     * bits. Other numbers are rounded toward zero. Other types are converted as for
+     * {@link #toI()}.
+     *
+     * @return This {@link Atom Atom's} value as a long integer.
+     * @throws TypeConversionException if the type conversion is disallowed (e.g., String to
+     *         Number), or if there is no known conversion for this {@code Atom's} type.
+     */
+    public final long toL() {
+        if (this instanceof FixnumAtom) { return ((FixnumAtom) this).value; }
+        if (this instanceof FlonumAtom) { return (long) ((FlonumAtom) this).value; }
+        if (this.type == Type.Number) { return ((Number)value).longValue(); }
+        return toI();
+    }
+
+    /**
+     * Returns this {@link Atom Atom's} value as a double-precision floating point number. Float
+     * atoms have their value returned directly, without unboxing; other numbers are converted to
+     * the nearest {@code double}. Other types are converted as for {@link #toI()}.
+     *
+     * @return This {@link Atom Atom's} value as a {@code double}.
+     * @throws TypeConversionException if the type conversion is disallowed (e.g., String to
+     *         Number), or if there is no known conversion for this {@code Atom's} type.
+     */
+    public final double toD() {
+        if (this instanceof FlonumAtom) { return ((FlonumAtom) this).value; }
+        if (this instanceof FixnumAtom) { return ((FixnumAtom) this).value; }
+        if (this.type == Type.Number) { return ((Number)value).doubleValue(); }
+        return toI();
+    }
+
+    /**
+     * Returns this {@link Atom Atom's} value as an exact rational number. Ratio atoms have their
+     * value returned directly; integers are converted exactly. Other types are converted as for
+     * {@link #toBigInteger()}.
+     *
+     * @return This {@link Atom Atom's} value as a {@code Ratio}.
+     * @throws TypeConversionException if the type conversion is disallowed (e.g., String to
+     *         Number), or if there is no known conversion for this {@code Atom's} type.
+     */
+    public final Ratio toRatio() {
+        if (this.value instanceof Ratio) { return (Ratio) value; }
+        return Ratio.valueOf(toBigInteger());
+    }
+
+    /**
+     * Returns this {@link Atom Atom's} value as an arbitrary-precision integer. Integer atoms are
+     * converted exactly, whatever their size; other numbers are rounded toward zero. Other types
+     * are converted as for {@link #toI()}.
+     *
+     * @return This {@link Atom Atom's} value as a {@code BigInteger}.
+     * @throws TypeConversionException if the type conversion is disallowed (e.g., String to
+     *         Number), or if there is no known conversion for this {@code Atom's} type.
+     */
+    public final BigInteger toBigInteger() {
+        if (this instanceof FixnumAtom) { return BigInteger.valueOf(((FixnumAtom) this).value); }
+        if (this instanceof FlonumAtom) {
+            return new BigDecimal(((FlonumAtom) this).value).toBigInteger();
+        }
+        if (this.value instanceof Ratio) { return ((Ratio) value).toBigInteger(); }
+        if (this.type == Type.Number) { return (BigInteger) value; }
+        return BigInteger.valueOf(toI());
+    }
+
+    /**
+     * Returns the sign of this {@link Atom Atom's} numeric value: -1, 0 or 1 as the value is
+     * negative, zero or positive. Other types are converted as for {@link #toI()}.
+     *
+     * @return The sign of this {@link Atom Atom's} value.
+     * @throws TypeConversionException if the type conversion is disallowed (e.g., String to
+     *         Number), or if there is no known conversion for this {@code Atom's} type.
+     */
+    public final int signum() {
+        if (this instanceof FixnumAtom) { return Long.signum(((FixnumAtom) this).value); }
+        if (this instanceof FlonumAtom) { return (int) Math.signum(((FlonumAtom) this).value); }
+        if (this.value instanceof Ratio) { return ((Ratio) value).signum(); }
+        return toBigInteger().signum();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -186,9 +383,10 @@ public class Atom implements SExpression {
     public final boolean toB() {
         switch (this.type) {
             case NIL: return false;
-            case Number: return ((Number)value).intValue() != 0;
+            case Number: return signum() != 0;
             case Boolean: return ((Boolean)value);
             case String: return !((String)value).isEmpty();
+            case Object: return true;
             case Symbol: throw new TypeConversionException("Can't convert symbol to Boolean");
             default: throw new TypeConversionException("Unknown data type " + this.type);
         }
@@ -205,17 +403,45 @@ public class Atom implements SExpression {
     public final String toS() {
         if (this.type == Type.NIL) { return Grammar.NIL; }
         if (this.type == Type.Boolean) { return ((Boolean)value) ? Grammar.T : Grammar.F; }
+        if (this instanceof FixnumAtom) { return Long.toString(((FixnumAtom) this).value); }
+        if (this instanceof FlonumAtom) { return Double.toString(((FlonumAtom) this).value); }
         return String.valueOf(value);
     }
 
+    /**
+     * Returns the interned {@link Identifier} for this {@link Atom Atom's} name: i.e. for its
+     * {@link #toS() string value}. This is what {@code Eval} uses to look the {@code Atom} up in
+     * the {@link Environment}, without re-folding the case of the name on every lookup.
+     *
+     * @return The identifier for this {@code Atom}.
+     */
+    public final Identifier identifier() {
+        if (identifier == null) {
+            identifier = SymbolTable.intern(toS());
+        }
+        return identifier;
+    }
+
     /**
      * Returns the {@code String} representation of this {@link Atom Atom's} value.
      * @return The {@code String} representation of this {@link Atom Atom's} value.
      */
     @Override
     public final String toString() {
+        if (this.type == Type.Object) { return describe(); }
         if (this.type == Type.NIL) { return Grammar.NIL; }
         if (this.type == Type.Boolean) { return ((Boolean)value) ? Grammar.T : Grammar.F; }
+        if (this instanceof FixnumAtom) { return Long.toString(((FixnumAtom) this).value); }
+        if (this instanceof FlonumAtom) { return Double.toString(((FlonumAtom) this).value); }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Returns the printed representation of an Atom that stands for an object held by the
+     * subclass. By default this is the description it was created with.
+     * @return The printed representation of this {@link Atom}.
+     */
+    String describe() {
         return String.valueOf(value);
     }
 
@@ -224,13 +450,37 @@ public class Atom implements SExpression {
      * the two {@code Atoms} are the same {@code type} and have the same value. The {@code eql}
      * method does not dynamically cast types: e.g. comparing an {@code Atom} representing the
      * number zero (0) and Atom.F will return {@code false}, even though {@code toB()} treats them
-     * as the same.
+     * as the same. Likewise the integer 1 and the float 1.0 are not value-equal.
      *
      * @param rhs The {@code Atom} to compare to.
      * @return True if this {@code Atom} and the given {@code Atom} are value-equal, false otherwise.
      */
     public boolean eql(final Atom rhs) {
+        if (this instanceof FixnumAtom || rhs instanceof FixnumAtom) {
+            return this instanceof FixnumAtom && rhs instanceof FixnumAtom &&
+                   ((FixnumAtom) this).value == ((FixnumAtom) rhs).value;
+        }
+        if (this instanceof FlonumAtom || rhs instanceof FlonumAtom) {
+            return this instanceof FlonumAtom && rhs instanceof FlonumAtom &&
+                   Double.compare(((FlonumAtom) this).value, ((FlonumAtom) rhs).value) == 0;
+        }
+        if (this.type == Type.Object || rhs.type == Type.Object) {
+            return this == rhs;
+        }
         return (this.type == rhs.type &&
                 Objects.equals(this.value, rhs.value));
     }
+
+    /**
+     * Returns a hash code for this {@link Atom} that is consistent with {@link #eql(Atom)}:
+     * value-equal {@code Atoms} have the same hash code.
+     *
+     * @return The hash code of this {@code Atom's} type and value.
+     */
+    public int sxhash() {
+        if (this instanceof FixnumAtom) { return Long.hashCode(((FixnumAtom) this).value); }
+        if (this instanceof FlonumAtom) { return Double.hashCode(((FlonumAtom) this).value); }
+        if (this.type == Type.Object) { return System.identityHashCode(this); }
+        return Objects.hash(type, value);
+    }
 }
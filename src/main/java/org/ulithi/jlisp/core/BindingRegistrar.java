@@ -3,7 +3,7 @@ package org.ulithi.jlisp.core;
 /**
  * A {@link BindingRegistrar} is a registry for function, symbol and other bindings provided by a
  * {@link BindingProvider} such as a "package". A {@code BindingRegistrar} -- such as the
- * {@code Environment} -- typically provides lookup and other binding management at runtime.
+ * core package of the {@code Environment} -- typically provides lookup and other binding management at runtime.
  */
 public interface BindingRegistrar {
     /**
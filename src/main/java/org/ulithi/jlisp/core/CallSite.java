@@ -0,0 +1,80 @@
+package org.ulithi.jlisp.core;
+
+/**
+ * A {@link CallSite} is a monomorphic inline cache for the operator of one form in a compiled
+ * function body: it remembers the global function that the operator's name was bound to the last
+ * time the form was evaluated, along with the {@link Environment#definitions() version} of the
+ * global definitions at the time. As long as no global binding has changed since, the function is
+ * still the right one, and finding it takes one volatile read and two identity checks rather than
+ * a search of the environment.
+ * <p>
+ * Only names that have never been bound locally are cached (see
+ * {@link Environment#isLocal(Identifier)}), since a local binding could shadow the global one
+ * while it is in scope.
+ * <p>
+ * The cache is keyed by the environment's user package rather than the environment itself, so a
+ * compiled function shared by environments {@link Environment#fork() forked} from one another,
+ * e.g. on different threads, keeps a single valid entry for all of them.
+ */
+public final class CallSite {
+
+    /** The name of the operator. */
+    private final Identifier identifier;
+
+    /** The cached function, or null if there is none yet. Replaced, never modified. */
+    private Target target;
+
+    /**
+     * Creates a new, empty {@link CallSite}.
+     * @param identifier The name of the operator.
+     */
+    public CallSite(final Identifier identifier) {
+        this.identifier = identifier;
+    }
+
+    /**
+     * @return The name of the operator.
+     */
+    public Identifier identifier() {
+        return identifier;
+    }
+
+    /**
+     * Returns the global function bound to this call site's name in the given environment,
+     * from the cache if it is still valid.
+     *
+     * @param env The environment the form is being evaluated in.
+     * @return The global function bound to the name, or null if there is none or if a local
+     *         binding might shadow it: see {@link Environment#getGlobalFunction(Identifier)}.
+     */
+    public Function function(final Environment env) {
+        final Environment.UserPackage globals = env.userPackage();
+        final int version = globals.version();
+        final Target cached = target;
+
+        if (cached != null && cached.version == version && cached.globals == globals) {
+            return cached.function;
+        }
+
+        final Function function = env.getGlobalFunction(identifier);
+        target = function == null ? null : new Target(globals, version, function);
+        return function;
+    }
+
+    /**
+     * A cached function, and the user package and version of the global definitions it was found
+     * in. Immutable, so a cache entry is always seen whole, even by another thread.
+     */
+    private static final class Target {
+        private final Environment.UserPackage globals;
+        private final int version;
+        private final Function function;
+
+        private Target(final Environment.UserPackage globals, final int version,
+                       final Function function) {
+            this.globals = globals;
+            this.version = version;
+            this.function = function;
+        }
+    }
+}
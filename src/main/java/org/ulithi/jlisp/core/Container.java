@@ -0,0 +1,25 @@
+package org.ulithi.jlisp.core;
+
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A value that holds other values outside of any list cells: e.g. a {@link HashTable} or a
+ * {@link Vector}. The {@link Environment} uses this to find, and then update, the lists held by
+ * such values when it collects its arena.
+ */
+interface Container {
+
+    /**
+     * Performs the given action on each value held by this container.
+     * @param action The action to perform on each value.
+     */
+    void forEachElement(Consumer<SExpression> action);
+
+    /**
+     * Replaces each value held by this container with the result of applying the given function
+     * to it.
+     * @param function The function giving the replacement for a value.
+     */
+    void replaceElements(UnaryOperator<SExpression> function);
+}
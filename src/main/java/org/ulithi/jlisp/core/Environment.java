@@ -1,6 +1,10 @@
 package org.ulithi.jlisp.core;
 
 import org.ulithi.jlisp.exception.EvaluationException;
+import org.ulithi.jlisp.mem.Arena;
+import org.ulithi.jlisp.mem.Cell;
+import org.ulithi.jlisp.mem.Ref;
+import org.ulithi.jlisp.primitive.Bulk;
 import org.ulithi.jlisp.primitive.Collections;
 import org.ulithi.jlisp.primitive.Lang;
 import org.ulithi.jlisp.primitive.Logic;
@@ -9,10 +13,16 @@ import org.ulithi.jlisp.primitive.Predicate;
 import org.ulithi.jlisp.primitive.Util;
 import org.ulithi.jlisp.test.UnitTest;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.List;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The JLISP {@link Environment}. An {@code Environment} is a sequence of "frames", where a frame
@@ -23,73 +33,120 @@ import java.util.Map;
  * function invocation creates a "scope" that is effective over the lifetime of the invocation,
  * where new dynamically-scoped bindings (e.g. variables) can be created. The scope is released
  * when the function returns.
+ * <p>
+ * A user-defined function invocation instead creates an "activation": a scope whose bindings are
+ * the function's formal parameters, held in a pair of arrays in parameter order. References to a
+ * parameter in the function body are resolved ahead of time to a slot in the activation (see
+ * {@link LocalVariable}), so reading a parameter is an array access. An activation's bindings are
+ * still visible to name lookup, though, so a function called from the body sees them as
+ * dynamically-scoped bindings, exactly as it would see bindings in any other scope.
+ * <p>
+ * An {@code Environment} can be given an {@link Arena} to hold the list values of user-defined
+ * (global) bindings, e.g. a {@link org.ulithi.jlisp.mem.DirectArena} to keep large data off the
+ * Java heap. A list is copied into the arena when it is bound, and {@link #collectGarbage()}
+ * reclaims the arena cells that no binding can reach any more.
+ * <p>
+ * Names are resolved as {@link Identifier Identifiers}, interned by the {@link SymbolTable}, so
+ * name lookup is case-insensitive but never has to fold the case of a name itself. Methods that
+ * take a {@code String} name intern it first.
+ * <p>
+ * The user package remembers which identifiers have ever named a binding in a scope or activation
+ * (see {@link #isLocal(Identifier)}). One that never has can only be bound in a package, so
+ * looking it up goes straight to the user and core packages, however many frames the call stack
+ * holds. Only names that are actually used for parameters or scoped bindings are searched frame
+ * by frame.
+ * <p>
+ * The packages and the scopes have different concurrency rules. The core package is built once,
+ * and never changes after that, so it is shared by every environment. The user package is a
+ * concurrent map, which can be shared by several environments (see {@link #fork()}): a function
+ * or variable defined through one of them is visible to the others as soon as it is defined. The
+ * scopes and activations, though, are the state of a single evaluation, so an
+ * {@code Environment} must only be used by one thread at a time. To evaluate against the same
+ * definitions on several threads, give each thread an environment of its own from {@link #fork()}.
  */
-public final class Environment implements BindingRegistrar {
+public final class Environment {
 
-    /**
-     * The index of the "core" frame/package in the "frames" list.
-     */
-    private static final int CORE_FRAME_INDEX = 0;
+    /** The largest number of released frames of each kind kept for reuse. */
+    private static final int MAX_FREE_FRAMES = 64;
 
     /**
-     * The index of the (initially empty) "user" frame/package in the "frames" list.
+     * The "core" package of built-in functions and symbols. It is built when the first environment
+     * is created, and is immutable after that, so it is shared by all environments.
      */
-    private static final int USER_FRAME_INDEX = 1;
+    private static final Map<Identifier, Bindable> CORE = Core.build();
 
     /**
-     * The number of packages (whose symbols can't be redefined) currently loaded in this
-     * environment, including the built-in "core" package. At this time, packages must be
-     * created (not necessarily with bindings as well) when the environment is first initialized:
-     * after initialization, the package count doesn't change.
+     * The "user" package of user-defined functions and symbols with global scope, shared with any
+     * environments forked from this one.
      */
-    private final int packageCount;
+    private final UserPackage user;
 
     /**
-     * The number of function-specific scopes in this environment. In general, the index of the
-     * most recently started function-specific scope will be at:
-     *    packageCount + scopeCount - 1
+     * The function-specific scopes and activations, in the order they were started: the most
+     * recently started is last.
      */
-    private int scopeCount = 0;
+    private final java.util.List<Frame> frames = new ArrayList<>();
+
+    /** The most recently started activation, or null if no user function is being invoked. */
+    private Activation activation = null;
 
     /**
-     * The environment frames. The "core" language package is the first frame in the list,
-     * followed by user-defined bindings, followed by dynamically scoped bindings.
+     * Scopes released by {@link #endScope()}, kept to be reused by {@link #startScope()}, so that
+     * starting a scope doesn't usually allocate one.
      */
-    private final List<Map<String, Bindable>> frames;
+    private final java.util.List<Scope> freeScopes = new ArrayList<>();
+
+    /** Activations released by {@link #endScope()}, kept to be reused by {@link #startActivation}. */
+    private final java.util.List<Activation> freeActivations = new ArrayList<>();
+
+    /** The arena holding the list values of user bindings, or null to keep them on the heap. */
+    private final Arena arena;
 
     /**
-     * Initializes the {@code environment}, including creating a frame for core (built-in)
-     * language functions and symbols, and an empty frame for user-defined bindings.
+     * Initializes the {@code environment}, with the shared package of core (built-in) language
+     * functions and symbols, and an empty package for user-defined bindings.
      */
     public Environment() {
-        frames = new ArrayList<>();
-        frames.add(new HashMap<>());
-        new Collections().provideBindings(this);
-        new Lang().provideBindings(this);
-        new Logic().provideBindings(this);
-        new Math().provideBindings(this);
-        new Predicate().provideBindings(this);
-        new UnitTest().provideBindings(this);
-        new Util().provideBindings(this);
-
-        // Add the "user" frame.
-        frames.add(new HashMap<>());
-
-        packageCount = frames.size();
+        this(null);
     }
 
     /**
-     * {@inheritDoc}
+     * Initializes the {@code environment}, as {@link #Environment()} does, with the given
+     * {@link Arena} to hold the list values of user-defined bindings.
+     *
+     * @param arena The arena for user-defined list values, or null to keep them on the heap.
      */
-    @Override
-    public void register(final Binding binding) {
-        final Map<String, Bindable> core = frames.get(CORE_FRAME_INDEX);
+    public Environment(final Arena arena) {
+        this(arena, new UserPackage());
+    }
 
-        registerBinding(binding.name(), binding.bindable(), core);
+    /**
+     * Initializes the {@code environment} with the given user package.
+     *
+     * @param arena The arena for user-defined list values, or null to keep them on the heap.
+     * @param user The user-defined bindings.
+     */
+    private Environment(final Arena arena, final UserPackage user) {
+        this.arena = arena;
+        this.user = user;
+    }
 
-        for (final String synonym: binding.synonyms() ) {
-            registerBinding(synonym, binding.bindable(), core);
+    /**
+     * Creates an environment that shares this environment's core and user-defined bindings, but
+     * has no function scopes of its own: e.g. to evaluate forms on another thread, against the
+     * functions and variables already defined here. Bindings added to the user package by either
+     * environment are visible to both.
+     *
+     * @return A new environment, sharing this environment's global bindings.
+     * @throws EvaluationException If this environment has an {@link Arena}: arena cells are
+     *         moved by {@link #collectGarbage()}, so an arena can't be shared between threads.
+     */
+    public Environment fork() {
+        if (arena != null) {
+            throw new EvaluationException("An environment with an arena can't be shared");
         }
+
+        return new Environment(null, user);
     }
 
     /**
@@ -102,15 +159,35 @@ public final class Environment implements BindingRegistrar {
      *         name is already defined in 'core' or another package.
      */
     public void addBinding(final String name, final Bindable bindable) {
-        if (scopeCount <= 0) {
-            throw new EvaluationException("No  active scope to add binding '" + name + "' to");
+        addBinding(SymbolTable.intern(name), bindable);
+    }
+
+    /**
+     * Adds the identified {@link Bindable} (a function or symbol) to the most recently started
+     * dynamic scope.
+     *
+     * @param identifier The identifier to associate with the binding.
+     * @param bindable The {@link Bindable} object to be bound.
+     * @throws EvaluationException If there is no active scope to add the binding to, or the
+     *         name is already defined in 'core' or another package.
+     */
+    public void addBinding(final Identifier identifier, final Bindable bindable) {
+        if (frames.isEmpty()) {
+            throw new EvaluationException("No  active scope to add binding '" + identifier + "' to");
         }
 
-        if (!canDefine(name)) {
-            throw new EvaluationException("Binding '" + name + "' already defined");
+        if (!canDefine(identifier)) {
+            throw new EvaluationException("Binding '" + identifier + "' already defined");
         }
 
-        frames.get(frames.size() - 1).put(name.toLowerCase(), bindable);
+        final Frame frame = frames.get(frames.size() - 1);
+
+        if (!(frame instanceof Scope)) {
+            throw new EvaluationException("Can't add binding '" + identifier + "' to a function activation");
+        }
+
+        markLocal(identifier);
+        ((Scope) frame).put(identifier, bindable);
     }
 
     /**
@@ -120,50 +197,364 @@ public final class Environment implements BindingRegistrar {
      */
     public void addUserBinding(final Binding binding) {
         final String name = binding.name();
+        final Identifier identifier = SymbolTable.intern(name);
 
-        if (isCoreBinding(name)) {
+        if (isCoreBinding(identifier)) {
             throw new EvaluationException("Binding '" + name + "' already defined");
         }
 
+        Bindable bindable = binding.bindable();
+
+        if (arena != null && bindable instanceof List) {
+            bindable = arena.copyOf((List) bindable);
+        }
+
         // TODO Can a name be rebound to a different binding type (e.g. symbol rebound to function)?
-        frames.get(USER_FRAME_INDEX).put(name.toLowerCase(), binding.bindable());
+        user.bindings.put(identifier, bindable);
+        user.version.incrementAndGet();
+    }
+
+    /**
+     * Returns the version of the global definitions: a counter that is incremented whenever a
+     * user-defined binding is added or changed, or a name is first bound locally, in this
+     * environment or any that shares its user package. A {@link CallSite} uses it to tell that
+     * the function it found is still the one bound to its name.
+     *
+     * @return The current version of the global definitions.
+     */
+    public int definitions() {
+        return user.version.get();
+    }
+
+    /**
+     * Indicates if the given identifier has ever named a local binding, in this environment or
+     * any that shares its user package: a parameter of a user-defined function, or a binding in a
+     * dynamic scope. Such a binding can shadow a global one while it is in scope, so a name that
+     * has never been local is known to mean its global binding.
+     *
+     * @param identifier A function, variable or symbol identifier.
+     * @return True if the identifier has ever named a local binding.
+     */
+    public boolean isLocal(final Identifier identifier) {
+        return user.locals.contains(identifier);
+    }
+
+    /**
+     * Returns the function bound to the given identifier in the user or core package, if the
+     * identifier can only mean that binding: i.e. if it has never named a local binding, which
+     * could shadow the global one.
+     *
+     * @param identifier A function identifier.
+     * @return The global function bound to the identifier, or null if there is none or if a local
+     *         binding might shadow it.
+     */
+    public Function getGlobalFunction(final Identifier identifier) {
+        if (isLocal(identifier)) { return null; }
+
+        final Bindable bindable = getGlobalBinding(identifier);
+        return bindable instanceof Function ? (Function) bindable : null;
+    }
+
+    /**
+     * Returns the user package of this environment. Environments with the same user package have
+     * the same global bindings, so a {@link CallSite} can share a cached function between them.
+     *
+     * @return The user package.
+     */
+    UserPackage userPackage() {
+        return user;
+    }
+
+    /**
+     * If this environment has an {@link Arena}, and it has grown enough since it was last
+     * collected, reclaims the arena cells that are no longer reachable from any binding, or from
+     * a {@link Container} (e.g. a hash table) that is bound to a name or held in the arena. Cells
+     * move during a collection, so it only happens between top-level evaluations, when no
+     * function scope is active: at any other time this method does nothing.
+     * <p>
+     * A list on the heap may share its tail, or a sub-list, with a list in the arena: e.g. the
+     * result of {@code CONS} onto a global list, stored in a hash table. Every heap list reachable
+     * from a binding or a container is traced, so that the arena cells it refers to are kept, and
+     * its cells are updated to refer to their new locations.
+     */
+    public void collectGarbage() {
+        if (arena == null || !frames.isEmpty() || !arena.isCollectionDue()) { return; }
+
+        final java.util.List<Map.Entry<Identifier, Bindable>> entries = new ArrayList<>();
+        final java.util.List<Container> containers = new ArrayList<>();
+        final java.util.List<List> held = new ArrayList<>();
+        final java.util.List<Cell> firsts = new ArrayList<>();
+        final java.util.List<Cell> rests = new ArrayList<>();
+        final Deque<Object> pending = new ArrayDeque<>();
+        final Map<Object, Boolean> visited = new IdentityHashMap<>();
+
+        for (final Map.Entry<Identifier, Bindable> entry : user.bindings.entrySet()) {
+            if (isInArena(entry.getValue())) {
+                entries.add(entry);
+            } else {
+                pending.push(entry.getValue());
+            }
+        }
+
+        arena.forEachAtom(atom -> { if (atom instanceof Container) { pending.push(atom); } });
+
+        while (!pending.isEmpty()) {
+            final Object value = pending.pop();
+
+            if (value instanceof Container) {
+                if (visited.put(value, Boolean.TRUE) != null) { continue; }
+
+                final int before = held.size();
+                ((Container) value).forEachElement(element -> {
+                    if (isInArena(element)) {
+                        held.add(element.toList());
+                    } else {
+                        pending.push(element);
+                    }
+                });
+                if (held.size() > before) { containers.add((Container) value); }
+            } else if (value instanceof List) {
+                pending.push(((List) value).getRoot());
+            } else if (value instanceof Cell) {
+                traceHeapCells((Cell) value, firsts, rests, pending, visited);
+            }
+        }
+
+        final int[] roots = new int[entries.size() + held.size() + firsts.size() + rests.size()];
+        int r = 0;
+
+        for (final Map.Entry<Identifier, Bindable> entry : entries) {
+            roots[r++] = arena.store(((List) entry.getValue()).getRoot());
+        }
+        for (final List list : held) { roots[r++] = arena.store(list.getRoot()); }
+        for (final Cell cell : firsts) { roots[r++] = arena.store(cell.getFirst()); }
+        for (final Cell cell : rests) { roots[r++] = arena.store(cell.getRest()); }
+
+        arena.collect(roots);
+        r = 0;
+
+        for (final Map.Entry<Identifier, Bindable> entry : entries) {
+            entry.setValue(List.create(arena.load(roots[r++])));
+        }
+
+        final Map<SExpression, SExpression> moved = new IdentityHashMap<>();
+        for (final List list : held) { moved.put(list, List.create(arena.load(roots[r++]))); }
+        for (final Container container : containers) {
+            container.replaceElements(sexp -> moved.getOrDefault(sexp, sexp));
+        }
+
+        for (final Cell cell : firsts) { cell.setFirst(arena.load(roots[r++])); }
+        for (final Cell cell : rests) { cell.setRest(arena.load(roots[r++])); }
+    }
+
+    /**
+     * Walks the heap cells of a list, before a collection, following {@code rest} fields
+     * iteratively. Cells whose {@code first} or {@code rest} is a cell in the arena are recorded,
+     * to be updated after the collection; sub-lists on the heap, and containers, are left in
+     * {@code pending} to be traced in turn.
+     *
+     * @param cell The first cell of a list.
+     * @param firsts The heap cells whose {@code first} is in the arena.
+     * @param rests The heap cells whose {@code rest} is in the arena.
+     * @param pending The values still to be traced.
+     * @param visited The cells and containers already traced.
+     */
+    private void traceHeapCells(final Cell cell,
+                                final java.util.List<Cell> firsts,
+                                final java.util.List<Cell> rests,
+                                final Deque<Object> pending,
+                                final Map<Object, Boolean> visited) {
+        Ref it = cell;
+
+        while (it instanceof Cell && !arena.contains(it) && visited.put(it, Boolean.TRUE) == null) {
+            final Cell curr = (Cell) it;
+            final Ref first = curr.getFirst();
+
+            if (arena.contains(first)) {
+                firsts.add(curr);
+            } else if (first instanceof Cell || first instanceof Container) {
+                pending.push(first);
+            }
+
+            if (curr.isStorage()) { return; }
+
+            it = curr.getRest();
+
+            if (arena.contains(it)) {
+                rests.add(curr);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param value A bound value, or a value held by a container.
+     * @return True if the value is a list whose cells are in this environment's arena.
+     */
+    private boolean isInArena(final Object value) {
+        return value instanceof List && arena.contains(((List) value).getRoot());
     }
 
     /**
      * Creates a frame/scope, to manage bindings for a new function invocation.
      */
     public void startScope() {
-        frames.add(new HashMap<>());
-        scopeCount++;
+        frames.add(freeScopes.isEmpty() ? new Scope() : freeScopes.remove(freeScopes.size() - 1));
+    }
+
+    /**
+     * Creates an activation, to hold the arguments for a new user-defined function invocation.
+     * The activation is ended, like any other scope, by {@link #endScope()}.
+     *
+     * @param names The identifiers of the function's formal parameters, in order.
+     * @param values The arguments to the function, in the same order as {@code names}.
+     */
+    public void startActivation(final Identifier[] names, final SExpression[] values) {
+        markLocal(names);
+        activation = freeActivations.isEmpty()
+                ? new Activation(names, values, activation)
+                : freeActivations.remove(freeActivations.size() - 1).reset(names, values, activation);
+        frames.add(activation);
+    }
+
+    /**
+     * Replaces the arguments in the most recently started activation, which must be the most
+     * recently started frame, for a new user-defined function invocation: a call in tail position
+     * that takes the place of the invocation the activation was created for.
+     * <p>
+     * Bindings already in the activation that the new parameters don't shadow are kept, after the
+     * new ones, so the called function still sees the caller's parameters as dynamically-scoped
+     * bindings, as it would if it had an activation of its own. A loop of tail calls between
+     * functions with different parameter names therefore runs in one activation, holding a single
+     * binding for each distinct parameter name in the loop.
+     *
+     * @param names The identifiers of the function's formal parameters, in order.
+     * @param values The arguments to the function, in the same order as {@code names}.
+     * @throws EvaluationException If the most recent frame is not an activation.
+     */
+    public void replaceActivation(final Identifier[] names, final SExpression[] values) {
+        if (activation == null || frames.get(frames.size() - 1) != activation) {
+            throw new EvaluationException("No current activation to replace");
+        }
+
+        markLocal(names);
+
+        final Identifier[] oldNames = activation.names;
+        final SExpression[] oldValues = activation.values;
+        int kept = 0;
+
+        if (oldNames != names) {
+            for (final Identifier name : oldNames) {
+                if (!contains(names, name)) { kept++; }
+            }
+        }
+
+        if (kept == 0) {
+            activation.names = names;
+            activation.values = values;
+            return;
+        }
+
+        final Identifier[] newNames = Arrays.copyOf(names, names.length + kept);
+        final SExpression[] newValues = Arrays.copyOf(values, values.length + kept);
+        int slot = names.length;
+
+        for (int i = 0; i < oldNames.length; i++) {
+            if (!contains(names, oldNames[i])) {
+                newNames[slot] = oldNames[i];
+                newValues[slot++] = oldValues[i];
+            }
+        }
+
+        activation.names = newNames;
+        activation.values = newValues;
+    }
+
+    /**
+     * @return The number of function scopes and activations currently started.
+     */
+    public int depth() {
+        return frames.size();
+    }
+
+    /**
+     * @param names An array of identifiers.
+     * @param name An identifier.
+     * @return True if the identifier is in the array.
+     */
+    private static boolean contains(final Identifier[] names, final Identifier name) {
+        for (final Identifier each : names) {
+            if (each == name) { return true; }
+        }
+        return false;
     }
 
     /**
      * Ends the most recently started frame/scope, typically to release bindings after
-     * a completed function invocation.
+     * a completed function invocation. The frame is kept to be reused by a later scope or
+     * activation.
      */
     public void endScope() {
-        if (scopeCount <= 0) {
+        if (frames.isEmpty()) {
             throw new EvaluationException("Scope index underflow");
         }
 
-        frames.remove(frames.size() - 1);
-        scopeCount--;
+        final Frame frame = frames.remove(frames.size() - 1);
+
+        if (frame == activation) {
+            activation = activation.previous;
+            if (freeActivations.size() < MAX_FREE_FRAMES) {
+                freeActivations.add(((Activation) frame).reset(null, null, null));
+            }
+        } else if (freeScopes.size() < MAX_FREE_FRAMES) {
+            freeScopes.add(((Scope) frame).clear());
+        }
     }
 
     /**
-     * Registers the named binding in the given frame, and warns if an existing definition
-     * is being overwritten.
+     * Returns the value of a user-defined function parameter, by its lexical address.
      *
-     * @param name The programmatic name to associate with the binding.
-     * @param bindable The {@link Bindable} object to be bound.
-     * @param frame The frame to which the binding should be added.
+     * @param depth The number of activations to skip, from the most recent one, to find the
+     *              activation of the function that defines the parameter: zero for the
+     *              function currently being invoked.
+     * @param slot The index of the parameter in the function's list of formal parameters.
+     * @return The argument bound to the parameter.
+     * @throws EvaluationException If there is no such activation.
      */
-    private void registerBinding(final String name,
-                                 final Bindable bindable,
-                                 final Map<String, Bindable> frame) {
-        if (frame.put(name.toLowerCase(), bindable) != null) {
-            System.err.println("WARNING: Binding for '" + name + "' overwritten");
+    public SExpression getLocal(final int depth, final int slot) {
+        Activation frame = activation;
+
+        for (int i = 0; i < depth && frame != null; i++) {
+            frame = frame.previous;
         }
+
+        if (frame == null) {
+            throw new EvaluationException("No active function invocation for local variable reference");
+        }
+
+        return frame.values[slot];
+    }
+
+    /**
+     * Returns the binding for the given identifier in the core package. Since core bindings can't
+     * be redefined or shadowed, the result is valid for the lifetime of this environment.
+     *
+     * @param identifier A function, variable or symbol identifier.
+     * @return The core binding for the given identifier, or null if there is none.
+     */
+    public Bindable getCoreBinding(final Identifier identifier) {
+        return CORE.get(identifier);
+    }
+
+    /**
+     * Indicates if the given identifier may be bound as a user-defined function parameter: i.e.,
+     * that it doesn't name a core language function or symbol, which can't be shadowed.
+     *
+     * @param identifier A parameter name.
+     * @return True if the identifier can be used as a parameter name, false otherwise.
+     */
+    public boolean canBindLocal(final Identifier identifier) {
+        return !isCoreBinding(identifier);
     }
 
     /**
@@ -183,29 +574,61 @@ public final class Environment implements BindingRegistrar {
      * @return The current binding for the given name.
      */
     public Bindable getBinding(final String name) {
-        return getBinding(name, frames.size() - 1);
+        return getBinding(SymbolTable.intern(name));
     }
 
     /**
-     * Returns the binding for the given name, in the current environment. The name search
-     * starts at the frame denoted by the given {@code startIndex} and proceeds back to the
-     * "core" package. This is primarily to search for names defined in either the core or
-     * other loaded packages, that can't be overwritten by dynamically-scoped names.
+     * Returns the binding for the given identifier, in the current environment.
      *
-     * @param name A function, variable or symbol name.
-     * @return The current binding for the given name.
+     * @param identifier A function, variable or symbol identifier.
+     * @return The current binding for the given identifier.
      */
-    private Bindable getBinding(final String name, final int startIndex) {
-        final String bindingName = name.toLowerCase();
-
-        for (int i = startIndex; i >= 0; i--) {
-            final Map<String, Bindable> frame = frames.get(i);
-            if (frame.containsKey(bindingName)) {
-                return frame.get(bindingName);
+    public Bindable getBinding(final Identifier identifier) {
+        if (isLocal(identifier)) {
+            for (int i = frames.size() - 1; i >= 0; i--) {
+                final Bindable bindable = frames.get(i).get(identifier);
+                if (bindable != null) {
+                    return bindable;
+                }
             }
         }
 
-        return null;
+        return getGlobalBinding(identifier);
+    }
+
+    /**
+     * Returns the binding for the given identifier in the user or core package, ignoring any
+     * scopes. This is primarily to search for names defined in either the core or user packages,
+     * that can't be overwritten by dynamically-scoped names.
+     *
+     * @param identifier A function, variable or symbol identifier.
+     * @return The global binding for the given identifier, or null if there is none.
+     */
+    private Bindable getGlobalBinding(final Identifier identifier) {
+        final Bindable bindable = user.bindings.get(identifier);
+        return bindable != null ? bindable : CORE.get(identifier);
+    }
+
+    /**
+     * Records that the given identifier names a binding in a scope or activation, so that it is
+     * no longer looked up in the packages alone. The first time, the version of the global
+     * definitions is incremented, since a {@link CallSite} may have cached the global function
+     * the identifier can now be shadowed by.
+     *
+     * @param identifier A function, variable or symbol identifier.
+     */
+    private void markLocal(final Identifier identifier) {
+        if (!user.locals.contains(identifier) && user.locals.add(identifier)) {
+            user.version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records that the given identifiers name bindings in an activation.
+     * @param names The identifiers of a function's formal parameters.
+     */
+    private void markLocal(final Identifier[] names) {
+        for (final Identifier name : names) { markLocal(name); }
     }
 
     /**
@@ -215,19 +638,162 @@ public final class Environment implements BindingRegistrar {
      * in the core or user-defined packages, then it can't be redefined and this method returns
      * false.
      *
-     * @param name A function, variable or symbol name.
+     * @param identifier A function, variable or symbol identifier.
      * @return True if the given name can be defined/redefined, false otherwise.
      */
-    private boolean canDefine(final String name) {
-        return getBinding(name, packageCount - 1) == null;
+    private boolean canDefine(final Identifier identifier) {
+        return getGlobalBinding(identifier) == null;
     }
 
     /**
-     * Indicates if the given name is defined in the core package.
-     * @param name A function, variable or symbol name.
-     * @return True if the given name is defined in the core package, false otherwise.
+     * Indicates if the given identifier is defined in the core package.
+     * @param identifier A function, variable or symbol identifier.
+     * @return True if the given identifier is defined in the core package, false otherwise.
+     */
+    private boolean isCoreBinding(final Identifier identifier) {
+        return CORE.containsKey(identifier);
+    }
+
+    /**
+     * Collects the bindings of the built-in packages into the core package.
+     */
+    private static final class Core implements BindingRegistrar {
+        private final Map<Identifier, Bindable> bindings = new HashMap<>();
+
+        /**
+         * @return The bindings of every built-in package, in an immutable map.
+         */
+        static Map<Identifier, Bindable> build() {
+            final Core core = new Core();
+            new Bulk().provideBindings(core);
+            new Collections().provideBindings(core);
+            new Lang().provideBindings(core);
+            new Logic().provideBindings(core);
+            new Math().provideBindings(core);
+            new Predicate().provideBindings(core);
+            new UnitTest().provideBindings(core);
+            new Util().provideBindings(core);
+            return java.util.Collections.unmodifiableMap(core.bindings);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void register(final Binding binding) {
+            registerBinding(binding.name(), binding.bindable());
+
+            for (final String synonym: binding.synonyms() ) {
+                registerBinding(synonym, binding.bindable());
+            }
+        }
+
+        /**
+         * Registers the named binding, and warns if an existing definition is being overwritten.
+         *
+         * @param name The programmatic name to associate with the binding.
+         * @param bindable The {@link Bindable} object to be bound.
+         */
+        private void registerBinding(final String name, final Bindable bindable) {
+            if (bindings.put(SymbolTable.intern(name), bindable) != null) {
+                System.err.println("WARNING: Binding for '" + name + "' overwritten");
+            }
+        }
+    }
+
+    /**
+     * The user package: the user-defined bindings, and the state that tells whether a binding
+     * found there is still current. It is shared by every environment {@link #fork() forked}
+     * from the one that created it, and by no other, so definitions made against one program
+     * don't invalidate the cached functions of another.
+     */
+    static final class UserPackage {
+        /** The user-defined functions and symbols with global scope. */
+        private final Map<Identifier, Bindable> bindings = new ConcurrentHashMap<>();
+
+        /** The version of the global definitions: see {@link Environment#definitions()}. */
+        private final AtomicInteger version = new AtomicInteger();
+
+        /** The identifiers that have named a local binding: see {@link Environment#isLocal}. */
+        private final Set<Identifier> locals = ConcurrentHashMap.newKeySet();
+
+        /**
+         * @return The current version of the global definitions in this package.
+         */
+        int version() {
+            return version.get();
+        }
+    }
+
+    /**
+     * A frame of the environment: a collection of bindings, keyed by identifier.
+     */
+    private abstract static class Frame {
+        /**
+         * Returns the binding for the given identifier in this frame.
+         * @param identifier A function, variable or symbol identifier.
+         * @return The binding, or null if this frame has no binding for the identifier.
+         */
+        abstract Bindable get(Identifier identifier);
+    }
+
+    /**
+     * A dynamic scope: bindings held in a map, created when the first binding is
+     * added, since most function invocations never add any.
+     */
+    private static final class Scope extends Frame {
+        private Map<Identifier, Bindable> bindings;
+
+        @Override
+        Bindable get(final Identifier identifier) {
+            return bindings == null ? null : bindings.get(identifier);
+        }
+
+        Bindable put(final Identifier identifier, final Bindable bindable) {
+            if (bindings == null) { bindings = new HashMap<>(); }
+            return bindings.put(identifier, bindable);
+        }
+
+        /**
+         * Removes every binding from this scope, so it can be reused.
+         * @return This scope.
+         */
+        Scope clear() {
+            if (bindings != null) { bindings.clear(); }
+            return this;
+        }
+    }
+
+    /**
+     * The bindings for the formal parameters of a user-defined function invocation, held in
+     * parallel arrays indexed by parameter slot.
      */
-    private boolean isCoreBinding(final String name) {
-        return frames.get(CORE_FRAME_INDEX).containsKey(name);
+    private static final class Activation extends Frame {
+        private Identifier[] names;
+        private SExpression[] values;
+        private Activation previous;
+
+        Activation(final Identifier[] names, final SExpression[] values, final Activation previous) {
+            reset(names, values, previous);
+        }
+
+        /**
+         * Reinitializes this activation, so it can be reused for another invocation.
+         * @return This activation.
+         */
+        Activation reset(final Identifier[] names, final SExpression[] values, final Activation previous) {
+            this.names = names;
+            this.values = values;
+            this.previous = previous;
+            return this;
+        }
+
+        @Override
+        Bindable get(final Identifier identifier) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] == identifier) { return values[i]; }
+            }
+            return null;
+        }
     }
 }
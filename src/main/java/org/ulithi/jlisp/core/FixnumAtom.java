@@ -0,0 +1,58 @@
+package org.ulithi.jlisp.core;
+
+/**
+ * A {@link FixnumAtom} is a numeric {@link Atom} whose value is an integer held directly as a
+ * primitive {@code long}, rather than boxed in a {@link Number}. Every integer atom is a
+ * {@code FixnumAtom}: {@link Atom#create(Integer)} and {@link #valueOf(long)} create them, and
+ * {@link Atom#toL()} and {@link Atom#toI()} read them without unboxing.
+ * <p>
+ * {@code FixnumAtoms} are immutable, so the atoms for small integers -- the ones most arithmetic
+ * produces -- are preallocated and shared: {@link #valueOf(long)} only allocates for values
+ * outside the range {@link #CACHE_MIN} to {@link #CACHE_MAX}.
+ */
+public final class FixnumAtom extends Atom {
+
+    /** The smallest value with a shared, preallocated atom. */
+    public static final int CACHE_MIN = -1024;
+
+    /** The largest value with a shared, preallocated atom. */
+    public static final int CACHE_MAX = 1024;
+
+    /** The preallocated atoms for the values {@code CACHE_MIN} to {@code CACHE_MAX}. */
+    private static final FixnumAtom[] CACHE = new FixnumAtom[CACHE_MAX - CACHE_MIN + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new FixnumAtom(CACHE_MIN + i);
+        }
+    }
+
+    /** The value of this atom. */
+    final long value;
+
+    /**
+     * Returns a {@link FixnumAtom} representing the given value: the shared instance if the value
+     * is in the cached range, or a new atom otherwise.
+     *
+     * @param value The integer value.
+     * @return A {@code FixnumAtom} representing {@code value}.
+     */
+    public static FixnumAtom valueOf(final long value) {
+        if (value >= CACHE_MIN && value <= CACHE_MAX) {
+            return CACHE[(int) value - CACHE_MIN];
+        }
+        return new FixnumAtom(value);
+    }
+
+    private FixnumAtom(final long value) {
+        super();
+        this.value = value;
+    }
+
+    /**
+     * @return The value of this atom.
+     */
+    public long longValue() {
+        return value;
+    }
+}
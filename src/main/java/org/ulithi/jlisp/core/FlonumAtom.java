@@ -0,0 +1,34 @@
+package org.ulithi.jlisp.core;
+
+/**
+ * A {@link FlonumAtom} is a numeric {@link Atom} whose value is a double-precision floating point
+ * number, held directly as a primitive {@code double}: e.g. {@code 2.5} or {@code -1.0E-3}. Like
+ * {@link FixnumAtom}, it is read by the {@code Atom} conversion methods without unboxing.
+ */
+public final class FlonumAtom extends Atom {
+
+    /** The value of this atom. */
+    final double value;
+
+    /**
+     * Returns a {@link FlonumAtom} representing the given value.
+     *
+     * @param value The floating point value.
+     * @return A {@code FlonumAtom} representing {@code value}.
+     */
+    public static FlonumAtom valueOf(final double value) {
+        return new FlonumAtom(value);
+    }
+
+    private FlonumAtom(final double value) {
+        super();
+        this.value = value;
+    }
+
+    /**
+     * @return The value of this atom.
+     */
+    public double doubleValue() {
+        return value;
+    }
+}
@@ -95,4 +95,15 @@ public interface Function extends Bindable {
      * @return True if this function is used to define another language element, false otherwise.
      */
     default boolean isDefining() { return false; }
+
+    /**
+     * Indicates if this {@link Function} needs a dynamic scope of its own while it is invoked:
+     * i.e. if it adds bindings with {@link Environment#addBinding}, which must be released when
+     * it returns. No scope is started for functions that don't, which is most of them: a
+     * user-defined function binds its parameters in an activation that it starts itself.
+     *
+     * @return True if a scope must be started for each invocation of this function, false
+     *         otherwise.
+     */
+    default boolean needsScope() { return false; }
 }
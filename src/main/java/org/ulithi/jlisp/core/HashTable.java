@@ -0,0 +1,181 @@
+package org.ulithi.jlisp.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@link HashTable} maps keys to values, as LISP hash tables do: unlike an association list,
+ * which is searched from the front, looking a key up in a {@code HashTable} takes constant time
+ * on average.
+ * <p>
+ * A table compares its keys with one of two tests, chosen when it is created:<ul>
+ *     <li>{@link Test#EQL}: atoms are the same key if they are {@code eql}; a non-empty list is
+ *     only the same key as itself (its own root cell), and all empty lists are the same key</li>
+ *     <li>{@link Test#EQUAL}: keys are the same if they are {@code EQUAL}, and are hashed by
+ *     {@link SExpression#sxhash() structure}</li>
+ * </ul>
+ * A {@code HashTable} is an {@link Atom}, so it can be bound to a variable or passed to a
+ * function like any other value. It is only {@code eql} to itself.
+ */
+public final class HashTable extends Atom implements Container {
+
+    /** The tests a {@link HashTable} can use to compare keys. */
+    public enum Test {
+        /** Compare keys as the {@code EQL} function does. */
+        EQL,
+        /** Compare keys as the {@code EQUAL} function does. */
+        EQUAL
+    }
+
+    /** The test used to compare keys. */
+    private final Test test;
+
+    /** The entries of this table, in the order in which they were added. */
+    private final Map<Key, SExpression> entries = new LinkedHashMap<>();
+
+    /**
+     * Creates a new, empty {@link HashTable}.
+     * @param test The test used to compare keys.
+     */
+    public HashTable(final Test test) {
+        super("#<HASH-TABLE " + test + ">");
+        this.test = test;
+    }
+
+    /**
+     * @return The test used to compare keys.
+     */
+    public Test test() {
+        return test;
+    }
+
+    /**
+     * @return The number of entries in this table.
+     */
+    public int count() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the value associated with the given key.
+     * @param key The key to look up.
+     * @return The value associated with {@code key}, or null if there is none.
+     */
+    public SExpression get(final SExpression key) {
+        return entries.get(new Key(key, test));
+    }
+
+    /**
+     * Associates the given value with the given key, replacing any value it had before.
+     * @param key The key.
+     * @param value The value to associate with {@code key}.
+     */
+    public void put(final SExpression key, final SExpression value) {
+        entries.put(new Key(key, test), value);
+    }
+
+    /**
+     * Removes the entry for the given key, if there is one.
+     * @param key The key to remove.
+     * @return True if there was an entry for {@code key}, false otherwise.
+     */
+    public boolean remove(final SExpression key) {
+        return entries.remove(new Key(key, test)) != null;
+    }
+
+    /**
+     * Performs the given action on the key and value of each entry in this table, in the order in
+     * which the entries were added. The action must not add or remove entries.
+     * @param action The action to perform on each entry.
+     */
+    public void forEach(final BiConsumer<SExpression, SExpression> action) {
+        for (final Map.Entry<Key, SExpression> entry : entries.entrySet()) {
+            action.accept(entry.getKey().sexp, entry.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The values held by a table are its keys and values.
+     */
+    @Override
+    public void forEachElement(final Consumer<SExpression> action) {
+        forEach((key, value) -> {
+            action.accept(key);
+            action.accept(value);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The keys are rehashed, since replacing a list key may change its hash code.
+     */
+    @Override
+    public void replaceElements(final UnaryOperator<SExpression> function) {
+        final java.util.List<Map.Entry<Key, SExpression>> old = new ArrayList<>(entries.entrySet());
+        entries.clear();
+        for (final Map.Entry<Key, SExpression> entry : old) {
+            put(function.apply(entry.getKey().sexp), function.apply(entry.getValue()));
+        }
+    }
+
+    /**
+     * Wraps a key of a {@link HashTable}, so that the Java map holding the entries hashes and
+     * compares it according to the table's {@link Test}.
+     */
+    private static final class Key {
+        private final SExpression sexp;
+        private final Test test;
+        private final int hash;
+
+        private Key(final SExpression sexp, final Test test) {
+            this.sexp = sexp;
+            this.test = test;
+            this.hash = test == Test.EQUAL ? sexp.sxhash() : eqlHash(sexp);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) { return false; }
+            final Key rhs = (Key) obj;
+            if (hash != rhs.hash) { return false; }
+            return test == Test.EQUAL ? sexp.isEqual(rhs.sexp) : eql(sexp, rhs.sexp);
+        }
+
+        /**
+         * @param sexp A key.
+         * @return A hash code for the key consistent with {@link #eql}.
+         */
+        private static int eqlHash(final SExpression sexp) {
+            if (sexp.isAtom()) { return sexp.toAtom().sxhash(); }
+            final List list = sexp.toList();
+            return list.isEmpty() ? 0 : list.getRoot().hashCode();
+        }
+
+        /**
+         * @param lhs A key.
+         * @param rhs Another key.
+         * @return True if the keys are eql atoms, the same list, or both empty lists.
+         */
+        private static boolean eql(final SExpression lhs, final SExpression rhs) {
+            if (lhs.isAtom() && rhs.isAtom()) { return lhs.toAtom().eql(rhs.toAtom()); }
+            if (!(lhs.isList() && rhs.isList())) { return false; }
+
+            final List left = lhs.toList();
+            final List right = rhs.toList();
+            if (left.isEmpty() || right.isEmpty()) { return left.isEmpty() && right.isEmpty(); }
+            return left.getRoot().equals(right.getRoot());
+        }
+    }
+}
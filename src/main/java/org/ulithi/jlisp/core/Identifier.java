@@ -0,0 +1,56 @@
+package org.ulithi.jlisp.core;
+
+/**
+ * An {@link Identifier} is the canonical, case-folded form of a name used to look up a binding in
+ * the {@link Environment}: e.g. the name of a function or variable. There is exactly one
+ * {@code Identifier} for each distinct (case-insensitive) name, obtained from the
+ * {@link SymbolTable}, so identifiers are compared by identity and hashed by a value computed once
+ * when the identifier is created.
+ */
+public final class Identifier {
+
+    /** The case-folded name of this identifier. */
+    private final String name;
+
+    /** Hash code of this identifier, computed once. */
+    private final int hash;
+
+    /**
+     * Creates a new {@link Identifier}. Only the {@link SymbolTable} creates identifiers, so that
+     * each is unique.
+     * @param name The case-folded name of the identifier.
+     */
+    Identifier(final String name) {
+        this.name = name;
+        this.hash = name.hashCode();
+    }
+
+    /**
+     * @return The case-folded name of this identifier.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Identifiers are unique, so equality is identity.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -4,11 +4,15 @@ import org.ulithi.jlisp.exception.EvaluationException;
 import org.ulithi.jlisp.exception.JLispRuntimeException;
 import org.ulithi.jlisp.exception.TypeConversionException;
 import org.ulithi.jlisp.mem.Cell;
+import org.ulithi.jlisp.mem.Cursor;
 import org.ulithi.jlisp.mem.PTree;
 import org.ulithi.jlisp.mem.Ref;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.function.Consumer;
 
 import static org.ulithi.jlisp.mem.NilReference.NIL;
 
@@ -26,12 +30,55 @@ public class List implements SExpression {
      */
     private Cell end;
 
+    /**
+     * Indicates if the cells of this list may be referred to by anything other than this
+     * {@code List}: true once its root or tail has been handed out, and for a list created over
+     * existing cells. Until then, {@code add} can extend the list without counting a
+     * {@link Cell#mutations() mutation}, since no other list's cached length or hash can depend
+     * on its cells.
+     */
+    private boolean shared = true;
+
+    /**
+     * The number of top-level elements in this list, as of {@link #lengthStamp}; or -1 if not
+     * known. Maintained by {@code add} and {@code append}, so the length of a list built up by
+     * those methods is known without walking it.
+     */
+    private int length = -1;
+
+    /**
+     * The value of {@link Cell#mutations()} when {@link #length} was last known to be accurate.
+     * If any cell has been modified since, the list may have been changed by something other than
+     * this {@code List}, and the length must be counted again.
+     */
+    private long lengthStamp = -1;
+
+    /** Value of {@link #knownHash()} when the structural hash of a list is not known. */
+    static final int UNKNOWN_HASH = 0;
+
+    /**
+     * The {@link #sxhash() structural hash} of this list, as of {@link #hashStamp}; or
+     * {@link #UNKNOWN_HASH} if not known. A hash that happens to be zero is simply not cached.
+     */
+    private int hash = UNKNOWN_HASH;
+
+    /** The value of {@link Cell#mutations()} when {@link #hash} was computed. */
+    private long hashStamp = -1;
+
+    /** Hash contribution marking the start of a list. */
+    private static final int LIST_START = 0x28;
+
+    /** Hash contribution marking the end of a list. */
+    private static final int LIST_END = 0x29;
+
     /**
      * Creates an empty {@link List}.
      * @return An empty {@code List}.
      */
     public static List create() {
-        return new List(Cell.create());
+        final List list = new List(Cell.create());
+        list.shared = false;
+        return list;
     }
 
     /**
@@ -46,6 +93,41 @@ public class List implements SExpression {
         throw new TypeConversionException("Cannot create List from Atom");
     }
 
+    /**
+     * Creates a new list whose first element is {@code first} and whose remaining elements are the
+     * elements of {@code rest}. Only one cell is allocated: the new list shares the cells of
+     * {@code rest}, as LISP {@code CONS} does.
+     *
+     * @param first A reference to the new first element: an {@code Atom}, or the root cell of a
+     *              non-empty sub-list.
+     * @param rest The rest of the new list.
+     * @return A new {@link List}, one element longer than {@code rest}.
+     */
+    public static List cons(final Ref first, final List rest) {
+        final Cell cell = Cell.create(first, rest.isEmpty() ? NIL : rest.getRoot());
+        final List list = new List(cell);
+        final int length = rest.knownLengthAtEnd();
+
+        if (!rest.isEmpty()) { list.end = rest.end; }
+        list.setLength(length < 0 ? -1 : length + 1);
+
+        return list;
+    }
+
+    /**
+     * Returns the {@link SExpression} for a reference to an element of a list: the {@code Atom}
+     * itself, or a {@code List} wrapping the root cell of a sub-list.
+     *
+     * @param ref A reference held in the {@code first} field of a list cell.
+     * @return The element, as an {@code SExpression}.
+     */
+    public static SExpression valueOf(final Ref ref) {
+        if (ref.isNil()) { return List.create(); }
+        if (ref.isAtom()) { return ref.toAtom(); }
+        if (ref.isCell()) { return List.create(ref); }
+        throw new JLispRuntimeException("Don't know how to fetch value of ref: " + ref);
+    }
+
     /**
      * Private constructor: constructs a new List with the given Cell as its root node.
      * @param root The root node of the new List.
@@ -53,6 +135,7 @@ public class List implements SExpression {
     private List(final Cell root) {
         this.root = root;
         this.end = root;
+        if (root.isNil()) { setLength(0); }
     }
 
     /**
@@ -79,6 +162,7 @@ public class List implements SExpression {
      * @return The root node of this list.
      */
     public Cell getRoot() {
+        shared = true;
         return root;
     }
 
@@ -94,15 +178,17 @@ public class List implements SExpression {
         assert atom != null : "atom is null";
 
         final Cell cell = Cell.create(atom);
+        final int before = knownLengthAtEnd();
 
         if (root.isNil()) {
             root = cell;
             end = root;
         } else {
-            end.setRest(cell);
-            end = cell;
+            extend(cell);
         }
 
+        setLength(before < 0 ? -1 : before + 1);
+
         return this;
     }
 
@@ -119,15 +205,17 @@ public class List implements SExpression {
     public List add(final List list) {
 
         final Cell cell = Cell.createAsList(list.getRoot());
+        final int before = knownLengthAtEnd();
 
         if (this.isEmpty()) {
             root = cell;
             end = root;
         } else {
-            end.setRest(cell);
-            end = (Cell)end.getRest();
+            extend(cell);
         }
 
+        setLength(before < 0 ? -1 : before + 1);
+
         return this;
     }
 
@@ -142,17 +230,58 @@ public class List implements SExpression {
      * @return This {@code List} with the given {@code list} appended.
      */
     public List append(final List list) {
+        final int before = knownLengthAtEnd();
+        final int added = list.knownLength();
+
         if (this.isEmpty()) {
             root = Cell.createAsList(list.getRoot());
             end = root;
+            setLength(1);
         } else {
-            end.setRest(list.getRoot());
+            extend(list.getRoot());
             end = list.end;
+            shared = true;
+            setLength(before < 0 || added < 0 ? -1 : before + added);
         }
 
         return this;
     }
 
+    /**
+     * Links a cell, and any cells that follow it, onto the end of this list. If the cells of this
+     * list haven't been shared, the cell is linked without counting a
+     * {@link Cell#mutations() mutation}, so lengths and hashes cached by other lists stay valid;
+     * this list's own hash is simply discarded.
+     * @param cell The first of the cells to link onto this list.
+     */
+    private void extend(final Cell cell) {
+        if (shared) {
+            end.setRest(cell);
+        } else {
+            end.extend(cell);
+            hash = UNKNOWN_HASH;
+        }
+        end = cell;
+    }
+
+    /**
+     * Returns a {@link Cursor} over the top-level elements of this {@link List}, which walks the
+     * list's cells without allocating.
+     * @return A new {@code Cursor} positioned at the first element of this list.
+     */
+    public Cursor cells() {
+        return new Cursor(getRoot());
+    }
+
+    /**
+     * Performs the given action on each top-level element of this {@link List}, in order.
+     * @param action The action to perform on each element.
+     */
+    public void forEach(final Consumer<? super SExpression> action) {
+        final Cursor it = cells();
+        while (it.hasNext()) { action.accept(it.nextExpression()); }
+    }
+
     /**
      * Indicates if this {@link List} is empty.
      * @return True if this list is empty, false otherwise.
@@ -167,11 +296,7 @@ public class List implements SExpression {
      * @return This {@code List's} first element.
      */
     public SExpression car() {
-        final Ref ref = root.getFirst();
-        if (ref.isNil()) { return List.create(); }
-        if (ref.isAtom()) { return ref.toAtom(); }
-        if (ref.isCell()) { return List.create(ref); }
-        throw new JLispRuntimeException("Don't know how to fetch CAR of ref: " + ref);
+        return valueOf(root.getFirst());
     }
 
     /**
@@ -180,7 +305,7 @@ public class List implements SExpression {
      * @return The referee of this list's root cell's {@code rest} element.
      */
     public SExpression cdr() {
-        final Ref ref = root.getRest();
+        final Ref ref = getRoot().getRest();
         if (ref.isNil()) { return List.create(); }
         if (ref.isCell()) { return List.create(ref); }
         throw new JLispRuntimeException("Don't know how to fetch CDR of ref: " + ref);
@@ -227,9 +352,17 @@ public class List implements SExpression {
      * elements are themselves {@code Lists}, they are counted as a single element for the purposes
      * of this function.
      *
+     * <p>
+     * The length is cached, so this is a constant-time operation for a list built up by
+     * {@code add} and {@code append}, or one whose length has already been counted, as long as
+     * no cell has been modified since.
+     *
      * @return The number of atoms or lists that are direct members of this list.
      */
     public int lengthAsInt() {
+        final int known = knownLength();
+        if (known >= 0) { return known; }
+
         int count = 0;
         Ref curr = root;
 
@@ -238,9 +371,94 @@ public class List implements SExpression {
             curr = curr.toCell().getRest();
         }
 
+        setLength(count);
         return count;
     }
 
+    /**
+     * @return The cached length of this list, or -1 if it is not known or may be out of date.
+     */
+    private int knownLength() {
+        return lengthStamp == Cell.mutations() ? length : -1;
+    }
+
+    /**
+     * Returns the cached length of this list if {@link #end} really is its last cell, or -1. A
+     * list created from an arbitrary cell doesn't know where it ends, and extending it past a cell
+     * that isn't the last one drops the cells that followed.
+     * @return The cached length of this list, or -1.
+     */
+    private int knownLengthAtEnd() {
+        return end.getRest() == NIL ? knownLength() : -1;
+    }
+
+    /**
+     * Caches the given length, as of the current {@link Cell#mutations() mutation count}.
+     * @param length The length of this list, or -1 if not known.
+     */
+    private void setLength(final int length) {
+        this.length = length;
+        this.lengthStamp = Cell.mutations();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The hash is cached, like the length, until any cell is modified.
+     */
+    @Override
+    public int sxhash() {
+        final int known = knownHash();
+        if (known != UNKNOWN_HASH) { return known; }
+
+        hash = hash(root);
+        hashStamp = Cell.mutations();
+        return hash;
+    }
+
+    /**
+     * @return The cached structural hash of this list, or {@link #UNKNOWN_HASH} if it is not
+     *         known or may be out of date.
+     */
+    int knownHash() {
+        return hashStamp == Cell.mutations() ? hash : UNKNOWN_HASH;
+    }
+
+    /**
+     * Computes the structural hash code of a list, given its root cell, by walking its cells with
+     * an explicit stack. The hash combines, in order, the hash of each atom and a marker for the
+     * start and end of each (sub-)list, so lists with the same atoms nested differently hash
+     * differently.
+     *
+     * @param root The root cell of the list, or {@code NIL}.
+     * @return The structural hash code of the list.
+     */
+    private static int hash(final Ref root) {
+        final Deque<Ref> stack = new ArrayDeque<>();
+        Ref curr = root;
+        int hash = LIST_START;
+
+        while (true) {
+            while (!curr.isNil()) {
+                final Cell cell = curr.toCell();
+                final Ref first = cell.getFirst();
+
+                if (first.isCell()) {
+                    hash = 31 * hash + LIST_START;
+                    stack.push(cell.getRest());
+                    curr = first;
+                } else {
+                    hash = 31 * hash + first.toAtom().sxhash();
+                    curr = cell.getRest();
+                }
+            }
+
+            hash = 31 * hash + LIST_END;
+            if (stack.isEmpty()) { return hash; }
+            curr = stack.pop();
+        }
+    }
+
     /**
      * Returns the <em>size</em> of this {@link List} as an integer {@code Atom}. Unlike the
      * {@code length()} method, this method <em>is</em> recursive: returning the total number of
@@ -0,0 +1,46 @@
+package org.ulithi.jlisp.core;
+
+/**
+ * A {@link LocalVariable} is a reference, in the body of a user-defined function, to one of the
+ * function's own formal parameters. It is an {@link Atom} with the same name and value as the
+ * atom it replaces, so it reads, prints and compares exactly like the original, but it also
+ * carries the "lexical address" of the parameter: the {@code depth} (number of enclosing function
+ * activations to skip) and the {@code slot} (position in the parameter list) where the argument
+ * can be found at run time. See {@link Environment#getLocal(int, int)}.
+ * <p>
+ * Since JLISP has no nested function definitions (lambdas), the depth is currently always zero.
+ */
+public final class LocalVariable extends Atom {
+
+    /** The number of activations to skip to find the one holding this variable. */
+    private final int depth;
+
+    /** The index of this variable in its activation. */
+    private final int slot;
+
+    /**
+     * Creates a new {@link LocalVariable} standing in for the given atom.
+     * @param atom The atom naming the parameter, as it appears in the function body.
+     * @param depth The number of activations to skip to find the one holding this variable.
+     * @param slot The index of the parameter in the function's list of formal parameters.
+     */
+    public LocalVariable(final Atom atom, final int depth, final int slot) {
+        super(atom);
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    /**
+     * @return The number of activations to skip to find the one holding this variable.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * @return The index of this variable in its activation.
+     */
+    public int slot() {
+        return slot;
+    }
+}
@@ -0,0 +1,212 @@
+package org.ulithi.jlisp.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * A {@link Ratio} is an exact rational number: the quotient of two arbitrary-precision integers,
+ * e.g. {@code 3/4}. A {@code Ratio} is always in lowest terms, with a positive denominator, so
+ * that equal values have equal representations.
+ * <p>
+ * {@code Ratio} is the value of a rational {@link Atom}. Atoms only ever hold a {@code Ratio}
+ * whose denominator is greater than one: rationals that are whole numbers are represented as
+ * integers. See {@link Atom#create(Ratio)}.
+ */
+public final class Ratio extends Number implements Comparable<Ratio> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The numerator, which carries the sign. */
+    private final BigInteger numerator;
+
+    /** The denominator, which is always positive. */
+    private final BigInteger denominator;
+
+    /**
+     * Returns the {@link Ratio} equal to the given integer.
+     * @param value An integer.
+     * @return {@code value / 1}.
+     */
+    public static Ratio valueOf(final BigInteger value) {
+        return new Ratio(value, BigInteger.ONE);
+    }
+
+    /**
+     * Returns the {@link Ratio} of the given integers, reduced to lowest terms.
+     * @param numerator The numerator.
+     * @param denominator The denominator.
+     * @return {@code numerator / denominator}.
+     * @throws ArithmeticException if the denominator is zero.
+     */
+    public static Ratio valueOf(final BigInteger numerator, final BigInteger denominator) {
+        if (denominator.signum() == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+
+        BigInteger n = numerator;
+        BigInteger d = denominator;
+
+        if (d.signum() < 0) {
+            n = n.negate();
+            d = d.negate();
+        }
+
+        final BigInteger gcd = n.gcd(d);
+
+        if (!gcd.equals(BigInteger.ONE) && gcd.signum() != 0) {
+            n = n.divide(gcd);
+            d = d.divide(gcd);
+        }
+
+        return new Ratio(n, d);
+    }
+
+    private Ratio(final BigInteger numerator, final BigInteger denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    /**
+     * @return The numerator of this ratio, in lowest terms.
+     */
+    public BigInteger numerator() {
+        return numerator;
+    }
+
+    /**
+     * @return The denominator of this ratio, in lowest terms: always positive.
+     */
+    public BigInteger denominator() {
+        return denominator;
+    }
+
+    /**
+     * @return True if this ratio is a whole number: i.e. its denominator is one.
+     */
+    public boolean isInteger() {
+        return denominator.equals(BigInteger.ONE);
+    }
+
+    /**
+     * @return -1, 0 or 1 as this ratio is negative, zero or positive.
+     */
+    public int signum() {
+        return numerator.signum();
+    }
+
+    /**
+     * @return The negation of this ratio.
+     */
+    public Ratio negate() {
+        return new Ratio(numerator.negate(), denominator);
+    }
+
+    /**
+     * Adds another ratio to this one, exactly.
+     * @param rhs The other ratio.
+     * @return The sum.
+     */
+    public Ratio add(final Ratio rhs) {
+        return valueOf(numerator.multiply(rhs.denominator).add(rhs.numerator.multiply(denominator)),
+                       denominator.multiply(rhs.denominator));
+    }
+
+    /**
+     * Subtracts another ratio from this one, exactly.
+     * @param rhs The other ratio.
+     * @return The difference.
+     */
+    public Ratio subtract(final Ratio rhs) {
+        return valueOf(numerator.multiply(rhs.denominator).subtract(rhs.numerator.multiply(denominator)),
+                       denominator.multiply(rhs.denominator));
+    }
+
+    /**
+     * Multiplies this ratio by another, exactly.
+     * @param rhs The other ratio.
+     * @return The product.
+     */
+    public Ratio multiply(final Ratio rhs) {
+        return valueOf(numerator.multiply(rhs.numerator), denominator.multiply(rhs.denominator));
+    }
+
+    /**
+     * Divides this ratio by another, exactly.
+     * @param rhs The divisor.
+     * @return The quotient.
+     * @throws ArithmeticException if the divisor is zero.
+     */
+    public Ratio divide(final Ratio rhs) {
+        return valueOf(numerator.multiply(rhs.denominator), denominator.multiply(rhs.numerator));
+    }
+
+    /**
+     * Returns the remainder of dividing this ratio by another: {@code this - rhs * q}, where
+     * {@code q} is the quotient rounded toward zero. Like the {@code %} operator, the result has
+     * the sign of the dividend.
+     * @param rhs The divisor.
+     * @return The remainder.
+     * @throws ArithmeticException if the divisor is zero.
+     */
+    public Ratio remainder(final Ratio rhs) {
+        final Ratio quotient = divide(rhs);
+        final BigInteger truncated = quotient.numerator.divide(quotient.denominator);
+        return subtract(rhs.multiply(valueOf(truncated)));
+    }
+
+    /**
+     * @return This ratio's value, rounded toward zero to an integer.
+     */
+    public BigInteger toBigInteger() {
+        return numerator.divide(denominator);
+    }
+
+    @Override
+    public int intValue() {
+        return toBigInteger().intValue();
+    }
+
+    @Override
+    public long longValue() {
+        return toBigInteger().longValue();
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return new BigDecimal(numerator).divide(new BigDecimal(denominator), MathContext.DECIMAL64)
+                                        .doubleValue();
+    }
+
+    @Override
+    public int compareTo(final Ratio rhs) {
+        return numerator.multiply(rhs.denominator).compareTo(rhs.numerator.multiply(denominator));
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) { return true; }
+        if (!(obj instanceof Ratio)) { return false; }
+        final Ratio rhs = (Ratio) obj;
+        return numerator.equals(rhs.numerator) && denominator.equals(rhs.denominator);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * numerator.hashCode() + denominator.hashCode();
+    }
+
+    /**
+     * @return This ratio in LISP syntax: e.g. {@code "-3/4"}, or just the numerator if this ratio
+     *         is a whole number.
+     */
+    @Override
+    public String toString() {
+        return isInteger() ? numerator.toString() : numerator + "/" + denominator;
+    }
+}
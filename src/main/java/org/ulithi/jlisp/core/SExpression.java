@@ -1,7 +1,11 @@
 package org.ulithi.jlisp.core;
 
+import org.ulithi.jlisp.mem.Cell;
 import org.ulithi.jlisp.mem.Ref;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 /**
  * An {@link SExpression} is simply a "synonym" for a {@link Ref}, the only difference being
  * that {@code SExpressions} are used on the "language" side of the interpreter and {@code Refs}
@@ -29,9 +33,13 @@ public interface SExpression extends Ref {
     }
 
     /**
-     * Recursively determines equality (as defined for the {@code EQUAL} function) of this
+     * Determines equality (as defined for the {@code EQUAL} function) of this
      * {@link SExpression SExpression} and the given {@code SExpression}. Two {@code SExpressions}
      * are considered isomorphic if they are identical {@code Atoms} or isomorphic {@code Lists}.
+     * <p>
+     * Lists are compared by walking their cells with an explicit stack rather than by recursing on
+     * {@code car} and {@code cdr}, so the comparison takes time proportional to the size of the
+     * lists and its depth is limited by the heap, not the Java stack.
      *
      * @param rhs The {@code SExpression} to compare.
      * @return True if this and the given {@code SExpression} are isomorphic, false otherwise.
@@ -45,27 +53,78 @@ public interface SExpression extends Ref {
             return false;
         }
 
-        return listEqual(this.toList(), rhs.toList());
+        final List lhs = this.toList();
+        final List other = rhs.toList();
+        final int lhsHash = lhs.knownHash();
+        final int rhsHash = other.knownHash();
+
+        if (lhsHash != List.UNKNOWN_HASH && rhsHash != List.UNKNOWN_HASH && lhsHash != rhsHash) {
+            return false;
+        }
+
+        return listEqual(lhs.getRoot(), other.getRoot());
     }
 
     /**
-     * Recursively determines equality (as defined for the {@code EQUAL} function) of two
-     * {@link List Lists}. Two {@code Lists} are considered isomorphic if they are the same
-     * length and contain the same elements in the same order.
+     * Returns a hash code for this {@link SExpression} that is consistent with
+     * {@link #isEqual(SExpression)}: {@code SExpressions} that are {@code EQUAL} have the same
+     * hash code. Like LISP's {@code SXHASH}, this hashes the structure of a list, not the identity
+     * of its cells.
      *
-     * @param lhs The {@code List} to compare to.
-     * @param rhs The {@code List} to compare.
-     * @return True if the two {@code Lists} are isomorphic, false otherwise.
+     * @return The structural hash code of this {@code SExpression}.
      */
-    private static boolean listEqual(final List lhs, final List rhs) {
-        if (lhs.isEmpty() && rhs.isEmpty()) {
-            return true;
-        }
+    default int sxhash() {
+        return this.isAtom() ? this.toAtom().sxhash() : this.toList().sxhash();
+    }
 
-        if (lhs.lengthAsInt() != rhs.lengthAsInt()) {
-            return false;
+    /**
+     * Determines equality (as defined for the {@code EQUAL} function) of two lists, given their
+     * root cells. Two lists are considered isomorphic if they are the same length and contain the
+     * same elements in the same order.
+     * <p>
+     * The top-level cells of a pair of lists are compared in a loop; each pair of sub-lists met on
+     * the way is pushed onto a stack to be compared later. A pair of identical cells is equal
+     * without looking further, which is what makes comparing lists that share structure cheap.
+     *
+     * @param lhs The root cell of the list to compare to, or {@code NIL}.
+     * @param rhs The root cell of the list to compare, or {@code NIL}.
+     * @return True if the two lists are isomorphic, false otherwise.
+     */
+    private static boolean listEqual(final Ref lhs, final Ref rhs) {
+        final Deque<Ref> stack = new ArrayDeque<>();
+        stack.push(rhs);
+        stack.push(lhs);
+
+        while (!stack.isEmpty()) {
+            Ref left = stack.pop();
+            Ref right = stack.pop();
+
+            while (!(left.isNil() || right.isNil() || left.equals(right))) {
+                final Cell leftCell = left.toCell();
+                final Cell rightCell = right.toCell();
+                final Ref leftFirst = leftCell.getFirst();
+                final Ref rightFirst = rightCell.getFirst();
+
+                if (leftFirst.isCell() != rightFirst.isCell()) {
+                    return false;
+                }
+
+                if (leftFirst.isCell()) {
+                    stack.push(rightFirst);
+                    stack.push(leftFirst);
+                } else if (!leftFirst.toAtom().eql(rightFirst.toAtom())) {
+                    return false;
+                }
+
+                left = leftCell.getRest();
+                right = rightCell.getRest();
+            }
+
+            if (left.isNil() != right.isNil()) {
+                return false;
+            }
         }
 
-        return lhs.car().isEqual(rhs.car()) && lhs.cdr().isEqual(rhs.cdr());
+        return true;
     }
 }
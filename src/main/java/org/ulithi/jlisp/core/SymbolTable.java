@@ -0,0 +1,38 @@
+package org.ulithi.jlisp.core;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link SymbolTable} interns names as {@link Identifier Identifiers}: every spelling of a
+ * name that differs only by case maps to the same {@code Identifier}. Names are case-folded the
+ * first time a particular spelling is seen; after that, interning a name is a single hash table
+ * lookup on the name as written.
+ * <p>
+ * Identifiers are never removed from the table: the set of names in a LISP program is small, and
+ * long-lived atoms and bindings hold on to their identifiers anyway. The table is safe to use
+ * from multiple threads.
+ */
+public final class SymbolTable {
+
+    /** Maps each spelling of a name seen so far, and each case-folded name, to its identifier. */
+    private static final Map<String, Identifier> TABLE = new ConcurrentHashMap<>();
+
+    /** Static methods only: do not instantiate. */
+    private SymbolTable() { }
+
+    /**
+     * Returns the unique {@link Identifier} for the given name, ignoring case.
+     * @param name A function, variable or symbol name.
+     * @return The identifier for the name.
+     */
+    public static Identifier intern(final String name) {
+        final Identifier identifier = TABLE.get(name);
+        if (identifier != null) { return identifier; }
+
+        final Identifier canonical = TABLE.computeIfAbsent(name.toLowerCase(Locale.ROOT), Identifier::new);
+        TABLE.putIfAbsent(name, canonical);
+        return canonical;
+    }
+}
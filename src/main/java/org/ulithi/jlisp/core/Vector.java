@@ -0,0 +1,211 @@
+package org.ulithi.jlisp.core;
+
+import org.ulithi.jlisp.exception.EvaluationException;
+
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@link Vector} is a one-dimensional array of values: unlike a {@link List}, any element can
+ * be read or replaced in constant time.
+ * <p>
+ * A vector whose elements are all fixnums is backed by a {@code long[]}, and one whose elements
+ * are all floats by a {@code double[]}, so numeric vectors hold their elements unboxed. Storing
+ * any other kind of value in such a vector converts it, once and for all, to a general vector
+ * backed by an array of {@link SExpression SExpressions}.
+ * <p>
+ * A {@code Vector} is an {@link Atom}, so it can be bound to a variable or passed to a function
+ * like any other value. It is only {@code eql} to itself.
+ */
+public final class Vector extends Atom implements Container {
+
+    /** The elements of a fixnum vector, or null. */
+    private long[] longs;
+
+    /** The elements of a float vector, or null. */
+    private double[] doubles;
+
+    /** The elements of a general vector, or null. */
+    private SExpression[] elements;
+
+    /** The number of elements. */
+    private final int length;
+
+    /**
+     * Creates a new {@link Vector} of the given length, with every element set to the given value.
+     * The vector is backed by a primitive array if the value is a fixnum or a float.
+     *
+     * @param length The number of elements.
+     * @param initial The initial value of every element.
+     * @return A new {@code Vector}.
+     * @throws EvaluationException if the length is negative.
+     */
+    public static Vector create(final int length, final SExpression initial) {
+        if (length < 0) {
+            throw new EvaluationException("Vector length must not be negative: received " + length);
+        }
+
+        final Vector vector = new Vector(length);
+
+        if (initial instanceof FixnumAtom) {
+            vector.longs = new long[length];
+            java.util.Arrays.fill(vector.longs, ((FixnumAtom) initial).value);
+        } else if (initial instanceof FlonumAtom) {
+            vector.doubles = new double[length];
+            java.util.Arrays.fill(vector.doubles, ((FlonumAtom) initial).value);
+        } else {
+            vector.elements = new SExpression[length];
+            java.util.Arrays.fill(vector.elements, initial);
+        }
+
+        return vector;
+    }
+
+    /**
+     * Creates a new {@link Vector} holding the given values, backed by a primitive array if they
+     * are all fixnums or all floats.
+     *
+     * @param values The elements of the vector.
+     * @return A new {@code Vector}.
+     */
+    public static Vector of(final SExpression... values) {
+        final Vector vector = new Vector(values.length);
+        boolean fixnums = true;
+        boolean floats = true;
+
+        for (final SExpression value : values) {
+            fixnums &= value instanceof FixnumAtom;
+            floats &= value instanceof FlonumAtom;
+        }
+
+        if (fixnums) {
+            vector.longs = new long[values.length];
+            for (int i = 0; i < values.length; i++) { vector.longs[i] = ((FixnumAtom) values[i]).value; }
+        } else if (floats) {
+            vector.doubles = new double[values.length];
+            for (int i = 0; i < values.length; i++) { vector.doubles[i] = ((FlonumAtom) values[i]).value; }
+        } else {
+            vector.elements = values.clone();
+        }
+
+        return vector;
+    }
+
+    /**
+     * Private constructor: use {@link #create(int, SExpression)} or {@link #of(SExpression...)}.
+     * @param length The number of elements.
+     */
+    private Vector(final int length) {
+        super("#<VECTOR>");
+        this.length = length;
+    }
+
+    /**
+     * @return The number of elements in this vector.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the element at the given index. The element of a fixnum or float vector is returned
+     * as a new {@code Atom} (or a shared one, for small fixnums).
+     *
+     * @param index The index of the element.
+     * @return The element.
+     * @throws EvaluationException if the index is out of bounds.
+     */
+    public SExpression get(final int index) {
+        checkIndex(index);
+        if (longs != null) { return Atom.create(longs[index]); }
+        if (doubles != null) { return Atom.create(doubles[index]); }
+        return elements[index];
+    }
+
+    /**
+     * Replaces the element at the given index. Storing a value other than a fixnum in a fixnum
+     * vector, or other than a float in a float vector, makes it a general vector.
+     *
+     * @param index The index of the element.
+     * @param value The new value of the element.
+     * @throws EvaluationException if the index is out of bounds.
+     */
+    public void set(final int index, final SExpression value) {
+        checkIndex(index);
+
+        if (longs != null && value instanceof FixnumAtom) {
+            longs[index] = ((FixnumAtom) value).value;
+        } else if (doubles != null && value instanceof FlonumAtom) {
+            doubles[index] = ((FlonumAtom) value).value;
+        } else {
+            generalize();
+            elements[index] = value;
+        }
+    }
+
+    /**
+     * Returns the array backing a fixnum vector. Changes to the array are changes to the vector.
+     * @return The elements of this vector, or null if it is not a fixnum vector.
+     */
+    public long[] longs() {
+        return longs;
+    }
+
+    /**
+     * Returns the array backing a float vector. Changes to the array are changes to the vector.
+     * @return The elements of this vector, or null if it is not a float vector.
+     */
+    public double[] doubles() {
+        return doubles;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void forEachElement(final Consumer<SExpression> action) {
+        if (elements == null) { return; }
+        for (final SExpression element : elements) { action.accept(element); }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void replaceElements(final UnaryOperator<SExpression> function) {
+        if (elements == null) { return; }
+        for (int i = 0; i < length; i++) { elements[i] = function.apply(elements[i]); }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A vector prints as its elements, e.g. {@code #( 1 2 3 )}.
+     */
+    @Override
+    String describe() {
+        final StringBuilder sb = new StringBuilder("#(");
+        for (int i = 0; i < length; i++) { sb.append(' ').append(get(i)); }
+        return sb.append(" )").toString();
+    }
+
+    /**
+     * Converts a fixnum or float vector to a general vector.
+     */
+    private void generalize() {
+        if (elements != null) { return; }
+
+        final SExpression[] general = new SExpression[length];
+        for (int i = 0; i < length; i++) { general[i] = get(i); }
+
+        elements = general;
+        longs = null;
+        doubles = null;
+    }
+
+    /**
+     * @param index An index into this vector.
+     * @throws EvaluationException if the index is out of bounds.
+     */
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= length) {
+            throw new EvaluationException("Index " + index + " is out of bounds for a vector of length " + length);
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package org.ulithi.jlisp.main;
 
+import org.ulithi.jlisp.core.Environment;
 import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.mem.Arena;
 import org.ulithi.jlisp.mem.PTree;
+import org.ulithi.jlisp.parser.FormReader;
 import org.ulithi.jlisp.parser.Lexer;
 import org.ulithi.jlisp.parser.Parser;
+import org.ulithi.jlisp.parser.TokenBuffer;
 import org.ulithi.jlisp.primitive.Eval;
 
-import java.util.List;
+import java.io.Reader;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -14,6 +18,13 @@ import java.util.function.Function;
  * The top-level JLISP interpreter. Feed it a LISP expression, and it will scan, parse and
  * evaluate it. Repeat as necessary. Runs on its own thread to stabilize integration with the
  * main client application (e.g. a console REPL-style app).
+ * <p>
+ * {@link #load(Reader)} may be called from several threads at once: each thread evaluates forms
+ * in an {@link Environment} of its own, {@link Environment#fork() forked} from the interpreter's
+ * environment, so all of them share the same user-defined functions and variables. A function
+ * loaded on one thread can be called on any other once the load has returned. The line-oriented
+ * {@link #offer(String)} methods accumulate partial input, and so are for a single thread only,
+ * as is an interpreter with an {@link Arena}.
  */
 public class Interpreter implements Runnable {
 
@@ -29,8 +40,38 @@ public class Interpreter implements Runnable {
     /** The lexer used by this interpreter. **/
     private final Lexer lexer = new Lexer();
 
-    /** The eval function instance used by this interpreter. */
-    private final Eval eval = new Eval();
+    /** The environment that the environment of each thread is forked from. */
+    private final Environment environment;
+
+    /**
+     * The eval function instance used by this interpreter on each thread: the thread that created
+     * the interpreter evaluates in its environment, and any other thread in a fork of it.
+     */
+    private final ThreadLocal<Eval> evals;
+
+    /** If true, hot user-defined functions are compiled to JVM bytecode, on every thread. */
+    private volatile boolean bytecode = false;
+
+    /**
+     * Creates an {@link Interpreter} that keeps all its data on the Java heap.
+     */
+    public Interpreter() {
+        this(null);
+    }
+
+    /**
+     * Creates an {@link Interpreter} that stores the list values of global variables in the given
+     * {@link Arena}: e.g. a {@link org.ulithi.jlisp.mem.DirectArena}, to keep large data structures off the Java heap.
+     * The arena is garbage collected between top-level evaluations.
+     *
+     * @param arena The arena for global list values, or null to keep them on the heap.
+     */
+    public Interpreter(final Arena arena) {
+        final Thread owner = Thread.currentThread();
+        this.environment = new Environment(arena);
+        this.evals = ThreadLocal.withInitial(() ->
+                new Eval(Thread.currentThread() == owner ? environment : environment.fork()));
+    }
 
     /** Initializes this {@link Interpreter}. */
     public void initialize() { }
@@ -56,6 +97,15 @@ public class Interpreter implements Runnable {
         verbose = flag;
     }
 
+    /**
+     * Enables/disables compilation of frequently invoked user-defined functions to JVM bytecode.
+     * Functions that can't be compiled to bytecode are evaluated as usual.
+     * @param flag If true, enables the bytecode compiler.
+     */
+    public void bytecode(final boolean flag) {
+        bytecode = flag;
+    }
+
     /**
      * @return The name of this interpreter.
      */
@@ -82,6 +132,37 @@ public class Interpreter implements Runnable {
         return processExpression(expression, this::offerImpl, this::onOfferError);
     }
 
+    /**
+     * Reads, scans, parses and evaluates each top-level form from the given {@link Reader}, in
+     * order, writing the result of each to STDOUT. Forms are evaluated as they are read, so the
+     * input is never held in memory all at once. An error evaluating one form is reported and
+     * then loading continues with the next; an error reading or parsing the input ends loading,
+     * since there is no reliable way to find the start of the next form.
+     *
+     * @param reader A character stream of LISP program text: e.g. the contents of a file.
+     * @return True if every form was read and evaluated without error, false otherwise.
+     */
+    public boolean load(final Reader reader) {
+        final FormReader forms = new FormReader(reader);
+        boolean ok = true;
+
+        try {
+            while (forms.hasNext()) {
+                final PTree pTree = forms.next();
+                try {
+                    offerImpl(pTree);
+                } catch (final Exception e) {
+                    onOfferError(e);
+                    ok = false;
+                }
+            }
+        } catch (final Exception e) {
+            return onOfferError(e).orElse(Boolean.FALSE);
+        }
+
+        return ok;
+    }
+
     /**
      * Scans and parses the given LISP expression. Then, re-constructs the expression from the
      * parse tree and writes it to STDOUT. This is mostly useful as more readable sanity check
@@ -144,8 +225,11 @@ public class Interpreter implements Runnable {
      *         expression wasn't evaluated. Evaluation errors are handled by the caller.
      */
     private Optional<Boolean> offerImpl(final PTree pTree) {
+            final Eval eval = evals.get();
+            eval.bytecode(bytecode);
             SExpression ret = eval.apply(pTree.root());
             System.out.println(" " + ret);
+            eval.environment().collectGarbage();
             return Optional.of(Boolean.TRUE);
     }
 
@@ -204,7 +288,7 @@ public class Interpreter implements Runnable {
         final Parser p = new Parser();
 
         if (lexer.isComplete()) {
-            List<String> tokens = lexer.getTokens();
+            final TokenBuffer tokens = lexer.getTokenBuffer();
             lexer.reset();
             return p.parse(tokens);
         }
@@ -2,6 +2,7 @@ package org.ulithi.jlisp.main;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.ulithi.console.Console;
+import org.ulithi.jlisp.mem.DirectArena;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -37,11 +38,14 @@ public final class REPL {
 	 * Creates the console app, initializes the LISP interpreter and starts the outer
 	 * interpreter loop.
 	 *
-	 * @param args Any commandline arguments passed to the application.
+	 * @param args Any commandline arguments passed to the application. {@code --offheap} stores
+	 *             the list values of global variables off the Java heap.
 	 */
 	public static void main(final String [] args) {
 		final Console console = new Console();
-        final Interpreter lisp = new Interpreter();
+        final Interpreter lisp = Arrays.asList(args).contains("--offheap")
+                                 ? new Interpreter(new DirectArena())
+                                 : new Interpreter();
 
 		console.setTitle(lisp.getName());
 
@@ -156,6 +160,10 @@ public final class REPL {
                 lisp.verbose(true);
                 System.err.println("Verbose error output enabled ...");
                 break;
+            case "BYTECODE":
+                lisp.bytecode(true);
+                System.err.println("Bytecode compilation of user functions enabled ...");
+                break;
             case "QUIT":
                 System.exit(0);
                 break;
@@ -174,6 +182,7 @@ public final class REPL {
         System.err.println("\tPARSE: Parse statement and print parse tree without evaluating");
         System.err.println("\tECHO: Parse statement and print parsed statement without evaluating");
         System.err.println("\tEVAL: Return to normal evaluation mode");
+        System.err.println("\tBYTECODE: Compile frequently invoked user functions to JVM bytecode");
         System.err.println("\tQUIT: Quit/exit the REPL");
         System.err.println("\tVERBOSE: Dump stack trace in the event of a processing error");
         System.err.println("\tHELP: Print this message");
@@ -181,8 +190,9 @@ public final class REPL {
     }
 
     /**
-     * Expects a valid file path and name in {@code args}. Opens and reads the file as text, with
-     * one LISP expression per line, and runs each through the interpreter in order.
+     * Expects a valid file path and name in {@code args}. Opens and reads the file as text, and
+     * runs each top-level LISP form in it through the interpreter in order. Forms may span
+     * multiple lines.
      *
      * @param args Expects a single-element array, containing the full path and file name of the
      *             file to load.
@@ -204,12 +214,7 @@ public final class REPL {
         }
 
         try (final BufferedReader file = new BufferedReader((new FileReader(fileName)))) {
-            String text = file.readLine();
-
-            while (text != null) {
-                lisp.offer(text);
-                text = file.readLine();
-            }
+            lisp.load(file);
         } catch (final Exception e) {
             System.err.println("Error reading file '" + fileName + "': " + e.getMessage());
         }
@@ -0,0 +1,546 @@
+package org.ulithi.jlisp.mem;
+
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.FixnumAtom;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.exception.JLispRuntimeException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static org.ulithi.jlisp.mem.NilReference.NIL;
+
+/**
+ * An {@link Arena} stores cons cells compactly: each cell is a pair of {@code int} <em>words</em>,
+ * its {@code first} and {@code rest}, rather than a {@link Cell} object with two references to
+ * other objects. A word is one of:<ul>
+ *     <li>{@link #NIL_WORD} (zero) - the {@code NIL} reference.</li>
+ *     <li>A <em>fixnum</em>: a small integer held directly in the word, with no {@link Atom}
+ *         object at all. See {@link #FIXNUM_MIN} and {@link #FIXNUM_MAX}.</li>
+ *     <li>A <em>cell</em>: the index of another cell in this arena.</li>
+ *     <li>An <em>atom</em>: the index of any other atom in this arena's atom table.</li>
+ * </ul>
+ * The two low bits of a word are its tag, and the rest its value.
+ * <p>
+ * Lists are copied into an arena with {@link #store(Ref)} or {@link #copyOf(List)}, and read back
+ * through the ordinary {@link Ref} and {@link Cell} API: a cell in an arena is presented as a
+ * lightweight {@code Cell} view, created on demand, whose {@code getFirst()} and
+ * {@code getRest()} decode the stored words. Code that only needs to walk or count a list can
+ * work on the words directly, with {@link #car(int)}, {@link #cdr(int)} and {@link #length(int)},
+ * which neither allocate nor chase pointers to objects.
+ * <p>
+ * Setting the {@code first} or {@code rest} of an arena cell to a cell that is not in the arena
+ * stores a copy of the list it starts, not the cell itself.
+ * <p>
+ * Cells that are no longer needed are reclaimed by {@link #collect(int[])}, a mark-compact
+ * collector: it marks the cells reachable from a set of root words, then slides them down to the
+ * start of the arena, keeping their order, and rewrites every word that refers to a moved cell.
+ * <p>
+ * Subclasses provide the storage for the words: see {@link ArrayArena} and {@link DirectArena}.
+ */
+public abstract class Arena {
+
+    /** The word for the {@code NIL} reference. */
+    public static final int NIL_WORD = 0;
+
+    /** The number of low bits of a word used for its tag. */
+    private static final int TAG_BITS = 2;
+
+    /** Mask for the tag bits of a word. */
+    private static final int TAG_MASK = (1 << TAG_BITS) - 1;
+
+    /** Tag for an index into the atom table. Atom index zero is reserved, for {@code NIL_WORD}. */
+    private static final int ATOM = 0;
+
+    /** Tag for an immediate fixnum. */
+    private static final int FIXNUM = 1;
+
+    /** Tag for the index of a cell. */
+    private static final int CELL = 2;
+
+    /** The smallest integer that can be held directly in a word. */
+    public static final long FIXNUM_MIN = Integer.MIN_VALUE >> TAG_BITS;
+
+    /** The largest integer that can be held directly in a word. */
+    public static final long FIXNUM_MAX = Integer.MAX_VALUE >> TAG_BITS;
+
+    /** The largest number of cells an arena can hold. */
+    public static final int MAX_CELLS = 1 << (Integer.SIZE - TAG_BITS);
+
+    /** The smallest size at which {@link #isCollectionDue()} recommends a collection. */
+    private static final int MIN_COLLECTION_SIZE = 1 << 16;
+
+    /** The atoms referred to by words in this arena, by index. */
+    private final java.util.List<Atom> atoms = new ArrayList<>();
+
+    /** The index of each atom in {@link #atoms}, so each atom is only stored once. */
+    private final Map<Atom, Integer> atomIndex = new IdentityHashMap<>();
+
+    /** The number of cells that survived the most recent collection. */
+    private int live = 0;
+
+    protected Arena() {
+        atoms.add(null);
+    }
+
+    /**
+     * Allocates storage for a new cell.
+     * @return The index of the new cell.
+     * @throws JLispRuntimeException if the arena is full.
+     */
+    protected abstract int allocate();
+
+    /**
+     * @param index The index of a cell.
+     * @return The word stored in the {@code first} field of the cell.
+     */
+    protected abstract int first(int index);
+
+    /**
+     * @param index The index of a cell.
+     * @return The word stored in the {@code rest} field of the cell.
+     */
+    protected abstract int rest(int index);
+
+    /**
+     * Stores a word in the {@code first} field of a cell.
+     * @param index The index of a cell.
+     * @param word The word to store.
+     */
+    protected abstract void setFirst(int index, int word);
+
+    /**
+     * Stores a word in the {@code rest} field of a cell.
+     * @param index The index of a cell.
+     * @param word The word to store.
+     */
+    protected abstract void setRest(int index, int word);
+
+    /**
+     * @return The number of cells allocated in this arena.
+     */
+    public abstract int size();
+
+    /**
+     * Discards every cell from the given index on, after a collection: the next cell allocated
+     * will have index {@code size}.
+     * @param size The number of cells to keep.
+     */
+    protected abstract void truncate(int size);
+
+    /**
+     * Allocates a new cell.
+     * @param first The word for the new cell's {@code first} field.
+     * @param rest The word for the new cell's {@code rest} field.
+     * @return The word for the new cell.
+     */
+    public int cons(final int first, final int rest) {
+        final int index = allocate();
+        setFirst(index, first);
+        setRest(index, rest);
+        return index << TAG_BITS | CELL;
+    }
+
+    /**
+     * @param cell The word for a cell.
+     * @return The word in the cell's {@code first} field.
+     */
+    public int car(final int cell) {
+        return first(index(cell));
+    }
+
+    /**
+     * @param cell The word for a cell.
+     * @return The word in the cell's {@code rest} field.
+     */
+    public int cdr(final int cell) {
+        return rest(index(cell));
+    }
+
+    /**
+     * Replaces the word in a cell's {@code first} field.
+     * @param cell The word for a cell.
+     * @param word The new word.
+     */
+    public void setCar(final int cell, final int word) {
+        setFirst(index(cell), word);
+        Cell.mutated();
+    }
+
+    /**
+     * Replaces the word in a cell's {@code rest} field.
+     * @param cell The word for a cell.
+     * @param word The new word.
+     */
+    public void setCdr(final int cell, final int word) {
+        setRest(index(cell), word);
+        Cell.mutated();
+    }
+
+    /**
+     * @param word A word.
+     * @return True if the word refers to a cell, false otherwise.
+     */
+    public static boolean isCell(final int word) {
+        return (word & TAG_MASK) == CELL;
+    }
+
+    /**
+     * @param word A word.
+     * @return True if the word holds an immediate fixnum, false otherwise.
+     */
+    public static boolean isFixnum(final int word) {
+        return (word & TAG_MASK) == FIXNUM;
+    }
+
+    /**
+     * @param value An integer in the range {@link #FIXNUM_MIN} to {@link #FIXNUM_MAX}.
+     * @return The word holding the integer.
+     */
+    public static int fixnum(final long value) {
+        assert value >= FIXNUM_MIN && value <= FIXNUM_MAX : "Fixnum out of range: " + value;
+        return (int) value << TAG_BITS | FIXNUM;
+    }
+
+    /**
+     * @param word A word holding an immediate fixnum.
+     * @return The integer held in the word.
+     */
+    public static long fixnumValue(final int word) {
+        return word >> TAG_BITS;
+    }
+
+    /**
+     * Returns the length of the list starting at the given word: the number of cells, following
+     * {@code rest} fields, up to the end of the list or a cell whose {@code first} is {@code NIL}.
+     *
+     * @param list The word for the root cell of a list, or {@code NIL_WORD}.
+     * @return The number of top-level elements in the list.
+     */
+    public int length(final int list) {
+        int count = 0;
+        for (int it = list; isCell(it) && car(it) != NIL_WORD; it = cdr(it)) { count++; }
+        return count;
+    }
+
+    /**
+     * Returns the word representing the given {@link Ref}, storing it in this arena if necessary.
+     * Atoms are stored once and shared; a {@link Cell} is copied into the arena along with the rest
+     * of the list it starts and any sub-lists, unless it is already a cell in this arena.
+     *
+     * @param ref An atom, a cell, or {@code NIL}.
+     * @return The word for the reference.
+     */
+    public int store(final Ref ref) {
+        Objects.requireNonNull(ref);
+
+        if (ref == NIL) { return NIL_WORD; }
+        if (contains(ref)) { return ((View) ref).word(); }
+        if (ref.isCell()) { return copy(ref.toCell()); }
+
+        final Atom atom = ref.toAtom();
+
+        if (atom instanceof FixnumAtom) {
+            final long value = atom.toL();
+            if (value >= FIXNUM_MIN && value <= FIXNUM_MAX) { return fixnum(value); }
+        }
+
+        return atomWord(atom);
+    }
+
+    /**
+     * Indicates if the given {@link Ref} is a cell in this arena.
+     * @param ref A reference.
+     * @return True if {@code ref} is a cell stored in this arena, false otherwise.
+     */
+    public boolean contains(final Ref ref) {
+        return ref instanceof View && ((View) ref).arena == this;
+    }
+
+    /**
+     * Copies the given {@link List} into this arena.
+     * @param list A list.
+     * @return A {@code List} over the copy in this arena.
+     */
+    public List copyOf(final List list) {
+        return List.create(load(store(list.getRoot())));
+    }
+
+    /**
+     * Returns the {@link Ref} for the given word: {@code NIL}, an {@link Atom}, or a {@link Cell}
+     * view of a cell in this arena.
+     *
+     * @param word A word.
+     * @return The reference the word represents.
+     */
+    public Ref load(final int word) {
+        switch (word & TAG_MASK) {
+            case FIXNUM:
+                return FixnumAtom.valueOf(fixnumValue(word));
+            case CELL:
+                return new View(this, word >>> TAG_BITS);
+            default:
+                return word == NIL_WORD ? NIL : atoms.get(word >>> TAG_BITS);
+        }
+    }
+
+    /**
+     * Performs the given action on each atom in this arena's atom table: i.e. each atom, other
+     * than a fixnum, that a cell in this arena refers to (or did, before the last collection).
+     * @param action The action to perform on each atom.
+     */
+    public void forEachAtom(final Consumer<Atom> action) {
+        for (int i = 1; i < atoms.size(); i++) { action.accept(atoms.get(i)); }
+    }
+
+    /**
+     * Indicates if this arena has grown enough since it was last collected that a collection is
+     * worthwhile: i.e. to twice the number of cells that survived the last one.
+     * @return True if a collection is recommended, false otherwise.
+     */
+    public boolean isCollectionDue() {
+        return size() >= java.lang.Math.max(MIN_COLLECTION_SIZE, 2L * live);
+    }
+
+    /**
+     * Collects garbage: discards every cell that can't be reached from the given roots, and
+     * compacts the survivors, in their original order, at the start of the arena. Atoms that are
+     * no longer referred to are discarded as well.
+     * <p>
+     * Cells move, so after a collection the only valid words for cells in this arena are the
+     * updated roots: any other words, and any {@link Cell} views of this arena's cells, must not
+     * be used again.
+     *
+     * @param roots The words for the roots of the live lists, which are updated in place.
+     * @return The number of cells that survived.
+     */
+    public int collect(final int[] roots) {
+        final int size = size();
+        final long[] marks = mark(roots, size);
+
+        // Compute each live cell's new index: the number of live cells before it.
+        final int[] forward = new int[size];
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (isMarked(marks, i)) { forward[i] = count++; }
+        }
+
+        // Rewrite and slide the live cells. A cell only ever moves down, so the cells still to
+        // be visited are never overwritten.
+        final Atom[] oldAtoms = atoms.toArray(new Atom[0]);
+        atoms.clear();
+        atoms.add(null);
+        atomIndex.clear();
+
+        for (int i = 0; i < size; i++) {
+            if (isMarked(marks, i)) {
+                final int first = relocate(first(i), forward, oldAtoms);
+                final int rest = relocate(rest(i), forward, oldAtoms);
+                setFirst(forward[i], first);
+                setRest(forward[i], rest);
+            }
+        }
+
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = relocate(roots[i], forward, oldAtoms);
+        }
+
+        truncate(count);
+        live = count;
+        Cell.mutated();
+
+        return count;
+    }
+
+    /**
+     * Marks every cell reachable from the given roots. Follows {@code rest} fields iteratively,
+     * and pushes sub-lists onto an explicit stack, so long or deeply nested lists don't exhaust
+     * the Java stack.
+     *
+     * @param roots The words for the roots of the live lists.
+     * @param size The number of cells in the arena.
+     * @return A bitmap with a bit set for each live cell.
+     */
+    private long[] mark(final int[] roots, final int size) {
+        final long[] marks = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        int[] stack = new int[Integer.max(roots.length, 16)];
+        int top = 0;
+
+        for (final int root : roots) {
+            if (isCell(root)) { stack[top++] = index(root); }
+        }
+
+        while (top > 0) {
+            int index = stack[--top];
+
+            while (!isMarked(marks, index)) {
+                marks[index / Long.SIZE] |= 1L << (index % Long.SIZE);
+
+                final int first = first(index);
+                if (isCell(first) && !isMarked(marks, index(first))) {
+                    if (top == stack.length) { stack = Arrays.copyOf(stack, top * 2); }
+                    stack[top++] = index(first);
+                }
+
+                final int rest = rest(index);
+                if (!isCell(rest)) { break; }
+                index = index(rest);
+            }
+        }
+
+        return marks;
+    }
+
+    private static boolean isMarked(final long[] marks, final int index) {
+        return (marks[index / Long.SIZE] & 1L << (index % Long.SIZE)) != 0;
+    }
+
+    /**
+     * Returns the word, after a collection, for a word from before it.
+     * @param word A word from before the collection.
+     * @param forward The new index of each live cell.
+     * @param oldAtoms The atom table from before the collection.
+     * @return The equivalent word after the collection.
+     */
+    private int relocate(final int word, final int[] forward, final Atom[] oldAtoms) {
+        switch (word & TAG_MASK) {
+            case CELL:
+                return forward[index(word)] << TAG_BITS | CELL;
+            case ATOM:
+                return word == NIL_WORD ? NIL_WORD : atomWord(oldAtoms[word >>> TAG_BITS]);
+            default:
+                return word;
+        }
+    }
+
+    /**
+     * Returns the word for an atom in the atom table, adding it to the table if necessary.
+     * @param atom An atom.
+     * @return The word for the atom.
+     */
+    private int atomWord(final Atom atom) {
+        Integer index = atomIndex.get(atom);
+
+        if (index == null) {
+            index = atoms.size();
+            atoms.add(atom);
+            atomIndex.put(atom, index);
+        }
+
+        return index << TAG_BITS | ATOM;
+    }
+
+    /**
+     * Copies a list of heap cells, and any sub-lists, into this arena. Follows {@code rest} fields
+     * iteratively, so only the depth of nesting uses stack.
+     *
+     * @param cell The root cell of the list.
+     * @return The word for the root cell of the copy.
+     */
+    private int copy(final Cell cell) {
+        if (cell.isStorage()) { return store(cell.getFirst()); }
+
+        int root = NIL_WORD;
+        int last = NIL_WORD;
+        Ref it = cell;
+
+        while (it.isCell() && !contains(it)) {
+            final Cell curr = it.toCell();
+            final int word = cons(store(curr.getFirst()), NIL_WORD);
+
+            if (last == NIL_WORD) {
+                root = word;
+            } else {
+                setRest(index(last), word);
+            }
+
+            last = word;
+            it = curr.getRest();
+        }
+
+        setRest(index(last), store(it));
+        return root;
+    }
+
+    private static int index(final int cell) {
+        assert isCell(cell) : "Not a cell: " + cell;
+        return cell >>> TAG_BITS;
+    }
+
+    /**
+     * A {@link Cell} stored in an {@link Arena}. Views are created on demand, and hold nothing but
+     * the arena and the cell's index, so two views of the same cell are equal but not identical.
+     */
+    private static final class View extends Cell {
+
+        private final Arena arena;
+
+        private final int index;
+
+        private View(final Arena arena, final int index) {
+            super();
+            this.arena = arena;
+            this.index = index;
+        }
+
+        private int word() {
+            return index << TAG_BITS | CELL;
+        }
+
+        @Override
+        public Ref getFirst() {
+            return arena.load(arena.first(index));
+        }
+
+        @Override
+        public void setFirst(final Ref ref) {
+            Objects.requireNonNull(ref);
+            arena.setFirst(index, arena.store(ref));
+            Cell.mutated();
+        }
+
+        @Override
+        public Ref getRest() {
+            return arena.load(arena.rest(index));
+        }
+
+        @Override
+        public void setRest(final Ref ref) {
+            Objects.requireNonNull(ref);
+            arena.setRest(index, arena.store(ref));
+            Cell.mutated();
+        }
+
+        @Override
+        public boolean isNil() {
+            return arena.first(index) == NIL_WORD;
+        }
+
+        @Override
+        public boolean isAtom() {
+            return isNil();
+        }
+
+        @Override
+        public boolean isList() {
+            return isNil() || Arena.isCell(arena.first(index));
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof View)) { return false; }
+            final View rhs = (View) obj;
+            return arena == rhs.arena && index == rhs.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(arena) * 31 + index;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.ulithi.jlisp.mem;
+
+import org.ulithi.jlisp.exception.JLispRuntimeException;
+
+import java.util.Arrays;
+
+/**
+ * An {@link Arena} that stores its cells in a pair of parallel {@code int} arrays, one for the
+ * {@code first} fields and one for the {@code rest} fields, which grow as cells are allocated.
+ * A cell takes eight bytes, against the header, references and flag of a {@link Cell} object plus
+ * an {@code Atom} object for each element; and walking a list reads consecutive array elements
+ * rather than following pointers around the heap.
+ */
+public final class ArrayArena extends Arena {
+
+    /** The default initial capacity, in cells. */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /** The {@code first} field of each cell. */
+    private int[] firsts;
+
+    /** The {@code rest} field of each cell. */
+    private int[] rests;
+
+    /** The number of cells allocated. */
+    private int size;
+
+    /**
+     * Creates an {@link ArrayArena} with the default initial capacity.
+     */
+    public ArrayArena() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an {@link ArrayArena} with room for the given number of cells before it grows.
+     * @param capacity The initial capacity, in cells.
+     */
+    public ArrayArena(final int capacity) {
+        super();
+        this.firsts = new int[java.lang.Math.max(capacity, 1)];
+        this.rests = new int[firsts.length];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int allocate() {
+        if (size == firsts.length) {
+            if (size == MAX_CELLS) { throw new JLispRuntimeException("Arena is full"); }
+            final int capacity = (int) java.lang.Math.min((long) size * 2, MAX_CELLS);
+            firsts = Arrays.copyOf(firsts, capacity);
+            rests = Arrays.copyOf(rests, capacity);
+        }
+        return size++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int first(final int index) {
+        return firsts[index];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int rest(final int index) {
+        return rests[index];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void setFirst(final int index, final int word) {
+        firsts[index] = word;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void setRest(final int index, final int word) {
+        rests[index] = word;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void truncate(final int size) {
+        this.size = size;
+    }
+}
@@ -6,6 +6,7 @@ import org.ulithi.jlisp.core.List;
 import org.ulithi.jlisp.parser.Grammar;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.ulithi.jlisp.mem.NilReference.NIL;
 
@@ -73,6 +74,23 @@ public class Cell implements Ref {
      */
     private final boolean isStorage;
 
+    /**
+     * The number of times any cell has been structurally modified by {@link #setFirst(Ref)} or
+     * {@link #setRest(Ref)}. Used by {@code List} to tell if a length it has cached is still valid.
+     * Cells are modified on every thread that evaluates forms, so the count is atomic: a lost
+     * update could leave a stale cached length looking valid.
+     */
+    private static final AtomicLong MUTATIONS = new AtomicLong();
+
+    /**
+     * Returns the number of times any {@link Cell} has been modified since startup. If this value
+     * is unchanged between two calls, no list structure has been altered in between.
+     * @return The current mutation count.
+     */
+    public static long mutations() {
+        return MUTATIONS.get();
+    }
+
     /**
      * Creates a {@link Cell} representing a terminal list node with the given {@link Ref}
      * as its value.
@@ -84,6 +102,19 @@ public class Cell implements Ref {
         return new Cell(ref, NIL);
     }
 
+    /**
+     * Creates a {@link Cell} with the given {@code first} and {@code rest} references: e.g. a new
+     * list node in front of an existing list.
+     *
+     * @param first A {@code Ref} that will be the new {@code Cell's} first element.
+     * @param rest A {@code Ref} that will be the new {@code Cell's} rest element.
+     * @return A new {@link Cell} of the form {@code (<first> . <rest>)}.
+     */
+    public static Cell create(final Ref first, final Ref rest) {
+        Objects.requireNonNull(rest);
+        return new Cell(first, rest);
+    }
+
     /**
      * Constructs a new list {@link Cell} with a literal {@link Atom} for the given {@code token}
      * as the {@code first} element and {@code NIL} as the {@code rest} element.
@@ -208,6 +239,24 @@ public class Cell implements Ref {
         this.isStorage = true;
     }
 
+    /**
+     * Constructor for subclasses that hold their {@code first} and {@code rest} elements somewhere
+     * other than this object's fields, and so override {@link #getFirst()}, {@link #getRest()},
+     * {@link #setFirst(Ref)} and {@link #setRest(Ref)}: see {@link Arena}.
+     */
+    Cell() {
+        this.first = NIL;
+        this.rest = NIL;
+        this.isStorage = false;
+    }
+
+    /**
+     * Records that a cell has been structurally modified: see {@link #mutations()}.
+     */
+    static void mutated() {
+        MUTATIONS.incrementAndGet();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -237,7 +286,7 @@ public class Cell implements Ref {
      * @return This cell's {@code first} value as an {@link Atom}.
      */
     public Atom toAtom() {
-        return Atom.create(first);
+        return Atom.create(getFirst());
     }
 
     /**
@@ -256,7 +305,7 @@ public class Cell implements Ref {
      */
     @Override
     public List toList() {
-        return List.create(first);
+        return List.create(getFirst());
     }
 
     /**
@@ -284,6 +333,7 @@ public class Cell implements Ref {
     public void setFirst(final Ref ref) {
         Objects.requireNonNull(ref);
         this.first = ref;
+        mutated();
     }
 
     /**
@@ -302,6 +352,20 @@ public class Cell implements Ref {
     public void setRest(final Ref ref) {
         Objects.requireNonNull(ref);
         this.rest = ref;
+        mutated();
+    }
+
+    /**
+     * Links the given {@link Ref} onto the end of this {@link Cell}, which must be the last cell
+     * of a list that is still being built: one whose cells nothing else refers to yet. Unlike
+     * {@link #setRest(Ref)}, this doesn't count as a {@link #mutations() mutation}, because no
+     * list whose length or hash may be cached can contain this cell.
+     * @param ref A non-null {@link Ref}.
+     */
+    public void extend(final Ref ref) {
+        Objects.requireNonNull(ref);
+        assert this.rest == NIL : "Cell is not the end of a list";
+        this.rest = ref;
     }
 
     /**
@@ -311,11 +375,11 @@ public class Cell implements Ref {
     @Override
     public String toString() {
         return Grammar.LPAREN +
-               first +
+               getFirst() +
                Grammar.SPACE +
                Grammar.DOT +
                Grammar.SPACE +
-               rest +
+               getRest() +
                Grammar.RPAREN;
     }
 }
@@ -0,0 +1,98 @@
+package org.ulithi.jlisp.mem;
+
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.exception.TypeConversionException;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link Cursor} walks the top-level elements of a list directly over its chain of
+ * {@link Cell Cells}: e.g. {@code (1 (2 3) 4)} yields {@code 1}, the root cell of {@code (2 3)}
+ * and {@code 4}. Unlike stepping through a list with {@code car()} and {@code cdr()}, which wrap
+ * each tail in a new {@link List}, advancing a cursor allocates nothing: it just follows the
+ * {@code rest} references.
+ * <p>
+ * A cursor can be pointed at another list with {@link #reset(Ref)}, so one instance can be reused
+ * for any number of walks.
+ */
+public final class Cursor {
+
+    /** The cell holding the next element, or {@code NIL} at the end of the list. */
+    private Ref next;
+
+    /**
+     * Creates a {@link Cursor} positioned at the first element of the given list.
+     * @param root The root cell of a list, or {@code NIL}.
+     */
+    public Cursor(final Ref root) {
+        reset(root);
+    }
+
+    /**
+     * Repositions this {@link Cursor} at the first element of the given list.
+     * @param root The root cell of a list, or {@code NIL}.
+     * @return This cursor.
+     */
+    public Cursor reset(final Ref root) {
+        assert root != null : "root is null";
+        this.next = root;
+        return this;
+    }
+
+    /**
+     * @return True if there are more elements in the list, false otherwise.
+     */
+    public boolean hasNext() {
+        return !next.isNil();
+    }
+
+    /**
+     * Returns the next element of the list and advances past it. A sub-list element is returned as
+     * a reference to its root cell.
+     *
+     * @return A reference to the next element.
+     * @throws NoSuchElementException if there are no more elements.
+     */
+    public Ref next() {
+        if (!hasNext()) { throw new NoSuchElementException("No more list elements"); }
+        final Cell cell = next.toCell();
+        next = cell.getRest();
+        return cell.getFirst();
+    }
+
+    /**
+     * Returns the next element of the list, which must be an atom, and advances past it.
+     *
+     * @return The next element, as an {@link Atom}.
+     * @throws NoSuchElementException if there are no more elements.
+     * @throws TypeConversionException if the next element is a list.
+     */
+    public Atom nextAtom() {
+        final Ref ref = next();
+        if (ref.isCell()) { throw new TypeConversionException("Can't convert List to Atom"); }
+        return ref.toAtom();
+    }
+
+    /**
+     * Returns the next element of the list as an {@link SExpression}, and advances past it. An atom
+     * is returned as-is; a sub-list is wrapped in a {@link List}.
+     *
+     * @return The next element.
+     * @throws NoSuchElementException if there are no more elements.
+     */
+    public SExpression nextExpression() {
+        return List.valueOf(next());
+    }
+
+    /**
+     * Returns the remainder of the list: the elements that have not been visited yet. This does
+     * not advance the cursor.
+     *
+     * @return The root cell of the rest of the list, or {@code NIL}.
+     */
+    public Ref rest() {
+        return next;
+    }
+}
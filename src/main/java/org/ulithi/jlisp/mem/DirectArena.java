@@ -0,0 +1,105 @@
+package org.ulithi.jlisp.mem;
+
+import org.ulithi.jlisp.exception.JLispRuntimeException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * An {@link Arena} that stores its cells off the Java heap, in a direct {@link ByteBuffer}: eight
+ * bytes per cell, the {@code first} word followed by the {@code rest} word. However many cells it
+ * holds, the garbage collector sees a single buffer object, so very large lists add nothing to
+ * the cost of the JVM's collections; the arena's own cells are reclaimed by
+ * {@link Arena#collect(int[])}.
+ * <p>
+ * The buffer is replaced by one twice the size when it fills up. The atoms referred to by the
+ * cells are still ordinary heap objects, but small integers are held in the words themselves.
+ */
+public final class DirectArena extends Arena {
+
+    /** The number of bytes in a cell. */
+    private static final int CELL_BYTES = 2 * Integer.BYTES;
+
+    /** The default initial capacity, in cells. */
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** The largest capacity a single buffer can provide, in cells. */
+    private static final int MAX_CAPACITY = java.lang.Math.min(MAX_CELLS, Integer.MAX_VALUE / CELL_BYTES);
+
+    /** The cells. */
+    private ByteBuffer buffer;
+
+    /** The number of cells allocated. */
+    private int size;
+
+    /**
+     * Creates a {@link DirectArena} with the default initial capacity.
+     */
+    public DirectArena() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a {@link DirectArena} with room for the given number of cells before it grows.
+     * @param capacity The initial capacity, in cells.
+     */
+    public DirectArena(final int capacity) {
+        super();
+        this.buffer = allocateBuffer(java.lang.Math.min(java.lang.Math.max(capacity, 1), MAX_CAPACITY));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int allocate() {
+        final int capacity = buffer.capacity() / CELL_BYTES;
+
+        if (size == capacity) {
+            if (size == MAX_CAPACITY) { throw new JLispRuntimeException("Arena is full"); }
+            final ByteBuffer larger = allocateBuffer((int) java.lang.Math.min(2L * capacity, MAX_CAPACITY));
+            larger.put(buffer.position(0));
+            buffer = larger;
+        }
+
+        return size++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int first(final int index) {
+        return buffer.getInt(index * CELL_BYTES);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int rest(final int index) {
+        return buffer.getInt(index * CELL_BYTES + Integer.BYTES);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void setFirst(final int index, final int word) {
+        buffer.putInt(index * CELL_BYTES, word);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void setRest(final int index, final int word) {
+        buffer.putInt(index * CELL_BYTES + Integer.BYTES, word);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void truncate(final int size) {
+        this.size = size;
+    }
+
+    private static ByteBuffer allocateBuffer(final int capacity) {
+        return ByteBuffer.allocateDirect(capacity * CELL_BYTES).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,97 @@
+package org.ulithi.jlisp.parser;
+
+import org.ulithi.jlisp.exception.ParseException;
+import org.ulithi.jlisp.mem.PTree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link FormReader} reads LISP program text from a {@link Reader} and produces a
+ * {@link PTree parse tree} for each top-level form in it, one at a time. Input is only read as far
+ * as needed to complete the next form, so a large source file can be evaluated form by form
+ * without first reading (and tokenizing, and parsing) the whole thing.
+ * <p>
+ * For example:
+ * <pre>
+ *     try (final FormReader forms = new FormReader(new FileReader(fileName))) {
+ *         while (forms.hasNext()) {
+ *             eval.apply(forms.next().root());
+ *         }
+ *     }
+ * </pre>
+ * Errors reading the underlying {@code Reader} are rethrown as {@link UncheckedIOException}.
+ */
+public class FormReader implements Iterator<PTree>, Closeable {
+
+    /** The source of LISP program text. */
+    private final Reader reader;
+
+    /** The lexer that tokenizes the program text. */
+    private final Lexer lexer = new Lexer();
+
+    /** The parser that builds a parse tree from each form's tokens. */
+    private final Parser parser = new Parser();
+
+    /** Set once the end of the input has been reached. */
+    private boolean endOfInput = false;
+
+    /**
+     * Constructs a new {@link FormReader} over the given {@link Reader}.
+     * @param reader A character stream of LISP program text.
+     */
+    public FormReader(final Reader reader) {
+        assert reader != null : "reader is null";
+        this.reader = reader;
+    }
+
+    /**
+     * Indicates if there is another top-level form in the input, reading more input if necessary.
+     * {@inheritDoc}
+     * @throws ParseException if the input ends in the middle of a form, or has mismatched
+     *         parentheses.
+     */
+    @Override
+    public boolean hasNext() {
+        try {
+            while (!lexer.hasCompleteForm() && !endOfInput) {
+                endOfInput = !lexer.read(reader);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (!lexer.hasCompleteForm() && lexer.hasTokens()) {
+            lexer.reset();
+            throw new ParseException("Incomplete form at end of input");
+        }
+
+        return lexer.hasCompleteForm();
+    }
+
+    /**
+     * Returns the parse tree for the next top-level form in the input.
+     * {@inheritDoc}
+     */
+    @Override
+    public PTree next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more forms in input");
+        }
+
+        return parser.parse(lexer.nextForm()).orElseThrow();
+    }
+
+    /**
+     * Closes the underlying {@link Reader}.
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
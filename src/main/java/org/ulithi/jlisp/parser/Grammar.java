@@ -11,7 +11,7 @@ import java.util.regex.Pattern;
  * s_expression := atomic_symbol | "(" s_expression "." s_expression ")" | list
  * list := "(" s_expression <s_expression> ")"
  * atomic_symbol := letter atom_part
- * atom_part = empty | letter atom_part | digit atom_part
+ * atom_part = empty | letter atom_part | digit atom_part | "-" atom_part
  * letter = "a" | "b" | " ..." | "z"
  * digit = "1" | "2" | " ..." | "9"
  * empty = " "
@@ -33,16 +33,25 @@ public class Grammar {
 
     private static final Pattern ALPHA_LITERAL_PATTERN = Pattern.compile(ALPHA_LITERAL);
 
-    /** Regular expression for a function name. */
-    public static final String FUNCTION_NAME = "[a-zA-Z][a-zA-Z0-9]*";
+    /** Regular expression for a function name: e.g. {@code FACT} or {@code MAKE-HASH-TABLE}. */
+    public static final String FUNCTION_NAME = "[a-zA-Z][a-zA-Z0-9\\-]*";
 
     private static final Pattern FUNCTION_NAME_PATTERN = Pattern.compile(FUNCTION_NAME);
 
     /** Regular expression for the start of a number (integer). */
     public static final String NUMERIC_LITERAL_START = "[\\d\\+\\-]";
 
-    /** Regular expression for a number (integer). */
-    public static final String NUMERIC_LITERAL = "[+\\-]?\\d+";
+    /** Regular expression for an integer. */
+    public static final String INTEGER_LITERAL = "[+\\-]?\\d+";
+
+    /** Pre-compiled Pattern for matching on the INTEGER_LITERAL regex. */
+    private static final Pattern INTEGER_LITERAL_PATTERN = Pattern.compile(INTEGER_LITERAL);
+
+    /**
+     * Regular expression for a number: an integer, a float (e.g. {@code 2.5} or
+     * {@code -1.0E-3}), or a ratio (e.g. {@code 3/4}).
+     */
+    public static final String NUMERIC_LITERAL = "[+\\-]?\\d+(\\.\\d+([eE][+\\-]?\\d+)?|/\\d+)?";
 
     /** Pre-compiled Pattern for matching on the NUMERIC_LITERAL regex. */
     private static final Pattern NUMERIC_LITERAL_PATTERN = Pattern.compile(NUMERIC_LITERAL);
@@ -100,8 +109,17 @@ public class Grammar {
     }
 
     /**
-     * Indicates if the given token represents a numeric literal. Currently, numeric literals
-     * can only be signed integers.
+     * Indicates if the given token represents an integer literal.
+     * @param token The token to evaluate.
+     * @return True if {@code token} is an integer literal, false otherwise.
+     */
+    public static boolean isInteger(final String token) {
+        return INTEGER_LITERAL_PATTERN.matcher(token).matches();
+    }
+
+    /**
+     * Indicates if the given token represents a numeric literal: a signed integer, float or
+     * ratio.
      * @param token The token to evaluate.
      * @return True if {@code token} is a numeric literal, false otherwise.
      */
@@ -4,14 +4,18 @@ import org.ulithi.jlisp.exception.ParseException;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
- * The {@link Lexer} forms LISP language tokens from an {@link InputStream} or a {@link String} of
- * characters representing a LISP program or expression to be evaluated.
+ * The {@link Lexer} forms LISP language tokens from an {@link InputStream}, a {@link Reader} or a
+ * {@link String} of characters representing a LISP program or expression to be evaluated.
  * <p>
  * Aside from basic tokenization, the {@code Lexer} also handles expansion of the single-quote ( ' )
  * shorthand for the QUOTE function: e.g., transforms 'A in the input to "(", "QUOTE", "A", ")" in
@@ -29,8 +33,8 @@ public class Lexer {
      * and is ready for parsing.
      */
     private static class State {
-        /** The ordered list of tokens produced by lexical analysis. */
-        final List<String> tokens = new ArrayList<>();
+        /** The ordered stream of tokens produced by lexical analysis. */
+        final TokenBuffer tokens = new TokenBuffer();
 
         int depth = 0;               // Parenthesis depth of all tokenized input.
         boolean inQuote = false;     // Are we processing quoted (') input?
@@ -38,14 +42,49 @@ public class Lexer {
         boolean expectAtom = false;  // Whether we expect the quoted (') input to be an atom.
         boolean inComment = false;   // Are we processing commented-out input?
 
+        int line = 1;                // Line number of the input currently being scanned.
+        long scanned = 0;            // Number of characters scanned by previous appends.
+        long lineStart = 0;          // Character offset of the start of the current line.
+
+        /** Token indexes just past the end of each complete top-level form scanned so far. */
+        int[] formEnds = new int[16];
+        int formCount = 0;           // Number of valid entries in formEnds.
+        int formsTaken = 0;          // Number of complete forms already handed out.
+
         private boolean isComplete() {
             return depth == 0 && !tokens.isEmpty();
         }
+
+        private boolean hasCompleteForm() {
+            return formsTaken < formCount;
+        }
+
+        /**
+         * Records that a top-level form ends just before token index {@code end}, unless that
+         * boundary has already been recorded.
+         */
+        private void endForm(final int end) {
+            if (formCount > 0 && formEnds[formCount - 1] == end) { return; }
+            if (formCount == formEnds.length) { formEnds = Arrays.copyOf(formEnds, formCount * 2); }
+            formEnds[formCount++] = end;
+        }
     }
 
+    /** The text of the QUOTE function name, inserted when expanding the ( ' ) shorthand. */
+    private static final String QUOTE = "QUOTE";
+
+    /** The number of characters read from a {@link Reader} at a time. */
+    private static final int BUFFER_SIZE = 8192;
+
     /** Scanning state for the form/input currently being processed. */
     private State state;
 
+    /**
+     * Holds characters read from a {@link Reader} but not yet scanned: i.e. a token that may
+     * continue in the next chunk of input. Allocated on first use.
+     */
+    private CharBuffer buffer;
+
     /**
      * Constructs a new Lexer instance.
      */
@@ -54,26 +93,71 @@ public class Lexer {
     }
 
     /**
-     * Reads the given {@link InputStream} stream as a string of characters and tokenizes it.
+     * Reads the given {@link InputStream} as UTF-8 encoded characters, to the end of the stream,
+     * and tokenizes them.
      * @param stream An input stream.
      */
     public void append(final InputStream stream) throws IOException {
-        final byte[] bytes = new byte[1024];
-        final StringBuilder text = new StringBuilder();
+        append(new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
 
-        while (stream.available() > 0 && stream.read(bytes, 0, 1024) > 0) {
-            text.append(new String(bytes).trim().toUpperCase());
-            Arrays.fill(bytes, (byte) 0);
+    /**
+     * Reads the given {@link Reader} to the end of its input, and tokenizes it.
+     * @param reader A character stream of LISP program text.
+     */
+    public void append(final Reader reader) throws IOException {
+        while (read(reader)) {
+            // Continue
+        }
+    }
+
+    /**
+     * Reads and tokenizes the next chunk of characters from the given {@link Reader}. Since a
+     * chunk may end in the middle of a token, only the characters up to the last delimiter in the
+     * chunk are scanned: any remaining characters are held over and scanned with the next chunk
+     * (or when the end of input is reached). This allows a large input to be tokenized a form at
+     * a time (see {@link #hasCompleteForm()} and {@link #nextForm()}) without reading all of it
+     * into memory first.
+     *
+     * @param reader A character stream of LISP program text.
+     * @return True if input was read, false if the end of input was reached.
+     */
+    public boolean read(final Reader reader) throws IOException {
+        if (buffer == null) {
+            buffer = CharBuffer.allocate(BUFFER_SIZE);
+        } else if (!buffer.hasRemaining()) {
+            // A single token fills the whole buffer: make room for the rest of it.
+            final CharBuffer larger = CharBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            buffer = larger.put(buffer);
         }
 
-        append(text.toString());
+        final int count = reader.read(buffer);
+        buffer.flip();
+
+        try {
+            if (count < 0) {
+                append(buffer);
+                buffer.clear();
+                return false;
+            }
+
+            final int length = delimitedLength(buffer);
+            append(buffer.subSequence(0, length));
+            buffer.position(buffer.position() + length);
+            buffer.compact();
+            return true;
+        } catch (final ParseException e) {
+            buffer.clear();
+            throw e;
+        }
     }
 
     /**
-     * Reads the given string and tokenizes it.
-     * @param s A string of LISP program text.
+     * Reads the given character sequence and tokenizes it.
+     * @param s A string (or other character sequence) of LISP program text.
      */
-    public void append(final String s) {
+    public void append(final CharSequence s) {
         try {
             tokenize(s, state);
         } catch (final ParseException e) {
@@ -88,6 +172,7 @@ public class Lexer {
      */
     public void reset() {
         state = new State();
+        if (buffer != null) { buffer.clear(); }
     }
 
     /**
@@ -99,12 +184,24 @@ public class Lexer {
     }
 
     /**
-     * Returns the tokens formed from the stream or string by this {@link Lexer}.
+     * Returns the text of the tokens formed from the stream or string by this {@link Lexer}.
+     * Prefer {@link #getTokenBuffer()}, which doesn't need to create a string for every token.
      *
      * @return An ordered list of tokens.
      */
     public List<String> getTokens() {
-        return Collections.unmodifiableList(state.tokens);
+        return Collections.unmodifiableList(state.tokens.toList());
+    }
+
+    /**
+     * Returns the tokens formed from the stream or string by this {@link Lexer}. The buffer
+     * belongs to this lexer until it is {@link #reset()}: e.g. a caller can take the tokens for a
+     * complete form, reset the lexer, and then parse them.
+     *
+     * @return The lexer's token buffer.
+     */
+    public TokenBuffer getTokenBuffer() {
+        return state.tokens;
     }
 
     public boolean hasTokens() {
@@ -112,71 +209,325 @@ public class Lexer {
     }
 
     /**
-     * Transforms a string into an ordered list of Lisp language tokens, based on the current
-     * state of the lexer. The lexer state is updated by this method as the input is being
-     * scanned and processed.
+     * Indicates if at least one complete top-level form has been scanned, and not yet retrieved
+     * by {@link #nextForm()}.
+     * @return True if a complete form is available, false otherwise.
+     */
+    public boolean hasCompleteForm() {
+        return state.hasCompleteForm();
+    }
+
+    /**
+     * Removes and returns the tokens for the next complete top-level form scanned by this
+     * {@link Lexer}. Tokens for any subsequent forms, complete or not, are retained.
      *
-     * @param s A string representing (presumably) a Lisp language statement or program.
+     * @return The tokens for a single, complete form.
+     * @throws NoSuchElementException if no complete form is available.
+     */
+    public TokenBuffer nextForm() {
+        if (!state.hasCompleteForm()) {
+            throw new NoSuchElementException("No complete form available");
+        }
+
+        final int start = state.formsTaken == 0 ? 0 : state.formEnds[state.formsTaken - 1];
+        final int end = state.formEnds[state.formsTaken++];
+        final TokenBuffer form = state.tokens.slice(start, end);
+
+        // Once every complete form has been handed out, discard their tokens in one go.
+        if (!state.hasCompleteForm()) {
+            state.tokens.discard(end);
+            state.formCount = 0;
+            state.formsTaken = 0;
+        }
+
+        return form;
+    }
+
+    /**
+     * Character classes recognized by the scanner. Every character of the input is mapped to one
+     * of these via {@link #CHAR_CLASSES}, so that the scanner never has to run a regex or
+     * allocate a substring to decide what to do with a character.
+     */
+    private enum CharClass {
+        /** Whitespace and anything else that is skipped outside of comments. */
+        OTHER,
+        /** End-of-line: terminates a comment. */
+        EOL,
+        /** Semicolon: starts a rest-of-line comment. */
+        SEMI,
+        /** Single quote: shorthand for QUOTE. */
+        QUOTE,
+        /** An ASCII letter. Starts (and continues) an alphanumeric token. */
+        LETTER,
+        /** An ASCII digit. Starts (and continues) an alphanumeric or numeric token. */
+        DIGIT,
+        /** A plus or minus sign. Starts a numeric token, or stands alone as a symbol. */
+        SIGN,
+        /** Left parenthesis. */
+        LPAREN,
+        /** Right parenthesis. */
+        RPAREN,
+        /** Any other single-character syntax element: see {@link Grammar#SYMBOL}. */
+        SYMBOL
+    }
+
+    /**
+     * Maps each ASCII character to its {@link CharClass}. Non-ASCII characters are
+     * {@code OTHER}.
+     */
+    private static final CharClass[] CHAR_CLASSES = new CharClass[128];
+
+    static {
+        Arrays.fill(CHAR_CLASSES, CharClass.OTHER);
+        for (char c = 'a'; c <= 'z'; c++) { CHAR_CLASSES[c] = CharClass.LETTER; }
+        for (char c = 'A'; c <= 'Z'; c++) { CHAR_CLASSES[c] = CharClass.LETTER; }
+        for (char c = '0'; c <= '9'; c++) { CHAR_CLASSES[c] = CharClass.DIGIT; }
+        CHAR_CLASSES['+'] = CharClass.SIGN;
+        CHAR_CLASSES['-'] = CharClass.SIGN;
+        CHAR_CLASSES['\n'] = CharClass.EOL;
+        CHAR_CLASSES[';'] = CharClass.SEMI;
+        CHAR_CLASSES['\''] = CharClass.QUOTE;
+        CHAR_CLASSES['('] = CharClass.LPAREN;
+        CHAR_CLASSES[')'] = CharClass.RPAREN;
+        for (final char c : new char[] { '.', '*', '<', '>', '/' }) {
+            CHAR_CLASSES[c] = CharClass.SYMBOL;
+        }
+    }
+
+    /**
+     * Returns the {@link CharClass} of the given character.
+     * @param c A character of program text.
+     * @return The character's class.
+     */
+    private static CharClass classOf(final char c) {
+        return c < CHAR_CLASSES.length ? CHAR_CLASSES[c] : CharClass.OTHER;
+    }
+
+    /**
+     * Transforms a sequence of characters into an ordered stream of Lisp language tokens, based
+     * on the current state of the lexer. The lexer state is updated by this method as the input is
+     * being scanned and processed.
+     * <p>
+     * The input is scanned exactly once, left to right: each character is classified by table
+     * lookup, numbers are converted to their values as they are scanned, and no strings are
+     * created at all: token text is copied straight into the {@link TokenBuffer}.
+     *
+     * @param s A character sequence representing (presumably) a Lisp language statement or
+     *          program.
      * @param state Represents the current state of the lexer, including tokens scanned for the
      *              expression currently being processed, quote state and so on.
      */
-    private static void tokenize(final String s, final State state) {
-        final List<String> tokens = new ArrayList<>();
+    private static void tokenize(final CharSequence s, final State state) {
+        final TokenBuffer tokens = state.tokens;
+        final int length = s.length();
         int i = 0;
 
-        while (i < s.length()) {
+        while (i < length) {
+            final char ch = s.charAt(i);
+            final CharClass charClass = classOf(ch);
+            final int line = state.line;
+            final int column = (int) (state.scanned + i - state.lineStart) + 1;
             int j = i + 1;
-            final String ch = s.substring(i, j);
 
-            if (ch.equals(Grammar.EOL)) {
+            if (charClass == CharClass.EOL) {
                 state.inComment = false;
+                state.line++;
+                state.lineStart = state.scanned + j;
             } else if (state.inComment) {
                 // Continue
-            } else if (ch.equals(Grammar.SEMI)) {
-                state.inComment = true;
-            } else if (ch.matches(Grammar.QUOTE) && !state.inQuote) {
-                tokens.add(Grammar.LPAREN);
-                tokens.add("QUOTE");
-                state.inQuote = true;
-                state.expectAtom = true;
-            } else if (ch.matches(Grammar.LETTER) || ch.matches(Grammar.NUMERIC_LITERAL_START)) {
-                while (j < s.length() &&
-                        (s.substring(i, j + 1).matches(Grammar.ALPHA_LITERAL) || s.substring(i, j + 1).matches(Grammar.NUMERIC_LITERAL))) {
-                    j++;
-                }
-                tokens.add(s.substring(i, j));
+            } else {
+                switch (charClass) {
+                    case SEMI:
+                        state.inComment = true;
+                        break;
+                    case QUOTE:
+                        if (state.inQuote) {
+                            tokens.addSymbol(ch, line, column);
+                        } else {
+                            tokens.addParen(TokenKind.LPAREN, line, column);
+                            tokens.addText(QUOTE, 0, QUOTE.length(), line, column);
+                            state.inQuote = true;
+                            state.expectAtom = true;
+                        }
+                        break;
+                    case LETTER:
+                    case DIGIT:
+                    case SIGN:
+                        // Alphanumeric tokens continue with letters and digits, and a token
+                        // that starts with a letter may also contain hyphens (MAKE-HASH-TABLE);
+                        // a leading sign may only be followed by digits.
+                        boolean numeric = charClass != CharClass.LETTER;
+                        if (charClass == CharClass.SIGN) {
+                            while (j < length && classOf(s.charAt(j)) == CharClass.DIGIT) { j++; }
+                        } else {
+                            CharClass next;
+                            while (j < length && (isAlphanumeric(next = classOf(s.charAt(j))) ||
+                                    (charClass == CharClass.LETTER && s.charAt(j) == '-'))) {
+                                numeric &= next == CharClass.DIGIT;
+                                j++;
+                            }
+                        }
+
+                        final int fraction = numeric ? scanFraction(s, i, j, length, line, column)
+                                                     : j;
+
+                        if (charClass == CharClass.SIGN && j == i + 1) {
+                            tokens.addSymbol(ch, line, column);
+                        } else if (fraction > j) {
+                            // Floats and ratios are converted by the parser.
+                            tokens.addReal(s, i, fraction, line, column);
+                            j = fraction;
+                        } else if (numeric && TokenBuffer.fitsInLong(s, i, j)) {
+                            tokens.addNumber(parseNumber(s, i, j), j - i, line, column);
+                        } else if (numeric) {
+                            // Integers too large for a long are converted by the parser.
+                            tokens.addReal(s, i, j, line, column);
+                        } else {
+                            tokens.addText(s, i, j, line, column);
+                        }
 
-                if (state.expectAtom) {
-                    tokens.add(Grammar.RPAREN);
-                    state.inQuote = false;
-                    state.expectAtom = false;
+                        if (state.expectAtom) {
+                            tokens.addParen(TokenKind.RPAREN, line, column);
+                            state.inQuote = false;
+                            state.expectAtom = false;
+                        }
+                        break;
+                    case LPAREN:
+                        state.expectAtom = false;
+                        if (state.inQuote) { state.quoteDepth++; } else { state.depth++; }
+                        tokens.addParen(TokenKind.LPAREN, line, column);
+                        break;
+                    case RPAREN:
+                        if (state.inQuote) {
+                            state.quoteDepth--;
+                            if (state.quoteDepth == 0) {
+                                tokens.addParen(TokenKind.RPAREN, line, column);
+                                state.inQuote = false;
+                            }
+                        } else {
+                            state.depth--;
+                            // Too many closing parentheses is not salvageable.
+                            if (state.depth < 0) {
+                                throw new ParseException("Mismatched parentheses" +
+                                                         TokenBuffer.where(line, column));
+                            }
+                        }
+                        tokens.addParen(TokenKind.RPAREN, line, column);
+                        break;
+                    case SYMBOL:
+                        tokens.addSymbol(ch, line, column);
+                        break;
+                    default:
+                        // Whitespace and unrecognized characters are skipped.
+                        break;
                 }
-            } else if (ch.equals(Grammar.LPAREN)) {
-                state.expectAtom = false;
-                if (state.inQuote) { state.quoteDepth++; } else { state.depth++; }
-                tokens.add(ch);
-            } else if (ch.equals(Grammar.RPAREN)) {
-                if (state.inQuote) {
-                    state.quoteDepth--;
-                    if (state.quoteDepth == 0) {
-                        tokens.add(Grammar.RPAREN);
-                        state.inQuote = false;
-                    }
-                } else {
-                    state.depth--;
+
+                if (state.depth == 0 && !state.inQuote && !tokens.isEmpty()) {
+                    state.endForm(tokens.size());
                 }
-                tokens.add(ch);
-            } else if (ch.matches(Grammar.SYMBOL)) {
-                tokens.add(ch);
             }
             i = j;
         }
 
-        // Too many closing parentheses is not salvageable.
-        if (state.depth < 0) {
-            throw new ParseException("Mismatched parentheses");
+        state.scanned += length;
+    }
+
+    /**
+     * Converts the numeric token {@code s[start, end)}, i.e. an optional sign followed by one or
+     * more digits, to its value. The value must fit in a {@code long}: see
+     * {@link TokenBuffer#fitsInLong(CharSequence, int, int)}.
+     */
+    private static long parseNumber(final CharSequence s, final int start, final int end) {
+        final char first = s.charAt(start);
+        long value = 0;
+
+        // Accumulate negatively, so that Long.MIN_VALUE doesn't overflow.
+        for (int i = (first == '-' || first == '+') ? start + 1 : start; i < end; i++) {
+            value = value * 10 - (s.charAt(i) - '0');
         }
 
-        state.tokens.addAll(tokens);
+        return first == '-' ? value : -value;
+    }
+
+    /**
+     * Scans the fractional part, if any, of the numeric token {@code s[token, start)}: either a
+     * decimal point followed by one or more digits and an optional exponent (e.g. {@code .5} or
+     * {@code .25E-3}), which makes the token a float; or a slash followed by one or more digits
+     * (e.g. {@code /4}), which makes it a ratio.
+     *
+     * @return The index just past the end of the fractional part, or {@code start} if there is
+     *         none.
+     * @throws ParseException if the token is a ratio with a zero denominator.
+     */
+    private static int scanFraction(final CharSequence s, final int token, final int start,
+                                    final int length, final int line, final int column) {
+        if (start + 1 >= length || classOf(s.charAt(start + 1)) != CharClass.DIGIT) {
+            return start;
+        }
+
+        final char separator = s.charAt(start);
+        if (separator != '.' && separator != '/') { return start; }
+
+        int j = start + 1;
+        boolean zero = true;
+
+        while (j < length && classOf(s.charAt(j)) == CharClass.DIGIT) {
+            zero &= s.charAt(j) == '0';
+            j++;
+        }
+
+        if (separator == '/') {
+            if (zero) {
+                throw new ParseException("Division by zero" + TokenBuffer.where(line, column) +
+                                         ": " + s.subSequence(token, j));
+            }
+            return j;
+        }
+
+        if (j + 1 < length && (s.charAt(j) == 'E' || s.charAt(j) == 'e')) {
+            int k = j + 1;
+            if (classOf(s.charAt(k)) == CharClass.SIGN) { k++; }
+            if (k < length && classOf(s.charAt(k)) == CharClass.DIGIT) {
+                while (k < length && classOf(s.charAt(k)) == CharClass.DIGIT) { k++; }
+                j = k;
+            }
+        }
+
+        return j;
+    }
+
+    /**
+     * Returns the number of characters in the given sequence up to and including its last
+     * delimiter: i.e. the last character that can't be part of a multi-character token. Scanning
+     * only this much of the sequence guarantees that no token is split.
+     * @param s A character sequence.
+     * @return The length of the longest prefix of {@code s} that ends with a delimiter, or zero.
+     */
+    private static int delimitedLength(final CharSequence s) {
+        int length = s.length();
+        while (length > 0 && isTokenPart(s.charAt(length - 1))) {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Indicates if the given character can be part of a multi-character token.
+     * @param c A character of program text.
+     * @return True if {@code c} is a letter, digit or sign, or a decimal point or slash that may
+     *         continue a number, false otherwise.
+     */
+    private static boolean isTokenPart(final char c) {
+        final CharClass charClass = classOf(c);
+        return isAlphanumeric(charClass) || charClass == CharClass.SIGN || c == '.' || c == '/';
+    }
+
+    /**
+     * Indicates if the given character class can continue an alphanumeric token.
+     * @param charClass A character class.
+     * @return True if {@code charClass} is a letter or digit, false otherwise.
+     */
+    private static boolean isAlphanumeric(final CharClass charClass) {
+        return charClass == CharClass.LETTER || charClass == CharClass.DIGIT;
     }
 }
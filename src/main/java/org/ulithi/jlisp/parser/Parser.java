@@ -2,11 +2,13 @@ package org.ulithi.jlisp.parser;
 
 import org.ulithi.jlisp.commons.CollectionUtils;
 import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.Ratio;
 import org.ulithi.jlisp.exception.ParseException;
 import org.ulithi.jlisp.mem.Cell;
 import org.ulithi.jlisp.mem.PTree;
 import org.ulithi.jlisp.mem.Ref;
 
+import java.math.BigInteger;
 import java.util.List;
 import java.util.Optional;
 import java.util.Stack;
@@ -30,8 +32,22 @@ public class Parser {
             return Optional.empty();
         }
 
+        return parse(TokenBuffer.of(tokens));
+    }
+
+    /**
+     * Parses and construct parse trees for the LISP statements in the given stream of tokens.
+     *
+     * @param tokens An ordered stream of LISP language tokens produced by lexical analysis of one
+     *               or more LISP expressions.
+     */
+    public Optional<PTree> parse(final TokenBuffer tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return Optional.empty();
+        }
+
         if (tokens.size() == 1) {
-            final Ref ref = parseToken(tokens.get(0));
+            final Ref ref = parseToken(tokens, 0);
             return Optional.of(new PTree(Cell.createStorage(ref)));
         }
 
@@ -39,41 +55,48 @@ public class Parser {
     }
 
     /**
-     * Parses a list of tokens representing a LISP statement and returns the resulting parse
+     * Parses a stream of tokens representing a LISP statement and returns the resulting parse
      * tree.
 
-     * @param tokens An ordered list of LISP language tokens produced by lexical analysis of a
+     * @param tokens An ordered stream of LISP language tokens produced by lexical analysis of a
      *               LISP expression.
      * @return A {@link PTree parse tree} representing the expression and ready for evaluation.
      */
-    private static PTree parseTokens(final List<String> tokens) {
+    private static PTree parseTokens(final TokenBuffer tokens) {
         final Stack<PTree> stack = new Stack<>();
         PTree pTree = new PTree();
         boolean inlist = false;
         int depth = 0;
+        int unbalanced = -1;  // Index of the token where parentheses first became unbalanced.
+        int formStart = 0;    // Index of the left parenthesis opening the current top-level list.
+
+        for (int i = 0; i < tokens.size(); i++) {
+            final TokenKind kind = tokens.kind(i);
 
-        for (final String token: tokens) {
-            if (token.equals(Grammar.LPAREN)) {
+            if (kind == TokenKind.LPAREN) {
                 if (inlist) {
                     stack.push(pTree);
                     pTree = new PTree();
                 }
                 inlist = true;
+                if (depth == 0) { formStart = i; }
                 depth++;
-            } else if (token.equals(Grammar.RPAREN)) {
+            } else if (kind == TokenKind.RPAREN) {
                 if (!stack.empty()) {
                     final PTree inner = pTree;
                     pTree = stack.pop();
                     pTree.addList(inner.root());
                 }
                 depth--;
+                if (depth < 0 && unbalanced < 0) { unbalanced = i; }
             } else {
-                pTree.add(Cell.create(parseToken(token)));
+                pTree.add(Cell.create(parseToken(tokens, i)));
             }
         }
 
         if (depth != 0) {
-            throw new ParseException("Mismatched parentheses");
+            throw new ParseException("Mismatched parentheses" +
+                                     tokens.where(unbalanced >= 0 ? unbalanced : formStart));
         }
 
         if (!stack.empty()) {
@@ -85,21 +108,48 @@ public class Parser {
 
     /**
      * Parses a single atomic token and returns the appropriate {@link Ref reference}.
-     * @param token The token to be parsed.
+     * @param tokens A stream of tokens.
+     * @param index The index of the token to be parsed.
      * @return A {@link Ref}: either the special {@code NIL} {@code Ref} or a numeric, string or
-     *         symbolic {@link Atom} corresponding to the token, depending on the detected data type
-     *         of the token.
+     *         symbolic {@link Atom} corresponding to the token, depending on the kind of token.
      */
-    private static Ref parseToken(final String token) {
-        if (Grammar.isNumeric(token)) { return Atom.create(Integer.parseInt(token)); }
+    private static Ref parseToken(final TokenBuffer tokens, final int index) {
+        switch (tokens.kind(index)) {
+            case NUMBER:
+                return Atom.create(tokens.longValue(index));
+            case REAL:
+                return parseReal(tokens.text(index));
+            case NIL:
+                return NIL;
+            case SYMBOL:
+                // TODO Symbols, properly.
+                final char symbol = tokens.symbol(index);
+                if (symbol == '+' || symbol == '*') {
+                    return Atom.createSymbol(String.valueOf(symbol));
+                }
+                return Atom.create(String.valueOf(symbol));
+            default:
+                return Atom.create(tokens.text(index));
+        }
+    }
 
-        if ("NIL".equals(token)) { return NIL; }
+    /**
+     * Converts the text of a {@code REAL} token to a numeric {@link Atom}: a ratio if the text
+     * contains a slash (e.g. {@code 3/4}), a float if it contains a decimal point or exponent
+     * (e.g. {@code 2.5}), and otherwise an integer too large for a {@code long}. The lexer has
+     * already checked the syntax, and that a ratio's denominator is non-zero.
+     * @param text The text of the token.
+     * @return A numeric atom.
+     */
+    private static Atom parseReal(final String text) {
+        final int slash = text.indexOf('/');
 
-        // TODO Symbols, properly.
-        if (token.equals("+") || token.equals("*")) {
-            return Atom.createSymbol(token);
+        if (slash < 0) {
+            return Grammar.isInteger(text) ? Atom.create(new BigInteger(text))
+                                           : Atom.create(Double.parseDouble(text));
         }
 
-        return Atom.create(token);
+        return Atom.create(Ratio.valueOf(new BigInteger(text.substring(0, slash)),
+                                         new BigInteger(text.substring(slash + 1))));
     }
 }
@@ -0,0 +1,405 @@
+package org.ulithi.jlisp.parser;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link TokenBuffer} is the compact, ordered stream of tokens passed from the {@link Lexer} to
+ * the {@link Parser}. Rather than a list of token objects (or strings), it is a set of parallel
+ * arrays indexed by token number:
+ * <ul>
+ *     <li>the {@link TokenKind kind} of each token,</li>
+ *     <li>a kind-specific value: the parsed value of a {@code NUMBER}, the character of a
+ *     {@code SYMBOL}, or the offset of the token text in this buffer's character array for an
+ *     {@code IDENTIFIER}, {@code NIL} or {@code REAL},</li>
+ *     <li>the length of the token text, and</li>
+ *     <li>the line and column where the token appeared in the source, for error messages.</li>
+ * </ul>
+ * So integers that fit in a {@code long} are converted exactly once (by the {@code Lexer}); larger
+ * ones are kept as {@code REAL} text, for the {@code Parser} to convert. Identifier text is only
+ * turned into a {@code String} when the {@code Parser} actually creates an atom from it, and
+ * parentheses cost nothing but an array slot.
+ * <p>
+ * Line and column numbers start at 1. A line number of 0 means the position of the token isn't
+ * known: e.g. for tokens created by {@link #of(List)}.
+ */
+public final class TokenBuffer {
+
+    /** The initial capacity, in tokens, of a new buffer. */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /** The {@link TokenKind#ordinal() ordinal} of the kind of each token. */
+    private byte[] kinds;
+
+    /** The value of each token: a number, a symbol character, or an offset into {@link #text}. */
+    private long[] values;
+
+    /** The length of the text of each token. */
+    private int[] lengths;
+
+    /** The source line number of each token. */
+    private int[] lines;
+
+    /** The source column number of each token. */
+    private int[] columns;
+
+    /** The number of tokens in this buffer. */
+    private int size = 0;
+
+    /**
+     * Holds the text of all {@code IDENTIFIER}, {@code NIL} and {@code REAL} tokens, back to
+     * back.
+     */
+    private char[] text;
+
+    /** The number of characters used in {@link #text}. */
+    private int textLength = 0;
+
+    /**
+     * Constructs a new, empty {@link TokenBuffer}.
+     */
+    public TokenBuffer() {
+        this(INITIAL_CAPACITY, INITIAL_CAPACITY * 4);
+    }
+
+    /**
+     * Constructs a new, empty {@link TokenBuffer} with room for the given number of tokens and
+     * characters of token text.
+     */
+    private TokenBuffer(final int capacity, final int textCapacity) {
+        kinds = new byte[capacity];
+        values = new long[capacity];
+        lengths = new int[capacity];
+        lines = new int[capacity];
+        columns = new int[capacity];
+        text = new char[textCapacity];
+    }
+
+    /**
+     * Creates a {@link TokenBuffer} from a list of token strings, classifying each token from its
+     * text. Positions of the tokens are not known.
+     *
+     * @param tokens An ordered list of LISP language tokens.
+     * @return A new {@code TokenBuffer} with the same tokens.
+     */
+    public static TokenBuffer of(final List<String> tokens) {
+        final TokenBuffer buffer = new TokenBuffer(Math.max(tokens.size(), 1), INITIAL_CAPACITY);
+
+        for (final String token : tokens) {
+            if (token.equals(Grammar.LPAREN)) {
+                buffer.add(TokenKind.LPAREN, 0, 1, 0, 0);
+            } else if (token.equals(Grammar.RPAREN)) {
+                buffer.add(TokenKind.RPAREN, 0, 1, 0, 0);
+            } else if (Grammar.isInteger(token) && fitsInLong(token, 0, token.length())) {
+                buffer.addNumber(Long.parseLong(token), token.length(), 0, 0);
+            } else if (Grammar.isNumeric(token)) {
+                buffer.addReal(token, 0, token.length(), 0, 0);
+            } else if (token.length() == 1 && !Grammar.isAlphanumeric(token)) {
+                buffer.addSymbol(token.charAt(0), 0, 0);
+            } else {
+                buffer.addText(token, 0, token.length(), 0, 0);
+            }
+        }
+
+        return buffer;
+    }
+
+    /**
+     * @return The number of tokens in this buffer.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if this buffer contains no tokens, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the kind of the token at the given index.
+     * @param index A token index.
+     * @return The token's kind.
+     */
+    public TokenKind kind(final int index) {
+        checkIndex(index);
+        return TokenKind.of(kinds[index]);
+    }
+
+    /**
+     * Returns the value of the {@code NUMBER} token at the given index.
+     * @param index A token index.
+     * @return The number's value.
+     */
+    public long longValue(final int index) {
+        checkIndex(index, TokenKind.NUMBER);
+        return values[index];
+    }
+
+    /**
+     * Returns the character of the {@code SYMBOL} token at the given index.
+     * @param index A token index.
+     * @return The symbol character.
+     */
+    public char symbol(final int index) {
+        checkIndex(index, TokenKind.SYMBOL);
+        return (char) values[index];
+    }
+
+    /**
+     * Returns the text of the token at the given index, as it would appear in program text.
+     * @param index A token index.
+     * @return The text of the token.
+     */
+    public String text(final int index) {
+        switch (kind(index)) {
+            case LPAREN: return Grammar.LPAREN;
+            case RPAREN: return Grammar.RPAREN;
+            case NUMBER: return Long.toString(values[index]);
+            case SYMBOL: return String.valueOf((char) values[index]);
+            default: return new String(text, (int) values[index], lengths[index]);
+        }
+    }
+
+    /**
+     * Returns the source line of the token at the given index.
+     * @param index A token index.
+     * @return A line number, starting at 1, or 0 if unknown.
+     */
+    public int line(final int index) {
+        checkIndex(index);
+        return lines[index];
+    }
+
+    /**
+     * Returns the source column of the token at the given index.
+     * @param index A token index.
+     * @return A column number, starting at 1, or 0 if unknown.
+     */
+    public int column(final int index) {
+        checkIndex(index);
+        return columns[index];
+    }
+
+    /**
+     * Describes the source position of the token at the given index, for use in error messages:
+     * e.g. {@code " at line 3, column 12"}. Returns an empty string if the position isn't known.
+     * @param index A token index.
+     * @return A description of the token's position, or an empty string.
+     */
+    public String where(final int index) {
+        if (index < 0 || index >= size || lines[index] == 0) { return ""; }
+        return where(lines[index], columns[index]);
+    }
+
+    /**
+     * Returns the text of every token in this buffer, in order.
+     * @return An ordered list of tokens.
+     */
+    public List<String> toList() {
+        final List<String> tokens = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tokens.add(text(i));
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns a new {@link TokenBuffer} containing a copy of a range of tokens in this buffer.
+     * @param from The index of the first token to copy.
+     * @param to The index just past the last token to copy.
+     * @return A new {@code TokenBuffer}.
+     */
+    public TokenBuffer slice(final int from, final int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Invalid range: " + from + " to " + to);
+        }
+
+        final TokenBuffer slice = new TokenBuffer(Math.max(to - from, 1), INITIAL_CAPACITY);
+        final CharSequence chars = CharBuffer.wrap(text, 0, textLength);
+
+        for (int i = from; i < to; i++) {
+            if (kinds[i] == TokenKind.REAL.ordinal()) {
+                final int start = (int) values[i];
+                slice.addReal(chars, start, start + lengths[i], lines[i], columns[i]);
+            } else if (hasText(i)) {
+                final int start = (int) values[i];
+                slice.addText(chars, start, start + lengths[i], lines[i], columns[i]);
+            } else {
+                slice.add(TokenKind.of(kinds[i]), values[i], lengths[i], lines[i], columns[i]);
+            }
+        }
+
+        return slice;
+    }
+
+    /**
+     * Removes the first {@code count} tokens from this buffer.
+     * @param count The number of tokens to remove.
+     */
+    void discard(final int count) {
+        if (count == size) {
+            size = 0;
+            textLength = 0;
+            return;
+        }
+
+        final int remaining = size - count;
+        System.arraycopy(kinds, count, kinds, 0, remaining);
+        System.arraycopy(values, count, values, 0, remaining);
+        System.arraycopy(lengths, count, lengths, 0, remaining);
+        System.arraycopy(lines, count, lines, 0, remaining);
+        System.arraycopy(columns, count, columns, 0, remaining);
+        size = remaining;
+
+        // Text is appended in token order, so the first remaining text token marks the start of
+        // the text still in use.
+        for (int i = 0; i < size; i++) {
+            if (hasText(i)) {
+                final int start = (int) values[i];
+                System.arraycopy(text, start, text, 0, textLength - start);
+                textLength -= start;
+                for (int j = i; j < size; j++) {
+                    if (hasText(j)) { values[j] -= start; }
+                }
+                return;
+            }
+        }
+        textLength = 0;
+    }
+
+    /**
+     * Adds a parenthesis token.
+     */
+    void addParen(final TokenKind kind, final int line, final int column) {
+        add(kind, 0, 1, line, column);
+    }
+
+    /**
+     * Adds a {@code NUMBER} token.
+     */
+    void addNumber(final long value, final int length, final int line, final int column) {
+        add(TokenKind.NUMBER, value, length, line, column);
+    }
+
+    /**
+     * Adds a {@code SYMBOL} token.
+     */
+    void addSymbol(final char symbol, final int line, final int column) {
+        add(TokenKind.SYMBOL, symbol, 1, line, column);
+    }
+
+    /**
+     * Adds an {@code IDENTIFIER} token with the text {@code s[start, end)}, or a {@code NIL} token
+     * if that text is "NIL".
+     */
+    void addText(final CharSequence s, final int start, final int end, final int line,
+                 final int column) {
+        final int length = end - start;
+        appendText(s, start, end);
+
+        final TokenKind kind = isNil(textLength, length) ? TokenKind.NIL : TokenKind.IDENTIFIER;
+        add(kind, textLength, length, line, column);
+        textLength += length;
+    }
+
+    /**
+     * Adds a {@code REAL} token with the text {@code s[start, end)}: a float, a ratio, or an
+     * integer too large for a {@code long}.
+     */
+    void addReal(final CharSequence s, final int start, final int end, final int line,
+                 final int column) {
+        appendText(s, start, end);
+        add(TokenKind.REAL, textLength, end - start, line, column);
+        textLength += end - start;
+    }
+
+    /**
+     * Indicates if the integer literal {@code s[start, end)}, i.e. an optional sign followed by one
+     * or more digits, has a value that fits in a {@code long}.
+     */
+    static boolean fitsInLong(final CharSequence s, final int start, final int end) {
+        final char first = s.charAt(start);
+        final int digits = end - start - (first == '-' || first == '+' ? 1 : 0);
+
+        if (digits < 19) { return true; }
+
+        try {
+            Long.parseLong(s, start, end, 10);
+            return true;
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a description of the given source position, for use in error messages.
+     */
+    static String where(final int line, final int column) {
+        return " at line " + line + ", column " + column;
+    }
+
+    private void add(final TokenKind kind, final long value, final int length, final int line,
+                     final int column) {
+        if (size == kinds.length) {
+            final int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            values = Arrays.copyOf(values, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+        }
+
+        kinds[size] = (byte) kind.ordinal();
+        values[size] = value;
+        lengths[size] = length;
+        lines[size] = line;
+        columns[size] = column;
+        size++;
+    }
+
+    /**
+     * Copies the characters {@code s[start, end)} to the end of {@link #text}, without counting
+     * them as used.
+     */
+    private void appendText(final CharSequence s, final int start, final int end) {
+        final int length = end - start;
+        if (textLength + length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + length));
+        }
+
+        for (int i = start; i < end; i++) {
+            text[textLength + i - start] = s.charAt(i);
+        }
+    }
+
+    private boolean hasText(final int index) {
+        return kinds[index] == TokenKind.IDENTIFIER.ordinal() ||
+               kinds[index] == TokenKind.NIL.ordinal() ||
+               kinds[index] == TokenKind.REAL.ordinal();
+    }
+
+    private boolean isNil(final int offset, final int length) {
+        return length == 3 && text[offset] == 'N' && text[offset + 1] == 'I' &&
+               text[offset + 2] == 'L';
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Token index " + index +
+                                                " out of bounds for size " + size);
+        }
+    }
+
+    private void checkIndex(final int index, final TokenKind kind) {
+        checkIndex(index);
+        if (kinds[index] != kind.ordinal()) {
+            throw new IllegalStateException("Token " + index + " is not a " + kind + ": " +
+                                            text(index));
+        }
+    }
+}
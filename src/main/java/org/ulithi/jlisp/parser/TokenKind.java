@@ -0,0 +1,47 @@
+package org.ulithi.jlisp.parser;
+
+/**
+ * The kinds of token produced by the {@link Lexer}. The kind of each token is determined once,
+ * while scanning, so that the {@link Parser} never has to re-classify token text.
+ */
+public enum TokenKind {
+    /** Left parenthesis. */
+    LPAREN,
+
+    /** Right parenthesis. */
+    RPAREN,
+
+    /** An integer literal that fits in a {@code long}, e.g. {@code 42} or {@code -7}. */
+    NUMBER,
+
+    /**
+     * A numeric literal that isn't converted by the lexer: a float, e.g. {@code 2.5} or
+     * {@code -1.0E-3}, a ratio, e.g. {@code 3/4}, or an integer too large for a {@code long}. Its
+     * text is kept, and converted by the {@link Parser}.
+     */
+    REAL,
+
+    /** The {@code NIL} token. */
+    NIL,
+
+    /** An alphanumeric name, e.g. {@code CAR} or {@code X1}. */
+    IDENTIFIER,
+
+    /**
+     * A single-character symbol, e.g. {@code +}, {@code <} or {@code .}: see
+     * {@link Grammar#SYMBOL}.
+     */
+    SYMBOL;
+
+    /** Cached result of {@link #values()}, to avoid copying the array on every lookup. */
+    private static final TokenKind[] VALUES = values();
+
+    /**
+     * Returns the {@link TokenKind} with the given ordinal.
+     * @param ordinal A value returned by {@link #ordinal()}.
+     * @return The corresponding token kind.
+     */
+    static TokenKind of(final int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -1,15 +1,88 @@
 package org.ulithi.jlisp.primitive;
 
+import org.ulithi.jlisp.core.Ratio;
+
+import java.math.BigInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
 /**
- * Interface for an arithmetic operator that accepts two integer arguments and returns a result
- * of the specified type.
+ * Interface for an arithmetic operator that accepts two numeric arguments and returns a numeric
+ * result. The operator has an implementation for each level of the numeric tower: a fast path on
+ * primitive {@code longs}, which never boxes; a slow path on {@code BigIntegers}, used when the
+ * fast path overflows or when an operand is already too large for a {@code long}; exact
+ * {@link Ratio rationals}; and double-precision floating point.
  */
-public interface BinaryArithmeticOperator<T> {
+public interface BinaryArithmeticOperator {
     /**
      * Apply the operator to two integer operands and return the result.
      * @param lhs The left-hand side operand in in-fix notation.
      * @param rhs The right-hand side operand in in-fix notation.
      * @return The result of applying the operator to the operands.
+     * @throws ArithmeticException if the result overflows a {@code long}, or is undefined.
+     */
+    long eval (long lhs, long rhs);
+
+    /**
+     * Apply the operator to two arbitrary-precision integer operands and return the result.
+     * @param lhs The left-hand side operand in in-fix notation.
+     * @param rhs The right-hand side operand in in-fix notation.
+     * @return The result of applying the operator to the operands.
+     * @throws ArithmeticException if the result is undefined.
+     */
+    BigInteger eval (BigInteger lhs, BigInteger rhs);
+
+    /**
+     * Apply the operator to two rational operands and return the result.
+     * @param lhs The left-hand side operand in in-fix notation.
+     * @param rhs The right-hand side operand in in-fix notation.
+     * @return The result of applying the operator to the operands.
+     * @throws ArithmeticException if the result is undefined.
+     */
+    Ratio eval (Ratio lhs, Ratio rhs);
+
+    /**
+     * Apply the operator to two floating point operands and return the result.
+     * @param lhs The left-hand side operand in in-fix notation.
+     * @param rhs The right-hand side operand in in-fix notation.
+     * @return The result of applying the operator to the operands.
+     * @throws ArithmeticException if the result is undefined.
      */
-    T eval (int lhs, int rhs);
+    double eval (double lhs, double rhs);
+
+    /**
+     * Creates an operator from its implementations for each level of the numeric tower.
+     * @param fixnum The operator on {@code longs}, which must throw on overflow.
+     * @param bignum The operator on {@code BigIntegers}.
+     * @param ratio The operator on {@code Ratios}.
+     * @param flonum The operator on {@code doubles}.
+     * @return The operator.
+     */
+    static BinaryArithmeticOperator of(final LongBinaryOperator fixnum,
+                                       final BinaryOperator<BigInteger> bignum,
+                                       final BinaryOperator<Ratio> ratio,
+                                       final DoubleBinaryOperator flonum) {
+        return new BinaryArithmeticOperator() {
+            @Override
+            public long eval(final long lhs, final long rhs) {
+                return fixnum.applyAsLong(lhs, rhs);
+            }
+
+            @Override
+            public BigInteger eval(final BigInteger lhs, final BigInteger rhs) {
+                return bignum.apply(lhs, rhs);
+            }
+
+            @Override
+            public Ratio eval(final Ratio lhs, final Ratio rhs) {
+                return ratio.apply(lhs, rhs);
+            }
+
+            @Override
+            public double eval(final double lhs, final double rhs) {
+                return flonum.applyAsDouble(lhs, rhs);
+            }
+        };
+    }
 }
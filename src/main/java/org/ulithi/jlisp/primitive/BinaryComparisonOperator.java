@@ -0,0 +1,15 @@
+package org.ulithi.jlisp.primitive;
+
+/**
+ * Interface for a comparison operator that accepts two integer arguments and returns a boolean
+ * result. Operands are primitive {@code longs}, so applying the operator never boxes.
+ */
+public interface BinaryComparisonOperator {
+    /**
+     * Apply the operator to two integer operands and return the result.
+     * @param lhs The left-hand side operand in in-fix notation.
+     * @param rhs The right-hand side operand in in-fix notation.
+     * @return True if the operands are in the relation the operator tests for, false otherwise.
+     */
+    boolean test (long lhs, long rhs);
+}
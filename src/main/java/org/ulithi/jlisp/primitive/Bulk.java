@@ -0,0 +1,353 @@
+package org.ulithi.jlisp.primitive;
+
+import org.ulithi.jlisp.core.AbstractFunction;
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.Binding;
+import org.ulithi.jlisp.core.BindingProvider;
+import org.ulithi.jlisp.core.FixnumAtom;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.core.Vector;
+import org.ulithi.jlisp.exception.EvaluationException;
+import org.ulithi.jlisp.exception.WrongArgumentCountException;
+import org.ulithi.jlisp.mem.Cell;
+import org.ulithi.jlisp.mem.Ref;
+
+import java.util.Arrays;
+
+/**
+ * Bulk numeric functions, which operate on whole lists (or vectors) of numbers: e.g.
+ * {@code (SUM '(1 2 3))} rather than {@code (+ 1 2 3)}.
+ * <p>
+ * Each function walks the cells of its list arguments exactly once, unpacking the numbers into a
+ * primitive {@code long[]} if they are all fixnums, or a {@code double[]} if they are all fixnums
+ * or floats, and then does its arithmetic in a tight loop over the array, with no per-element
+ * allocation or dispatch. Lists containing bignums or ratios, and fixnum arithmetic that
+ * overflows, take the general path through {@link Math}, so the result is the same as the
+ * equivalent per-element expression. {@code SUM} and {@code DOT} work directly on the arrays
+ * backing fixnum or float {@link Vector Vectors}, without unpacking them at all.
+ */
+public class Bulk implements BindingProvider {
+
+    /** {@inheritDoc} */
+    @Override
+    public java.util.List<Binding> getBindings() {
+        return Arrays.asList(new Binding(new DOT()),
+                             new Binding(new SUM()),
+                             new Binding(new VPLUS()));
+    }
+
+    /**
+     * The {@code SUM} function, which returns the sum of a list of numbers: e.g. {@code (SUM '(1
+     * 2 3))} is 6. The sum of an empty list is 0.
+     */
+    public static final class SUM extends AbstractFunction {
+        public SUM() { super("SUM"); }
+
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final Ref arg = arguments(sexp, 1)[0];
+
+            if (arg instanceof Vector && ((Vector) arg).longs() != null) {
+                try {
+                    return Atom.create(sum(((Vector) arg).longs()));
+                } catch (final ArithmeticException e) {
+                    // Overflow: fall back to the general path.
+                }
+            } else if (arg instanceof Vector && ((Vector) arg).doubles() != null) {
+                return Atom.create(sum(((Vector) arg).doubles()));
+            }
+
+            final Atom[] xs = unpack(arg);
+
+            if (isFixnums(xs)) {
+                try {
+                    return Atom.create(sum(longs(xs)));
+                } catch (final ArithmeticException e) {
+                    // Overflow: fall back to the general path.
+                }
+            } else if (isFixnumsOrFloats(xs)) {
+                return Atom.create(sum(doubles(xs)));
+            }
+
+            Atom result = Atom.create(0);
+            for (final Atom x : xs) {
+                result = Math.add(result, x);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The {@code DOT} function, which returns the dot product of two lists of numbers of the same
+     * length: e.g. {@code (DOT '(1 2 3) '(4 5 6))} is 32.
+     */
+    public static final class DOT extends AbstractFunction {
+        public DOT() { super("DOT"); }
+
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final Ref[] args = arguments(sexp, 2);
+
+            if (args[0] instanceof Vector && args[1] instanceof Vector) {
+                final Vector x = (Vector) args[0];
+                final Vector y = (Vector) args[1];
+                checkLengths(x.length(), y.length());
+
+                if (x.longs() != null && y.longs() != null) {
+                    try {
+                        return Atom.create(dot(x.longs(), y.longs()));
+                    } catch (final ArithmeticException e) {
+                        // Overflow: fall back to the general path.
+                    }
+                } else if (x.doubles() != null && y.doubles() != null) {
+                    return Atom.create(dot(x.doubles(), y.doubles()));
+                }
+            }
+
+            final Atom[] xs = unpack(args[0]);
+            final Atom[] ys = unpack(args[1]);
+
+            checkLengths(xs, ys);
+
+            if (isFixnums(xs) && isFixnums(ys)) {
+                try {
+                    return Atom.create(dot(longs(xs), longs(ys)));
+                } catch (final ArithmeticException e) {
+                    // Overflow: fall back to the general path.
+                }
+            } else if (isFixnumsOrFloats(xs) && isFixnumsOrFloats(ys)) {
+                return Atom.create(dot(doubles(xs), doubles(ys)));
+            }
+
+            Atom result = Atom.create(0);
+            for (int i = 0; i < xs.length; i++) {
+                result = Math.add(result, Math.multiply(xs[i], ys[i]));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The {@code VPLUS} function, which returns the element-wise sum of one or more lists of
+     * numbers of the same length: e.g. {@code (VPLUS '(1 2) '(10 20) '(100 200))} is
+     * {@code (111 222)}.
+     */
+    public static final class VPLUS extends AbstractFunction {
+        public VPLUS() { super("VPLUS"); }
+
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final Ref[] args = arguments(sexp, -1);
+            final Atom[][] vectors = new Atom[args.length][];
+            boolean fixnums = true;
+            boolean floats = true;
+
+            for (int i = 0; i < args.length; i++) {
+                vectors[i] = unpack(args[i]);
+                checkLengths(vectors[0], vectors[i]);
+                fixnums &= isFixnums(vectors[i]);
+                floats &= isFixnumsOrFloats(vectors[i]);
+            }
+
+            if (fixnums) {
+                try {
+                    final long[] sum = longs(vectors[0]);
+                    for (int i = 1; i < vectors.length; i++) {
+                        add(sum, longs(vectors[i]));
+                    }
+                    final List result = List.create();
+                    for (final long x : sum) { result.add(Atom.create(x)); }
+                    return result;
+                } catch (final ArithmeticException e) {
+                    // Overflow: fall back to the general path.
+                }
+            } else if (floats) {
+                final double[] sum = doubles(vectors[0]);
+                for (int i = 1; i < vectors.length; i++) {
+                    add(sum, doubles(vectors[i]));
+                }
+                final List result = List.create();
+                for (final double x : sum) { result.add(Atom.create(x)); }
+                return result;
+            }
+
+            final List result = List.create();
+            for (int j = 0; j < vectors[0].length; j++) {
+                Atom sum = vectors[0][j];
+                for (int i = 1; i < vectors.length; i++) {
+                    sum = Math.add(sum, vectors[i][j]);
+                }
+                result.add(sum);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the arguments to a bulk function: references to the root cells of its list
+     * arguments, or to its vector arguments.
+     *
+     * @param sexp The arguments to the function.
+     * @param count The number of arguments the function expects, or -1 for one or more.
+     * @return The arguments.
+     * @throws WrongArgumentCountException if there are the wrong number of arguments.
+     */
+    private static Ref[] arguments(final SExpression sexp, final int count) {
+        final List args = sexp.toList();
+        final int length = args.lengthAsInt();
+
+        if (count < 0 ? length < 1 : length != count) {
+            throw new WrongArgumentCountException("Expected " + (count < 0 ? "1 or more" : count) +
+                                                  " arguments, received " + length);
+        }
+
+        final Ref[] refs = new Ref[length];
+        Ref it = args.getRoot();
+
+        for (int i = 0; i < length; i++) {
+            refs[i] = it.toCell().getFirst();
+            it = it.toCell().getRest();
+        }
+
+        return refs;
+    }
+
+    /**
+     * Walks the cells of a list of numbers, once, and returns its elements.
+     *
+     * @param list The root cell of a list, or NIL for the empty list.
+     * @return The numbers in the list, in order.
+     * @throws EvaluationException if the argument is not a list of numbers.
+     */
+    private static Atom[] unpack(final Ref list) {
+        if (list.isNil()) { return new Atom[0]; }
+        if (list instanceof Vector) { return unpack((Vector) list); }
+
+        if (!list.isCell()) {
+            throw new EvaluationException("Expected a list of numbers: received " + list);
+        }
+
+        int length = 0;
+        for (Ref it = list; !it.isNil(); it = it.toCell().getRest()) { length++; }
+
+        final Atom[] atoms = new Atom[length];
+        Ref it = list;
+
+        for (int i = 0; i < length; i++) {
+            final Cell cell = it.toCell();
+            final Ref first = cell.getFirst();
+            if (!first.isAtom() || !first.toAtom().isNumber()) {
+                throw new EvaluationException("Expected a list of numbers: found " + first);
+            }
+            atoms[i] = first.toAtom();
+            it = cell.getRest();
+        }
+
+        return atoms;
+    }
+
+    /**
+     * Returns the elements of a vector of numbers.
+     *
+     * @param vector A vector.
+     * @return The numbers in the vector, in order.
+     * @throws EvaluationException if the argument is not a vector of numbers.
+     */
+    private static Atom[] unpack(final Vector vector) {
+        final Atom[] atoms = new Atom[vector.length()];
+
+        for (int i = 0; i < atoms.length; i++) {
+            final SExpression element = vector.get(i);
+            if (!element.isAtom() || !element.toAtom().isNumber()) {
+                throw new EvaluationException("Expected a vector of numbers: found " + element);
+            }
+            atoms[i] = element.toAtom();
+        }
+
+        return atoms;
+    }
+
+    private static void checkLengths(final Atom[] xs, final Atom[] ys) {
+        checkLengths(xs.length, ys.length);
+    }
+
+    private static void checkLengths(final int xs, final int ys) {
+        if (xs != ys) {
+            throw new EvaluationException("Lists must be the same length: " + xs + " and " + ys);
+        }
+    }
+
+    private static boolean isFixnums(final Atom[] atoms) {
+        for (final Atom atom : atoms) {
+            if (!(atom instanceof FixnumAtom)) { return false; }
+        }
+        return true;
+    }
+
+    private static boolean isFixnumsOrFloats(final Atom[] atoms) {
+        for (final Atom atom : atoms) {
+            if (!(atom instanceof FixnumAtom) && !atom.isFloat()) { return false; }
+        }
+        return true;
+    }
+
+    private static long[] longs(final Atom[] atoms) {
+        final long[] values = new long[atoms.length];
+        for (int i = 0; i < atoms.length; i++) { values[i] = atoms[i].toL(); }
+        return values;
+    }
+
+    private static double[] doubles(final Atom[] atoms) {
+        final double[] values = new double[atoms.length];
+        for (int i = 0; i < atoms.length; i++) { values[i] = atoms[i].toD(); }
+        return values;
+    }
+
+    /**
+     * @throws ArithmeticException if the sum overflows a {@code long}.
+     */
+    private static long sum(final long[] xs) {
+        long sum = 0;
+        for (final long x : xs) { sum = java.lang.Math.addExact(sum, x); }
+        return sum;
+    }
+
+    private static double sum(final double[] xs) {
+        double sum = 0;
+        for (final double x : xs) { sum += x; }
+        return sum;
+    }
+
+    /**
+     * @throws ArithmeticException if a product or the sum overflows a {@code long}.
+     */
+    private static long dot(final long[] xs, final long[] ys) {
+        long sum = 0;
+        for (int i = 0; i < xs.length; i++) {
+            sum = java.lang.Math.addExact(sum, java.lang.Math.multiplyExact(xs[i], ys[i]));
+        }
+        return sum;
+    }
+
+    private static double dot(final double[] xs, final double[] ys) {
+        double sum = 0;
+        for (int i = 0; i < xs.length; i++) { sum += xs[i] * ys[i]; }
+        return sum;
+    }
+
+    /**
+     * Adds {@code ys} to {@code xs}, element by element.
+     * @throws ArithmeticException if a sum overflows a {@code long}.
+     */
+    private static void add(final long[] xs, final long[] ys) {
+        for (int i = 0; i < xs.length; i++) { xs[i] = java.lang.Math.addExact(xs[i], ys[i]); }
+    }
+
+    /**
+     * Adds {@code ys} to {@code xs}, element by element.
+     */
+    private static void add(final double[] xs, final double[] ys) {
+        for (int i = 0; i < xs.length; i++) { xs[i] += ys[i]; }
+    }
+}
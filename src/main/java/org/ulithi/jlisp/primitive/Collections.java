@@ -3,16 +3,27 @@ package org.ulithi.jlisp.primitive;
 import org.ulithi.jlisp.core.AbstractFunction;
 import org.ulithi.jlisp.core.Atom;
 import org.ulithi.jlisp.core.Binding;
+import org.ulithi.jlisp.core.Bindable;
 import org.ulithi.jlisp.core.BindingProvider;
+import org.ulithi.jlisp.core.Environment;
+import org.ulithi.jlisp.core.FixnumAtom;
+import org.ulithi.jlisp.core.Function;
+import org.ulithi.jlisp.core.HashTable;
 import org.ulithi.jlisp.core.List;
 import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.core.Vector;
 import org.ulithi.jlisp.exception.EvaluationException;
 import org.ulithi.jlisp.exception.WrongArgumentCountException;
+import org.ulithi.jlisp.mem.Cursor;
+import org.ulithi.jlisp.mem.Ref;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 
+import static org.ulithi.jlisp.mem.NilReference.NIL;
+
 /**
- * Functions for working with "collections", such as lists.
+ * Functions for working with "collections", such as lists, vectors and hash tables.
  */
 public class Collections implements BindingProvider {
     /**
@@ -21,16 +32,26 @@ public class Collections implements BindingProvider {
     @Override
     public java.util.List<Binding> getBindings() {
         return Arrays.asList(new Binding(new Collections.APPEND()),
+                             new Binding(new Collections.AREF()),
+                             new Binding(new Collections.ASET()),
                              new Binding(new Collections.ASSOC()),
+                             new Binding(new Collections.GETHASH()),
                              new Binding(new Collections.LENGTH()),
                              new Binding(new Collections.LIST()),
-                             new Binding(new Collections.SIZE()));
+                             new Binding(new Collections.MAKE_ARRAY()),
+                             new Binding(new Collections.MAKE_HASH_TABLE()),
+                             new Binding(new Collections.MAPHASH()),
+                             new Binding(new Collections.PUTHASH()),
+                             new Binding(new Collections.REMHASH()),
+                             new Binding(new Collections.SIZE()),
+                             new Binding(new Collections.VECTOR()));
     }
 
     /**
      * Implements the LISP {@code APPEND} function, which concatenates list arguments into a single
      * list. APPEND special-cases the case where the only argument is a single atom, returning just
-     * the atom.
+     * the atom. As in other LISPs, every list argument but the last is copied, and the result
+     * shares the cells of the last one.
      */
     public static class APPEND extends AbstractFunction {
         public APPEND() { super("APPEND"); }
@@ -38,7 +59,7 @@ public class Collections implements BindingProvider {
         /** {@inheritDoc} */
         @Override
         public SExpression apply(final SExpression sexp) {
-            List args = sexp.toList();
+            final List args = sexp.toList();
 
             if (args.lengthAsInt() == 1 && args.car().isAtom()) {
                 return args.car().toAtom();
@@ -47,27 +68,34 @@ public class Collections implements BindingProvider {
             }
 
             final List result = List.create();
+            final Cursor it = args.cells();
+            final Cursor elements = new Cursor(NIL);
 
             // Iterate over the given arguments and add them to the result list.
-            while (!args.isEmpty()) {
-                SExpression arg = args.car();
+            while (it.hasNext()) {
+                final Ref arg = it.next();
 
-                if (arg.isAtom()) {
+                if (arg.isNil()) {
+                    continue;
+                } else if (arg.isAtom()) {
                     result.add(arg.toAtom());
+                } else if (!it.hasNext()) {
+                    // The last list isn't copied: the result shares its cells.
+                    if (result.isEmpty()) { return List.create(arg); }
+                    result.append(List.create(arg));
                 } else {
                     // If the argument is a list, don't add it to result directly, but
                     // rather add its constituent elements.
-                    while (!arg.toList().isEmpty()) {
-                        SExpression el = arg.toList().car();
+                    elements.reset(arg);
+                    while (elements.hasNext()) {
+                        final Ref el = elements.next();
                         if (el.isAtom()) {
                             result.add(el.toAtom());
                         } else {
-                            result.add(el.toList());
+                            result.add(List.create(el));
                         }
-                        arg = arg.toList().cdr();
                     }
                 }
-                args = args.cdr().toList();
             }
 
             return result;
@@ -97,10 +125,10 @@ public class Collections implements BindingProvider {
                 throw new EvaluationException("Second argument to ASSOC must be an association list");
             }
 
-            List assocList = alist.toList();
+            final Cursor it = alist.toList().cells();
 
-            while (!assocList.isEmpty()) {
-                SExpression expr = assocList.car();
+            while (it.hasNext()) {
+                final SExpression expr = it.nextExpression();
 
                 if (!expr.isList() || expr.toList().isNil()) {
                     throw new EvaluationException("Association list elements must be lists");
@@ -109,8 +137,6 @@ public class Collections implements BindingProvider {
                 if (key.isEqual(expr.toList().car())) {
                     return expr;
                 }
-
-                assocList = assocList.cdr().toList();
             }
 
             return Atom.NIL;
@@ -119,8 +145,8 @@ public class Collections implements BindingProvider {
 
     /**
      * Implements the LISP {@code LENGTH} function, which returns the number of top-level elements
-     * in a given list. If the list is empty/NIL, returns 0. Throws if the given {@code sexp} is
-     * not a list.
+     * in a given list, or the number of elements in a vector. If the list is empty/NIL, returns 0.
+     * Throws if the given {@code sexp} is not a list or vector.
      */
     public static class LENGTH extends AbstractFunction {
         public LENGTH() { super("LENGTH"); }
@@ -130,7 +156,8 @@ public class Collections implements BindingProvider {
         public SExpression apply(final SExpression sexp) {
             final List args = sexp.toList();
             if (args.car().isList()) { return args.car().toList().length(); }
-            throw new EvaluationException("Argument to LENGTH must be a list");
+            if (args.car() instanceof Vector) { return Atom.create(((Vector) args.car()).length()); }
+            throw new EvaluationException("Argument to LENGTH must be a list or vector");
         }
     }
 
@@ -164,4 +191,295 @@ public class Collections implements BindingProvider {
             throw new EvaluationException("Argument to SIZE must be a list");
         }
     }
+
+    /**
+     * Implements the LISP {@code MAKE-HASH-TABLE} function, which returns a new, empty hash table.
+     * The optional argument names the test used to compare keys, {@code EQL} (the default) or
+     * {@code EQUAL}: e.g. {@code (MAKE-HASH-TABLE 'EQUAL)}.
+     */
+    public static class MAKE_HASH_TABLE extends AbstractFunction {
+        public MAKE_HASH_TABLE() { super("MAKE-HASH-TABLE"); }
+
+        /** {@inheritDoc} */
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = sexp.toList();
+            final int length = args.lengthAsInt();
+
+            if (length > 1) {
+                throw new WrongArgumentCountException("Expected 0 or 1 arguments: received " + length);
+            }
+
+            if (length == 0) { return new HashTable(HashTable.Test.EQL); }
+
+            final SExpression test = args.car();
+
+            if (test.isAtom()) {
+                for (final HashTable.Test candidate : HashTable.Test.values()) {
+                    if (candidate.name().equalsIgnoreCase(test.toAtom().toS())) {
+                        return new HashTable(candidate);
+                    }
+                }
+            }
+
+            throw new EvaluationException("Hash table test must be EQL or EQUAL: received " + test);
+        }
+    }
+
+    /**
+     * Implements the LISP {@code GETHASH} function, which returns the value associated with a key
+     * in a hash table: e.g. {@code (GETHASH 'APPLE TABLE)}. If the table has no entry for the key,
+     * returns the optional third argument, or NIL.
+     */
+    public static class GETHASH extends AbstractFunction {
+        public GETHASH() { super("GETHASH"); }
+
+        /** {@inheritDoc} */
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = sexp.toList();
+            final int length = args.lengthAsInt();
+
+            if (length != 2 && length != 3) {
+                throw new WrongArgumentCountException("Expected 2 or 3 arguments: received " + length);
+            }
+
+            final Cursor it = args.cells();
+            final SExpression key = it.nextExpression();
+            final SExpression value = hashTable(it.nextExpression(), "GETHASH").get(key);
+
+            if (value != null) { return value; }
+            return it.hasNext() ? it.nextExpression() : Atom.NIL;
+        }
+    }
+
+    /**
+     * Implements a {@code PUTHASH} function, which associates a value with a key in a hash table,
+     * replacing any value the key had before: e.g. {@code (PUTHASH 'APPLE 3 TABLE)}. Returns the
+     * value. (In Common LISP this is written {@code (SETF (GETHASH 'APPLE TABLE) 3)}.)
+     */
+    public static class PUTHASH extends AbstractFunction {
+        public PUTHASH() { super("PUTHASH"); }
+
+        /** {@inheritDoc} */
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = sexp.toList();
+
+            if (args.lengthAsInt() != 3) {
+                throw new WrongArgumentCountException("Expected 3 arguments: received " + args.length());
+            }
+
+            final Cursor it = args.cells();
+            final SExpression key = it.nextExpression();
+            final SExpression value = it.nextExpression();
+
+            hashTable(it.nextExpression(), "PUTHASH").put(key, value);
+            return value;
+        }
+    }
+
+    /**
+     * Implements the LISP {@code REMHASH} function, which removes the entry for a key from a hash
+     * table: e.g. {@code (REMHASH 'APPLE TABLE)}. Returns T if there was an entry, F otherwise.
+     */
+    public static class REMHASH extends AbstractFunction {
+        public REMHASH() { super("REMHASH"); }
+
+        /** {@inheritDoc} */
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = sexp.toList();
+
+            if (args.lengthAsInt() != 2) {
+                throw new WrongArgumentCountException("Expected 2 arguments: received " + args.length());
+            }
+
+            final Cursor it = args.cells();
+            final SExpression key = it.nextExpression();
+
+            return Atom.create(hashTable(it.nextExpression(), "REMHASH").remove(key));
+        }
+    }
+
+    /**
+     * Implements the LISP {@code MAPHASH} function, which calls a function of two arguments on the
+     * key and value of each entry in a hash table, and returns NIL: e.g.
+     * {@code (MAPHASH 'PRINTENTRY TABLE)}. The function may change or remove the entry it is
+     * called on.
+     */
+    public static class MAPHASH extends AbstractFunction {
+        public MAPHASH() { super("MAPHASH"); }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isReentrant() { return true; }
+
+        /** {@inheritDoc} */
+        @Override
+        public SExpression apply(final SExpression sexp, final Environment env, final Eval eval) {
+            final List args = sexp.toList();
+
+            if (args.lengthAsInt() != 2) {
+                throw new WrongArgumentCountException("Expected 2 arguments: received " + args.length());
+            }
+
+            final Cursor it = args.cells();
+            final SExpression name = it.nextExpression();
+            final Bindable binding = name.isAtom() ? env.getBinding(name.toAtom().identifier()) : null;
+
+            if (!(binding instanceof Function)) {
+                throw new EvaluationException("First argument to MAPHASH must name a function: received " + name);
+            }
+
+            // Walk a snapshot, so that the function can modify the table.
+            final java.util.List<SExpression[]> entries = new ArrayList<>();
+            hashTable(it.nextExpression(), "MAPHASH").forEach((k, v) -> entries.add(new SExpression[]{ k, v }));
+
+            for (final SExpression[] entry : entries) {
+                final List arguments = List.create();
+                for (final SExpression argument : entry) {
+                    if (argument.isAtom()) { arguments.add(argument.toAtom()); } else { arguments.add(argument.toList()); }
+                }
+                eval.invoke((Function) binding, arguments);
+            }
+
+            return Atom.NIL;
+        }
+    }
+
+    /**
+     * Implements the LISP {@code MAKE-ARRAY} function, which returns a new vector of the given
+     * length with every element set to the optional initial element (NIL by default): e.g.
+     * {@code (MAKE-ARRAY 3 0)} is {@code #( 0 0 0 )}. A fixnum or float initial element makes a
+     * vector that holds only fixnums or floats unboxed, until something else is stored in it.
+     */
+    public static class MAKE_ARRAY extends AbstractFunction {
+        public MAKE_ARRAY() { super("MAKE-ARRAY"); }
+
+        /** {@inheritDoc} */
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = sexp.toList();
+            final int length = args.lengthAsInt();
+
+            if (length != 1 && length != 2) {
+                throw new WrongArgumentCountException("Expected 1 or 2 arguments: received " + length);
+            }
+
+            final Cursor it = args.cells();
+            final int size = index(it.nextExpression(), "MAKE-ARRAY");
+
+            return Vector.create(size, it.hasNext() ? it.nextExpression() : Atom.NIL);
+        }
+    }
+
+    /**
+     * Implements the LISP {@code VECTOR} function, which returns a new vector whose elements are
+     * the given arguments: e.g. {@code (VECTOR 1 2 3)} is {@code #( 1 2 3 )}.
+     */
+    public static class VECTOR extends AbstractFunction {
+        public VECTOR() { super("VECTOR"); }
+
+        /** {@inheritDoc} */
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = sexp.toList();
+            final SExpression[] values = new SExpression[args.lengthAsInt()];
+            final Cursor it = args.cells();
+
+            for (int i = 0; i < values.length; i++) { values[i] = it.nextExpression(); }
+
+            return Vector.of(values);
+        }
+    }
+
+    /**
+     * Implements the LISP {@code AREF} function, which returns the element of a vector at the
+     * given (zero-based) index: e.g. {@code (AREF (VECTOR 'A 'B 'C) 1)} is {@code B}.
+     */
+    public static class AREF extends AbstractFunction {
+        public AREF() { super("AREF"); }
+
+        /** {@inheritDoc} */
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = sexp.toList();
+
+            if (args.lengthAsInt() != 2) {
+                throw new WrongArgumentCountException("Expected 2 arguments: received " + args.length());
+            }
+
+            final Cursor it = args.cells();
+            final Vector vector = vector(it.nextExpression(), "AREF");
+
+            return vector.get(index(it.nextExpression(), "AREF"));
+        }
+    }
+
+    /**
+     * Implements an {@code ASET} function, which replaces the element of a vector at the given
+     * (zero-based) index, and returns the new value: e.g. {@code (ASET V 1 'X)}. (In Common LISP
+     * this is written {@code (SETF (AREF V 1) 'X)}.)
+     */
+    public static class ASET extends AbstractFunction {
+        public ASET() { super("ASET"); }
+
+        /** {@inheritDoc} */
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = sexp.toList();
+
+            if (args.lengthAsInt() != 3) {
+                throw new WrongArgumentCountException("Expected 3 arguments: received " + args.length());
+            }
+
+            final Cursor it = args.cells();
+            final Vector vector = vector(it.nextExpression(), "ASET");
+            final int index = index(it.nextExpression(), "ASET");
+            final SExpression value = it.nextExpression();
+
+            vector.set(index, value);
+            return value;
+        }
+    }
+
+    /**
+     * Checks that an argument to one of the vector functions is a vector.
+     * @param sexp The argument.
+     * @param function The name of the function, for the error message.
+     * @return The argument, as a {@link Vector}.
+     * @throws EvaluationException if the argument is not a vector.
+     */
+    private static Vector vector(final SExpression sexp, final String function) {
+        if (sexp instanceof Vector) { return (Vector) sexp; }
+        throw new EvaluationException("Argument to " + function + " must be a vector: received " + sexp);
+    }
+
+    /**
+     * Checks that an argument to one of the vector functions is an index or length.
+     * @param sexp The argument.
+     * @param function The name of the function, for the error message.
+     * @return The argument, as an {@code int}.
+     * @throws EvaluationException if the argument is not a fixnum that fits in an {@code int}.
+     */
+    private static int index(final SExpression sexp, final String function) {
+        if (sexp instanceof FixnumAtom) {
+            final long value = sexp.toAtom().toL();
+            if (value == (int) value) { return (int) value; }
+        }
+        throw new EvaluationException("Index argument to " + function + " must be an integer: received " + sexp);
+    }
+
+    /**
+     * Checks that an argument to one of the hash table functions is a hash table.
+     * @param sexp The argument.
+     * @param function The name of the function, for the error message.
+     * @return The argument, as a {@link HashTable}.
+     * @throws EvaluationException if the argument is not a hash table.
+     */
+    private static HashTable hashTable(final SExpression sexp, final String function) {
+        if (sexp instanceof HashTable) { return (HashTable) sexp; }
+        throw new EvaluationException("Argument to " + function + " must be a hash table: received " + sexp);
+    }
 }
@@ -5,23 +5,68 @@ import org.ulithi.jlisp.core.Bindable;
 import org.ulithi.jlisp.core.Environment;
 import org.ulithi.jlisp.core.Function;
 import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.LocalVariable;
 import org.ulithi.jlisp.core.SExpression;
 import org.ulithi.jlisp.core.Symbol;
 import org.ulithi.jlisp.exception.UndefinedSymbolException;
 import org.ulithi.jlisp.mem.Cell;
 import org.ulithi.jlisp.mem.Ref;
 
-import java.util.Optional;
 
 /**
  * Implements the LISP {@code eval} function. The {@code eval} function accepts a "form" -- a list
  * whose first element is a symbol that identifies an operator or function -- and evaluates it
  * according the LISP language semantics, returning the result as a {@link Ref}.
+ * <p>
+ * Like its {@link Environment}, an {@code Eval} must only be used by one thread at a time. To
+ * evaluate on several threads against the same definitions, create an {@code Eval} for each
+ * thread with an environment {@link Environment#fork() forked} from a common one.
  */
 public class Eval {
 
     /** Function, variable and other bindings for this eval instance. */
-    private final Environment env = new Environment();
+    private final Environment env;
+
+    /** If true, hot user-defined functions are compiled to JVM bytecode. */
+    private boolean bytecode = false;
+
+    /**
+     * Creates an {@link Eval} with a new, default {@link Environment}.
+     */
+    public Eval() {
+        this(new Environment());
+    }
+
+    /**
+     * Creates an {@link Eval} that evaluates forms in the given {@link Environment}.
+     * @param env The environment to evaluate forms in.
+     */
+    public Eval(final Environment env) {
+        this.env = env;
+    }
+
+    /**
+     * Returns the runtime environment that this {@code Eval} evaluates forms in.
+     * @return The {@link Environment} for this eval instance.
+     */
+    public Environment environment() {
+        return env;
+    }
+
+    /**
+     * Enables/disables compilation of frequently invoked user-defined functions to JVM bytecode.
+     * @param flag If true, enables the bytecode compiler.
+     */
+    public void bytecode(final boolean flag) {
+        bytecode = flag;
+    }
+
+    /**
+     * @return True if frequently invoked user-defined functions are compiled to JVM bytecode.
+     */
+    public boolean isBytecodeEnabled() {
+        return bytecode;
+    }
 
     /**
      * Given a "form" as an {@link SExpression}, evaluates the form and returns the result.
@@ -54,27 +99,22 @@ public class Eval {
 
         if (atom.isNumber()) { return car; }
 
+        // If car is a reference to a user function parameter, fetch it from its activation slot.
+        if (atom instanceof LocalVariable) {
+            final LocalVariable local = (LocalVariable) atom;
+            return env.getLocal(local.depth(), local.slot());
+        }
+
         // See if car is a defined function. If so, we'll use it below.
-        final String lexeme = atom.toS();
+        final Bindable binding = env.getBinding(atom.identifier());
 
-        // If the lexeme resolves to a function, evaluate the function, otherwise try
+        // If the identifier resolves to a function, evaluate the function, otherwise try
         // to evaluate it as a symbol or a literal.
-        return resolveFunction(lexeme)
-                .map(function -> evaluateFunction(function, cell.getRest()))
-                .orElseGet(() -> evaluateSymbolOrLiteral(atom));
-    }
+        if (binding instanceof Function) {
+            return evaluateFunction((Function) binding, cell.getRest());
+        }
 
-    /**
-     * Attempts to resolve the binding in the current environment for the given name as a function.
-     *
-     * @param name The programmatic name to resolve.
-     * @return Returns an optional containing the function bound to the given name, or an empty
-     *         optional if a binding doesn't exist or is not a function binding.
-     */
-    private Optional<Function> resolveFunction(final String name) {
-        return Optional.ofNullable(env.getBinding(name))
-                .filter(binding -> binding instanceof Function)
-                .map(binding -> (Function) binding);
+        return evaluateSymbolOrLiteral(atom, binding);
     }
 
     /**
@@ -123,43 +163,42 @@ public class Eval {
     /**
      * Attempts to evaluate the given Atom as a defined symbol, or as a literal.
      * @param atom The Atom to evaluate.
+     * @param binding The binding of the Atom's identifier in the current environment, or null.
      * @return If the Atom represents a symbol, the value associated with the symbol. Otherwise,
      *         if the Atom is a literal, returns the Atom itself.
      */
-    private SExpression evaluateSymbolOrLiteral(final Atom atom) {
-        return resolveSymbol(atom.toS())
-                .orElseGet(() -> {
-                    if (atom.isLiteral()) {
-                        return atom;
-                    }
-                    throw new UndefinedSymbolException("Unknown symbol: " + atom);
-                });
-    }
-
-    /**
-     * Attempts to resolve the binding in the current environment for the given name as a symbol.
-     *
-     * @param name The programmatic name to resolve.
-     * @return Returns an optional containing the value of the symbol bound to the given name,
-     *         or an empty optional if a binding doesn't exist or is not a symbol binding.
-     */
-    private Optional<SExpression> resolveSymbol(final String name) {
-        Bindable binding = env.getBinding(name);
-
+    private SExpression evaluateSymbolOrLiteral(final Atom atom, final Bindable binding) {
         if (binding instanceof Symbol) {
-            return Optional.of(((Symbol) binding).eval());
+            return ((Symbol) binding).eval();
         }
 
         if (binding instanceof SExpression) {
-            return Optional.of((SExpression) binding);
+            return (SExpression) binding;
+        }
+
+        if (atom.isLiteral()) {
+            return atom;
         }
 
-        return Optional.empty();
+        throw new UndefinedSymbolException("Unknown symbol: " + atom);
+    }
+
+    /**
+     * Invokes the given function on the specified arguments, in this {@code Eval's} environment.
+     * The arguments must already be evaluated, unless the function is special.
+     *
+     * @param func The function to be evaluated.
+     * @param args The arguments to the function.
+     * @return The result of applying the function to the arguments.
+     */
+    public SExpression invoke(final Function func, final SExpression args) {
+        return invokeFunction(func, args, env);
     }
 
     /**
      * Invokes the given function on the specified arguments, using bindings in the current
-     * environment plus any bindings created by the function itself.
+     * environment plus any bindings created by the function itself. A scope is started for the
+     * invocation only if the function {@link Function#needsScope() needs one}.
      *
      * @param func The function to be evaluated.
      * @param args The arguments to the function.
@@ -169,16 +208,35 @@ public class Eval {
     private SExpression invokeFunction(final Function func,
                                        final SExpression args,
                                        final Environment env) {
+        if (!func.needsScope()) {
+            return applyFunction(func, args, env);
+        }
+
         env.startScope();
 
         try {
-            if (func.isReentrant()) {
-                return func.apply(args, env, this);
-            } else {
-                return func.isDefining() ? func.apply(args, env) : func.apply(args);
-            }
+            return applyFunction(func, args, env);
         } finally {
             env.endScope();
         }
     }
+
+    /**
+     * Applies the given function to the specified arguments, through the {@code apply} method
+     * appropriate to the kind of function.
+     *
+     * @param func The function to be evaluated.
+     * @param args The arguments to the function.
+     * @param env The current environment.
+     * @return The result of applying the function to the arguments.
+     */
+    private SExpression applyFunction(final Function func,
+                                      final SExpression args,
+                                      final Environment env) {
+        if (func.isReentrant()) {
+            return func.apply(args, env, this);
+        } else {
+            return func.isDefining() ? func.apply(args, env) : func.apply(args);
+        }
+    }
 }
@@ -5,10 +5,12 @@ import org.ulithi.jlisp.core.Atom;
 import org.ulithi.jlisp.core.Binding;
 import org.ulithi.jlisp.core.BindingProvider;
 import org.ulithi.jlisp.core.Environment;
+import org.ulithi.jlisp.core.Identifier;
 import org.ulithi.jlisp.core.List;
 import org.ulithi.jlisp.core.SExpression;
 import org.ulithi.jlisp.exception.EvaluationException;
 import org.ulithi.jlisp.exception.WrongArgumentCountException;
+import org.ulithi.jlisp.mem.Cursor;
 
 import java.util.Arrays;
 
@@ -76,10 +78,10 @@ public class Lang implements BindingProvider {
             // the list of lists start to finish and terminates on the first one that evaluates to T.
             if (sexp.isAtom()) { return sexp; }
 
-            List args = sexp.toList();
+            final Cursor it = sexp.toList().cells();
 
-            while (!args.isEmpty()) {
-                final SExpression cond = args.car();
+            while (it.hasNext()) {
+                final SExpression cond = it.nextExpression();
 
                 if (!cond.isList() || cond.isNil()) {
                     throw new EvaluationException("Argument to COND must be a list, got: " + cond);
@@ -95,8 +97,6 @@ public class Lang implements BindingProvider {
                     final SExpression consequent = conditional.cdr();
                     return consequent.isNil() ? truth : eval.apply(consequent);
                 }
-
-                args = args.cdr().toList();
             }
 
             return Atom.NIL;
@@ -106,7 +106,8 @@ public class Lang implements BindingProvider {
     /**
      * Implements the LISP {@code CONS} function. The {@code CONS} function accepts two arguments
      * and returns a {@link List} such that the {@code CAR} of the list is the first argument and the
-     * {@code CDR} of the list is the second element.
+     * {@code CDR} of the list is the second element. The new list shares the cells of the second
+     * element, so {@code CONS} allocates a single cell.
      */
     public static class CONS extends AbstractFunction {
         public CONS() { super("CONS"); }
@@ -115,30 +116,22 @@ public class Lang implements BindingProvider {
         public SExpression apply(final SExpression sexp) {
             if (!sexp.isList()) { throw new EvaluationException("List argument expected"); }
 
-            List args = sexp.toList();
+            final List args = sexp.toList();
 
             if (args.lengthAsInt() != 2) {
                 throw new WrongArgumentCountException("Expected 2 arguments: received " + args.length());
             }
 
-            final List cons = List.create();
-
-            do {
-                final SExpression arg = args.car();
-                if (arg.isAtom()) {
-                    cons.add(arg.toAtom());
-                } else if (arg.isList()) {
-                    final List list = arg.toList();
-                    if (!list.isEmpty()) {
-                        cons.append(list);
-                    }
-                }
+            final Cursor it = args.cells();
+            final SExpression first = it.nextExpression();
+            final SExpression second = it.nextExpression();
 
-                if (args.endp()) break;
-                args = args.cdr().toList();
-            } while (true);
+            final List rest = second.isAtom() && !second.isNil()
+                    ? List.create().add(second.toAtom())
+                    : second.toList();
 
-            return cons;
+            if (first.isAtom()) { return List.cons(first.toAtom(), rest); }
+            return List.cons(first.toList().getRoot(), rest);
         }
     }
 
@@ -164,13 +157,21 @@ public class Lang implements BindingProvider {
         /** {@inheritDoc} **/
         @Override
         public SExpression apply(final SExpression sexp, final Environment env) {
-            final List args = sexp.toList();
+            final Cursor it = sexp.toList().cells();
 
-            final SExpression name = args.car();
-            final SExpression arguments = args.cdr().toList().car();
-            final SExpression definition = args.cdr().toList().cdr().toList().car();
+            final SExpression name = it.nextExpression();
+            final SExpression arguments = it.nextExpression();
+            final SExpression definition = it.nextExpression();
             final UserFunction function = new UserFunction(name.toString(), arguments, definition);
 
+            for (final Identifier formal : function.formals()) {
+                if (!env.canBindLocal(formal)) {
+                    throw new EvaluationException("Parameter '" + formal + "' is already defined");
+                }
+            }
+
+            function.compile(env);
+
             env.addUserBinding(new Binding(name.toAtom().toS(), function));
 
             return name.toAtom();
@@ -201,20 +202,24 @@ public class Lang implements BindingProvider {
         @Override
         public SExpression apply(final SExpression sexp, final Environment env, final Eval eval) {
             final List args = sexp.toList();
+            final int length = args.lengthAsInt();
 
-            if (args.lengthAsInt() < 2 || args.lengthAsInt() > 3) {
+            if (length < 2 || length > 3) {
                 throw new WrongArgumentCountException("IF expects two or three arguments");
             }
 
-            final SExpression testSexp = eval.apply(args.car());
+            final Cursor it = args.cells();
+            final SExpression testSexp = eval.apply(it.nextExpression());
 
             final boolean condition = (testSexp.isList() && !testSexp.toList().isEmpty()) ||
                                       (testSexp.isAtom() && testSexp.toAtom().toB());
 
+            final SExpression then = it.nextExpression();
+
             if (condition) {
-                return eval.apply(args.cdr().toList().car());
+                return eval.apply(then);
             } else {
-                return eval.apply(args.cdr().toList().cdr());
+                return eval.apply(List.create(it.rest()));
             }
         }
     }
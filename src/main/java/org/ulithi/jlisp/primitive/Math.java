@@ -4,14 +4,23 @@ import org.ulithi.jlisp.core.AbstractFunction;
 import org.ulithi.jlisp.core.Atom;
 import org.ulithi.jlisp.core.Binding;
 import org.ulithi.jlisp.core.BindingProvider;
+import org.ulithi.jlisp.core.FixnumAtom;
 import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.Ratio;
 import org.ulithi.jlisp.core.SExpression;
 import org.ulithi.jlisp.exception.EvaluationException;
+import org.ulithi.jlisp.exception.WrongArgumentCountException;
+import org.ulithi.jlisp.mem.Cursor;
 
+import java.math.BigInteger;
 import java.util.Arrays;
 
 /**
- * A collection of integer math functions.
+ * A collection of math functions over the numeric tower: integers, exact rationals and floats.
+ * Integers are arbitrary-precision: arithmetic is done on primitive {@code longs} where it can be,
+ * and promoted to {@code BigIntegers} where it overflows. Where the arguments to a function are
+ * of different types, they are all converted to the most general type among them -- integer,
+ * then rational, then float -- before the function is applied.
  */
 public class Math implements BindingProvider {
 
@@ -34,24 +43,12 @@ public class Math implements BindingProvider {
     public static final class LESS extends AbstractFunction {
         public LESS() { super("<"); }
 
-        private static final BinaryArithmeticOperator<Boolean> op =
+        private static final BinaryComparisonOperator op =
                 (lhs, rhs) -> lhs < rhs;
 
         @Override
         public SExpression apply(final SExpression sexp) {
-            List it = sexp.toList();
-            int last = Integer.MIN_VALUE;
-            boolean result = true;
-
-            while (it.length().toI() > 0) {
-                final int next = it.car().toAtom().toI();
-                result = op.eval(last, next);
-                if (!result) { break; }
-                last = next;
-                it = it.cdr().toList();
-            }
-
-            return Atom.create(result);
+            return Atom.create(Math.applyNumericComparisonOperator(sexp.toList(), op));
         }
     }
 
@@ -62,24 +59,12 @@ public class Math implements BindingProvider {
     public static final class GREATER extends AbstractFunction {
         public GREATER() { super(">"); }
 
-        private static final BinaryArithmeticOperator<Boolean> op =
+        private static final BinaryComparisonOperator op =
                 (lhs, rhs) -> lhs > rhs;
 
         @Override
         public SExpression apply(final SExpression sexp) {
-            List it = sexp.toList();
-            int last = Integer.MAX_VALUE;
-            boolean result = true;
-
-            while (it.length().toI() > 0) {
-                final int next = it.car().toAtom().toI();
-                result = op.eval(last, next);
-                if (!result) { break; }
-                last = next;
-                it = it.cdr().toList();
-            }
-
-            return Atom.create(result);
+            return Atom.create(Math.applyNumericComparisonOperator(sexp.toList(), op));
         }
     }
 
@@ -92,13 +77,13 @@ public class Math implements BindingProvider {
         @Override
         public String[] synonyms() { return new String[]{ "+" }; }
 
-        private static final BinaryArithmeticOperator<Integer> op =
-                (lhs, rhs) -> lhs + rhs;
+        private static final BinaryArithmeticOperator op =
+                BinaryArithmeticOperator.of(java.lang.Math::addExact, BigInteger::add,
+                                            Ratio::add, Double::sum);
 
         @Override
         public SExpression apply(final SExpression sexp) {
-            final int result = Math.applyNumericVarArgsOperator(sexp.toList(), op);
-            return Atom.create(result);
+            return Math.applyNumericVarArgsOperator(sexp.toList(), op);
         }
     }
 
@@ -111,8 +96,9 @@ public class Math implements BindingProvider {
         @Override
         public String[] synonyms() { return new String[]{ "-" }; }
 
-        private static final BinaryArithmeticOperator<Integer> op =
-                (lhs, rhs) -> lhs - rhs;
+        private static final BinaryArithmeticOperator op =
+                BinaryArithmeticOperator.of(java.lang.Math::subtractExact, BigInteger::subtract,
+                                            Ratio::subtract, (lhs, rhs) -> lhs - rhs);
 
         @Override
         public SExpression apply(final SExpression sexp) {
@@ -120,12 +106,11 @@ public class Math implements BindingProvider {
             // When invoked with a single argument, MINUS returns the
             // negation of its argument.
             List args = sexp.toList();
-            final int first = args.car().toAtom().toI();
+            final Atom first = args.car().toAtom();
 
-            if (args.endp()) { return Atom.create(-first); }
+            if (args.endp()) { return Math.negate(first); }
 
-            final int result = Math.applyNumericVarArgsOperator(sexp.toList(), op);
-            return Atom.create(result);
+            return Math.applyNumericVarArgsOperator(sexp.toList(), op);
         }
     }
 
@@ -138,18 +123,21 @@ public class Math implements BindingProvider {
         @Override
         public String[] synonyms() { return new String[]{ "*" }; }
 
-        private static final BinaryArithmeticOperator<Integer> op =
-                (lhs, rhs) -> lhs * rhs;
+        private static final BinaryArithmeticOperator op =
+                BinaryArithmeticOperator.of(java.lang.Math::multiplyExact, BigInteger::multiply,
+                                            Ratio::multiply, (lhs, rhs) -> lhs * rhs);
 
         @Override
         public SExpression apply(final SExpression sexp) {
-            final int result = Math.applyNumericVarArgsOperator(sexp.toList(), op);
-            return Atom.create(result);
+            return Math.applyNumericVarArgsOperator(sexp.toList(), op);
         }
     }
 
     /**
-     * The {@code QUOTIENT} function, a.k.a. division.
+     * The {@code QUOTIENT} function, a.k.a. division. Arguments are divided from left to right.
+     * The quotient of two integers is an integer, rounded toward zero; if either is a ratio or a
+     * float, the quotient is exact (or as exact as floating point allows): e.g. {@code (/ 7 2)}
+     * is 3, but {@code (/ 7 2.0)} is 3.5 and {@code (/ 3/2 3)} is 1/2.
      */
     public static class QUOTIENT extends AbstractFunction {
         public QUOTIENT() { super("QUOTIENT"); }
@@ -157,18 +145,19 @@ public class Math implements BindingProvider {
         @Override
         public String[] synonyms() { return new String[]{ "/" }; }
 
-        private static final BinaryArithmeticOperator<Integer> op =
-                (lhs, rhs) -> lhs / rhs;
+        private static final BinaryArithmeticOperator op =
+                BinaryArithmeticOperator.of(Math::divideExact, BigInteger::divide,
+                                            Ratio::divide, Math::divide);
 
         @Override
         public SExpression apply(final SExpression sexp) {
-            final int result = Math.applyNumericVarArgsOperator(sexp.toList(), op);
-            return Atom.create(result);
+            return Math.applyNumericVarArgsOperator(sexp.toList(), op);
         }
     }
 
     /**
-     * The {@code REMAINDER} function, a.k.a. modulo.
+     * The {@code REMAINDER} function, a.k.a. modulo. As with the {@code %} operator, the
+     * remainder has the sign of the dividend.
      */
     public static class REMAINDER extends AbstractFunction {
         public REMAINDER() { super("REMAINDER"); }
@@ -176,41 +165,232 @@ public class Math implements BindingProvider {
         @Override
         public String[] synonyms() { return new String[]{ "%" }; }
 
-        private static final BinaryArithmeticOperator<Integer> op =
-                (lhs, rhs) -> lhs % rhs;
+        private static final BinaryArithmeticOperator op =
+                BinaryArithmeticOperator.of((lhs, rhs) -> lhs % rhs, BigInteger::remainder,
+                                            Ratio::remainder, Math::remainder);
 
         @Override
         public SExpression apply(final SExpression sexp) {
-            final int result = Math.applyNumericVarArgsOperator(sexp.toList(), op);
-            return Atom.create(result);
+            return Math.applyNumericVarArgsOperator(sexp.toList(), op);
         }
     }
 
+    /** The levels of the numeric tower, from the most specific to the most general. */
+    private static final int FIXNUM = 0;
+    private static final int BIGNUM = 1;
+    private static final int RATIO = 2;
+    private static final int FLONUM = 3;
+
     /**
      * Applies the given binary operator to the given arguments and returns the result. The
      * operator is applied to arguments from the beginning of the list to the end. The first
      * evaluation is simply the value of the first element in the list. Successive evaluations
      * are on the previous result and the next element in the list.
+     * <p>
+     * While the running result and the arguments are all fixnums, the result is kept as a
+     * primitive {@code long}, and nothing is allocated until the final result. The first argument
+     * of another type, or an evaluation that overflows, moves the running result up the numeric
+     * tower: see {@link #apply(BinaryArithmeticOperator, Atom, Atom)}. If it comes back down to
+     * a fixnum, the fast path resumes.
      *
      * @param args A list of Atoms: the arguments to the operator.
      * @param op A binary operator to apply to the arguments.
      * @return The result of applying the operator to the arguments.
      */
-    private static int applyNumericVarArgsOperator(final List args,
-                                                   final BinaryArithmeticOperator<Integer>  op) {
-        List it = args;
+    private static Atom applyNumericVarArgsOperator(final List args,
+                                                    final BinaryArithmeticOperator op) {
+        final Cursor it = args.cells();
 
-        try {
-            int result = it.car().toAtom().toI();
+        if (!it.hasNext()) {
+            throw new WrongArgumentCountException("Expected 1 or more arguments: received 0");
+        }
 
-            while (!it.endp()) {
-                it = it.cdr().toList();
-                result = op.eval(result, it.car().toAtom().toI());
-            }
+        Atom result = it.nextAtom();
+        boolean fast = result instanceof FixnumAtom;
+        long fixnum = fast ? result.toL() : 0;
 
-            return result;
+        try {
+            while (it.hasNext()) {
+                final Atom next = it.nextAtom();
+
+                if (fast && next instanceof FixnumAtom) {
+                    try {
+                        fixnum = op.eval(fixnum, next.toL());
+                        continue;
+                    } catch (final ArithmeticException e) {
+                        // Overflow, or an undefined result: retry on BigIntegers.
+                    }
+                }
+
+                if (fast) { result = Atom.create(fixnum); }
+                result = apply(op, result, next);
+                fast = result instanceof FixnumAtom;
+                if (fast) { fixnum = result.toL(); }
+            }
         } catch (final ArithmeticException e) {
             throw new EvaluationException("Arithmetic exception: " + e.getMessage());
         }
+
+        return fast ? Atom.create(fixnum) : result;
+    }
+
+    /**
+     * Adds two numbers of any type.
+     *
+     * @param lhs The left-hand side operand in in-fix notation.
+     * @param rhs The right-hand side operand in in-fix notation.
+     * @return The sum.
+     */
+    static Atom add(final Atom lhs, final Atom rhs) {
+        return apply(PLUS.op, lhs, rhs);
+    }
+
+    /**
+     * Multiplies two numbers of any type.
+     *
+     * @param lhs The left-hand side operand in in-fix notation.
+     * @param rhs The right-hand side operand in in-fix notation.
+     * @return The product.
+     */
+    static Atom multiply(final Atom lhs, final Atom rhs) {
+        return apply(TIMES.op, lhs, rhs);
+    }
+
+    /**
+     * Applies the given binary operator to two numbers of any type, at the level of the numeric
+     * tower of the more general of the two. The result is normalized by {@code Atom.create}: e.g.
+     * a bignum or ratio that is a fixnum in disguise comes back as a fixnum.
+     *
+     * @param op A binary operator.
+     * @param lhs The left-hand side operand in in-fix notation.
+     * @param rhs The right-hand side operand in in-fix notation.
+     * @return The result of applying the operator to the operands.
+     * @throws ArithmeticException if the result is undefined.
+     */
+    private static Atom apply(final BinaryArithmeticOperator op, final Atom lhs, final Atom rhs) {
+        switch (java.lang.Math.max(level(lhs), level(rhs))) {
+            case FLONUM: return Atom.create(op.eval(lhs.toD(), rhs.toD()));
+            case RATIO: return Atom.create(op.eval(lhs.toRatio(), rhs.toRatio()));
+            default: return Atom.create(op.eval(lhs.toBigInteger(), rhs.toBigInteger()));
+        }
+    }
+
+    /**
+     * Compares two numbers of any type, at the level of the numeric tower of the more general of
+     * the two.
+     *
+     * @param lhs The left-hand side operand in in-fix notation.
+     * @param rhs The right-hand side operand in in-fix notation.
+     * @return A negative number, zero, or a positive number as {@code lhs} is less than, equal to,
+     *         or greater than {@code rhs}.
+     */
+    private static int compare(final Atom lhs, final Atom rhs) {
+        switch (java.lang.Math.max(level(lhs), level(rhs))) {
+            case FIXNUM: return Long.compare(lhs.toL(), rhs.toL());
+            case FLONUM: return Double.compare(lhs.toD(), rhs.toD());
+            case RATIO: return lhs.toRatio().compareTo(rhs.toRatio());
+            default: return lhs.toBigInteger().compareTo(rhs.toBigInteger());
+        }
+    }
+
+    /**
+     * Returns the level of the numeric tower of the given atom. Atoms that aren't numbers are
+     * treated as integers, so that the integer conversions report (or perform) the conversion.
+     *
+     * @param atom An atom.
+     * @return The atom's level: {@code FIXNUM}, {@code BIGNUM}, {@code RATIO} or {@code FLONUM}.
+     */
+    private static int level(final Atom atom) {
+        if (atom instanceof FixnumAtom) { return FIXNUM; }
+        if (atom.isFloat()) { return FLONUM; }
+        if (atom.isNumber() && !atom.isInteger()) { return RATIO; }
+        return BIGNUM;
+    }
+
+    /**
+     * Applies the given comparison operator to each successive pair of the given arguments, and
+     * returns true if it holds for all of them. No arguments, or a single argument, are trivially
+     * in order.
+     *
+     * @param args A list of Atoms: the arguments to the operator.
+     * @param op A comparison operator to apply to the arguments.
+     * @return True if the operator holds for every pair of adjacent arguments, false otherwise.
+     */
+    private static boolean applyNumericComparisonOperator(final List args,
+                                                          final BinaryComparisonOperator op) {
+        if (args.isEmpty()) { return true; }
+
+        final Cursor it = args.cells();
+        Atom last = it.nextAtom();
+
+        while (it.hasNext()) {
+            final Atom next = it.nextAtom();
+            final boolean result = last instanceof FixnumAtom && next instanceof FixnumAtom
+                    ? op.test(last.toL(), next.toL())
+                    : op.test(compare(last, next), 0);
+            if (!result) { return false; }
+            last = next;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the negation of the given number, promoting it if it is a fixnum that can't be
+     * negated as a {@code long}.
+     *
+     * @param atom A numeric atom.
+     * @return The negation of {@code atom}.
+     */
+    private static Atom negate(final Atom atom) {
+        if (atom instanceof FixnumAtom && atom.toL() != Long.MIN_VALUE) {
+            return Atom.create(-atom.toL());
+        }
+        if (atom.isFloat()) { return Atom.create(-atom.toD()); }
+        if (atom.isNumber() && !atom.isInteger()) { return Atom.create(atom.toRatio().negate()); }
+        return Atom.create(atom.toBigInteger().negate());
+    }
+
+    /**
+     * Divides one {@code long} by another, as {@code /} does, but throws on overflow.
+     *
+     * @param lhs The dividend.
+     * @param rhs The divisor.
+     * @return The quotient, rounded toward zero.
+     * @throws ArithmeticException if the quotient overflows, or the divisor is zero.
+     */
+    private static long divideExact(final long lhs, final long rhs) {
+        if (lhs == Long.MIN_VALUE && rhs == -1) {
+            throw new ArithmeticException("long overflow");
+        }
+        return lhs / rhs;
+    }
+
+    /**
+     * Divides one {@code double} by another, but throws on division by zero rather than returning
+     * an infinity or NaN.
+     *
+     * @param lhs The dividend.
+     * @param rhs The divisor.
+     * @return The quotient.
+     * @throws ArithmeticException if the divisor is zero.
+     */
+    private static double divide(final double lhs, final double rhs) {
+        if (rhs == 0) { throw new ArithmeticException("Division by zero"); }
+        return lhs / rhs;
+    }
+
+    /**
+     * Returns the remainder of dividing one {@code double} by another, as {@code %} does, but
+     * throws on division by zero rather than returning NaN.
+     *
+     * @param lhs The dividend.
+     * @param rhs The divisor.
+     * @return The remainder, which has the sign of the dividend.
+     * @throws ArithmeticException if the divisor is zero.
+     */
+    private static double remainder(final double lhs, final double rhs) {
+        if (rhs == 0) { throw new ArithmeticException("Division by zero"); }
+        return lhs % rhs;
     }
 }
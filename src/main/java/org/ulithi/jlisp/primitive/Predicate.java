@@ -8,9 +8,9 @@ import org.ulithi.jlisp.core.List;
 import org.ulithi.jlisp.core.SExpression;
 import org.ulithi.jlisp.exception.EvaluationException;
 import org.ulithi.jlisp.exception.WrongArgumentCountException;
+import org.ulithi.jlisp.mem.Ref;
 
 import java.util.Arrays;
-import java.util.Optional;
 
 /**
  * A collection of predicate functions.
@@ -22,9 +22,12 @@ public class Predicate implements BindingProvider {
     @Override
     public java.util.List<Binding> getBindings() {
         return Arrays.asList(new Binding(new Predicate.ATOM()),
+                             new Binding(new Predicate.FLOATP()),
                              new Binding(new Predicate.INTEGERP()),
                              new Binding(new Predicate.MINUSP()),
+                             new Binding(new Predicate.NUMBERP()),
                              new Binding(new Predicate.PLUSP()),
+                             new Binding(new Predicate.RATIONALP()),
                              new Binding(new Predicate.ZEROP()));
     }
 
@@ -56,22 +59,66 @@ public class Predicate implements BindingProvider {
         @Override
         public SExpression apply(final SExpression sexp) {
             final List args = checkArgs(sexp, 1);
-            return isInteger(args.car()) ? Atom.T : Atom.F;
+            return isNumber(args.car(), Atom::isInteger) ? Atom.T : Atom.F;
         }
     }
 
     /**
-     * Indicates if the given SExpression represents an integer value.
+     * Implements the LISP {@code RATIONALP} function. The {@code RATIONALP} function accepts a
+     * value and returns true if the value is an integer or a ratio, false otherwise.
+     */
+    public static class RATIONALP extends AbstractFunction {
+        public RATIONALP() { super("RATIONALP"); }
+
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = checkArgs(sexp, 1);
+            return isNumber(args.car(), Atom::isRational) ? Atom.T : Atom.F;
+        }
+    }
+
+    /**
+     * Implements the LISP {@code FLOATP} function. The {@code FLOATP} function accepts a value
+     * and returns true if the value is a floating point number, false otherwise.
+     */
+    public static class FLOATP extends AbstractFunction {
+        public FLOATP() { super("FLOATP"); }
+
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = checkArgs(sexp, 1);
+            return isNumber(args.car(), Atom::isFloat) ? Atom.T : Atom.F;
+        }
+    }
+
+    /**
+     * Implements the LISP {@code NUMBERP} function. The {@code NUMBERP} function accepts a value
+     * and returns true if the value is a number of any type, false otherwise.
+     */
+    public static class NUMBERP extends AbstractFunction {
+        public NUMBERP() { super("NUMBERP"); }
+
+        @Override
+        public SExpression apply(final SExpression sexp) {
+            final List args = checkArgs(sexp, 1);
+            return isNumber(args.car(), Atom::isNumber) ? Atom.T : Atom.F;
+        }
+    }
+
+    /**
+     * Indicates if the given SExpression represents a numeric value of the given type.
      * @param sexp An SExpression.
-     * @return True if sexp is a numeric atom, false otherwise.
+     * @param type A test of the type of a numeric atom: e.g. {@code Atom::isInteger}.
+     * @return True if sexp is a numeric atom that passes the test, false otherwise.
      */
-    private static boolean isInteger(final SExpression sexp) {
-        return sexp.isAtom() && sexp.toAtom().isNumber();
+    private static boolean isNumber(final SExpression sexp,
+                                    final java.util.function.Predicate<Atom> type) {
+        return sexp.isAtom() && sexp.toAtom().isNumber() && type.test(sexp.toAtom());
     }
 
     /**
-     * Implements the LISP {@code MINUSP} function. The {@code MINUSP} function accepts an
-     * integer value and returns true if the value is strictly negative, false otherwise.
+     * Implements the LISP {@code MINUSP} function. The {@code MINUSP} function accepts a
+     * numeric value and returns true if the value is strictly negative, false otherwise.
      */
     public static class MINUSP extends AbstractFunction {
         public MINUSP() { super("MINUSP"); }
@@ -83,8 +130,8 @@ public class Predicate implements BindingProvider {
     }
 
     /**
-     * Implements the LISP {@code PLUSP} function. The {@code PLUSP} function accepts an
-     * integer value and returns true if the value is strictly positive, false otherwise.
+     * Implements the LISP {@code PLUSP} function. The {@code PLUSP} function accepts a
+     * numeric value and returns true if the value is strictly positive, false otherwise.
      */
     public static class PLUSP extends AbstractFunction {
         public PLUSP() { super("PLUSP"); }
@@ -96,8 +143,8 @@ public class Predicate implements BindingProvider {
     }
 
     /**
-     * Implements the LISP {@code ZEROP} function. The {@code ZEROP} function accepts an
-     * integer value and returns true if the value is zero, false otherwise.
+     * Implements the LISP {@code ZEROP} function. The {@code ZEROP} function accepts a
+     * numeric value and returns true if the value is zero, false otherwise.
      */
     public static class ZEROP extends AbstractFunction {
         public ZEROP() { super("ZEROP"); }
@@ -109,19 +156,20 @@ public class Predicate implements BindingProvider {
     }
 
     /**
-     * Validates the given SExpression is a List containing a single integer, and applies the
-     * given predicate to the integer.
-     * @param sexp An SExpression expected to be a single-element integer list.
-     * @param predicate An integer predicate.
-     * @return A Boolean-values Atom indicating if the integer element of sexp meets the
+     * Validates the given SExpression is a List containing a single number, and applies the
+     * given predicate to the sign of the number (-1, 0 or 1), so that numbers of any size and
+     * type can be tested.
+     * @param sexp An SExpression expected to be a single-element numeric list.
+     * @param predicate An integer predicate, applied to the sign of the number.
+     * @return A Boolean-values Atom indicating if the numeric element of sexp meets the
      *         condition specified by the predicate.
      */
     private static SExpression evaluateNumericPredicate(
             final SExpression sexp,
             final java.util.function.Predicate<Integer> predicate) {
         final List args = checkArgs(sexp, 1);
-        final int value = getIntegerArgument(args);
-        return Atom.create(predicate.test(value));
+        final int sign = getIntegerArgument(args).signum();
+        return Atom.create(predicate.test(sign));
     }
 
     /**
@@ -144,16 +192,17 @@ public class Predicate implements BindingProvider {
     }
 
     /**
-     * Attempts to convert the first element of the given list to an integer.
+     * Returns the first element of the given list, which must be a number.
      * @param args A List, assumed to be single element.
-     * @return An integer, converted from the single element of the list.
+     * @return The numeric atom that is the single element of the list.
      */
-    private static Integer getIntegerArgument(final List args) {
-        return Optional.of(args.car())
-                .filter(SExpression::isAtom)
-                .map(SExpression::toAtom)
-                .filter(Atom::isNumber)
-                .map(Atom::toI)
-                .orElseThrow(() -> new EvaluationException("Expected a numeric argument"));
+    private static Atom getIntegerArgument(final List args) {
+        final Ref arg = args.getRoot().getFirst();
+
+        if (!arg.isAtom() || !arg.toAtom().isNumber()) {
+            throw new EvaluationException("Expected a numeric argument");
+        }
+
+        return arg.toAtom();
     }
 }
@@ -1,19 +1,41 @@
 package org.ulithi.jlisp.primitive;
 
+import org.ulithi.jlisp.compiler.BytecodeCompiler;
+import org.ulithi.jlisp.compiler.Compiler;
+import org.ulithi.jlisp.compiler.Node;
+import org.ulithi.jlisp.compiler.TailCall;
+import org.ulithi.jlisp.core.Atom;
 import org.ulithi.jlisp.core.Environment;
 import org.ulithi.jlisp.core.Function;
+import org.ulithi.jlisp.core.Identifier;
+import org.ulithi.jlisp.core.LocalVariable;
 import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.core.SymbolTable;
 import org.ulithi.jlisp.exception.EvaluationException;
+import org.ulithi.jlisp.mem.Cell;
+import org.ulithi.jlisp.mem.Cursor;
+import org.ulithi.jlisp.mem.Ref;
 import org.ulithi.jlisp.parser.Grammar;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.ulithi.jlisp.mem.NilReference.NIL;
 
 /**
  * Represents a user-defined function: e.g., a function created by the {@code DEFUN} procedure.
+ * <p>
+ * When the function is defined, every reference to one of its formal parameters in its body is
+ * replaced by a {@link LocalVariable} that records the parameter's slot in the function's
+ * activation (see {@link Environment#startActivation}). Evaluating a parameter reference is then
+ * an array access, rather than a search of the environment by name.
+ * <p>
+ * Once defined, the body is also compiled (see {@link #compile(Environment)}) into a tree of
+ * executable {@link Node Nodes}, so that invoking the function doesn't have to re-analyze the
+ * body. Until it is compiled, the body is interpreted by {@link Eval}. If the bytecode compiler
+ * is enabled (see {@link Eval#bytecode(boolean)}), a compiled function that has been invoked
+ * {@link #BYTECODE_THRESHOLD} times is compiled again, to JVM bytecode.
  */
 public class UserFunction implements Function {
 
@@ -21,11 +43,33 @@ public class UserFunction implements Function {
 	private final String name;
 
 	/** The formal parameters for this function. **/
-	private final List<String> formals;
+	private final Identifier[] formals;
+
+	/** The number of invocations after which a compiled function is compiled to bytecode. **/
+	static final int BYTECODE_THRESHOLD = 50;
+
+	/** The identifier of the {@code QUOTE} function. **/
+	private static final Identifier QUOTE = SymbolTable.intern("QUOTE");
+
+	/** The identifier of the {@code DEFUN} function. **/
+	private static final Identifier DEFUN = SymbolTable.intern("DEFUN");
 
 	/** The parsed source code of the function implementation. **/
 	private final SExpression body;
 
+	/**
+	 * The compiled function implementation, or null if the body hasn't been compiled. Volatile,
+	 * since a function may be invoked on several threads, and recompiled to bytecode by any of them.
+	 **/
+	private volatile Node code;
+
+	/**
+	 * The number of times this function has been invoked, until it is compiled to bytecode. Atomic,
+	 * since a function may be invoked on several threads: exactly one of them sees the count reach
+	 * the threshold, and compiles it.
+	 **/
+	private final AtomicInteger invocations = new AtomicInteger();
+
 	/**
 	 * Creates a user-defined function with the specified name, formal parameters, and body.
 	 *
@@ -49,34 +93,32 @@ public class UserFunction implements Function {
 
 		this.name = name;
 		this.formals = parseFormals(formals);
-		this.body = body;
+		this.body = resolveLocals(body, this.formals);
 	}
 
 	/**
 	 * Transforms the given SExpression representing a list of formal parameters, to a Java list
-	 * of strings with those same formal parameters, preserving order.
+	 * of identifiers for those same formal parameters, preserving order.
 	 *
 	 * @param formals An SExpression representing a (possibly empty) list of formal function
 	 *                parameters.
-	 * @return An ordered list of the formals' names.
+	 * @return An ordered array of the formals' identifiers.
 	 */
-	private static List<String> parseFormals(final SExpression formals) {
-		org.ulithi.jlisp.core.List it = formals.toList();
+	private static Identifier[] parseFormals(final SExpression formals) {
+		final org.ulithi.jlisp.core.List list = formals.toList();
 
-		if (it.isEmpty()) {
-			return Collections.emptyList();
+		if (list.isEmpty()) {
+			return new Identifier[0];
 		}
 
-		final List<String> params = new ArrayList<>(it.lengthAsInt());
+		final List<Identifier> params = new ArrayList<>(list.lengthAsInt());
+		final Cursor it = list.cells();
 
-		addFormal(params, it.car().toAtom().toS());
-
-		while (!it.endp()) {
-			it = it.cdr().toList();
-			addFormal(params, it.car().toAtom().toS());
+		while (it.hasNext()) {
+			addFormal(params, it.nextAtom().toS());
 		}
 
-		return params;
+		return params.toArray(new Identifier[0]);
 	}
 
 	/**
@@ -84,53 +126,148 @@ public class UserFunction implements Function {
 	 * @param params A partial list of formal parameters defined for this function.
 	 * @param formal A formal parameter to add to the list.
 	 */
-	private static void addFormal(final List<String> params, final String formal) {
+	private static void addFormal(final List<Identifier> params, final String formal) {
 		if (!Grammar.isFunctionName(formal)) {
 			throw new EvaluationException("'" + formal + "' is not a legal parameter name");
 		}
 
-		if (params.contains(formal)) {
+		final Identifier identifier = SymbolTable.intern(formal);
+
+		if (params.contains(identifier)) {
 			throw new EvaluationException("Duplicate parameter name: " + formal);
 		}
 
-		params.add(formal);
+		params.add(identifier);
 	}
 
 	/**
-	 * Binds the given function invocation arguments to this function's formal parameters and
-	 * returns the bindings as a {@code Map}.
+	 * Returns a copy of the given function body in which every atom naming one of the given
+	 * formal parameters is replaced by a {@link LocalVariable} for that parameter's slot. The
+	 * original body is left unchanged. Quoted forms and nested {@code DEFUN} forms are copied
+	 * without replacement, since their atoms aren't references to this function's parameters.
 	 *
-	 * @param args The function arguments list as prepared by {@code Eval}.
-	 * @return A map of this function's formal parameter names to the arguments for this
-	 *         specific invocation.
+	 * @param body The parsed implementation of the function.
+	 * @param formals The function's formal parameters.
+	 * @return The body, with parameter references resolved to lexical addresses.
+	 */
+	private static SExpression resolveLocals(final SExpression body, final Identifier[] formals) {
+		if (formals.length == 0 || body.isAtom()) { return body; }
+
+		final Cell root = body.toList().getRoot();
+
+		return root.isNil() ? body : org.ulithi.jlisp.core.List.create(resolveLocals(root, formals));
+	}
+
+	/**
+	 * Copies the chain of list cells starting at the given cell, replacing references to formal
+	 * parameters as described by {@link #resolveLocals(SExpression, Identifier[])}.
+	 *
+	 * @param cell The first cell of a (non-empty) list.
+	 * @param formals The function's formal parameters.
+	 * @return The first cell of the copied list.
+	 */
+	private static Cell resolveLocals(final Cell cell, final Identifier[] formals) {
+		final Cell head = Cell.create(resolveLocal(cell.getFirst(), formals));
+		Cell tail = head;
+
+		boolean resolve = !isLiteralForm(cell.getFirst());
+
+		for (Ref it = cell.getRest(); it != NIL; it = ((Cell) it).getRest()) {
+			final Ref first = ((Cell) it).getFirst();
+			final Cell next = Cell.create(resolve ? resolveLocal(first, formals) : first);
+			tail.extend(next);
+			tail = next;
+		}
+
+		return head;
+	}
+
+	/**
+	 * Resolves a single list element: a formal parameter atom is replaced by a {@link LocalVariable},
+	 * a sub-list is copied recursively, and anything else is returned unchanged.
+	 *
+	 * @param ref A list element.
+	 * @param formals The function's formal parameters.
+	 * @return The resolved list element.
 	 */
-	private Map<String, SExpression> bindFormals(final SExpression args) throws EvaluationException {
-		org.ulithi.jlisp.core.List it = args.toList();
+	private static Ref resolveLocal(final Ref ref, final Identifier[] formals) {
+		if (ref instanceof Cell) {
+			final Cell cell = (Cell) ref;
+			return cell.isNil() || cell.isStorage() ? cell : resolveLocals(cell, formals);
+		}
+
+		if (ref instanceof Atom && !(ref instanceof LocalVariable)) {
+			final Atom atom = (Atom) ref;
+
+			if (!atom.isNumber()) {
+				final Identifier identifier = atom.identifier();
 
-		if (it.lengthAsInt() != formals.size()) {
-			throw new EvaluationException("Expected " + formals.size() +
-										  " arguments: got " + it.lengthAsInt());
+				for (int slot = 0; slot < formals.length; slot++) {
+					if (formals[slot] == identifier) { return new LocalVariable(atom, 0, slot); }
+				}
+			}
 		}
 
-		if (it.isEmpty()) { return Collections.emptyMap(); }
+		return ref;
+	}
+
+	/**
+	 * Indicates if the given list element is the operator of a form whose arguments aren't
+	 * evaluated as references to this function's parameters: {@code QUOTE} or {@code DEFUN}.
+	 *
+	 * @param ref The first element of a list.
+	 * @return True if the rest of the list should be copied without resolving parameters.
+	 */
+	private static boolean isLiteralForm(final Ref ref) {
+		if (!(ref instanceof Atom)) { return false; }
 
-		final Map<String, SExpression> context = new HashMap<>(it.lengthAsInt());
+		final Identifier identifier = ((Atom) ref).identifier();
 
-		int index = 0;
+		return identifier == QUOTE || identifier == DEFUN;
+	}
 
-		context.put(formals.get(index), it.car());
+	/**
+	 * Binds the given function invocation arguments to this function's formal parameters and
+	 * returns the arguments as an array, in parameter order.
+	 *
+	 * @param args The function arguments list as prepared by {@code Eval}.
+	 * @return The arguments for this specific invocation, indexed by parameter slot.
+	 */
+	private SExpression[] bindFormals(final SExpression args) throws EvaluationException {
+		final org.ulithi.jlisp.core.List list = args.toList();
+		final int length = list.lengthAsInt();
 
-		while (!it.endp()) {
-			it = it.cdr().toList();
-			index++;
-			context.put(formals.get(index), it.car());
+		if (length != formals.length) {
+			throw new EvaluationException("Expected " + formals.length +
+										  " arguments: got " + length);
 		}
 
-		if (!(it.endp() && context.size() == formals.size()) ) {
-			throw new EvaluationException("Count of arguments didn't match number of formals");
+		final SExpression[] values = new SExpression[formals.length];
+		final Cursor it = list.cells();
+
+		for (int index = 0; it.hasNext(); index++) {
+			values[index] = it.nextExpression();
 		}
 
-		return context;
+		return values;
+	}
+
+	/**
+	 * Compiles the body of this function, resolving references to core bindings in the given
+	 * environment. Subsequent invocations execute the compiled body.
+	 *
+	 * @param environment The environment this function is defined in.
+	 */
+	void compile(final Environment environment) {
+		code = Compiler.compile(body, environment);
+	}
+
+	/**
+	 * Returns the identifiers of this function's formal parameters, in order.
+	 * @return The formal parameters.
+	 */
+	Identifier[] formals() {
+		return formals.clone();
 	}
 
 	/** {@inheritDoc} */
@@ -151,22 +288,60 @@ public class UserFunction implements Function {
 	}
 
 	/**
-	 * Updates the given {@link Environment} with formals bound to the arguments in the given
-	 * {@link SExpression}, and returns the body of this user function for evaluation.
+	 * Starts an activation in the given {@link Environment} with formals bound to the arguments in
+	 * the given {@link SExpression}, and evaluates the body of this user function against it.
+	 * <p>
+	 * If the compiled body ends with a call to a user-defined function, it returns a
+	 * {@link TailCall} rather than making the call. The called function is then invoked here, in a
+	 * loop, so that a chain of tail calls -- e.g. a loop written as a tail-recursive function --
+	 * runs in constant Java stack space. The activation is reused for the called function (see
+	 * {@link Environment#replaceActivation}), so the environment doesn't grow either, even for
+	 * mutually recursive functions with different parameter names; the called function can still
+	 * see the caller's parameters that it doesn't shadow, as dynamically-scoped bindings.
 	 *
 	 * @param sexp An {@link SExpression} representing the arguments to this {@link Function}.
 	 * @param environment Reference to the current runtime {@code Environment}.
-	 * @return The body of this user function, to be evaluated against the updated environment.
+	 * @return The result of evaluating the body of this user function.
 	 */
 	@Override
 	public SExpression apply(final SExpression sexp, final Environment environment, final Eval eval) {
-		final Map<String, SExpression> locals = bindFormals(sexp);
+		countInvocation(eval);
+		environment.startActivation(formals, bindFormals(sexp));
+
+		try {
+			UserFunction function = this;
+
+			while (true) {
+				final SExpression result = function.code != null ? function.code.execute(eval)
+																 : eval.apply(function.body);
 
-		for (final Map.Entry<String, SExpression> entry : locals.entrySet()) {
-			environment.addBinding(entry.getKey(), entry.getValue());
+				if (!(result instanceof TailCall)) { return result; }
+
+				final UserFunction next = ((TailCall) result).function();
+				final SExpression[] values = next.bindFormals(((TailCall) result).args());
+
+				next.countInvocation(eval);
+				environment.replaceActivation(next.formals, values);
+
+				function = next;
+			}
+		} finally {
+			environment.endScope();
 		}
+	}
 
-		return eval.apply(body);
+	/**
+	 * Counts an invocation of this function, and compiles it to bytecode once it has been invoked
+	 * {@link #BYTECODE_THRESHOLD} times, if the bytecode compiler is enabled.
+	 *
+	 * @param eval The evaluator invoking this function.
+	 */
+	private void countInvocation(final Eval eval) {
+		if (code != null && invocations.get() < BYTECODE_THRESHOLD && eval.isBytecodeEnabled()) {
+			if (invocations.incrementAndGet() == BYTECODE_THRESHOLD) {
+				code = BytecodeCompiler.compile(code).orElse(code);
+			}
+		}
 	}
 
 	/**
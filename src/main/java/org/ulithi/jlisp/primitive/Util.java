@@ -7,6 +7,7 @@ import org.ulithi.jlisp.core.BindingProvider;
 import org.ulithi.jlisp.core.List;
 import org.ulithi.jlisp.core.SExpression;
 import org.ulithi.jlisp.exception.WrongArgumentCountException;
+import org.ulithi.jlisp.mem.Cursor;
 
 import java.util.Arrays;
 
@@ -35,24 +36,24 @@ public class Util implements BindingProvider {
         /** {@inheritDoc} */
         @Override
         public SExpression apply(final SExpression sexp) {
-            List it = sexp.toList();
+            final List args = sexp.toList();
 
-            if (it.lengthAsInt() < 2) {
-                throw new WrongArgumentCountException("Expected 2 or more arguments: received " + it.length());
+            if (args.lengthAsInt() < 2) {
+                throw new WrongArgumentCountException("Expected 2 or more arguments: received " + args.length());
             }
 
             boolean result = false;
-            final SExpression lhs = it.car();
+            final Cursor it = args.cells();
+            final SExpression lhs = it.nextExpression();
 
-            while (!it.endp()) {
-                it = it.cdr().toList();
-                final SExpression rhs = it.car();
+            while (it.hasNext()) {
+                final SExpression rhs = it.nextExpression();
                 if (lhs.isAtom() && rhs.isAtom()) {
                     result = lhs.toAtom().eql(rhs.toAtom());
                 } else if (lhs.isList() && rhs.isList()) {
                     result = lhs.toList().isEmpty() && rhs.toList().isEmpty();
                 } else {
-                    result = (lhs == it.car());
+                    result = (lhs == rhs);
                 }
 
                 if (!result) { break; }
@@ -75,18 +76,18 @@ public class Util implements BindingProvider {
          */
         @Override
         public SExpression apply(final SExpression sexp) {
-            List it = sexp.toList();
+            final List args = sexp.toList();
 
-            if (it.lengthAsInt() < 2) {
-                throw new WrongArgumentCountException("Expected 2 or more arguments: received " + it.length());
+            if (args.lengthAsInt() < 2) {
+                throw new WrongArgumentCountException("Expected 2 or more arguments: received " + args.length());
             }
 
             boolean result = false;
-            final SExpression lhs = it.car();
+            final Cursor it = args.cells();
+            final SExpression lhs = it.nextExpression();
 
-            while (!it.endp()) {
-                it = it.cdr().toList();
-                result = lhs.isEqual(it.car());
+            while (it.hasNext()) {
+                result = lhs.isEqual(it.nextExpression());
                 if (!result) {
                     break;
                 }
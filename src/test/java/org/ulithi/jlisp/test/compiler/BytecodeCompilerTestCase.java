@@ -0,0 +1,82 @@
+package org.ulithi.jlisp.test.compiler;
+
+import org.junit.Test;
+import org.ulithi.jlisp.compiler.BytecodeCompiler;
+import org.ulithi.jlisp.compiler.Compiler;
+import org.ulithi.jlisp.compiler.Node;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.primitive.Eval;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.parse;
+
+/**
+ * Unit tests for {@link org.ulithi.jlisp.compiler.BytecodeCompiler}.
+ */
+public class BytecodeCompilerTestCase {
+
+    @Test
+    public void testCompileArithmetic() {
+        final Eval eval = new Eval();
+        final Node node = compile(eval, "(PLUS 1 (TIMES 2 3) (QUOTIENT 9 3))");
+        assertTrue(node.getClass().isHidden());
+        assertEquals(10, node.execute(eval).toAtom().toI());
+    }
+
+    @Test
+    public void testCompileIfAndCond() {
+        final Eval eval = new Eval();
+        assertEquals("yes", compile(eval, "(IF (< 1 2) (QUOTE yes) (QUOTE no))").execute(eval).toString());
+        assertEquals("no", compile(eval, "(IF (< 2 1) (QUOTE yes) (QUOTE no))").execute(eval).toString());
+        assertTrue(compile(eval, "(IF (< 2 1) (QUOTE yes))").execute(eval).toList().isEmpty());
+        assertEquals("b", compile(eval, "(COND ((ZEROP 1) (QUOTE a)) (T (QUOTE b)))").execute(eval).toString());
+        assertEquals("NIL", compile(eval, "(COND ((ZEROP 1) (QUOTE a)))").execute(eval).toString());
+    }
+
+    @Test
+    public void testCompileGlobalReference() {
+        final Eval eval = new Eval();
+        eval.apply(parse("(SETQ g 5)").root());
+        final Node node = compile(eval, "(PLUS g 1)");
+        assertEquals(6, node.execute(eval).toAtom().toI());
+        eval.apply(parse("(SETQ g 10)").root());
+        assertEquals(11, node.execute(eval).toAtom().toI());
+    }
+
+    /**
+     * Enables the bytecode compiler and invokes a recursive function often enough for it to be
+     * compiled to bytecode, then verifies that the compiled function still gives the right results,
+     * including when a function it calls is redefined.
+     */
+    @Test
+    public void testHotFunctionIsCompiled() {
+        final Eval eval = new Eval();
+        eval.bytecode(true);
+        eval.apply(parse("(DEFUN fib (n) (IF (< n 2) n (+ (fib (- n 1)) (fib (- n 2)))))").root());
+        assertEquals(144, eval.apply(parse("(fib 12)").root()).toAtom().toI());
+        assertEquals(144, eval.apply(parse("(fib 12)").root()).toAtom().toI());
+
+        eval.apply(parse("(DEFUN inc (n) (+ n 1))").root());
+        eval.apply(parse("(DEFUN twice (n) (inc (inc n)))").root());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 2, eval.apply(parse("(twice " + i + ")").root()).toAtom().toI());
+        }
+        eval.apply(parse("(DEFUN inc (n) (+ n 10))").root());
+        assertEquals(20, eval.apply(parse("(twice 0)").root()).toAtom().toI());
+    }
+
+    @Test
+    public void testCompiledTailRecursiveLoop() {
+        final Eval eval = new Eval();
+        eval.bytecode(true);
+        eval.apply(parse("(DEFUN count (n acc) (IF (ZEROP n) acc (count (- n 1) (+ acc 1))))").root());
+        assertEquals(100000, eval.apply(parse("(count 100000 0)").root()).toAtom().toI());
+    }
+
+    private static Node compile(final Eval eval, final String expression) {
+        final SExpression body = List.create(parse(expression).root());
+        return BytecodeCompiler.compile(Compiler.compile(body, eval.environment())).orElseThrow();
+    }
+}
@@ -0,0 +1,208 @@
+package org.ulithi.jlisp.test.compiler;
+
+import org.junit.Test;
+import org.ulithi.jlisp.compiler.Compiler;
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.Binding;
+import org.ulithi.jlisp.core.Environment;
+import org.ulithi.jlisp.core.Function;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.exception.WrongArgumentCountException;
+import org.ulithi.jlisp.primitive.Eval;
+import org.ulithi.jlisp.primitive.UserFunction;
+import org.ulithi.jlisp.test.suite.UnitTestUtilities.Session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.newSession;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.parse;
+
+/**
+ * Unit tests for {@link org.ulithi.jlisp.compiler.Compiler}.
+ */
+public class CompilerTestCase {
+
+    @Test
+    public void testCompileArithmetic() {
+        final Eval eval = new Eval();
+        final SExpression body = List.create(parse("(PLUS 1 (TIMES 2 3))").root());
+        assertEquals(7, Compiler.compile(body, eval.environment()).execute(eval).toAtom().toI());
+    }
+
+    @Test
+    public void testCompiledRecursion() {
+        assertSameAsInterpreted("fib", "(n)",
+                                "(IF (< n 2) n (PLUS (fib (- n 1)) (fib (- n 2))))",
+                                "(fib 12)");
+
+        final Session session = newSession();
+        session.eval("(defun fib (n) (IF (< n 2) n (+ (fib (- n 1)) (fib (- n 2)))))");
+        assertEquals(144, session.eval("(fib 12)").toAtom().toI());
+    }
+
+    @Test
+    public void testCompiledCond() {
+        final String body = "(COND ((EQL n 0) (QUOTE zero)) ((< n 0) (QUOTE negative)) (T (QUOTE positive)))";
+        assertSameAsInterpreted("sign", "(n)", body, "(sign 0)");
+        assertSameAsInterpreted("sign", "(n)", body, "(sign -4)");
+        assertSameAsInterpreted("sign", "(n)", body, "(sign 4)");
+        assertSameAsInterpreted("sign", "(n)", "(COND ((EQL n 0) (QUOTE zero)))", "(sign 1)");
+
+        final Session session = newSession();
+        session.eval("(defun sign (n) " + body + ")");
+        assertEquals("negative", session.eval("(sign -4)").toString());
+    }
+
+    @Test
+    public void testCompiledIfWithoutElse() {
+        assertSameAsInterpreted("maybe", "(n)", "(IF (EQL n 0) (QUOTE zero))", "(maybe 1)");
+    }
+
+    @Test
+    public void testCompiledQuoteAndLists() {
+        assertSameAsInterpreted("wrap", "(x y)", "(CONS x (CONS y (QUOTE (x y))))", "(wrap 1 2)");
+        assertSameAsInterpreted("wrap", "(x)", "(CAR (CDR (QUOTE (a b c))))", "(wrap 1)");
+    }
+
+    @Test
+    public void testCompiledGlobalReference() {
+        final Session session = newSession();
+        session.eval("(SETQ g 40)");
+        session.eval("(defun addg (x) (PLUS x g))");
+        assertEquals(42, session.eval("(addg 2)").toAtom().toI());
+        session.eval("(SETQ g 0)");
+        assertEquals(2, session.eval("(addg 2)").toAtom().toI());
+    }
+
+    /**
+     * User functions are resolved when they are called, so a compiled caller sees a callee that
+     * is redefined after the caller was compiled.
+     */
+    @Test
+    public void testCompiledCallSeesRedefinedFunction() {
+        final Session session = newSession();
+        session.eval("(defun callee (x) (PLUS x 1))");
+        session.eval("(defun caller (x) (callee x))");
+        assertEquals(2, session.eval("(caller 1)").toAtom().toI());
+        session.eval("(defun callee (x) (TIMES x 10))");
+        assertEquals(10, session.eval("(caller 1)").toAtom().toI());
+    }
+
+    /**
+     * A call to a global function from a compiled body still sees a caller's parameter of the
+     * same name, which shadows the function while the caller is active.
+     */
+    @Test
+    public void testCompiledCallSeesShadowingParameter() {
+        final Session session = newSession();
+        session.eval("(defun shadowed (x) (PLUS x 1))");
+        session.eval("(defun useshadowed (x) (shadowed x))");
+        session.eval("(defun shadower (shadowed) (useshadowed 1))");
+        assertEquals(2, session.eval("(useshadowed 1)").toAtom().toI());
+        assertEquals(5, session.eval("(shadower 5)").toAtom().toI());
+        assertEquals(2, session.eval("(useshadowed 1)").toAtom().toI());
+    }
+
+    /**
+     * A tail-recursive loop runs in constant stack space, so it can iterate far more times than
+     * the Java stack could hold nested invocations.
+     */
+    @Test
+    public void testTailRecursiveLoop() {
+        final Session session = newSession();
+        session.eval("(defun count (n acc) (IF (ZEROP n) acc (count (- n 1) (+ acc 2))))");
+        assertEquals(200000, session.eval("(count 100000 0)").toAtom().toI());
+    }
+
+    @Test
+    public void testMutualTailRecursion() {
+        final Session session = newSession();
+        session.eval("(defun evenp (n) (COND ((ZEROP n) T) (T (oddp (- n 1)))))");
+        session.eval("(defun oddp (n) (COND ((ZEROP n) F) (T (evenp (- n 1)))))");
+        assertEquals("T", session.eval("(evenp 100000)").toString());
+        assertEquals("F", session.eval("(oddp 100000)").toString());
+    }
+
+    /**
+     * Mutually tail-recursive functions with different parameter names run in a single
+     * activation, however many times they call each other.
+     */
+    @Test
+    public void testMutualTailRecursionRunsInConstantDepth() {
+        final Eval eval = new Eval();
+        eval.environment().addUserBinding(new Binding("DEPTH", new Function() {
+            @Override
+            public String name() { return "DEPTH"; }
+
+            @Override
+            public boolean isDefining() { return true; }
+
+            @Override
+            public SExpression apply(final SExpression sexp, final Environment environment) {
+                return Atom.create(environment.depth());
+            }
+        }));
+        eval.apply(parse("(defun ev (n) (COND ((ZEROP n) (DEPTH)) (T (od (- n 1)))))").root());
+        eval.apply(parse("(defun od (m) (COND ((ZEROP m) (DEPTH)) (T (ev (- m 1)))))").root());
+
+        assertEquals(1, eval.apply(parse("(ev 1)").root()).toAtom().toI());
+        assertEquals(1, eval.apply(parse("(ev 100000)").root()).toAtom().toI());
+        assertEquals(1, eval.apply(parse("(od 100001)").root()).toAtom().toI());
+        assertEquals(0, eval.environment().depth());
+    }
+
+    /**
+     * A function called in tail position still sees the caller's parameters, if it doesn't
+     * shadow them.
+     */
+    @Test
+    public void testTailCallSeesCallerParameters() {
+        final Session session = newSession();
+        session.eval("(defun usey (x) (+ x y))");
+        session.eval("(defun sety (y) (usey 1))");
+        assertEquals(11, session.eval("(sety 10)").toAtom().toI());
+        assertEquals(3, session.eval("(+ (sety 1) 1)").toAtom().toI());
+    }
+
+    /**
+     * A parameter shadows a global variable of the same name, for the functions it calls too.
+     */
+    @Test
+    public void testParameterShadowsGlobalVariable() {
+        final Session session = newSession();
+        session.eval("(SETQ z 100)");
+        session.eval("(defun usez (x) (+ x z))");
+        session.eval("(defun setz (z) (usez 1))");
+        assertEquals(101, session.eval("(usez 1)").toAtom().toI());
+        assertEquals(11, session.eval("(setz 10)").toAtom().toI());
+        assertEquals(101, session.eval("(usez 1)").toAtom().toI());
+    }
+
+    @Test(expected = WrongArgumentCountException.class)
+    public void testCompiledMalformedIfThrowsWhenInvoked() {
+        final Session session = newSession();
+        session.eval("(defun bad (x) (IF x))");
+        session.eval("(bad T)");
+    }
+
+    /**
+     * Defines a function with DEFUN, which compiles it, and the same function as an interpreted
+     * {@link UserFunction} under another name, invokes each with the same arguments, and verifies
+     * that the results are the same.
+     */
+    private static void assertSameAsInterpreted(final String name, final String formals,
+                                                final String body, final String call) {
+        final Session compiled = newSession();
+        compiled.eval("(defun " + name + " " + formals + " " + body + ")");
+        final SExpression expected = compiled.eval(call);
+
+        final Eval interpreted = new Eval();
+        final UserFunction function = new UserFunction(name, List.create(parse(formals).root()),
+                                                       List.create(parse(body).root()));
+        interpreted.environment().addUserBinding(new Binding(name, function));
+        final SExpression actual = interpreted.apply(parse(call).root());
+
+        assertTrue("Expected " + expected + ", got " + actual, expected.isEqual(actual));
+    }
+}
@@ -3,10 +3,16 @@ package org.ulithi.jlisp.test.core;
 import org.junit.Test;
 import org.ulithi.jlisp.exception.TypeConversionException;
 import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.FixnumAtom;
+import org.ulithi.jlisp.core.Ratio;
 import org.ulithi.jlisp.parser.Grammar;
 
+import java.math.BigInteger;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -48,6 +54,58 @@ public class AtomTestCase {
         assertEquals("-1", atom.toString());
     }
 
+    @Test
+    public void testSmallIntegersAreShared() {
+        assertSame(Atom.create(FixnumAtom.CACHE_MIN), Atom.create(FixnumAtom.CACHE_MIN));
+        assertSame(Atom.create(7), Atom.create(Integer.valueOf(7)));
+        assertSame(Atom.create(FixnumAtom.CACHE_MAX), FixnumAtom.valueOf(FixnumAtom.CACHE_MAX));
+        assertNotSame(Atom.create(FixnumAtom.CACHE_MAX + 1), Atom.create(FixnumAtom.CACHE_MAX + 1));
+    }
+
+    @Test
+    public void testLongIntegerLiterals() {
+        final Atom atom = Atom.create(5000000000L);
+        assertTrue(atom.isNumber());
+        assertTrue(atom instanceof FixnumAtom);
+        assertEquals(5000000000L, atom.toL());
+        assertEquals("5000000000", atom.toS());
+        assertTrue(atom.eql(Atom.create(5000000000L)));
+        assertFalse(atom.eql(Atom.create(5000000001L)));
+        assertFalse(Atom.create(0).eql(Atom.F));
+        assertFalse(Atom.F.eql(Atom.create(0)));
+    }
+
+    @Test
+    public void testFloatLiterals() {
+        final Atom atom = Atom.create(2.5);
+        assertTrue(atom.isNumber());
+        assertTrue(atom.isFloat());
+        assertFalse(atom.isRational());
+        assertEquals(2.5, atom.toD(), 0.0);
+        assertEquals(2, atom.toI());
+        assertEquals("2.5", atom.toS());
+        assertTrue(atom.eql(Atom.create(2.5)));
+        assertFalse(Atom.create(1.0).eql(Atom.create(1)));
+        assertFalse(Atom.create(0.0).toB());
+    }
+
+    @Test
+    public void testRatioLiterals() {
+        final Atom atom = Atom.create(Ratio.valueOf(BigInteger.valueOf(6), BigInteger.valueOf(-8)));
+        assertTrue(atom.isNumber());
+        assertTrue(atom.isRational());
+        assertFalse(atom.isInteger());
+        assertEquals("-3/4", atom.toS());
+        assertEquals(-0.75, atom.toD(), 0.0);
+        assertEquals(0, atom.toI());
+        assertEquals(-1, atom.signum());
+        assertTrue(atom.eql(Atom.create(Ratio.valueOf(BigInteger.valueOf(-3), BigInteger.valueOf(4)))));
+
+        final Atom whole = Atom.create(Ratio.valueOf(BigInteger.valueOf(8), BigInteger.valueOf(4)));
+        assertTrue(whole instanceof FixnumAtom);
+        assertEquals(2, whole.toI());
+    }
+
     @Test
     public void testStringLiterals() {
         Atom atom = Atom.create("Hello");
@@ -2,16 +2,32 @@ package org.ulithi.jlisp.test.core;
 
 import org.junit.Test;
 import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.Binding;
+import org.ulithi.jlisp.core.CallSite;
 import org.ulithi.jlisp.core.Environment;
 import org.ulithi.jlisp.core.Function;
+import org.ulithi.jlisp.core.HashTable;
+import org.ulithi.jlisp.core.Identifier;
+import org.ulithi.jlisp.core.List;
 import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.core.SymbolTable;
 import org.ulithi.jlisp.exception.EvaluationException;
+import org.ulithi.jlisp.mem.Arena;
+import org.ulithi.jlisp.mem.ArrayArena;
+import org.ulithi.jlisp.primitive.Eval;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.parse;
 
 /**
  * Unit tests for {@link org.ulithi.jlisp.core.Environment}.
@@ -121,6 +137,176 @@ public class EnvironmentTestCase {
         env.addBinding("PLUS", createFunction("bar"));
     }
 
+    @Test
+    public void testLookupIgnoresCase() {
+        final Environment env = new Environment();
+        env.startScope();
+        env.addBinding("Foo", createFunction("foo"));
+        assertSame(env.getBinding("foo"), env.getBinding("FOO"));
+        assertSame(env.getBinding("foo"), env.getBinding(SymbolTable.intern("fOO")));
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testUserBindingOfCoreNameThrowsRegardlessOfCase() {
+        final Environment env = new Environment();
+        env.addUserBinding(new Binding("Plus", createFunction("bar")));
+    }
+
+    @Test
+    public void testActivationBindsByNameAndSlot() {
+        final Environment env = new Environment();
+        final Identifier x = SymbolTable.intern("x");
+        final Identifier y = SymbolTable.intern("y");
+        env.startActivation(new Identifier[] { x, y },
+                            new SExpression[] { Atom.create(1), Atom.create(2) });
+
+        assertEquals(2, env.getLocal(0, 1).toAtom().toI());
+        assertSame(env.getLocal(0, 0), env.getBinding("X"));
+
+        env.startActivation(new Identifier[] { x }, new SExpression[] { Atom.create(3) });
+        assertEquals(3, env.getLocal(0, 0).toAtom().toI());
+        assertEquals(1, env.getLocal(1, 0).toAtom().toI());
+        assertEquals(2, ((SExpression) env.getBinding(y)).toAtom().toI());
+
+        env.endScope();
+        assertEquals(1, env.getLocal(0, 0).toAtom().toI());
+        env.endScope();
+        assertNull(env.getBinding(x));
+    }
+
+    @Test
+    public void testGlobalLookupSkipsLocalFrames() {
+        final Environment env = new Environment();
+        final Identifier n = SymbolTable.intern("depthparam");
+        final Identifier shadowed = SymbolTable.intern("depthshadowed");
+        env.addUserBinding(new Binding("depthglobal", Atom.create(1)));
+        env.addUserBinding(new Binding("depthshadowed", Atom.create(2)));
+
+        for (int i = 0; i < 1000; i++) {
+            env.startActivation(new Identifier[] { n }, new SExpression[] { Atom.create(i) });
+        }
+        env.startActivation(new Identifier[] { shadowed }, new SExpression[] { Atom.create(3) });
+
+        assertFalse(env.isLocal(SymbolTable.intern("depthglobal")));
+        assertEquals(1, ((SExpression) env.getBinding("depthglobal")).toAtom().toI());
+        assertEquals(3, ((SExpression) env.getBinding(shadowed)).toAtom().toI());
+        assertEquals(999, ((SExpression) env.getBinding(n)).toAtom().toI());
+        assertNotNull(env.getBinding("plus"));
+
+        env.endScope();
+        assertEquals(2, ((SExpression) env.getBinding(shadowed)).toAtom().toI());
+    }
+
+    @Test
+    public void testReusedFramesStartEmpty() {
+        final Environment env = new Environment();
+        final Identifier x = SymbolTable.intern("x");
+        env.startScope();
+        env.addBinding("reusedscope", createFunction("reusedscope"));
+        env.endScope();
+        env.startScope();
+        assertNull(env.getBinding("reusedscope"));
+        env.endScope();
+
+        env.startActivation(new Identifier[] { x }, new SExpression[] { Atom.create(1) });
+        env.startActivation(new Identifier[] { x }, new SExpression[] { Atom.create(2) });
+        env.endScope();
+        env.endScope();
+
+        env.startActivation(new Identifier[] { x }, new SExpression[] { Atom.create(3) });
+        env.startActivation(new Identifier[] { }, new SExpression[] { });
+        assertEquals(3, env.getLocal(1, 0).toAtom().toI());
+        assertEquals(3, ((SExpression) env.getBinding(x)).toAtom().toI());
+        env.endScope();
+        env.endScope();
+        assertNull(env.getBinding(x));
+    }
+
+    @Test
+    public void testScopeIsStartedOnlyForFunctionsThatNeedOne() {
+        final Eval eval = new Eval();
+        final Function binder = new Function() {
+            @Override
+            public String name() { return "binder"; }
+
+            @Override
+            public boolean isDefining() { return true; }
+
+            @Override
+            public boolean needsScope() { return true; }
+
+            @Override
+            public SExpression apply(final SExpression sexp, final Environment environment) {
+                environment.addBinding("scopedname", createFunction("scopedname"));
+                return Atom.create(environment.getBinding("scopedname") != null);
+            }
+        };
+
+        assertTrue(eval.invoke(binder, List.create()).toAtom().toB());
+        assertNull(eval.environment().getBinding("scopedname"));
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testAddingBindingWithoutAScopeOfItsOwnThrows() {
+        final Eval eval = new Eval();
+        eval.invoke(new Function() {
+            @Override
+            public String name() { return "binder"; }
+
+            @Override
+            public boolean isDefining() { return true; }
+
+            @Override
+            public SExpression apply(final SExpression sexp, final Environment environment) {
+                environment.addBinding("scopedname", createFunction("scopedname"));
+                return Atom.T;
+            }
+        }, List.create());
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testLocalWithoutActivationThrows() {
+        final Environment env = new Environment();
+        env.startScope();
+        env.getLocal(0, 0);
+    }
+
+    @Test
+    public void testCallSiteCachesGlobalFunction() {
+        final Environment env = new Environment();
+        final CallSite site = new CallSite(SymbolTable.intern("callsitefn"));
+        assertNull(site.function(env));
+
+        final int version = env.definitions();
+        final Function first = createFunction("first");
+        env.addUserBinding(new Binding("callsitefn", first));
+        assertTrue(env.definitions() != version);
+        assertSame(first, site.function(env));
+        assertSame(first, site.function(env));
+
+        final Function second = createFunction("second");
+        env.addUserBinding(new Binding("callsitefn", second));
+        assertSame(second, site.function(env));
+        assertNull(site.function(new Environment()));
+
+        final CallSite core = new CallSite(SymbolTable.intern("plus"));
+        assertSame(env.getBinding("plus"), core.function(env));
+    }
+
+    @Test
+    public void testCallSiteIgnoresLocalNames() {
+        final Environment env = new Environment();
+        final Identifier name = SymbolTable.intern("callsitelocal");
+        env.startScope();
+        env.addBinding(name, createFunction("local"));
+        assertTrue(env.isLocal(name));
+        env.endScope();
+
+        env.addUserBinding(new Binding("callsitelocal", createFunction("global")));
+        assertNotNull(env.getBinding(name));
+        assertNull(new CallSite(name).function(env));
+    }
+
     private static Function createFunction(final String name) {
         return new Function() {
             @Override
@@ -134,4 +320,201 @@ public class EnvironmentTestCase {
     }
 
 
+
+    @Test
+    public void testUserListsAreStoredInArena() {
+        final Arena arena = new ArrayArena();
+        final Environment env = new Environment(arena);
+        final List list = List.create().add(Atom.create(1)).add(Atom.create(2));
+
+        env.addUserBinding(new Binding("XS", list));
+
+        final List bound = (List) env.getBinding("XS");
+        assertTrue(arena.contains(bound.getRoot()));
+        assertEquals(list.toString(), bound.toString());
+        assertEquals(2, arena.size());
+    }
+
+    @Test
+    public void testCollectGarbage() {
+        final Arena arena = new ArrayArena();
+        final Environment env = new Environment(arena);
+        final List big = List.create();
+        for (int i = 0; i < 100000; i++) { big.add(Atom.create(i)); }
+
+        env.addUserBinding(new Binding("XS", big));
+        env.addUserBinding(new Binding("YS", List.create().add(Atom.create("A")).add(big)));
+        assertTrue(arena.isCollectionDue());
+
+        env.addUserBinding(new Binding("XS", List.create().add(Atom.create(1)).add(Atom.create(2))));
+        env.addUserBinding(new Binding("YS", Atom.create(3)));
+        env.collectGarbage();
+
+        assertEquals(2, arena.size());
+        assertFalse(arena.isCollectionDue());
+        assertEquals("( 1 2 )", env.getBinding("XS").toString());
+        assertEquals(3, ((Atom) env.getBinding("YS")).toI());
+    }
+
+    @Test
+    public void testCollectGarbageIsDeferredWithinScope() {
+        final Arena arena = new ArrayArena();
+        final Environment env = new Environment(arena);
+        final List big = List.create();
+        for (int i = 0; i < 100000; i++) { big.add(Atom.create(i)); }
+
+        env.addUserBinding(new Binding("XS", big));
+        env.addUserBinding(new Binding("XS", Atom.create(1)));
+
+        env.startScope();
+        env.collectGarbage();
+        assertEquals(100000, arena.size());
+        env.endScope();
+
+        env.collectGarbage();
+        assertEquals(0, arena.size());
+    }
+
+    @Test
+    public void testCollectGarbageKeepsHashTableContents() {
+        final Arena arena = new ArrayArena();
+        final Environment env = new Environment(arena);
+        final HashTable table = new HashTable(HashTable.Test.EQUAL);
+        final List big = List.create();
+        for (int i = 0; i < 100000; i++) { big.add(Atom.create(i)); }
+
+        env.addUserBinding(new Binding("XS", List.create().add(Atom.create(1)).add(Atom.create(2))));
+        env.addUserBinding(new Binding("GARBAGE", big));
+        env.addUserBinding(new Binding("GARBAGE", Atom.create(0)));
+        table.put((List) env.getBinding("XS"), Atom.create("KEY"));
+        table.put(Atom.create("VALUE"), (List) env.getBinding("XS"));
+        env.addUserBinding(new Binding("XS", Atom.create(0)));
+        env.addUserBinding(new Binding("TABLE", table));
+
+        env.collectGarbage();
+
+        assertEquals(2, arena.size());
+        assertEquals("( 1 2 )", table.get(Atom.create("VALUE")).toString());
+        assertEquals("KEY", table.get(List.create().add(Atom.create(1)).add(Atom.create(2))).toString());
+    }
+
+    /**
+     * Collects the arena while a hash table value is a heap cell whose tail is a list in the
+     * arena: the tail must survive, and the heap cell must be updated to its new location.
+     */
+    @Test
+    public void testCollectGarbageForwardsSharedTails() {
+        final Eval eval = new Eval(new Environment(new ArrayArena()));
+        eval.apply(parse("(SETQ X '(A B C))").root());
+        eval.apply(parse("(SETQ H (MAKE-HASH-TABLE))").root());
+        eval.apply(parse("(PUTHASH 'K (CONS 'Z X) H)").root());
+        eval.apply(parse("(SETQ X 0)").root());
+
+        final List big = List.create();
+        for (int i = 0; i < 70000; i++) { big.add(Atom.create(i)); }
+        eval.environment().addUserBinding(new Binding("GARBAGE", big));
+        eval.environment().addUserBinding(new Binding("GARBAGE", Atom.create(0)));
+        eval.environment().collectGarbage();
+
+        eval.environment().addUserBinding(new Binding("GARBAGE", big));
+        assertEquals("( Z A B C )", eval.apply(parse("(GETHASH 'K H)").root()).toString());
+    }
+
+    /**
+     * Collects the arena while a hash table is only reachable as an element of a list in the
+     * arena, and holds a list in the arena.
+     */
+    @Test
+    public void testCollectGarbageTracesContainersInArenaLists() {
+        final Eval eval = new Eval(new Environment(new ArrayArena()));
+        eval.apply(parse("(SETQ H (MAKE-HASH-TABLE))").root());
+        eval.apply(parse("(SETQ X '(A B C))").root());
+        eval.apply(parse("(PUTHASH 'K X H)").root());
+        eval.apply(parse("(SETQ HS (LIST H))").root());
+        eval.apply(parse("(SETQ H 0)").root());
+        eval.apply(parse("(SETQ X 0)").root());
+
+        final List big = List.create();
+        for (int i = 0; i < 70000; i++) { big.add(Atom.create(i)); }
+        eval.environment().addUserBinding(new Binding("GARBAGE", big));
+        eval.environment().addUserBinding(new Binding("GARBAGE", Atom.create(0)));
+        eval.environment().collectGarbage();
+
+        eval.environment().addUserBinding(new Binding("GARBAGE", big));
+        assertEquals("( A B C )", eval.apply(parse("(GETHASH 'K (CAR HS))").root()).toString());
+    }
+
+    @Test
+    public void testForkSharesUserBindingsButNotScopes() {
+        final Environment env = new Environment();
+        final Environment fork = env.fork();
+
+        env.addUserBinding(new Binding("forkglobal", Atom.create(1)));
+        assertEquals(1, ((Atom) fork.getBinding("forkglobal")).toI());
+        fork.addUserBinding(new Binding("forkglobal", Atom.create(2)));
+        assertEquals(2, ((Atom) env.getBinding("forkglobal")).toI());
+
+        fork.startScope();
+        fork.addBinding("forklocal", Atom.create(3));
+        assertNotNull(fork.getBinding("forklocal"));
+        assertNull(env.getBinding("forklocal"));
+        fork.endScope();
+    }
+
+    @Test
+    public void testDefinitionsAreSharedOnlyWithForks() {
+        final Environment env = new Environment();
+        final Environment fork = env.fork();
+        final Environment other = new Environment();
+        final Identifier name = SymbolTable.intern("familylocal");
+
+        final int version = env.definitions();
+        final int otherVersion = other.definitions();
+        fork.addUserBinding(new Binding("familyglobal", Atom.create(1)));
+        fork.startScope();
+        fork.addBinding(name, Atom.create(2));
+        fork.endScope();
+
+        assertTrue(env.definitions() != version);
+        assertEquals(env.definitions(), fork.definitions());
+        assertTrue(env.isLocal(name));
+        assertEquals(otherVersion, other.definitions());
+        assertFalse(other.isLocal(name));
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testForkWithArenaThrows() {
+        new Environment(new ArrayArena()).fork();
+    }
+
+    /**
+     * Evaluates a recursive function defined in one environment on several threads at once, each
+     * in an environment forked from it, with each thread defining and reading a global of its own.
+     */
+    @Test
+    public void testConcurrentEvaluationInForkedEnvironments() throws Exception {
+        final Eval eval = new Eval();
+        eval.apply(parse("(DEFUN CFIB (N) (IF (< N 2) N (+ (CFIB (- N 1)) (CFIB (- N 2)))))").root());
+
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try {
+            final java.util.List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                final int n = i;
+                results.add(pool.submit(() -> {
+                    final Eval forked = new Eval(eval.environment().fork());
+                    forked.apply(parse("(SETQ CGLOBAL" + n + " " + n + ")").root());
+                    return forked.apply(parse("(+ (CFIB 15) CGLOBAL" + n + ")").root()).toAtom().toI();
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(610 + i, results.get(i).get().intValue());
+                assertEquals(i, ((Atom) eval.environment().getBinding("CGLOBAL" + i)).toI());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
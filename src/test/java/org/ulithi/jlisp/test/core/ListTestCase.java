@@ -108,6 +108,88 @@ public class ListTestCase {
         assertEquals(6, outerList.size().toI());
     }
 
+    @Test
+    public void testLengthAfterAddAndAppend() {
+        final List list = List.create();
+        assertEquals(0, list.lengthAsInt());
+
+        list.add(Atom.create(1)).add(Atom.create(2)).add(newSublist("A", "B"));
+        assertEquals(3, list.lengthAsInt());
+
+        list.append(newSublist("C", "D"));
+        assertEquals(5, list.lengthAsInt());
+
+        list.add(Atom.create(6));
+        assertEquals(6, list.lengthAsInt());
+    }
+
+    @Test
+    public void testLengthAfterCellIsModified() {
+        final List list = List.create()
+                .add(Atom.create(1))
+                .add(Atom.create(2))
+                .add(Atom.create(3));
+        assertEquals(3, list.lengthAsInt());
+
+        final Cell second = list.getRoot().getRest().toCell();
+        second.setRest(Cell.create(Atom.create(4)).getRest());
+        assertEquals(2, list.lengthAsInt());
+
+        second.setRest(newSublist("5", "6").getRoot());
+        assertEquals(4, list.lengthAsInt());
+    }
+
+    @Test
+    public void testLengthOfListCreatedFromCell() {
+        final List list = List.create()
+                .add(Atom.create(1))
+                .add(Atom.create(2))
+                .add(Atom.create(3));
+
+        final List tail = list.cdr().toList();
+        assertEquals(2, tail.lengthAsInt());
+
+        tail.add(Atom.create(4));
+        assertEquals(2, tail.lengthAsInt());
+        assertEquals(3, list.lengthAsInt());
+    }
+
+    @Test
+    public void testCachedLengthSurvivesUnrelatedListConstruction() {
+        final List list = newSublist("1", "2").add(Atom.create(3));
+        assertEquals(3, list.lengthAsInt());
+
+        final long mutations = Cell.mutations();
+        final List other = List.create();
+        for (int i = 0; i < 100; i++) { other.add(Atom.create(i)); }
+        other.add(newSublist("A", "B")).append(newSublist("C", "D"));
+
+        assertEquals(mutations, Cell.mutations());
+        assertEquals(3, list.lengthAsInt());
+        assertEquals(103, other.lengthAsInt());
+    }
+
+    @Test
+    public void testLengthAfterSharedTailIsExtended() {
+        final List list = newSublist("1", "2");
+        final List consed = List.cons(Atom.create(0), list);
+        assertEquals(3, consed.lengthAsInt());
+
+        list.add(Atom.create(3));
+        assertEquals(3, list.lengthAsInt());
+        assertEquals(4, consed.lengthAsInt());
+    }
+
+    @Test
+    public void testHashAfterAdd() {
+        final List list = newSublist("1", "2");
+        final int before = list.sxhash();
+
+        list.add(Atom.create(3));
+        assertFalse(before == list.sxhash());
+        assertEquals(newSublist("1", "2").add(Atom.create(3)).sxhash(), list.sxhash());
+    }
+
     private static List newSublist(final String lhs, final String rhs) {
         return List.create()
                 .add(Atom.create(lhs))
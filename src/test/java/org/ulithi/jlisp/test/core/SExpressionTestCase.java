@@ -2,6 +2,7 @@ package org.ulithi.jlisp.test.core;
 
 import org.junit.Test;
 import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.List;
 import org.ulithi.jlisp.core.SExpression;
 import org.ulithi.jlisp.mem.Cell;
 import org.ulithi.jlisp.mem.NilReference;
@@ -11,6 +12,7 @@ import org.ulithi.jlisp.mem.Ref;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.eval;
 import static org.ulithi.jlisp.test.suite.UnitTestUtilities.parse;
 
 /**
@@ -125,4 +127,66 @@ public class SExpressionTestCase {
         assertTrue(sexp.isList());
         assertEquals("( B C D )", String.valueOf(sexp));
     }
+
+    @Test
+    public void testIsEqual() {
+        assertTrue(eval("'(1 (2 3) () APPLE 2.5)").isEqual(eval("'(1 (2 3) () APPLE 2.5)")));
+        assertFalse(eval("'(1 (2 3))").isEqual(eval("'(1 (2 4))")));
+        assertFalse(eval("'(1 (2 3))").isEqual(eval("'(1 (2 3) 4)")));
+        assertFalse(eval("'(1 (2 3))").isEqual(eval("'(1 2 3)")));
+        assertFalse(eval("'(1 2)").isEqual(eval("'(1.0 2)")));
+        assertFalse(eval("'(1 ())").isEqual(eval("'(1 NIL)")));
+    }
+
+    @Test
+    public void testIsEqualLongList() {
+        final List lhs = List.create();
+        final List rhs = List.create();
+
+        for (int i = 0; i < 100000; i++) {
+            lhs.add(Atom.create(i));
+            rhs.add(Atom.create(i));
+        }
+
+        assertTrue(lhs.isEqual(rhs));
+        assertEquals(lhs.sxhash(), rhs.sxhash());
+
+        rhs.add(Atom.create(0));
+        assertFalse(lhs.isEqual(rhs));
+    }
+
+    @Test
+    public void testIsEqualDeeplyNestedList() {
+        List lhs = List.create().add(Atom.create(0));
+        List rhs = List.create().add(Atom.create(0));
+
+        for (int i = 0; i < 100000; i++) {
+            lhs = List.create().add(lhs);
+            rhs = List.create().add(rhs);
+        }
+
+        assertTrue(lhs.isEqual(rhs));
+        assertEquals(lhs.sxhash(), rhs.sxhash());
+    }
+
+    @Test
+    public void testSxhashIsStructural() {
+        assertEquals(eval("'(A (B 1) 2.5)").sxhash(), eval("'(A (B 1) 2.5)").sxhash());
+        assertEquals(Atom.create(7).sxhash(), Atom.create(7L).sxhash());
+        assertFalse(eval("'((1 2) 3)").sxhash() == eval("'(1 (2 3))").sxhash());
+        assertFalse(eval("'(1 2)").sxhash() == eval("'(1.0 2)").sxhash());
+    }
+
+    @Test
+    public void testSxhashSeesMutation() {
+        final List list = eval("'(1 2 3)").toList();
+        final List copy = eval("'(1 2 3)").toList();
+        final int hash = list.sxhash();
+
+        list.getRoot().setFirst(Atom.create(4));
+
+        assertFalse(hash == list.sxhash());
+        assertFalse(list.isEqual(copy));
+        assertEquals(eval("'(4 2 3)").sxhash(), list.sxhash());
+    }
 }
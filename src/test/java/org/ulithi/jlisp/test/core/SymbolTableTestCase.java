@@ -0,0 +1,39 @@
+package org.ulithi.jlisp.test.core;
+
+import org.junit.Test;
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.Identifier;
+import org.ulithi.jlisp.core.SymbolTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for {@link SymbolTable} and {@link Identifier}.
+ */
+public class SymbolTableTestCase {
+
+    @Test
+    public void testInternIsCaseInsensitive() {
+        final Identifier lower = SymbolTable.intern("widget");
+        assertSame(lower, SymbolTable.intern("WIDGET"));
+        assertSame(lower, SymbolTable.intern("Widget"));
+        assertSame(lower, SymbolTable.intern(new String("wIdGeT")));
+        assertEquals("widget", lower.name());
+        assertEquals("widget", lower.toString());
+    }
+
+    @Test
+    public void testDistinctNamesHaveDistinctIdentifiers() {
+        assertNotSame(SymbolTable.intern("gadget"), SymbolTable.intern("gidget"));
+    }
+
+    @Test
+    public void testAtomIdentifier() {
+        assertSame(SymbolTable.intern("car"), Atom.create("CAR").identifier());
+        assertSame(SymbolTable.intern("+"), Atom.createSymbol("+").identifier());
+        assertSame(SymbolTable.intern("t"), Atom.T.identifier());
+        assertSame(SymbolTable.intern("nil"), Atom.NIL.identifier());
+    }
+}
@@ -0,0 +1,84 @@
+package org.ulithi.jlisp.test.core;
+
+import org.junit.Test;
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.core.Vector;
+import org.ulithi.jlisp.exception.EvaluationException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.eval;
+
+/**
+ * Unit tests for {@link org.ulithi.jlisp.core.Vector}.
+ */
+public class VectorTestCase {
+
+    @Test
+    public void testFixnumVectorIsUnboxed() {
+        final Vector vector = Vector.create(3, Atom.create(7));
+
+        assertNotNull(vector.longs());
+        assertNull(vector.doubles());
+        assertEquals(3, vector.length());
+        assertEquals(7, vector.get(2).toAtom().toI());
+
+        vector.set(1, Atom.create(8));
+        assertEquals(8, vector.longs()[1]);
+        assertEquals("#( 7 8 7 )", vector.toString());
+    }
+
+    @Test
+    public void testFloatVectorIsUnboxed() {
+        final Vector vector = Vector.of(Atom.create(1.5), Atom.create(2.5));
+
+        assertNotNull(vector.doubles());
+        assertEquals(2.5, vector.get(1).toAtom().toD(), 0.0);
+    }
+
+    @Test
+    public void testStoringOtherValueGeneralizes() {
+        final Vector vector = Vector.of(Atom.create(1), Atom.create(2));
+
+        vector.set(0, Atom.create(1.5));
+
+        assertNull(vector.longs());
+        assertNull(vector.doubles());
+        assertTrue(vector.get(0).toAtom().isFloat());
+        assertEquals(2, vector.get(1).toAtom().toI());
+    }
+
+    @Test
+    public void testGeneralVector() {
+        final SExpression list = eval("'(1 2)");
+        final Vector vector = Vector.of(Atom.create("A"), list);
+
+        assertNull(vector.longs());
+        assertEquals(list, vector.get(1));
+        assertEquals("#( A ( 1 2 ) )", vector.toString());
+        assertEquals("#( )", Vector.of().toString());
+    }
+
+    @Test
+    public void testVectorIsOnlyEqlToItself() {
+        final Vector vector = Vector.of(Atom.create(1));
+
+        assertTrue(vector.eql(vector));
+        assertFalse(vector.eql(Vector.of(Atom.create(1))));
+        assertTrue(vector.toB());
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testIndexOutOfBounds() {
+        Vector.create(2, Atom.NIL).get(2);
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testNegativeLength() {
+        Vector.create(-1, Atom.NIL);
+    }
+}
@@ -4,10 +4,21 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.ulithi.jlisp.main.Interpreter;
+import org.ulithi.jlisp.mem.DirectArena;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -81,4 +92,91 @@ public class InterpreterTestCase {
         result = lisp.offer("(+ 1 2 3)");
         assertTrue(result.isPresent() && result.get());
     }
+
+    /**
+     * Loads a multi-line program, and checks the result of each form as written to STDOUT.
+     */
+    @Test
+    public void testLoad() {
+        final PrintStream out = System.out;
+        final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+        try {
+            System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+            assertTrue(lisp.load(new StringReader("(DEFUN DOUBLE (X)\n  (* X 2))\n(DOUBLE 21)\n(EXPECT (DOUBLE 2) 4)")));
+        } finally {
+            System.setOut(out);
+        }
+
+        final String[] results = captured.toString(StandardCharsets.UTF_8).trim().split("\\s+");
+        assertEquals(3, results.length);
+        assertEquals("42", results[1]);
+        assertEquals("T", results[2]);
+    }
+
+    @Test
+    public void testLoadContinuesAfterEvaluationError() {
+        assertFalse(lisp.load(new StringReader("(CAR 1 2 3) (DEFUN TRIPLE (X) (* X 3))")));
+        assertTrue(lisp.load(new StringReader("(EXPECT (TRIPLE 2) 6)")));
+    }
+
+    @Test
+    public void testLoadStopsAtParseError() {
+        assertFalse(lisp.load(new StringReader("(+ 1 2)) (DEFUN TRIPLE (X) (* X 3))")));
+    }
+
+    /**
+     * Evaluates forms with the list values of global variables stored off the Java heap.
+     */
+    @Test
+    public void testOffHeapArena() {
+        final Interpreter offHeap = new Interpreter(new DirectArena());
+        final PrintStream out = System.out;
+        final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+        try {
+            System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+            assertTrue(offHeap.load(new StringReader("(SETQ L '(1 2 3))\n(SETQ L (CONS 0 L))\n(SUM L)\n(CAR (CDR L))")));
+        } finally {
+            System.setOut(out);
+        }
+
+        final String[] results = captured.toString(StandardCharsets.UTF_8).trim().split("\\s+");
+        assertEquals("6", results[results.length - 2]);
+        assertEquals("1", results[results.length - 1]);
+    }
+
+    /**
+     * Loads a function on one thread, then calls it from scripts loaded on several threads at
+     * once, each of which also binds globals and calls functions with parameters of the same name.
+     */
+    @Test
+    public void testConcurrentLoad() throws Exception {
+        assertTrue(lisp.load(new StringReader("(DEFUN SQUARE (X) (* X X))")));
+
+        final PrintStream out = System.out;
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try {
+            System.setOut(new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+            final List<Future<Boolean>> results = new ArrayList<>();
+
+            for (int i = 0; i < 16; i++) {
+                final int n = i;
+                results.add(pool.submit(() -> lisp.load(new StringReader(
+                        "(SETQ V" + n + " (SQUARE " + n + "))\n" +
+                        "(DEFUN ADDV" + n + " (X) (+ X V" + n + "))\n" +
+                        "(EXPECT (ADDV" + n + " (SQUARE 2)) " + (n * n + 4) + ")"))));
+            }
+
+            for (final Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+            System.setOut(out);
+        }
+
+        assertTrue(lisp.load(new StringReader("(EXPECT (ADDV3 1) 10)")));
+    }
 }
@@ -0,0 +1,211 @@
+package org.ulithi.jlisp.test.mem;
+
+import org.junit.Test;
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.FixnumAtom;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.mem.Arena;
+import org.ulithi.jlisp.mem.ArrayArena;
+import org.ulithi.jlisp.mem.Cell;
+import org.ulithi.jlisp.mem.Cursor;
+import org.ulithi.jlisp.mem.DirectArena;
+import org.ulithi.jlisp.mem.NilReference;
+import org.ulithi.jlisp.mem.Ref;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.eval;
+
+/**
+ * Unit tests for {@link org.ulithi.jlisp.mem.Arena} and {@link org.ulithi.jlisp.mem.ArrayArena}.
+ */
+public class ArenaTestCase {
+
+    @Test
+    public void testFixnumWords() {
+        for (final long value : new long[]{ 0, 1, -1, Arena.FIXNUM_MIN, Arena.FIXNUM_MAX }) {
+            final int word = Arena.fixnum(value);
+            assertTrue(Arena.isFixnum(word));
+            assertFalse(Arena.isCell(word));
+            assertEquals(value, Arena.fixnumValue(word));
+        }
+    }
+
+    @Test
+    public void testConsCarCdr() {
+        final Arena arena = new ArrayArena(1);
+        final int tail = arena.cons(Arena.fixnum(2), Arena.NIL_WORD);
+        final int list = arena.cons(Arena.fixnum(1), tail);
+
+        assertEquals(2, arena.size());
+        assertEquals(1, Arena.fixnumValue(arena.car(list)));
+        assertEquals(tail, arena.cdr(list));
+        assertEquals(Arena.NIL_WORD, arena.cdr(tail));
+        assertEquals(2, arena.length(list));
+        assertEquals(0, arena.length(Arena.NIL_WORD));
+    }
+
+    @Test
+    public void testStoreAtoms() {
+        final Arena arena = new ArrayArena();
+        final Atom symbol = Atom.create("APPLE");
+        final Atom big = Atom.create(Arena.FIXNUM_MAX + 1);
+
+        assertEquals(Arena.NIL_WORD, arena.store(NilReference.NIL));
+        assertSame(NilReference.NIL, arena.load(Arena.NIL_WORD));
+        assertTrue(Arena.isFixnum(arena.store(Atom.create(42))));
+        assertSame(symbol, arena.load(arena.store(symbol)));
+        assertEquals(arena.store(symbol), arena.store(symbol));
+        assertEquals(big.toL(), arena.load(arena.store(big)).toAtom().toL());
+        assertSame(Atom.NIL, arena.load(arena.store(Atom.NIL)));
+        assertEquals(0, arena.size());
+    }
+
+    @Test
+    public void testCopyList() {
+        final Arena arena = new ArrayArena();
+        final List list = eval("'(1 (2 3) () APPLE 2.5)").toList();
+        final List copy = arena.copyOf(list);
+
+        assertEquals(list.toString(), copy.toString());
+        assertTrue(list.isEqual(copy));
+        assertEquals(5, copy.lengthAsInt());
+        assertEquals(5, arena.length(arena.store(copy.getRoot())));
+        assertEquals(2, copy.cdr().toList().car().toList().lengthAsInt());
+        assertTrue(copy.cdr().toList().cdr().toList().car().toList().isEmpty());
+    }
+
+    @Test
+    public void testStoreCellInArenaIsNotCopied() {
+        final Arena arena = new ArrayArena();
+        final List copy = arena.copyOf(eval("'(1 2 3)").toList());
+        final int size = arena.size();
+
+        assertEquals(arena.store(copy.getRoot()), arena.store(copy.getRoot()));
+        assertEquals(copy.getRoot(), arena.load(arena.store(copy.getRoot())));
+        assertEquals(size, arena.size());
+    }
+
+    @Test
+    public void testCursorOverArena() {
+        final Arena arena = new ArrayArena();
+        final List copy = arena.copyOf(eval("'(1 2 3)").toList());
+        final Cursor it = copy.cells();
+        long sum = 0;
+
+        while (it.hasNext()) { sum += it.nextAtom().toL(); }
+
+        assertEquals(6, sum);
+    }
+
+    @Test
+    public void testSetRestOfArenaCell() {
+        final Arena arena = new ArrayArena();
+        final List copy = arena.copyOf(eval("'(1 2 3)").toList());
+        assertEquals(3, copy.lengthAsInt());
+
+        final Cell second = copy.getRoot().getRest().toCell();
+        second.setRest(eval("'(4 5)").toList().getRoot());
+
+        assertEquals(eval("'(1 2 4 5)").toString(), copy.toString());
+        assertEquals(4, copy.lengthAsInt());
+    }
+
+    @Test
+    public void testSetFirstOfArenaCell() {
+        final Arena arena = new ArrayArena();
+        final int list = arena.store(eval("'(1 2)").toList().getRoot());
+        final Ref root = arena.load(list);
+
+        root.toCell().setFirst(Atom.create(1000000000L));
+        assertTrue(root.toCell().getFirst() instanceof FixnumAtom);
+        assertEquals(1000000000L, root.toCell().getFirst().toAtom().toL());
+        assertFalse(Arena.isFixnum(arena.car(list)));
+    }
+
+    @Test
+    public void testArenaListAsArgument() {
+        final Arena arena = new ArrayArena();
+        final List numbers = arena.copyOf(eval("'(1 2 3 4)").toList());
+        final SExpression sum = new org.ulithi.jlisp.primitive.Bulk.SUM()
+                .apply(List.create().add(numbers));
+
+        assertEquals(10, sum.toAtom().toI());
+    }
+
+    @Test
+    public void testLongList() {
+        final Arena arena = new ArrayArena(16);
+        final int count = 100000;
+        int list = Arena.NIL_WORD;
+
+        for (int i = count; i > 0; i--) { list = arena.cons(Arena.fixnum(i), list); }
+
+        assertEquals(count, arena.length(list));
+        assertEquals(count, List.create(arena.load(list)).lengthAsInt());
+
+        long sum = 0;
+        for (int it = list; Arena.isCell(it); it = arena.cdr(it)) {
+            sum += Arena.fixnumValue(arena.car(it));
+        }
+        assertEquals((long) count * (count + 1) / 2, sum);
+    }
+
+    @Test
+    public void testCollect() {
+        final Arena arena = new ArrayArena();
+        arena.store(eval("'(GARBAGE 1 2 3)").toList().getRoot());
+        final int list = arena.store(eval("'(1 (2 3) APPLE)").toList().getRoot());
+        final int shared = arena.cdr(list);
+        final int[] roots = { list, arena.cons(Arena.fixnum(0), shared), Arena.fixnum(7) };
+
+        assertEquals(4 + 5 + 1, arena.size());
+        assertEquals(6, arena.collect(roots));
+        assertEquals(6, arena.size());
+
+        assertEquals("( 1 ( 2 3 ) APPLE )", List.create(arena.load(roots[0])).toString());
+        assertEquals("( 0 ( 2 3 ) APPLE )", List.create(arena.load(roots[1])).toString());
+        assertEquals(arena.cdr(roots[0]), arena.cdr(roots[1]));
+        assertEquals(7, Arena.fixnumValue(roots[2]));
+    }
+
+    @Test
+    public void testCollectEverything() {
+        final Arena arena = new ArrayArena();
+        arena.store(eval("'(1 2 3)").toList().getRoot());
+        assertEquals(0, arena.collect(new int[0]));
+        assertEquals(0, arena.size());
+        assertEquals(1, arena.length(arena.cons(Arena.fixnum(1), Arena.NIL_WORD)));
+    }
+
+    @Test
+    public void testCollectLongList() {
+        final Arena arena = new ArrayArena();
+        int list = Arena.NIL_WORD;
+        for (int i = 0; i < 100000; i++) {
+            arena.cons(Arena.fixnum(i), Arena.NIL_WORD);
+            list = arena.cons(Arena.fixnum(i), list);
+        }
+
+        final int[] roots = { list };
+        assertEquals(100000, arena.collect(roots));
+        assertEquals(100000, arena.length(roots[0]));
+        assertEquals(99999, Arena.fixnumValue(arena.car(roots[0])));
+    }
+
+    @Test
+    public void testDirectArena() {
+        final Arena arena = new DirectArena(2);
+        final List copy = arena.copyOf(eval("'(1 (2 3) APPLE 4.5)").toList());
+
+        assertEquals("( 1 ( 2 3 ) APPLE 4.5 )", copy.toString());
+        assertEquals(6, arena.size());
+
+        final int[] roots = { arena.store(copy.cdr().toList().car().toList().getRoot()) };
+        assertEquals(2, arena.collect(roots));
+        assertEquals("( 2 3 )", List.create(arena.load(roots[0])).toString());
+    }
+}
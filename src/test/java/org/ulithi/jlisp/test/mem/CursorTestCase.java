@@ -0,0 +1,80 @@
+package org.ulithi.jlisp.test.mem;
+
+import org.junit.Test;
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.List;
+import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.exception.TypeConversionException;
+import org.ulithi.jlisp.mem.Cursor;
+import org.ulithi.jlisp.mem.NilReference;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link org.ulithi.jlisp.mem.Cursor}.
+ */
+public class CursorTestCase {
+
+    @Test
+    public void testEmptyList() {
+        assertFalse(List.create().cells().hasNext());
+        assertFalse(new Cursor(NilReference.NIL).hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextPastEndIsError() {
+        final Cursor it = List.create().add(Atom.create(1)).cells();
+        it.next();
+        it.next();
+    }
+
+    @Test
+    public void testWalksTopLevelElements() {
+        final List sublist = List.create().add(Atom.create(2)).add(Atom.create(3));
+        final List list = List.create().add(Atom.create(1)).add(sublist).add(Atom.create(4));
+        final Cursor it = list.cells();
+
+        assertEquals(1, it.nextAtom().toI());
+        final SExpression second = it.nextExpression();
+        assertTrue(second.isList());
+        assertSame(sublist.getRoot(), second.toList().getRoot());
+        assertTrue(it.hasNext());
+        assertEquals(4, it.nextAtom().toI());
+        assertFalse(it.hasNext());
+    }
+
+    @Test(expected = TypeConversionException.class)
+    public void testNextAtomOfListIsError() {
+        final List list = List.create().add(List.create().add(Atom.create(1)));
+        list.cells().nextAtom();
+    }
+
+    @Test
+    public void testRestAndReset() {
+        final List list = List.create().add(Atom.create(1)).add(Atom.create(2));
+        final Cursor it = list.cells();
+
+        it.next();
+        assertEquals(1, List.create(it.rest()).lengthAsInt());
+        it.next();
+        assertTrue(it.rest().isNil());
+
+        it.reset(list.getRoot());
+        assertEquals(1, it.nextAtom().toI());
+    }
+
+    @Test
+    public void testForEach() {
+        final List list = List.create().add(Atom.create(1)).add(Atom.create(2)).add(Atom.create(3));
+        final java.util.List<SExpression> elements = new ArrayList<>();
+        list.forEach(elements::add);
+        assertEquals(3, elements.size());
+        assertEquals(3, elements.get(2).toAtom().toI());
+    }
+}
@@ -0,0 +1,165 @@
+package org.ulithi.jlisp.test.parser;
+
+import org.junit.Test;
+import org.ulithi.jlisp.exception.ParseException;
+import org.ulithi.jlisp.mem.PTree;
+import org.ulithi.jlisp.parser.FormReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.parse;
+
+/**
+ * Unit tests for {@link FormReader}.
+ */
+public class FormReaderTestCase {
+
+    @Test
+    public void testEmptyInput() {
+        assertFalse(new FormReader(new StringReader("")).hasNext());
+        assertFalse(new FormReader(new StringReader("  \n ; Just a comment\n")).hasNext());
+    }
+
+    @Test
+    public void testSingleForm() {
+        assertEquals(toList("(+ 1 2)"), readAll("(+ 1 2)"));
+    }
+
+    @Test
+    public void testMultipleForms() {
+        assertEquals(toList("(DEFUN F (X) (+ X 1))", "(F 2)", "FOO", "(QUOTE (A B))", "(QUOTE C)"),
+                     readAll("(DEFUN F (X)\n  (+ X 1)) ; Increment\n(F 2) FOO '(A B) 'C"));
+    }
+
+    /**
+     * Forms and tokens that span chunks of input are reassembled correctly.
+     */
+    @Test
+    public void testFormsSpanningReads() {
+        final String program = "(DEFUN FOO (ALPHA BETA) (+ ALPHA BETA -123))\n" +
+                               "(FOO 1000 -2000) '(X Y) ; Trailing comment";
+
+        for (int chunk = 1; chunk <= 5; chunk++) {
+            final FormReader forms = new FormReader(new ChunkedReader(program, chunk));
+            final List<String> unparsed = new ArrayList<>();
+            while (forms.hasNext()) {
+                unparsed.add(forms.next().unparse());
+            }
+            assertEquals(toList("(DEFUN FOO (ALPHA BETA) (+ ALPHA BETA -123))",
+                                "(FOO 1000 -2000)",
+                                "'(X Y)"), unparsed);
+        }
+    }
+
+    /**
+     * Floats and ratios that span chunks of input are reassembled correctly.
+     */
+    @Test
+    public void testNumbersSpanningReads() {
+        final String program = "(LIST 12.5E-3 -3/4 7.25)";
+
+        for (int chunk = 1; chunk <= 5; chunk++) {
+            final FormReader forms = new FormReader(new ChunkedReader(program, chunk));
+            assertEquals(toList("(LIST 0.0125 -3/4 7.25)"), toList(forms.next()));
+            assertFalse(forms.hasNext());
+        }
+    }
+
+    /**
+     * A token longer than the lexer's read buffer is read intact.
+     */
+    @Test
+    public void testLongToken() {
+        final String atom = "A".repeat(20000);
+        assertEquals(toList("(LIST " + atom + ")"), readAll("(LIST " + atom + ")"));
+    }
+
+    @Test(expected = ParseException.class)
+    public void testIncompleteFormThrows() {
+        readAll("(+ 1 2) (+ 3");
+    }
+
+    @Test(expected = ParseException.class)
+    public void testMismatchedParenthesesThrows() {
+        readAll("(+ 1 2))");
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextPastEndThrows() {
+        final FormReader forms = new FormReader(new StringReader("A"));
+        forms.next();
+        forms.next();
+    }
+
+    @Test
+    public void testHasNextIsIdempotent() {
+        final FormReader forms = new FormReader(new StringReader("(A) (B)"));
+        assertTrue(forms.hasNext());
+        assertTrue(forms.hasNext());
+        assertEquals(toList("(A)", "(B)"), toList(forms.next(), forms.next()));
+        assertFalse(forms.hasNext());
+    }
+
+    private static List<String> readAll(final String program) {
+        final FormReader forms = new FormReader(new StringReader(program));
+        final List<String> unparsed = new ArrayList<>();
+        forms.forEachRemaining(pTree -> unparsed.add(unparse(pTree)));
+        return unparsed;
+    }
+
+    private static String unparse(final PTree pTree) {
+        return pTree.unparse();
+    }
+
+    private static List<String> toList(final PTree... pTrees) {
+        final List<String> unparsed = new ArrayList<>();
+        for (final PTree pTree : pTrees) {
+            unparsed.add(unparse(pTree));
+        }
+        return unparsed;
+    }
+
+    /**
+     * Returns the unparsed form of each of the given expressions, as parsed individually by the
+     * {@link org.ulithi.jlisp.parser.Lexer} and {@link org.ulithi.jlisp.parser.Parser}.
+     */
+    private static List<String> toList(final String... expressions) {
+        final List<String> unparsed = new ArrayList<>();
+        for (final String expression : expressions) {
+            unparsed.add(unparse(parse(expression)));
+        }
+        return unparsed;
+    }
+
+    /**
+     * A {@link Reader} that returns at most {@code chunk} characters per read, to exercise
+     * forms and tokens that are split across reads.
+     */
+    private static class ChunkedReader extends Reader {
+        private final Reader delegate;
+        private final int chunk;
+
+        ChunkedReader(final String text, final int chunk) {
+            this.delegate = new StringReader(text);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            return delegate.read(cbuf, off, Math.min(len, chunk));
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
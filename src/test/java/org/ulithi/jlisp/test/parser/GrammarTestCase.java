@@ -20,5 +20,11 @@ public class GrammarTestCase {
         assertFalse("+ 43".matches(NUMERIC_LITERAL));
         assertFalse("-".matches(NUMERIC_LITERAL));
         assertFalse("- 43".matches(NUMERIC_LITERAL));
+        assertTrue("4.3".matches(NUMERIC_LITERAL));
+        assertTrue("-4.3e+10".matches(NUMERIC_LITERAL));
+        assertTrue("+4/3".matches(NUMERIC_LITERAL));
+        assertFalse("4.".matches(NUMERIC_LITERAL));
+        assertFalse("4e10".matches(NUMERIC_LITERAL));
+        assertFalse("4/3.5".matches(NUMERIC_LITERAL));
     }
 }
@@ -1,16 +1,23 @@
 package org.ulithi.jlisp.test.parser;
 
-import org.junit.Ignore;
 import org.junit.Test;
 import org.ulithi.jlisp.exception.ParseException;
 import org.ulithi.jlisp.parser.Lexer;
+import org.ulithi.jlisp.parser.TokenBuffer;
+import org.ulithi.jlisp.parser.TokenKind;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Unit tests for {@link org.ulithi.jlisp.parser.Lexer}. There are lots of tests for handling
@@ -64,14 +71,57 @@ public class LexerTestCase {
     }
 
     /**
-     * These test cases should pass but currently don't due to limitations in the current
-     * lexer implementation.
+     * A symbol that starts with a letter may contain hyphens; a leading hyphen is still a sign.
      */
     @Test
-    @Ignore
-    public void brokenTestCases() {
+    public void testTokenizeHyphenatedAtom() {
         assertEquals(toList("this-is-an-atom"),
                      tokenize("this-is-an-atom"));
+        assertEquals(toList("(", "MAKE-HASH-TABLE", "-", "A", "-1", ")"),
+                     tokenize("(MAKE-HASH-TABLE - A -1)"));
+    }
+
+    /**
+     * Signs start a numeric token only when followed by digits; otherwise they stand alone.
+     * Numbers are converted when scanned, so their text is normalized: e.g. "+3" becomes "3".
+     */
+    @Test
+    public void testTokenizeSignsAndSymbols() {
+        assertEquals(toList("(", "+", "1", "-2", "3", ")"),
+                     tokenize("(+ 1 -2 +3)"));
+        assertEquals(toList("(", "-", "5", "2", ")"),
+                     tokenize("(- 5 2)"));
+        assertEquals(toList("(", "<", "A1", "2B", ")"),
+                     tokenize("(< A1 2B)"));
+        assertEquals(toList("(", "A", ".", "B", ")"),
+                     tokenize("(A . B)"));
+        assertEquals(toList("-1", "A"),
+                     tokenize("-1A"));
+    }
+
+    /**
+     * Unrecognized characters, including non-ASCII characters and carriage returns, are skipped.
+     */
+    @Test
+    public void testTokenizeSkipsUnrecognizedCharacters() {
+        assertEquals(toList("(", "A", "B", ")"),
+                     tokenize("(A\r\n\tB\u00e9)"));
+    }
+
+    /**
+     * The lexer accepts any {@link CharSequence}, and scans long identifiers in a single pass.
+     */
+    @Test
+    public void testTokenizeCharSequence() {
+        final StringBuilder identifier = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            identifier.append(i % 2 == 0 ? 'A' : '9');
+        }
+
+        final Lexer lexer = new Lexer();
+        lexer.append(new StringBuilder("(LIST ").append(identifier).append(')'));
+        assertTrue(lexer.isComplete());
+        assertEquals(toList("(", "LIST", identifier.toString(), ")"), lexer.getTokens());
     }
 
     @Test
@@ -206,6 +256,142 @@ public class LexerTestCase {
         assertTrue(lexer.getTokens().isEmpty());
     }
 
+    @Test
+    public void testNextForm() {
+        final Lexer lexer = new Lexer();
+        lexer.append("(+ 1 2) FOO 'BAR (CAR");
+        assertTrue(lexer.hasCompleteForm());
+        assertEquals(toList("(", "+", "1", "2", ")"), lexer.nextForm().toList());
+        assertEquals(toList("FOO"), lexer.nextForm().toList());
+        assertEquals(toList("(", "QUOTE", "BAR", ")"), lexer.nextForm().toList());
+        assertFalse(lexer.hasCompleteForm());
+        assertEquals(toList("(", "CAR"), lexer.getTokens());
+
+        lexer.append(" '(A B))");
+        assertTrue(lexer.hasCompleteForm());
+        assertEquals(toList("(", "CAR", "(", "QUOTE", "(", "A", "B", ")", ")", ")"), lexer.nextForm().toList());
+        assertFalse(lexer.hasCompleteForm());
+        assertFalse(lexer.hasTokens());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextFormWithoutCompleteFormThrows() {
+        final Lexer lexer = new Lexer();
+        lexer.append("(+ 1");
+        lexer.nextForm();
+    }
+
+    /**
+     * Input streams are read to the end, without trimming or otherwise altering the text.
+     */
+    @Test
+    public void testAppendInputStream() throws IOException {
+        final Lexer lexer = new Lexer();
+        lexer.append(new ByteArrayInputStream("(list alpha\n -12 beta)".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(lexer.isComplete());
+        assertEquals(toList("(", "list", "alpha", "-12", "beta", ")"), lexer.getTokens());
+    }
+
+    /**
+     * Each token's kind is determined by the lexer, and numbers are converted once.
+     */
+    @Test
+    public void testTokenKinds() {
+        final Lexer lexer = new Lexer();
+        lexer.append("(CONS -12 '(NIL A1 +))");
+        final TokenBuffer tokens = lexer.getTokenBuffer();
+
+        assertEquals(Arrays.asList(TokenKind.LPAREN, TokenKind.IDENTIFIER, TokenKind.NUMBER,
+                                   TokenKind.LPAREN, TokenKind.IDENTIFIER, TokenKind.LPAREN,
+                                   TokenKind.NIL, TokenKind.IDENTIFIER, TokenKind.SYMBOL,
+                                   TokenKind.RPAREN, TokenKind.RPAREN, TokenKind.RPAREN),
+                     kinds(tokens));
+        assertEquals(-12, tokens.longValue(2));
+        assertEquals("QUOTE", tokens.text(4));
+        assertEquals('+', tokens.symbol(8));
+    }
+
+    /**
+     * Floats and ratios are single tokens, whose text is kept for the parser.
+     */
+    @Test
+    public void testRealTokens() {
+        final Lexer lexer = new Lexer();
+        lexer.append("(+ 2.5 -1.25E-3 3/4 +7/2 1. 1/X)");
+        final TokenBuffer tokens = lexer.getTokenBuffer();
+
+        assertEquals(Arrays.asList(TokenKind.LPAREN, TokenKind.SYMBOL, TokenKind.REAL,
+                                   TokenKind.REAL, TokenKind.REAL, TokenKind.REAL,
+                                   TokenKind.NUMBER, TokenKind.SYMBOL, TokenKind.NUMBER,
+                                   TokenKind.SYMBOL, TokenKind.IDENTIFIER, TokenKind.RPAREN),
+                     kinds(tokens));
+        assertEquals("2.5", tokens.text(2));
+        assertEquals("-1.25E-3", tokens.text(3));
+        assertEquals("3/4", tokens.text(4));
+        assertEquals("+7/2", tokens.text(5));
+        assertEquals("-1.25E-3", tokens.slice(3, 4).text(0));
+        assertEquals(TokenKind.REAL, tokens.slice(3, 4).kind(0));
+    }
+
+    @Test
+    public void testRatioWithZeroDenominatorThrows() {
+        try {
+            tokenize("(+ 1 3/00)");
+            fail("Lexer should throw exception if a ratio's denominator is zero");
+        } catch (final ParseException e) {
+            assertEquals("Division by zero at line 1, column 6: 3/00", e.getMessage());
+        }
+    }
+
+    /**
+     * Tokens carry the line and column where they appear, across multiple appends.
+     */
+    @Test
+    public void testTokenPositions() {
+        final Lexer lexer = new Lexer();
+        lexer.append("(DEFUN F (X)\n");
+        lexer.append("  (+ X 1))");
+        final TokenBuffer tokens = lexer.getTokenBuffer();
+
+        assertEquals("DEFUN", tokens.text(1));
+        assertEquals(1, tokens.line(1));
+        assertEquals(2, tokens.column(1));
+        assertEquals("+", tokens.text(7));
+        assertEquals(2, tokens.line(7));
+        assertEquals(4, tokens.column(7));
+        assertEquals(" at line 2, column 6", tokens.where(8));
+    }
+
+    @Test
+    public void testTooManyCloseParensReportsPosition() {
+        try {
+            tokenize("(+ 1 2)\n (* 2 3)))");
+            fail("Lexer should throw exception if too many closing parentheses");
+        } catch (final ParseException e) {
+            assertEquals("Mismatched parentheses at line 2, column 9", e.getMessage());
+        }
+    }
+
+    /**
+     * Integers that fit in a long are converted by the lexer; larger ones are kept as text.
+     */
+    @Test
+    public void testLargeIntegerTokens() {
+        final Lexer lexer = new Lexer();
+        lexer.append("(+ " + Long.MIN_VALUE + " " + Long.MAX_VALUE + " 9223372036854775808 -99999999999999999999)");
+        final TokenBuffer tokens = lexer.getTokenBuffer();
+
+        assertEquals(Arrays.asList(TokenKind.LPAREN, TokenKind.SYMBOL, TokenKind.NUMBER,
+                                   TokenKind.NUMBER, TokenKind.REAL, TokenKind.REAL, TokenKind.RPAREN),
+                     kinds(tokens));
+        assertEquals(Long.MIN_VALUE, tokens.longValue(2));
+        assertEquals(Long.MAX_VALUE, tokens.longValue(3));
+        assertEquals("9223372036854775808", tokens.text(4));
+        assertEquals("-99999999999999999999", tokens.text(5));
+        assertEquals(toList("99999999999", "42"),
+                     tokenize("99999999999 +0000000000000000000000042"));
+    }
+
     /**
      * Invokes the lexer on the given string and returns the resulting token list.
      *
@@ -218,6 +404,14 @@ public class LexerTestCase {
         return lexer.getTokens();
     }
 
+    private static List<TokenKind> kinds(final TokenBuffer tokens) {
+        final List<TokenKind> kinds = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            kinds.add(tokens.kind(i));
+        }
+        return kinds;
+    }
+
     private static List<String> toList(final String... tokens) {
         return Arrays.asList(tokens);
     }
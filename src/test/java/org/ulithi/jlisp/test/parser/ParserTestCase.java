@@ -5,6 +5,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.ulithi.jlisp.exception.ParseException;
 import org.ulithi.jlisp.mem.PTree;
+import org.ulithi.jlisp.parser.Lexer;
 import org.ulithi.jlisp.parser.Parser;
 
 import java.util.Arrays;
@@ -64,6 +65,34 @@ public class ParserTestCase {
         }
     }
 
+    @Test
+    public void testUnbalancedParenthesisReportsPosition() {
+        final Lexer lexer = new Lexer();
+        lexer.append("(CAR (CDR\n  (QUOTE (FOO BAR)))");
+
+        try {
+            parser.parse(lexer.getTokenBuffer());
+            fail("Parser should throw exception if unbalanced parentheses");
+        } catch (final ParseException e) {
+            // Expected.
+            assertEquals("Mismatched parentheses at line 1, column 1", e.getMessage());
+        }
+    }
+
+    /**
+     * Parsing the lexer's token stream directly produces the same parse tree as parsing the
+     * token strings.
+     */
+    @Test
+    public void parseTokenBuffer() {
+        final Lexer lexer = new Lexer();
+        lexer.append("(+ 2 (* 5 -9) 'A NIL)");
+        final String expected = "(+ . (2 . ((* . (5 . (-9 . NIL))) . ((QUOTE . (A . NIL)) . (NIL . NIL)))))";
+
+        assertEquals(expected, parser.parse(lexer.getTokenBuffer()).orElseThrow().toString());
+        parseAndValidate(parser, lexer.getTokens(), expected);
+    }
+
     /**
      * Parses a numeric literal.
      */
@@ -0,0 +1,86 @@
+package org.ulithi.jlisp.test.primitive;
+
+import org.junit.Test;
+import org.ulithi.jlisp.exception.EvaluationException;
+import org.ulithi.jlisp.exception.WrongArgumentCountException;
+
+import static org.junit.Assert.assertEquals;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.eval;
+
+/**
+ * Unit tests for {@link org.ulithi.jlisp.primitive.Bulk}.
+ */
+public class BulkTestCase {
+
+    @Test
+    public void testSum() {
+        assertEquals("15", eval("(SUM '(1 2 3 4 5))").toString());
+        assertEquals("0", eval("(SUM ())").toString());
+        assertEquals("-7", eval("(SUM (LIST 1 -8))").toString());
+    }
+
+    @Test
+    public void testSumOfFloats() {
+        assertEquals("4.0", eval("(SUM '(1 1.5 1.5))").toString());
+    }
+
+    @Test
+    public void testSumTakesGeneralPath() {
+        assertEquals("7/6", eval("(SUM '(1/2 1/3 1/3))").toString());
+        assertEquals("9223372036854775808",
+                     eval("(SUM (LIST (* 65536 65536 65536 16384) (* 65536 65536 65536 16384)))").toString());
+    }
+
+    @Test
+    public void testDot() {
+        assertEquals("32", eval("(DOT '(1 2 3) '(4 5 6))").toString());
+        assertEquals("3.5", eval("(DOT '(1 2) '(0.5 1.5))").toString());
+        assertEquals("1", eval("(DOT '(1/2 1/2) '(1 1))").toString());
+        assertEquals("0", eval("(DOT () ())").toString());
+    }
+
+    @Test
+    public void testVectorPlus() {
+        assertEquals(eval("'(111 222)").toString(), eval("(VPLUS '(1 2) '(10 20) '(100 200))").toString());
+        assertEquals(eval("'(1.5 2.0)").toString(), eval("(VPLUS '(1 1) '(0.5 1))").toString());
+        assertEquals(eval("'(3/4 1)").toString(), eval("(VPLUS '(1/4 1/2) '(1/2 1/2))").toString());
+        assertEquals(eval("'(1 2)").toString(), eval("(VPLUS '(1 2))").toString());
+    }
+
+    @Test
+    public void testBulkMatchesPerElementArithmetic() {
+        assertEquals(eval("(+ 10 -20 30 -40 50)").toString(), eval("(SUM '(10 -20 30 -40 50))").toString());
+        assertEquals(eval("(+ (* 3 7) (* 4 8))").toString(), eval("(DOT '(3 4) '(7 8))").toString());
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testDotOfDifferentLengthsThrows() {
+        eval("(DOT '(1 2 3) '(4 5))");
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testSumOfNonNumbersThrows() {
+        eval("(SUM '(1 A 3))");
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testSumOfAtomThrows() {
+        eval("(SUM 3)");
+    }
+
+    @Test(expected = WrongArgumentCountException.class)
+    public void testSumArgumentCount() {
+        eval("(SUM '(1 2) '(3 4))");
+    }
+
+    @Test
+    public void testBulkFunctionsOfVectors() {
+        assertEquals("6", eval("(SUM (VECTOR 1 2 3))").toString());
+        assertEquals("4.0", eval("(SUM (VECTOR 1.5 2.5))").toString());
+        assertEquals("32", eval("(DOT (VECTOR 1 2 3) (VECTOR 4 5 6))").toString());
+        assertEquals("32", eval("(DOT (VECTOR 1 2 3) '(4 5 6))").toString());
+        assertEquals("18446744056529682436",
+                     eval("(SUM (VECTOR (* 2147483647 2147483647 2) (* 2147483647 2147483647 2)))").toString());
+        assertEquals("( 11 22 )", eval("(VPLUS (VECTOR 1 2) '(10 20))").toString());
+    }
+}
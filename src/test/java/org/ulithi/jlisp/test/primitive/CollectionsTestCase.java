@@ -2,13 +2,21 @@ package org.ulithi.jlisp.test.primitive;
 
 import org.junit.Test;
 import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.HashTable;
+import org.ulithi.jlisp.core.List;
 import org.ulithi.jlisp.core.SExpression;
+import org.ulithi.jlisp.core.Vector;
 import org.ulithi.jlisp.exception.EvaluationException;
 import org.ulithi.jlisp.exception.WrongArgumentCountException;
+import org.ulithi.jlisp.test.suite.UnitTestUtilities.Session;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.ulithi.jlisp.test.suite.UnitTestUtilities.eval;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.newSession;
 
 public class CollectionsTestCase {
 
@@ -108,6 +116,26 @@ public class CollectionsTestCase {
         assertEquals("( ( A ) ( B ) ( C ) ( D ) )", sexp.toString());
     }
 
+    @Test
+    public void testAppendSharesLastList() {
+        final Session session = newSession();
+        final List first = session.eval("(SETQ A '(1 2))").toList();
+        final List last = session.eval("(SETQ B '(3 4))").toList();
+        final SExpression sexp = session.eval("(APPEND A '() B)");
+
+        assertEquals("( 1 2 3 4 )", sexp.toString());
+        assertSame(last.getRoot(), sexp.toList().getRoot().getRest().toCell().getRest());
+        assertNotSame(first.getRoot(), sexp.toList().getRoot());
+        assertEquals("( 1 2 )", session.eval("A").toString());
+    }
+
+    @Test
+    public void testAppendSingleListIsShared() {
+        final Session session = newSession();
+        final List list = session.eval("(SETQ A '(1 2))").toList();
+        assertSame(list.getRoot(), session.eval("(APPEND '() A)").toList().getRoot());
+    }
+
     @Test
     public void testAssocMatchesKey() {
         final SExpression sexp = eval("(ASSOC 'oak '((pine cones) (oak acorns) (maple seeds)))");
@@ -149,4 +177,127 @@ public class CollectionsTestCase {
         SExpression sexp = eval("(ASSOC 'x '((a 1) (b 2) (x (3 4 5))))");
         assertEquals("( x ( 3 4 5 ) )", sexp.toString());
     }
+
+    @Test
+    public void testMakeHashTable() {
+        final SExpression table = eval("(MAKE-HASH-TABLE)");
+        assertTrue(table instanceof HashTable);
+        assertEquals(HashTable.Test.EQL, ((HashTable) table).test());
+        assertEquals(HashTable.Test.EQUAL, ((HashTable) eval("(MAKE-HASH-TABLE 'EQUAL)")).test());
+        assertEquals("#<HASH-TABLE EQL>", table.toString());
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testMakeHashTableWithUnknownTest() {
+        eval("(MAKE-HASH-TABLE 'EQ)");
+    }
+
+    @Test
+    public void testPutGetAndRemHash() {
+        final Session session = newSession();
+        session.eval("(SETQ H (MAKE-HASH-TABLE))");
+
+        assertEquals(3, session.eval("(PUTHASH 'APPLE 3 H)").toAtom().toI());
+        session.eval("(PUTHASH 7 'SEVEN H)");
+        session.eval("(PUTHASH 'APPLE 4 H)");
+
+        assertEquals(4, session.eval("(GETHASH 'APPLE H)").toAtom().toI());
+        assertEquals("SEVEN", session.eval("(GETHASH 7 H)").toString());
+        assertEquals(Atom.NIL, session.eval("(GETHASH 'PEAR H)"));
+        assertEquals(0, session.eval("(GETHASH 'PEAR H 0)").toAtom().toI());
+        assertEquals(2, ((HashTable) session.eval("H")).count());
+
+        assertTrue(session.eval("(REMHASH 'APPLE H)").toAtom().toB());
+        assertFalse(session.eval("(REMHASH 'APPLE H)").toAtom().toB());
+        assertEquals(Atom.NIL, session.eval("(GETHASH 'APPLE H)"));
+    }
+
+    @Test
+    public void testEqlHashTableKeys() {
+        final Session session = newSession();
+        session.eval("(SETQ H (MAKE-HASH-TABLE))");
+        session.eval("(PUTHASH 1 'INTEGER H)");
+        session.eval("(PUTHASH '(1 2) 'LIST H)");
+
+        assertEquals("INTEGER", session.eval("(GETHASH 1 H)").toString());
+        assertEquals(Atom.NIL, session.eval("(GETHASH 1.0 H)"));
+        assertEquals(Atom.NIL, session.eval("(GETHASH '(1 2) H)"));
+    }
+
+    @Test
+    public void testEqualHashTableKeys() {
+        final Session session = newSession();
+        session.eval("(SETQ H (MAKE-HASH-TABLE 'EQUAL))");
+        session.eval("(PUTHASH '(1 (2 3)) 'NESTED H)");
+
+        assertEquals("NESTED", session.eval("(GETHASH '(1 (2 3)) H)").toString());
+        assertEquals(Atom.NIL, session.eval("(GETHASH '(1 2 3) H)"));
+        assertTrue(session.eval("(REMHASH (LIST 1 '(2 3)) H)").toAtom().toB());
+    }
+
+    @Test
+    public void testMapHash() {
+        final Session session = newSession();
+        session.eval("(SETQ H (MAKE-HASH-TABLE))");
+        session.eval("(PUTHASH 'A 1 H)");
+        session.eval("(PUTHASH 'B 2 H)");
+        session.eval("(PUTHASH 'C 3 H)");
+        session.eval("(SETQ TOTAL 0)");
+        session.eval("(DEFUN ADD-ENTRY (K V) (SETQ TOTAL (+ TOTAL V)))");
+
+        assertEquals(Atom.NIL, session.eval("(MAPHASH 'ADD-ENTRY H)"));
+        assertEquals(6, session.eval("TOTAL").toAtom().toI());
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testGetHashOfNonTable() {
+        eval("(GETHASH 'A '(A 1))");
+    }
+
+    @Test(expected = WrongArgumentCountException.class)
+    public void testPutHashArgumentCount() {
+        eval("(PUTHASH 'A (MAKE-HASH-TABLE))");
+    }
+
+    @Test
+    public void testMakeArray() {
+        assertEquals("#( 0 0 0 )", eval("(MAKE-ARRAY 3 0)").toString());
+        assertEquals("#( NIL NIL )", eval("(MAKE-ARRAY 2)").toString());
+        assertEquals(0, ((Vector) eval("(MAKE-ARRAY 0)")).length());
+    }
+
+    @Test
+    public void testVector() {
+        final SExpression vector = eval("(VECTOR 1 'B '(3 4))");
+        assertEquals("#( 1 B ( 3 4 ) )", vector.toString());
+        assertEquals(3, eval("(LENGTH (VECTOR 1 2 3))").toAtom().toI());
+    }
+
+    @Test
+    public void testArefAndAset() {
+        final Session session = newSession();
+        session.eval("(SETQ V (MAKE-ARRAY 3 0))");
+
+        assertEquals(5, session.eval("(ASET V 1 5)").toAtom().toI());
+        assertEquals(5, session.eval("(AREF V 1)").toAtom().toI());
+        assertEquals(0, session.eval("(AREF V 2)").toAtom().toI());
+
+        session.eval("(ASET V 2 'X)");
+        assertEquals("#( 0 5 X )", session.eval("V").toString());
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testArefOutOfBounds() {
+        eval("(AREF (VECTOR 1 2) 2)");
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testArefOfList() {
+        eval("(AREF '(1 2) 0)");
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testArefIndexMustBeInteger() {
+        eval("(AREF (VECTOR 1 2) 1.0)");
+    }
 }
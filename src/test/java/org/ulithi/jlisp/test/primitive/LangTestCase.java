@@ -1,6 +1,7 @@
 package org.ulithi.jlisp.test.primitive;
 
 import org.junit.Test;
+import org.ulithi.jlisp.core.List;
 import org.ulithi.jlisp.core.SExpression;
 import org.ulithi.jlisp.exception.EvaluationException;
 import org.ulithi.jlisp.exception.WrongArgumentCountException;
@@ -8,6 +9,7 @@ import org.ulithi.jlisp.test.suite.UnitTestUtilities;
 import org.ulithi.jlisp.test.suite.UnitTestUtilities.Session;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.ulithi.jlisp.test.suite.UnitTestUtilities.eval;
@@ -90,8 +92,17 @@ public class LangTestCase {
     @Test
     public void testConsEmptyListToEmptyList() {
         final SExpression sexp = eval("(CONS () ())");
-        assertTrue(sexp.isList());
-        assertTrue(sexp.toList().isEmpty());
+        assertEquals("( NIL )", String.valueOf(sexp));
+        assertEquals(1, sexp.toList().length().toAtom().toI());
+    }
+
+    @Test
+    public void testConsEmptyListToList() {
+        final SExpression sexp = eval("(CONS () (QUOTE (A)))");
+        assertEquals("( NIL A )", String.valueOf(sexp));
+        assertEquals(2, sexp.toList().length().toAtom().toI());
+        assertTrue(eval("(NULL (CAR (CONS () (QUOTE (A)))))").toAtom().toB());
+        assertEquals("( A )", String.valueOf(eval("(CDR (CONS () (QUOTE (A))))")));
     }
 
     @Test
@@ -186,6 +197,21 @@ public class LangTestCase {
         assertEquals(3, sexp.toList().length().toAtom().toI());
     }
 
+    @Test
+    public void testConsSharesTail() {
+        final Session session = newSession();
+        final List tail = session.eval("(SETQ L '(2 3))").toList();
+        final SExpression sexp = session.eval("(CONS 1 L)");
+        assertEquals("( 1 2 3 )", String.valueOf(sexp));
+        assertSame(tail.getRoot(), sexp.toList().getRoot().getRest());
+    }
+
+    @Test
+    public void testConsAtomToAtom() {
+        final SExpression sexp = eval("(CONS 1 2)");
+        assertEquals("( 1 2 )", String.valueOf(sexp));
+    }
+
     @Test
     public void evaluateCarExpression() {
         final SExpression sexp = eval("( CAR () )");
@@ -249,6 +275,39 @@ public class LangTestCase {
         assertEquals(11, avg.toAtom().toI());
     }
 
+    /**
+     * Verifies that a user function's parameters are visible to the functions it calls, as
+     * dynamically-scoped bindings, and that a parameter shadows a global variable of the same name.
+     */
+    @Test
+    public void testDefunParameterScope() {
+        final Session session = newSession();
+        session.eval("(SETQ z 100)");
+        session.eval("(defun addz (x) (PLUS x z))");
+        session.eval("(defun callz (z) (addz 1))");
+        assertEquals(101, session.eval("(addz 1)").toAtom().toI());
+        assertEquals(6, session.eval("(callz 5)").toAtom().toI());
+        assertEquals(100, session.eval("z").toAtom().toI());
+    }
+
+    /**
+     * Verifies that quoted references to a parameter name are not replaced by the parameter value.
+     */
+    @Test
+    public void testDefunQuotedParameterName() {
+        final Session session = newSession();
+        session.eval("(defun pair (x) (CONS x (QUOTE (x))))");
+        assertEquals("( 1 x )", session.eval("(pair 1)").toList().toString());
+    }
+
+    /**
+     * Verifies that a user function parameter can't shadow a core language binding.
+     */
+    @Test(expected = EvaluationException.class)
+    public void testDefunParameterNamedForCoreFunctionThrows() {
+        newSession().eval("(defun bad (car) (PLUS car 1))");
+    }
+
     /**
      * Creates a user function that takes two arguments, invokes it with one and three arguments,
      * and verifies that both cause an EvaluationException to be thrown.
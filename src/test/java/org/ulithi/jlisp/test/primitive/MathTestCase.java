@@ -1,12 +1,16 @@
 package org.ulithi.jlisp.test.primitive;
 
 import org.junit.Test;
+import org.ulithi.jlisp.core.Atom;
+import org.ulithi.jlisp.core.FixnumAtom;
 import org.ulithi.jlisp.exception.EvaluationException;
+import org.ulithi.jlisp.test.suite.UnitTestUtilities.Session;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.ulithi.jlisp.test.suite.UnitTestUtilities.eval;
+import static org.ulithi.jlisp.test.suite.UnitTestUtilities.newSession;
 
 /**
  * Unit tests for {@link org.ulithi.jlisp.primitive.Math}.
@@ -208,4 +212,152 @@ public class MathTestCase {
         final int result = eval("(REMAINDER 8 77)").toAtom().toI();
         assertEquals(8, result);
     }
+
+    @Test
+    public void testProductBeyondIntegerRange() {
+        final long result = eval("(TIMES 100000 100000)").toAtom().toL();
+        assertEquals(10000000000L, result);
+    }
+
+    @Test
+    public void testComparisonOfExtremeValues() {
+        assertTrue(eval("(< -2147483648)").toAtom().toB());
+        assertTrue(eval("(> 2147483647)").toAtom().toB());
+        assertTrue(eval("(< (- 0 2147483647 1) 0)").toAtom().toB());
+    }
+
+    @Test
+    public void testSumOverflowPromotesToBignum() {
+        final String result = eval("(+ (* 65536 65536 65536 16384) (* 65536 65536 65536 16384))").toString();
+        assertEquals("9223372036854775808", result);
+    }
+
+    @Test
+    public void testProductOverflowPromotesToBignum() {
+        final Atom result = eval("(* 65536 65536 65536 65536 65536 65536)").toAtom();
+        assertFalse(result instanceof FixnumAtom);
+        assertEquals("79228162514264337593543950336", result.toString());
+    }
+
+    @Test
+    public void testBignumResultThatFitsIsDemoted() {
+        final Atom result = eval("(- (* 65536 65536 65536 65536) (* 65536 65536 65536 65535))").toAtom();
+        assertTrue(result instanceof FixnumAtom);
+        assertEquals(281474976710656L, result.toL());
+        assertTrue(eval("(ZEROP (- (* 65536 65536 65536 65536) (* 65536 65536 65536 65536)))").toAtom().toB());
+    }
+
+    @Test
+    public void testNegationOfLongMinValue() {
+        final Atom min = eval("(- 0 (* 65536 65536 65536 32768))").toAtom();
+        assertTrue(min instanceof FixnumAtom);
+        assertEquals(Long.MIN_VALUE, min.toL());
+        assertEquals("9223372036854775808", eval("(- (- 0 (* 65536 65536 65536 32768)))").toString());
+    }
+
+    @Test
+    public void testQuotientOfLongMinValueByMinusOne() {
+        final String result = eval("(/ (- 0 (* 65536 65536 65536 32768)) -1)").toString();
+        assertEquals("9223372036854775808", result);
+    }
+
+    @Test
+    public void testBignumComparisonsAndPredicates() {
+        assertTrue(eval("(< 1 (* 65536 65536 65536 65536) (* 65536 65536 65536 65537))").toAtom().toB());
+        assertFalse(eval("(> 1 (* 65536 65536 65536 65536))").toAtom().toB());
+        assertTrue(eval("(PLUSP (* 65536 65536 65536 65536))").toAtom().toB());
+        assertTrue(eval("(MINUSP (* -65536 65536 65536 65536))").toAtom().toB());
+    }
+
+    @Test
+    public void testLongLiterals() {
+        assertEquals("9223372037", eval("(PLUS 9223372036 1)").toString());
+        assertEquals("9223372037000250000", eval("(TIMES 3037000500 3037000500)").toString());
+        assertEquals("9223372036854775808", eval("(* 4611686018427387904 2)").toString());
+        assertEquals(Long.MIN_VALUE, eval("(- -9223372036854775807 1)").toAtom().toL());
+        assertEquals("9223372036854775808", eval("(- 0 -9223372036854775808)").toString());
+    }
+
+    @Test
+    public void testBignumLiterals() {
+        final Atom big = eval("(+ 9223372036854775808 0)").toAtom();
+        assertFalse(big instanceof FixnumAtom);
+        assertEquals("9223372036854775808", big.toString());
+        assertEquals("-199999999999999999998", eval("(* -99999999999999999999 2)").toString());
+        assertTrue(eval("(< 99999999999999999999 100000000000000000000)").toAtom().toB());
+        assertEquals("1", eval("(- 100000000000000000000 99999999999999999999)").toString());
+    }
+
+    @Test
+    public void testPrintedBignumReadsBack() {
+        final Session session = newSession();
+        session.eval("(DEFUN FACT (N) (IF (ZEROP N) 1 (* N (FACT (- N 1)))))");
+        final String printed = session.eval("(FACT 30)").toString();
+        assertTrue(session.eval("(= (FACT 30) " + printed + ")").toAtom().toB());
+    }
+
+    @Test
+    public void testFactorial() {
+        final Session session = newSession();
+        session.eval("(DEFUN FACT (N) (IF (ZEROP N) 1 (* N (FACT (- N 1)))))");
+        assertEquals("2432902008176640000", session.eval("(FACT 20)").toString());
+        assertEquals("51090942171709440000", session.eval("(FACT 21)").toString());
+        assertEquals("30414093201713378043612608166064768844377641568960512000000000000",
+                     session.eval("(FACT 50)").toString());
+        assertEquals("50", session.eval("(/ (FACT 50) (FACT 49))").toString());
+    }
+
+    @Test
+    public void testFloatArithmetic() {
+        assertEquals("4.0", eval("(+ 1.5 2.5)").toString());
+        assertEquals("3.5", eval("(/ 7 2.0)").toString());
+        assertEquals("-0.5", eval("(- 0.5)").toString());
+        assertEquals("1.5", eval("(REMAINDER 7.5 2)").toString());
+        assertEquals(0.0375, eval("(* 2.5 1.5E-2)").toAtom().toD(), 1e-15);
+    }
+
+    @Test
+    public void testRatioArithmetic() {
+        assertEquals("5/6", eval("(+ 1/2 1/3)").toString());
+        assertEquals("1/2", eval("(/ 3/2 3)").toString());
+        assertEquals("-1/4", eval("(- 1/4)").toString());
+        assertEquals("1/6", eval("(REMAINDER 7/6 1/2)").toString());
+
+        final Atom whole = eval("(* 2/3 3/2)").toAtom();
+        assertTrue(whole instanceof FixnumAtom);
+        assertEquals(1L, whole.toL());
+    }
+
+    @Test
+    public void testMixedArithmeticIsContagious() {
+        assertEquals("7/2", eval("(+ 3 1/2)").toString());
+        assertEquals("3.5", eval("(+ 3 1/2 0.0)").toString());
+        assertEquals("3", eval("(/ 7 2)").toString());
+        assertEquals(4294967296.5, eval("(+ (* 65536 65536) 0.5)").toAtom().toD(), 0.0);
+    }
+
+    @Test
+    public void testMixedComparisons() {
+        assertTrue(eval("(< 1/3 0.34 1/2 1 1.5)").toAtom().toB());
+        assertFalse(eval("(< 1/2 0.5)").toAtom().toB());
+        assertTrue(eval("(> 2 3/2 1.25)").toAtom().toB());
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testFloatDivideByZero() {
+        eval("(/ 1.5 0)");
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testRatioDivideByZero() {
+        eval("(/ 1/2 0)");
+    }
+
+    @Test
+    public void testPricing() {
+        final Session session = newSession();
+        session.eval("(DEFUN PRICE (QTY UNIT) (* QTY UNIT 1.08))");
+        assertEquals(32.4, session.eval("(PRICE 3 10)").toAtom().toD(), 1e-9);
+        assertEquals("9/4", session.eval("(* 3/4 3)").toString());
+    }
 }
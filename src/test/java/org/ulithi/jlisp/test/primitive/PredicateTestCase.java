@@ -38,6 +38,23 @@ public class PredicateTestCase {
         assertEquals(Atom.T, sexp);
     }
 
+    @Test
+    public void testNumericTypePredicates() {
+        assertEquals(Atom.T, eval("(INTEGERP (* 65536 65536 65536 65536))"));
+        assertEquals(Atom.F, eval("(INTEGERP 2.5)"));
+        assertEquals(Atom.F, eval("(INTEGERP 1/2)"));
+        assertEquals(Atom.T, eval("(RATIONALP 1/2)"));
+        assertEquals(Atom.T, eval("(RATIONALP 3)"));
+        assertEquals(Atom.F, eval("(RATIONALP 2.5)"));
+        assertEquals(Atom.T, eval("(FLOATP 2.5)"));
+        assertEquals(Atom.F, eval("(FLOATP 3)"));
+        assertEquals(Atom.T, eval("(NUMBERP 1/2)"));
+        assertEquals(Atom.F, eval("(NUMBERP (QUOTE HELLO))"));
+        assertEquals(Atom.T, eval("(MINUSP -0.5)"));
+        assertEquals(Atom.T, eval("(PLUSP 1/1000)"));
+        assertEquals(Atom.T, eval("(ZEROP 0.0)"));
+    }
+
     @Test
     public void testStringLiteralIsNotInteger() {
         final SExpression sexp = eval("(INTEGERP (QUOTE HELLO))");
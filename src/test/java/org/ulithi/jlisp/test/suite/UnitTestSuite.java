@@ -5,17 +5,25 @@ import org.junit.runner.Result;
 import org.junit.runner.RunWith;
 import org.junit.runner.notification.Failure;
 import org.junit.runners.Suite;
+import org.ulithi.jlisp.test.compiler.BytecodeCompilerTestCase;
+import org.ulithi.jlisp.test.compiler.CompilerTestCase;
 import org.ulithi.jlisp.test.core.EnvironmentTestCase;
 import org.ulithi.jlisp.test.core.ListTestCase;
 import org.ulithi.jlisp.test.core.SExpressionTestCase;
+import org.ulithi.jlisp.test.core.SymbolTableTestCase;
+import org.ulithi.jlisp.test.core.VectorTestCase;
 import org.ulithi.jlisp.test.core.AtomTestCase;
 import org.ulithi.jlisp.test.main.InterpreterTestCase;
+import org.ulithi.jlisp.test.mem.ArenaTestCase;
 import org.ulithi.jlisp.test.mem.CellTestCase;
+import org.ulithi.jlisp.test.mem.CursorTestCase;
 import org.ulithi.jlisp.test.mem.NilReferenceTestCase;
 import org.ulithi.jlisp.test.mem.PTreeTestCase;
+import org.ulithi.jlisp.test.parser.FormReaderTestCase;
 import org.ulithi.jlisp.test.parser.GrammarTestCase;
 import org.ulithi.jlisp.test.parser.LexerTestCase;
 import org.ulithi.jlisp.test.parser.ParserTestCase;
+import org.ulithi.jlisp.test.primitive.BulkTestCase;
 import org.ulithi.jlisp.test.primitive.CollectionsTestCase;
 import org.ulithi.jlisp.test.primitive.UtilTestCase;
 import org.ulithi.jlisp.test.primitive.LangTestCase;
@@ -30,10 +38,16 @@ import org.ulithi.jlisp.test.utils.StringUtilsTestCase;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+        ArenaTestCase.class,
         AtomTestCase.class,
+        BulkTestCase.class,
+        BytecodeCompilerTestCase.class,
         CellTestCase.class,
         CollectionsTestCase.class,
+        CompilerTestCase.class,
+        CursorTestCase.class,
         EnvironmentTestCase.class,
+        FormReaderTestCase.class,
         GrammarTestCase.class,
         InterpreterTestCase.class,
         LangTestCase.class,
@@ -48,7 +62,9 @@ import org.ulithi.jlisp.test.utils.StringUtilsTestCase;
         SExpressionTestCase.class,
         ReferenceTestCase.class,
         StringUtilsTestCase.class,
+        SymbolTableTestCase.class,
         UtilTestCase.class,
+        VectorTestCase.class,
 })
 
 public class UnitTestSuite {